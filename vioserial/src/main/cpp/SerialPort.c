@@ -19,11 +19,14 @@
 #include <sys/types.h>
 #include <sys/stat.h>
 #include <sys/select.h>
+#include <sys/ioctl.h>
+#include <poll.h>
 #include <fcntl.h>
 #include <string.h>
 #include <errno.h>
 #include <stdio.h>
 #include <jni.h>
+#include <linux/serial.h>
 
 #include "SerialPort.h"
 
@@ -79,6 +82,101 @@ static speed_t getBaudrate(jint baudrate)
 	}
 }
 
+/*
+ * Raw mode plus the given line settings, shared by open() and reconfigure0().
+ */
+static void applyLineSettings(struct termios *cfg, speed_t speed, jint stopBits, jint dataBits,
+		jint parity, jint flowCon, jint readTimeoutMs)
+{
+	cfmakeraw(cfg);
+	cfsetispeed(cfg, speed);
+	cfsetospeed(cfg, speed);
+
+	cfg->c_cflag &= ~CSIZE;
+	switch (dataBits) {
+		case 5:
+			cfg->c_cflag |= CS5;    //使用5位数据位
+			break;
+		case 6:
+			cfg->c_cflag |= CS6;    //使用6位数据位
+			break;
+		case 7:
+			cfg->c_cflag |= CS7;    //使用7位数据位
+			break;
+		case 8:
+			cfg->c_cflag |= CS8;    //使用8位数据位
+			break;
+		default:
+			cfg->c_cflag |= CS8;
+			break;
+	}
+
+	switch (parity) {
+		case 0:
+			cfg->c_cflag &= ~PARENB;    //无奇偶校验
+			break;
+		case 1:
+			cfg->c_cflag |= (PARODD | PARENB);   //奇校验
+			break;
+		case 2:
+			cfg->c_iflag &= ~(IGNPAR | PARMRK); // 偶校验
+			cfg->c_iflag |= INPCK;
+			cfg->c_cflag |= PARENB;
+			cfg->c_cflag &= ~PARODD;
+			break;
+		default:
+			cfg->c_cflag &= ~PARENB;
+			break;
+	}
+
+	switch (stopBits) {
+		case 1:
+			cfg->c_cflag &= ~CSTOPB;    //1位停止位
+			break;
+		case 2:
+			cfg->c_cflag |= CSTOPB;    //2位停止位
+			break;
+		default:
+			break;
+	}
+
+	// hardware flow control
+	switch (flowCon) {
+		case 0:
+			cfg->c_cflag &= ~CRTSCTS;    //不使用流控
+			break;
+		case 1:
+			cfg->c_cflag |= CRTSCTS;    //硬件流控
+			break;
+		case 2:
+			cfg->c_cflag |= IXON | IXOFF | IXANY;    //软件流控
+			break;
+		default:
+			cfg->c_cflag &= ~CRTSCTS;
+			break;
+	}
+
+	// Configure read timeout: VMIN and VTIME
+	// VMIN = 0: non-blocking mode, return immediately if no data
+	// VTIME = readTimeoutMs / 100 (in deciseconds, 0.1s units)
+	// If readTimeoutMs <= 0, use blocking mode (VMIN > 0, VTIME = 0)
+	if (readTimeoutMs > 0) {
+		// Non-blocking with timeout: VMIN=0, VTIME in deciseconds
+		cfg->c_cc[VMIN] = 0;
+		// Convert milliseconds to deciseconds (0.1s units), min 1 decisecond
+		int vtime = (readTimeoutMs + 99) / 100;  // Round up
+		if (vtime < 1) vtime = 1;
+		if (vtime > 255) vtime = 255;  // VTIME is uint8_t
+		cfg->c_cc[VTIME] = (unsigned char)vtime;
+		LOGD("Configured read timeout: %d ms (VTIME=%d)", readTimeoutMs, vtime);
+	} else {
+		// Blocking mode: VMIN > 0, VTIME = 0 (wait for at least 1 byte)
+		cfg->c_cc[VMIN] = 1;
+		cfg->c_cc[VTIME] = 0;
+		LOGD("Configured blocking read mode (no timeout)");
+	}
+}
+
 /*
  * Class:     com_temon_serial_internal_serialport_SerialPort
  * Method:    open
@@ -137,93 +235,7 @@ JNIEXPORT jobject JNICALL Java_com_temon_serial_internal_serialport_SerialPort_o
 			return NULL;
 		}
 
-		cfmakeraw(&cfg);
-		cfsetispeed(&cfg, speed);
-		cfsetospeed(&cfg, speed);
-
-		cfg.c_cflag &= ~CSIZE;
-		switch (dataBits) {
-			case 5:
-				cfg.c_cflag |= CS5;    //使用5位数据位
-				break;
-			case 6:
-				cfg.c_cflag |= CS6;    //使用6位数据位
-				break;
-			case 7:
-				cfg.c_cflag |= CS7;    //使用7位数据位
-				break;
-			case 8:
-				cfg.c_cflag |= CS8;    //使用8位数据位
-				break;
-			default:
-				cfg.c_cflag |= CS8;
-				break;
-		}
-
-		switch (parity) {
-			case 0:
-				cfg.c_cflag &= ~PARENB;    //无奇偶校验
-				break;
-			case 1:
-				cfg.c_cflag |= (PARODD | PARENB);   //奇校验
-				break;
-			case 2:
-				cfg.c_iflag &= ~(IGNPAR | PARMRK); // 偶校验
-				cfg.c_iflag |= INPCK;
-				cfg.c_cflag |= PARENB;
-				cfg.c_cflag &= ~PARODD;
-				break;
-			default:
-				cfg.c_cflag &= ~PARENB;
-				break;
-		}
-
-		switch (stopBits) {
-			case 1:
-				cfg.c_cflag &= ~CSTOPB;    //1位停止位
-				break;
-			case 2:
-				cfg.c_cflag |= CSTOPB;    //2位停止位
-				break;
-			default:
-				break;
-		}
-
-		// hardware flow control
-		switch (flowCon) {
-			case 0:
-				cfg.c_cflag &= ~CRTSCTS;    //不使用流控
-				break;
-			case 1:
-				cfg.c_cflag |= CRTSCTS;    //硬件流控
-				break;
-			case 2:
-				cfg.c_cflag |= IXON | IXOFF | IXANY;    //软件流控
-				break;
-			default:
-				cfg.c_cflag &= ~CRTSCTS;
-				break;
-		}
-
-		// Configure read timeout: VMIN and VTIME
-		// VMIN = 0: non-blocking mode, return immediately if no data
-		// VTIME = readTimeoutMs / 100 (in deciseconds, 0.1s units)
-		// If readTimeoutMs <= 0, use blocking mode (VMIN > 0, VTIME = 0)
-		if (readTimeoutMs > 0) {
-			// Non-blocking with timeout: VMIN=0, VTIME in deciseconds
-			cfg.c_cc[VMIN] = 0;
-			// Convert milliseconds to deciseconds (0.1s units), min 1 decisecond
-			int vtime = (readTimeoutMs + 99) / 100;  // Round up
-			if (vtime < 1) vtime = 1;
-			if (vtime > 255) vtime = 255;  // VTIME is uint8_t
-			cfg.c_cc[VTIME] = (unsigned char)vtime;
-			LOGD("Configured read timeout: %d ms (VTIME=%d)", readTimeoutMs, vtime);
-		} else {
-			// Blocking mode: VMIN > 0, VTIME = 0 (wait for at least 1 byte)
-			cfg.c_cc[VMIN] = 1;
-			cfg.c_cc[VTIME] = 0;
-			LOGD("Configured blocking read mode (no timeout)");
-		}
+		applyLineSettings(&cfg, speed, stopBits, dataBits, parity, flowCon, readTimeoutMs);
 
 		if (tcsetattr(fd, TCSANOW, &cfg)) {
 			LOGE("tcsetattr() failed");
@@ -251,10 +263,13 @@ JNIEXPORT jobject JNICALL Java_com_temon_serial_internal_serialport_SerialPort_o
 
 /*
  * Class:     com_temon_serial_internal_serialport_SerialPort
- * Method:    close
+ * Method:    close0
  * Signature: ()V
+ *
+ * Closes the port and marks mFd invalid, so a read loop re-checking it never touches the fd
+ * number again (it may already belong to another port).
  */
-JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_close
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_close0
 		(JNIEnv *env, jobject thiz) {
 	jclass SerialPortClass = (*env)->GetObjectClass(env, thiz);
 	jclass FileDescriptorClass = (*env)->FindClass(env, "java/io/FileDescriptor");
@@ -263,12 +278,69 @@ JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_clos
 	jfieldID descriptorID = (*env)->GetFieldID(env, FileDescriptorClass, "descriptor", "I");
 
 	jobject mFd = (*env)->GetObjectField(env, thiz, mFdID);
+	if (mFd == NULL) {
+		return;
+	}
 	jint descriptor = (*env)->GetIntField(env, mFd, descriptorID);
+	if (descriptor < 0) {
+		return;
+	}
+	(*env)->SetIntField(env, mFd, descriptorID, -1);
 
 	LOGD("close(fd = %d)", descriptor);
 	close(descriptor);
 }
 
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    openWakePipe0
+ * Signature: ([I)Z
+ *
+ * Non-blocking pipe for cancelRead(): fds[0] is polled by readFrame0, fds[1] is written to.
+ */
+JNIEXPORT jboolean JNICALL Java_com_temon_serial_internal_serialport_SerialPort_openWakePipe0
+		(JNIEnv *env, jclass clazz, jintArray fds) {
+	int p[2];
+	jint values[2];
+
+	if (pipe(p) < 0) {
+		LOGE("pipe() failed: %s", strerror(errno));
+		return JNI_FALSE;
+	}
+	fcntl(p[0], F_SETFL, fcntl(p[0], F_GETFL) | O_NONBLOCK);
+	fcntl(p[1], F_SETFL, fcntl(p[1], F_GETFL) | O_NONBLOCK);
+	fcntl(p[0], F_SETFD, FD_CLOEXEC);
+	fcntl(p[1], F_SETFD, FD_CLOEXEC);
+	values[0] = p[0];
+	values[1] = p[1];
+	(*env)->SetIntArrayRegion(env, fds, 0, 2, values);
+	return JNI_TRUE;
+}
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    signalWakePipe0
+ * Signature: (I)V
+ */
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_signalWakePipe0
+		(JNIEnv *env, jclass clazz, jint writeFd) {
+	char b = 1;
+	/* Full pipe (EAGAIN): it is readable already, which is all the reader needs */
+	while (write(writeFd, &b, 1) < 0 && errno == EINTR) {
+	}
+}
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    closeWakePipe0
+ * Signature: (II)V
+ */
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_closeWakePipe0
+		(JNIEnv *env, jclass clazz, jint readFd, jint writeFd) {
+	if (readFd >= 0) close(readFd);
+	if (writeFd >= 0) close(writeFd);
+}
+
 /*
  * Class:     com_temon_serial_internal_serialport_SerialPort
  * Method:    isDeviceOnline
@@ -323,4 +395,324 @@ JNIEXPORT jboolean JNICALL Java_com_temon_serial_internal_serialport_SerialPort_
 	}
 
 	return JNI_TRUE;
-}
\ No newline at end of file
+}
+
+#define WAIT_READABLE 1
+#define WAIT_WOKEN 2
+
+/* Longest single wait when there is no wake pipe, so a close is noticed within this time */
+#define WAIT_SLICE_US 50000L
+
+/*
+ * Wait until fd or wakeFd (ignored if < 0) is readable, or timeoutUs elapses (timeoutUs < 0
+ * waits forever). Returns WAIT_READABLE, WAIT_WOKEN (wakeFd readable), 0 on timeout, or -1 on
+ * error (errno set).
+ */
+static int waitReadable(int fd, int wakeFd, long timeoutUs)
+{
+	int maxFd = fd > wakeFd ? fd : wakeFd;
+	int r;
+	if (maxFd < FD_SETSIZE) {
+		fd_set readfds;
+		struct timeval tv;
+		FD_ZERO(&readfds);
+		FD_SET(fd, &readfds);
+		if (wakeFd >= 0) {
+			FD_SET(wakeFd, &readfds);
+		}
+		if (timeoutUs >= 0) {
+			tv.tv_sec = timeoutUs / 1000000L;
+			tv.tv_usec = timeoutUs % 1000000L;
+		}
+		r = select(maxFd + 1, &readfds, NULL, NULL, timeoutUs < 0 ? NULL : &tv);
+		if (r <= 0) {
+			return r;
+		}
+		return wakeFd >= 0 && FD_ISSET(wakeFd, &readfds) ? WAIT_WOKEN : WAIT_READABLE;
+	} else {
+		/* select() cannot take these fds; poll() only has millisecond resolution. */
+		struct pollfd pfd[2];
+		pfd[0].fd = fd;
+		pfd[0].events = POLLIN;
+		pfd[0].revents = 0;
+		pfd[1].fd = wakeFd;  /* poll() skips negative fds */
+		pfd[1].events = POLLIN;
+		pfd[1].revents = 0;
+		r = poll(pfd, 2, timeoutUs < 0 ? -1 : (int) ((timeoutUs + 999) / 1000));
+		if (r <= 0) {
+			return r;
+		}
+		if (pfd[1].revents != 0) {
+			return WAIT_WOKEN;
+		}
+		if (pfd[0].revents & POLLNVAL) {
+			errno = EBADF;
+			return -1;
+		}
+		return WAIT_READABLE;
+	}
+}
+
+/*
+ * Current descriptor of mFd, or -1 once the port has been closed (close0() and libcore's
+ * FileInputStream.close() both mark it invalid).
+ */
+static jint currentDescriptor(JNIEnv *env, jobject thiz)
+{
+	static jfieldID mFdID = NULL;
+	static jfieldID descriptorID = NULL;
+
+	if (mFdID == NULL || descriptorID == NULL) {
+		jclass SerialPortClass = (*env)->GetObjectClass(env, thiz);
+		jclass FileDescriptorClass = (*env)->FindClass(env, "java/io/FileDescriptor");
+		mFdID = (*env)->GetFieldID(env, SerialPortClass, "mFd", "Ljava/io/FileDescriptor;");
+		descriptorID = (*env)->GetFieldID(env, FileDescriptorClass, "descriptor", "I");
+	}
+	jobject mFd = (*env)->GetObjectField(env, thiz, mFdID);
+	return mFd != NULL ? (*env)->GetIntField(env, mFd, descriptorID) : -1;
+}
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    readFrame0
+ * Signature: ([BIIIII)I
+ *
+ * Idle-gap framing in the read loop: wait up to timeoutMs for the first byte, then keep reading
+ * until the line has been silent for gapMicros. Returns the frame length, 0 if no byte arrived
+ * within timeoutMs, -1 on end of stream, or -2 if the frame exceeded maxLen (it is drained up to
+ * the next gap and dropped).
+ *
+ * A byte on wakeFd (cancelRead) or the port being closed ends the wait at once: 0 is returned,
+ * or the bytes read so far. mFd is re-checked before every read, so a closed fd number that has
+ * been reused by another open is never read. Without a wake pipe (wakeFd < 0) the waits are cut
+ * into WAIT_SLICE_US slices instead.
+ */
+JNIEXPORT jint JNICALL Java_com_temon_serial_internal_serialport_SerialPort_readFrame0
+		(JNIEnv *env, jobject thiz, jbyteArray buffer, jint offset, jint maxLen, jint gapMicros,
+		 jint timeoutMs, jint wakeFd) {
+	jbyte chunk[512];
+	jint total = 0;
+	int overflow = 0;
+	int r;
+	int err;
+	long remainingUs = timeoutMs > 0 ? (long) timeoutMs * 1000L : -1L;
+
+	jint fd = currentDescriptor(env, thiz);
+	if (fd < 0) {
+		throwIOException(env, "Serial port is closed");
+		return -1;
+	}
+
+	/* Wait for the first byte of the frame */
+	for (;;) {
+		long slice = remainingUs;
+		if (wakeFd < 0 && (slice < 0 || slice > WAIT_SLICE_US)) {
+			slice = WAIT_SLICE_US;
+		}
+		r = waitReadable(fd, wakeFd, slice);
+		err = errno;
+		if (r == WAIT_WOKEN || currentDescriptor(env, thiz) != fd) {
+			return 0;
+		}
+		if (r == WAIT_READABLE) {
+			break;
+		}
+		if (r < 0 && err == EINTR) {
+			return 0;
+		}
+		if (r < 0) {
+			char buf[256];
+			snprintf(buf, sizeof(buf), "select failed: %s", strerror(err));
+			throwIOException(env, buf);
+			return -1;
+		}
+		if (remainingUs >= 0) {
+			remainingUs -= slice;
+			if (remainingUs <= 0) {
+				return 0;
+			}
+		}
+	}
+
+	for (;;) {
+		if (currentDescriptor(env, thiz) != fd) {
+			/* Closed mid-frame: keep what was read, never read the (possibly reused) fd */
+			break;
+		}
+		ssize_t n = read(fd, chunk, sizeof(chunk));
+		if (n < 0) {
+			if (errno == EINTR || errno == EAGAIN) {
+				n = 0;
+			} else {
+				char buf[256];
+				snprintf(buf, sizeof(buf), "read failed: %s", strerror(errno));
+				throwIOException(env, buf);
+				return -1;
+			}
+		} else if (n == 0) {
+			/* Readable but no data: end of stream (device gone). Deliver what we have first. */
+			if (overflow) return -2;
+			return total > 0 ? total : -1;
+		}
+		if (n > 0 && !overflow) {
+			if (n <= maxLen - total) {
+				(*env)->SetByteArrayRegion(env, buffer, offset + total, (jsize) n, chunk);
+				total += (jint) n;
+			} else {
+				overflow = 1;
+			}
+		}
+
+		/* Frame ends once the line has been silent for gapMicros */
+		r = waitReadable(fd, wakeFd, gapMicros);
+		err = errno;
+		if (r == 0 || r == WAIT_WOKEN) {
+			break;
+		}
+		if (r < 0 && err != EINTR) {
+			if (currentDescriptor(env, thiz) != fd) {
+				break;
+			}
+			char buf[256];
+			snprintf(buf, sizeof(buf), "select failed: %s", strerror(err));
+			throwIOException(env, buf);
+			return -1;
+		}
+	}
+	return overflow ? -2 : total;
+}
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    reconfigure0
+ * Signature: (IIIIIII)V
+ *
+ * Apply new line settings to the open fd. when: 0 = now (TCSANOW), 1 = after pending output has
+ * been transmitted (TCSADRAIN), 2 = like 1 and discard unread input (TCSAFLUSH).
+ */
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_reconfigure0
+		(JNIEnv *env, jobject thiz, jint baudrate, jint stopBits, jint dataBits, jint parity,
+		 jint flowCon, jint readTimeoutMs, jint when) {
+	jclass SerialPortClass = (*env)->GetObjectClass(env, thiz);
+	jclass FileDescriptorClass = (*env)->FindClass(env, "java/io/FileDescriptor");
+	jfieldID mFdID = (*env)->GetFieldID(env, SerialPortClass, "mFd", "Ljava/io/FileDescriptor;");
+	jfieldID descriptorID = (*env)->GetFieldID(env, FileDescriptorClass, "descriptor", "I");
+	struct termios cfg;
+	speed_t speed;
+	int action;
+
+	jobject mFd = (*env)->GetObjectField(env, thiz, mFdID);
+	if (mFd == NULL) {
+		throwIOException(env, "Serial port is closed");
+		return;
+	}
+	jint fd = (*env)->GetIntField(env, mFd, descriptorID);
+	if (fd < 0) {
+		throwIOException(env, "Serial port is closed");
+		return;
+	}
+
+	speed = getBaudrate(baudrate);
+	if (speed == -1) {
+		LOGE("Invalid baudrate");
+		throwIOException(env, "Invalid baudrate");
+		return;
+	}
+
+	switch (when) {
+		case 1:
+			action = TCSADRAIN;
+			break;
+		case 2:
+			action = TCSAFLUSH;
+			break;
+		default:
+			action = TCSANOW;
+			break;
+	}
+
+	if (tcgetattr(fd, &cfg)) {
+		char buf[256];
+		snprintf(buf, sizeof(buf), "tcgetattr failed: %s", strerror(errno));
+		throwIOException(env, buf);
+		return;
+	}
+	applyLineSettings(&cfg, speed, stopBits, dataBits, parity, flowCon, readTimeoutMs);
+	LOGD("reconfigure(fd = %d, baudrate = %d, when = %d)", fd, baudrate, when);
+	if (tcsetattr(fd, action, &cfg)) {
+		char buf[256];
+		snprintf(buf, sizeof(buf), "tcsetattr failed: %s", strerror(errno));
+		throwIOException(env, buf);
+	}
+}
+
+/*
+ * Descriptor of the open port, or -1 with an IOException pending if it is closed.
+ */
+static jint openDescriptor(JNIEnv *env, jobject thiz)
+{
+	jint fd = currentDescriptor(env, thiz);
+	if (fd < 0) {
+		throwIOException(env, "Serial port is closed");
+	}
+	return fd;
+}
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    interruptCounts0
+ * Signature: ([I)Z
+ *
+ * TIOCGICOUNT: fills counts with rx, tx, frame, overrun, parity, brk, buf_overrun (driver totals,
+ * 32-bit, wrapping). Returns false if the driver does not keep them (ptys, many USB adapters).
+ */
+JNIEXPORT jboolean JNICALL Java_com_temon_serial_internal_serialport_SerialPort_interruptCounts0
+		(JNIEnv *env, jobject thiz, jintArray counts) {
+	struct serial_icounter_struct icount;
+	jint values[7];
+
+	jint fd = openDescriptor(env, thiz);
+	if (fd < 0) {
+		return JNI_FALSE;
+	}
+	memset(&icount, 0, sizeof(icount));
+	if (ioctl(fd, TIOCGICOUNT, &icount) < 0) {
+		if (errno == EBADF) {
+			throwIOException(env, "Serial port is closed");
+		}
+		return JNI_FALSE;
+	}
+	values[0] = icount.rx;
+	values[1] = icount.tx;
+	values[2] = icount.frame;
+	values[3] = icount.overrun;
+	values[4] = icount.parity;
+	values[5] = icount.brk;
+	values[6] = icount.buf_overrun;
+	(*env)->SetIntArrayRegion(env, counts, 0, 7, values);
+	return JNI_TRUE;
+}
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    modemLines0
+ * Signature: ()I
+ *
+ * TIOCMGET: modem line bits (TIOCM_*), or -1 if the driver does not report them.
+ */
+JNIEXPORT jint JNICALL Java_com_temon_serial_internal_serialport_SerialPort_modemLines0
+		(JNIEnv *env, jobject thiz) {
+	int bits = 0;
+
+	jint fd = openDescriptor(env, thiz);
+	if (fd < 0) {
+		return -1;
+	}
+	if (ioctl(fd, TIOCMGET, &bits) < 0) {
+		if (errno == EBADF) {
+			throwIOException(env, "Serial port is closed");
+		}
+		return -1;
+	}
+	return bits;
+}
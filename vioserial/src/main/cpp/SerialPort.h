@@ -17,12 +17,36 @@ JNIEXPORT jobject JNICALL Java_com_temon_serial_internal_serialport_SerialPort_o
 
 /*
  * Class:     com_temon_serial_internal_serialport_SerialPort
- * Method:    close
+ * Method:    close0
  * Signature: ()V
  */
-JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_close
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_close0
         (JNIEnv *, jobject);
 
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    openWakePipe0
+ * Signature: ([I)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_temon_serial_internal_serialport_SerialPort_openWakePipe0
+        (JNIEnv *, jclass, jintArray);
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    signalWakePipe0
+ * Signature: (I)V
+ */
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_signalWakePipe0
+        (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    closeWakePipe0
+ * Signature: (II)V
+ */
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_closeWakePipe0
+        (JNIEnv *, jclass, jint, jint);
+
 /*
  * Class:     com_temon_serial_internal_serialport_SerialPort
  * Method:    isDeviceOnline
@@ -31,6 +55,38 @@ JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_clos
 JNIEXPORT jboolean JNICALL Java_com_temon_serial_internal_serialport_SerialPort_isDeviceOnline
         (JNIEnv *, jobject);
 
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    readFrame0
+ * Signature: ([BIIIII)I
+ */
+JNIEXPORT jint JNICALL Java_com_temon_serial_internal_serialport_SerialPort_readFrame0
+        (JNIEnv *, jobject, jbyteArray, jint, jint, jint, jint, jint);
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    reconfigure0
+ * Signature: (IIIIIII)V
+ */
+JNIEXPORT void JNICALL Java_com_temon_serial_internal_serialport_SerialPort_reconfigure0
+        (JNIEnv *, jobject, jint, jint, jint, jint, jint, jint, jint);
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    interruptCounts0
+ * Signature: ([I)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_temon_serial_internal_serialport_SerialPort_interruptCounts0
+        (JNIEnv *, jobject, jintArray);
+
+/*
+ * Class:     com_temon_serial_internal_serialport_SerialPort
+ * Method:    modemLines0
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_temon_serial_internal_serialport_SerialPort_modemLines0
+        (JNIEnv *, jobject);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,126 @@
+package com.temon.serial.codec;
+
+/**
+ * Common frame checksums (table driven where it matters).
+ *
+ * <p>{@link #compute(byte[], int, int)} returns the checksum as an unsigned value in the low
+ * {@link #width()} bytes of the result.</p>
+ */
+public enum Checksum {
+    /** Sum of all bytes, modulo 256. */
+    SUM8(1) {
+        @Override
+        public int compute(byte[] data, int offset, int length) {
+            int sum = 0;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                sum += data[i];
+            }
+            return sum & 0xFF;
+        }
+    },
+    /** XOR of all bytes. */
+    XOR8(1) {
+        @Override
+        public int compute(byte[] data, int offset, int length) {
+            int x = 0;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                x ^= data[i];
+            }
+            return x & 0xFF;
+        }
+    },
+    /** CRC-8 (poly 0x07, init 0x00). */
+    CRC8(1) {
+        @Override
+        public int compute(byte[] data, int offset, int length) {
+            int crc = 0;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                crc = Tables.CRC8[(crc ^ data[i]) & 0xFF];
+            }
+            return crc;
+        }
+    },
+    /** CRC-16/MODBUS (poly 0xA001 reflected, init 0xFFFF). Transmitted little-endian. */
+    CRC16_MODBUS(2) {
+        @Override
+        public int compute(byte[] data, int offset, int length) {
+            int crc = 0xFFFF;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                crc = (crc >>> 8) ^ Tables.CRC16_MODBUS[(crc ^ data[i]) & 0xFF];
+            }
+            return crc & 0xFFFF;
+        }
+    },
+    /** CRC-16/CCITT-FALSE (poly 0x1021, init 0xFFFF). */
+    CRC16_CCITT(2) {
+        @Override
+        public int compute(byte[] data, int offset, int length) {
+            int crc = 0xFFFF;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                crc = ((crc << 8) ^ Tables.CRC16_CCITT[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+            }
+            return crc;
+        }
+    },
+    /** CRC-32 (IEEE 802.3). */
+    CRC32(4) {
+        @Override
+        public int compute(byte[] data, int offset, int length) {
+            int crc = 0xFFFFFFFF;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                crc = (crc >>> 8) ^ Tables.CRC32[(crc ^ data[i]) & 0xFF];
+            }
+            return ~crc;
+        }
+    };
+
+    private final int width;
+
+    Checksum(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Number of bytes the checksum occupies on the wire.
+     */
+    public int width() {
+        return width;
+    }
+
+    public abstract int compute(byte[] data, int offset, int length);
+
+    private static final class Tables {
+        static final int[] CRC8 = new int[256];
+        static final int[] CRC16_MODBUS = new int[256];
+        static final int[] CRC16_CCITT = new int[256];
+        static final int[] CRC32 = new int[256];
+
+        static {
+            for (int n = 0; n < 256; n++) {
+                int c8 = n;
+                for (int k = 0; k < 8; k++) {
+                    c8 = (c8 & 0x80) != 0 ? ((c8 << 1) ^ 0x07) : (c8 << 1);
+                }
+                CRC8[n] = c8 & 0xFF;
+
+                int m = n;
+                for (int k = 0; k < 8; k++) {
+                    m = (m & 1) != 0 ? ((m >>> 1) ^ 0xA001) : (m >>> 1);
+                }
+                CRC16_MODBUS[n] = m;
+
+                int c = n << 8;
+                for (int k = 0; k < 8; k++) {
+                    c = (c & 0x8000) != 0 ? ((c << 1) ^ 0x1021) : (c << 1);
+                }
+                CRC16_CCITT[n] = c & 0xFFFF;
+
+                int r = n;
+                for (int k = 0; k < 8; k++) {
+                    r = (r & 1) != 0 ? ((r >>> 1) ^ 0xEDB88320) : (r >>> 1);
+                }
+                CRC32[n] = r;
+            }
+        }
+    }
+}
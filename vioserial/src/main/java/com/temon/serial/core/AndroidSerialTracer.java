@@ -0,0 +1,111 @@
+package com.temon.serial.core;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * {@link SerialTracer} writing {@link Trace} sections, visible in Perfetto / systrace next to the
+ * app's own frames (enable the app's trace tag when recording).
+ *
+ * <p>Sections are named {@code "serial read <port>"}, {@code "serial decode <port>"},
+ * {@code "serial dispatch <port>"} and {@code "serial write <port>"}; an emitted frame is an empty
+ * {@code "serial frame <port>"} section inside the decode. Names are built once per port, so
+ * tracing does not allocate; byte counts and frame lengths are not recorded (use
+ * {@link RecordingSerialTracer} for those). Does nothing below API 18.</p>
+ */
+public class AndroidSerialTracer implements SerialTracer {
+    private static final boolean SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    // Trace truncates longer section names
+    private static final int MAX_NAME_LENGTH = 127;
+
+    private static final int READ = 1;
+    private static final int DECODE = 2;
+    private static final int FRAME = 3;
+    private static final int DISPATCH = 4;
+    private static final int WRITE = 5;
+
+    // Per port: {port, read, decode, frame, dispatch, write}; copy-on-write
+    private volatile String[][] names = new String[0][];
+
+    @Override
+    public void readBegin(String port) {
+        begin(port, READ);
+    }
+
+    @Override
+    public void readEnd(String port, int bytes) {
+        end();
+    }
+
+    @Override
+    public void decodeBegin(String port, int bytes) {
+        begin(port, DECODE);
+    }
+
+    @Override
+    public void decodeEnd(String port) {
+        end();
+    }
+
+    @Override
+    public void frameEmitted(String port, int length, int frameType) {
+        begin(port, FRAME);
+        end();
+    }
+
+    @Override
+    public void dispatchBegin(String port) {
+        begin(port, DISPATCH);
+    }
+
+    @Override
+    public void dispatchEnd(String port) {
+        end();
+    }
+
+    @Override
+    public void writeBegin(String port, int bytes) {
+        begin(port, WRITE);
+    }
+
+    @Override
+    public void writeEnd(String port, boolean success) {
+        end();
+    }
+
+    private void begin(String port, int section) {
+        if (!SUPPORTED) return;
+        Trace.beginSection(namesFor(port)[section]);
+    }
+
+    private static void end() {
+        if (!SUPPORTED) return;
+        Trace.endSection();
+    }
+
+    private String[] namesFor(String port) {
+        String[][] table = names;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i][0].equals(port)) return table[i];
+        }
+        synchronized (this) {
+            table = names;
+            for (int i = 0; i < table.length; i++) {
+                if (table[i][0].equals(port)) return table[i];
+            }
+            String[] n = new String[] {port,
+                    name("serial read ", port), name("serial decode ", port), name("serial frame ", port),
+                    name("serial dispatch ", port), name("serial write ", port)};
+            String[][] grown = new String[table.length + 1][];
+            System.arraycopy(table, 0, grown, 0, table.length);
+            grown[table.length] = n;
+            names = grown;
+            return n;
+        }
+    }
+
+    private static String name(String prefix, String port) {
+        String s = prefix + port;
+        return s.length() <= MAX_NAME_LENGTH ? s : s.substring(0, MAX_NAME_LENGTH);
+    }
+}
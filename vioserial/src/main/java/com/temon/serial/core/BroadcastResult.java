@@ -0,0 +1,146 @@
+package com.temon.serial.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate completion of {@link SerialManager#broadcast}: one {@link PortResult} per port, in the
+ * order the ports were given.
+ */
+public final class BroadcastResult {
+
+    /**
+     * Outcome of the write on one port.
+     */
+    public static final class PortResult {
+        public final String port;
+        /** Null on success. */
+        public final Throwable error;
+        /** {@link System#nanoTime()} when the write started, 0 if it never started. */
+        public final long startNanos;
+        /** {@link System#nanoTime()} when the write finished or failed. */
+        public final long endNanos;
+
+        PortResult(String port, Throwable error, long startNanos, long endNanos) {
+            this.port = port;
+            this.error = error;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * Time spent in the write call (ms).
+         */
+        public double getWriteTimeMs() {
+            return startNanos == 0 ? 0.0 : (endNanos - startNanos) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return port + (error == null ? " ok" : " failed: " + error.getMessage());
+        }
+    }
+
+    private final String[] ports;
+    private final PortResult[] results;
+    private final CountDownLatch pending;
+
+    BroadcastResult(String[] ports) {
+        this.ports = ports;
+        this.results = new PortResult[ports.length];
+        this.pending = new CountDownLatch(ports.length);
+    }
+
+    void complete(int index, long startNanos, long endNanos, Throwable error) {
+        synchronized (results) {
+            if (results[index] != null) return;
+            results[index] = new PortResult(ports[index], error, startNanos, endNanos);
+        }
+        pending.countDown();
+    }
+
+    /**
+     * Wait until every port has finished (sent or failed).
+     *
+     * @return true if all ports finished within the timeout
+     */
+    public boolean await(long timeoutMs) throws InterruptedException {
+        return pending.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isDone() {
+        return pending.getCount() == 0;
+    }
+
+    /**
+     * Results of the ports that have finished so far, in broadcast order.
+     */
+    public List<PortResult> getResults() {
+        List<PortResult> out = new ArrayList<>(results.length);
+        synchronized (results) {
+            for (PortResult r : results) {
+                if (r != null) out.add(r);
+            }
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    public int getSuccessCount() {
+        int n = 0;
+        synchronized (results) {
+            for (PortResult r : results) {
+                if (r != null && r.error == null) n++;
+            }
+        }
+        return n;
+    }
+
+    public int getFailureCount() {
+        int n = 0;
+        synchronized (results) {
+            for (PortResult r : results) {
+                if (r != null && r.error != null) n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Spread between the first and the last successful write start (ms).
+     */
+    public double getStartSkewMs() {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        synchronized (results) {
+            for (PortResult r : results) {
+                if (r == null || r.error != null) continue;
+                if (r.startNanos < min) min = r.startNanos;
+                if (r.startNanos > max) max = r.startNanos;
+            }
+        }
+        return max < min ? 0.0 : (max - min) / 1_000_000.0;
+    }
+
+    /**
+     * Spread between the first and the last successful write completion (ms).
+     */
+    public double getCompletionSkewMs() {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        synchronized (results) {
+            for (PortResult r : results) {
+                if (r == null || r.error != null) continue;
+                if (r.endNanos < min) min = r.endNanos;
+                if (r.endNanos > max) max = r.endNanos;
+            }
+        }
+        return max < min ? 0.0 : (max - min) / 1_000_000.0;
+    }
+}
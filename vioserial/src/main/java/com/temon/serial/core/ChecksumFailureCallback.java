@@ -0,0 +1,17 @@
+package com.temon.serial.core;
+
+/**
+ * Optional extension of a frame callback: decoders and stages that verify a checksum report the
+ * frames they drop for a mismatch when their callback (or pipeline sink) implements this
+ * interface.
+ *
+ * <p>Called on the decoding thread; the bytes are only valid during the call.</p>
+ */
+public interface ChecksumFailureCallback {
+    /**
+     * @param buf    Buffer holding the rejected frame (checksum included)
+     * @param offset Start of the frame in {@code buf}
+     * @param length Frame length
+     */
+    void onChecksumFailure(byte[] buf, int offset, int length);
+}
@@ -0,0 +1,41 @@
+package com.temon.serial.core;
+
+/**
+ * Optional extension of a {@link FrameDecoder} (or pipeline {@link FrameStage}): counters that show
+ * how well the stream fits the framing configuration. All built-in decoders implement it; a custom
+ * decoder that does is picked up by {@link SerialStatistics} and {@link HealthMonitor}.
+ *
+ * <p>Updated only by the decoding thread, readable from any thread. Counters cover the decoder's
+ * whole lifetime and are not cleared by {@link FrameDecoder#reset()}.</p>
+ */
+public interface DecoderMetrics {
+    /**
+     * Frames or partial frames discarded (overflow, bad length, bad checksum, ...).
+     */
+    long getDroppedCount();
+
+    /**
+     * Bytes discarded, including bytes skipped while looking for a frame boundary.
+     */
+    long getDroppedBytes();
+
+    /**
+     * Times the decoder lost frame alignment and skipped data to find the next frame boundary.
+     */
+    long getResyncCount();
+
+    /**
+     * Bytes currently held for an incomplete frame.
+     */
+    int getBufferedBytes();
+
+    /**
+     * Highest {@link #getBufferedBytes()} seen.
+     */
+    int getMaxBufferedBytes();
+
+    /**
+     * Length of the largest frame emitted.
+     */
+    int getLargestFrameLength();
+}
@@ -1,7 +1,13 @@
 package com.temon.serial.core;
 
+import com.temon.serial.internal.dispatch.BatchingMainThreadDispatcher;
+import com.temon.serial.internal.dispatch.ConflatingDispatcher;
 import com.temon.serial.internal.dispatch.DirectDispatcher;
 import com.temon.serial.internal.dispatch.MainThreadDispatcher;
+import com.temon.serial.internal.dispatch.RingBufferDispatcher;
+import com.temon.serial.internal.dispatch.StripedDispatcher;
+
+import java.util.concurrent.Executor;
 
 /**
  * Factory for common callback dispatchers.
@@ -23,4 +29,65 @@ public final class Dispatchers {
     public static CallbackDispatcher mainThread() {
         return new MainThreadDispatcher();
     }
+
+    /**
+     * Dispatch callbacks on Android main thread, batched once per display frame.
+     *
+     * <p>Same order as {@link #mainThread()}, but one main-thread wakeup per frame instead of one
+     * {@code Handler.post} per callback. Combine with {@link SerialBatchListener} to update a UI
+     * once per frame.</p>
+     */
+    public static CallbackDispatcher mainThreadBatched() {
+        return new BatchingMainThreadDispatcher(0L);
+    }
+
+    /**
+     * Dispatch callbacks on Android main thread, batched at a fixed interval.
+     */
+    public static CallbackDispatcher mainThreadBatched(long intervalMs) {
+        if (intervalMs <= 0) throw new IllegalArgumentException("intervalMs must be > 0");
+        return new BatchingMainThreadDispatcher(intervalMs);
+    }
+
+    /**
+     * Dispatch callbacks on one consumer thread through a preallocated ring of event slots.
+     *
+     * <p>Bytes, frames and errors from {@link SerialConnection} are published without allocating
+     * a {@link Runnable} per event. Metrics are available on {@link RingBufferDispatcher}.</p>
+     *
+     * @param size         Ring size (rounded up to a power of two), e.g. 1024
+     * @param waitStrategy How the consumer waits: SPIN, YIELD or PARK
+     */
+    public static CallbackDispatcher ringBuffer(int size, RingBufferDispatcher.WaitStrategy waitStrategy) {
+        return new RingBufferDispatcher(size, waitStrategy);
+    }
+
+    /**
+     * Deliver only the latest pending frame per key through {@code target}.
+     *
+     * <p>For telemetry where only the newest value matters (e.g. key = command byte): while a
+     * frame with the same key is still waiting in {@code target}, a new one replaces it instead
+     * of queueing behind it. Byte chunks, errors and other callbacks are not conflated.
+     * Per-key conflated counts are available on {@link ConflatingDispatcher}.</p>
+     */
+    public static CallbackDispatcher conflating(FrameKeyExtractor keyExtractor, CallbackDispatcher target) {
+        return new ConflatingDispatcher(keyExtractor, target);
+    }
+
+    /**
+     * Dispatch callbacks on {@code threads} shared worker threads, keeping per-port order.
+     *
+     * <p>Callbacks of one port run one at a time and in order; different ports run in parallel.
+     * Metrics are available on {@link StripedDispatcher}.</p>
+     */
+    public static CallbackDispatcher striped(int threads) {
+        return new StripedDispatcher(threads);
+    }
+
+    /**
+     * Like {@link #striped(int)}, running on an existing executor (e.g. the app's IO pool).
+     */
+    public static CallbackDispatcher striped(Executor executor) {
+        return new StripedDispatcher(executor);
+    }
 }
@@ -0,0 +1,36 @@
+package com.temon.serial.core;
+
+/**
+ * A {@link CallbackDispatcher} that can carry connection events without wrapping each one in a
+ * {@link Runnable}.
+ *
+ * <p>{@link SerialConnection} publishes bytes, frames and errors through
+ * {@link #dispatchEvent} when its dispatcher implements this interface; the event fields are
+ * copied into a preallocated slot and handed back to the {@link EventHandler} on the consumer
+ * thread. Other callbacks still go through {@link #dispatch(Runnable)}.</p>
+ */
+public interface EventDispatcher extends CallbackDispatcher {
+
+    int EVENT_BYTES = 1;
+    int EVENT_FRAME = 2;
+    int EVENT_ERROR = 3;
+
+    interface EventHandler {
+        /**
+         * Called on the dispatcher's consumer thread. Arguments are only valid during the call.
+         *
+         * @param kind      One of {@code EVENT_*}
+         * @param session   Connection session the event belongs to
+         * @param data      Bytes or frame (null for errors)
+         * @param length    Valid length of {@code data}
+         * @param frameType Frame type for {@link #EVENT_FRAME}, see {@link TypedFrameCallback}
+         * @param error     Error for {@link #EVENT_ERROR}
+         * @param timestampNanos {@link System#nanoTime()} when the data was read, 0 if not known
+         */
+        void onEvent(int kind, long session, byte[] data, int length, int frameType, Throwable error,
+                     long timestampNanos);
+    }
+
+    void dispatchEvent(EventHandler handler, int kind, long session, byte[] data, int length, int frameType,
+                       Throwable error, long timestampNanos);
+}
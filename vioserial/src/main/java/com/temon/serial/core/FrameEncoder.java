@@ -0,0 +1,28 @@
+package com.temon.serial.core;
+
+/**
+ * Encodes a payload into a wire frame (the counterpart of a {@link FrameDecoder}).
+ *
+ * <p>Use {@link SerialFraming} to obtain built-in encoders. Encoders are stateless and may be
+ * shared between threads.</p>
+ */
+public interface FrameEncoder {
+
+    /**
+     * Upper bound of the encoded size for a payload of {@code length} bytes.
+     */
+    int maxEncodedLength(int length);
+
+    /**
+     * Encode into a caller-provided buffer.
+     *
+     * @param dst Destination buffer, at least {@link #maxEncodedLength(int)} bytes from {@code dstOffset}
+     * @return Number of bytes written
+     */
+    int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset);
+
+    /**
+     * Encode into a new array of exactly the encoded size.
+     */
+    byte[] encode(byte[] src, int offset, int length);
+}
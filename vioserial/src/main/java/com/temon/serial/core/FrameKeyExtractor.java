@@ -0,0 +1,19 @@
+package com.temon.serial.core;
+
+/**
+ * Maps a frame to a small int key: the conflation key for
+ * {@link Dispatchers#conflating(FrameKeyExtractor, CallbackDispatcher)}, or the traffic class for
+ * {@link FrameTypeStatistics}.
+ *
+ * <p>Called on the IO thread for every frame; keep it cheap (e.g. return the command byte).</p>
+ */
+public interface FrameKeyExtractor {
+    /**
+     * @param frame     Frame bytes
+     * @param length    Valid length of {@code frame}
+     * @param frameType Type from a demultiplexing decoder, or {@link TypedFrameCallback#UNTYPED}
+     * @return Key >= 0 to keep only the latest pending frame with that key (or count it under that
+     * key), or < 0 to deliver the frame normally (or count it as unclassified)
+     */
+    int keyOf(byte[] frame, int length, int frameType);
+}
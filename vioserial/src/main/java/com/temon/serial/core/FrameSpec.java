@@ -0,0 +1,223 @@
+package com.temon.serial.core;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.internal.framing.LengthFieldFrameDecoder;
+
+import java.util.Arrays;
+
+/**
+ * Declarative description of a "SOF, header, length, payload, checksum, EOF" style frame.
+ *
+ * <p>Compile it with {@link SerialFraming#compile(FrameSpec)} into a decoder specialized for the
+ * spec. Layout on the wire (every part except the payload is optional):</p>
+ *
+ * <pre>
+ * [start-of-frame][header bytes][length field][payload][checksum][end-of-frame]
+ * </pre>
+ *
+ * <p>The payload size comes from the length field, a fixed size, or the position of the
+ * end-of-frame marker. When escaping is enabled, every byte after start-of-frame is unescaped
+ * ({@code escape, b} becomes {@code b ^ xorMask}) before it is interpreted, and an unescaped
+ * start-of-frame byte always starts a new frame.</p>
+ *
+ * <p>A single-byte start-of-frame may equal the end-of-frame (HDLC-style {@code 0x7E ... 0x7E}):
+ * the flag closing one frame also opens the next, and repeated flags are skipped.</p>
+ */
+public final class FrameSpec {
+
+    /** What the length field counts (before adding {@link Builder#lengthAdjustment(int)}). */
+    public enum LengthMode {
+        /** Payload bytes only. */
+        PAYLOAD,
+        /** Payload plus checksum. */
+        PAYLOAD_AND_CHECKSUM,
+        /** Everything after the length field (payload, checksum, end-of-frame). */
+        AFTER_LENGTH_FIELD,
+        /** The whole frame, start-of-frame to end-of-frame. */
+        WHOLE_FRAME
+    }
+
+    /** What a decoded frame contains. */
+    public enum Emit {
+        /** The whole (unescaped) frame. */
+        FRAME,
+        /** Payload only. */
+        PAYLOAD
+    }
+
+    public final byte[] startOfFrame;
+    public final int headerLength;
+    public final int lengthFieldLength;
+    public final LengthFieldFrameDecoder.Endian lengthEndian;
+    public final LengthMode lengthMode;
+    public final int lengthAdjustment;
+    /** Fixed payload size when there is no length field, or -1. */
+    public final int fixedPayloadLength;
+    public final Checksum checksum;
+    public final LengthFieldFrameDecoder.Endian checksumEndian;
+    public final boolean checksumCoversStartOfFrame;
+    public final byte[] endOfFrame;
+    public final boolean escaping;
+    public final byte escapeByte;
+    public final int escapeXorMask;
+    public final Emit emit;
+    public final int maxFrameLength;
+
+    private FrameSpec(Builder b) {
+        this.startOfFrame = b.startOfFrame;
+        this.headerLength = b.headerLength;
+        this.lengthFieldLength = b.lengthFieldLength;
+        this.lengthEndian = b.lengthEndian;
+        this.lengthMode = b.lengthMode;
+        this.lengthAdjustment = b.lengthAdjustment;
+        this.fixedPayloadLength = b.fixedPayloadLength;
+        this.checksum = b.checksum;
+        this.checksumEndian = b.checksumEndian;
+        this.checksumCoversStartOfFrame = b.checksumCoversStartOfFrame;
+        this.endOfFrame = b.endOfFrame;
+        this.escaping = b.escaping;
+        this.escapeByte = b.escapeByte;
+        this.escapeXorMask = b.escapeXorMask;
+        this.emit = b.emit;
+        this.maxFrameLength = b.maxFrameLength;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private byte[] startOfFrame = new byte[0];
+        private int headerLength = 0;
+        private int lengthFieldLength = 0;
+        private LengthFieldFrameDecoder.Endian lengthEndian = LengthFieldFrameDecoder.Endian.BIG;
+        private LengthMode lengthMode = LengthMode.PAYLOAD;
+        private int lengthAdjustment = 0;
+        private int fixedPayloadLength = -1;
+        private Checksum checksum;
+        private LengthFieldFrameDecoder.Endian checksumEndian = LengthFieldFrameDecoder.Endian.BIG;
+        private boolean checksumCoversStartOfFrame = false;
+        private byte[] endOfFrame = new byte[0];
+        private boolean escaping = false;
+        private byte escapeByte;
+        private int escapeXorMask;
+        private Emit emit = Emit.FRAME;
+        private int maxFrameLength = 4096;
+
+        /**
+         * Start-of-frame marker (e.g. {@code 0xAA, 0x55}). Default: none.
+         */
+        public Builder startOfFrame(byte... sof) {
+            this.startOfFrame = sof != null ? Arrays.copyOf(sof, sof.length) : new byte[0];
+            return this;
+        }
+
+        /**
+         * Fixed-size fields between start-of-frame and the length field (address, command...).
+         */
+        public Builder header(int bytes) {
+            if (bytes < 0) throw new IllegalArgumentException("header bytes < 0");
+            this.headerLength = bytes;
+            return this;
+        }
+
+        /**
+         * Length field following the header.
+         *
+         * @param bytes Field size, 1..4
+         */
+        public Builder lengthField(int bytes, LengthFieldFrameDecoder.Endian endian, LengthMode mode) {
+            if (bytes < 1 || bytes > 4) throw new IllegalArgumentException("length field must be 1..4 bytes");
+            if (endian == null) throw new IllegalArgumentException("endian == null");
+            if (mode == null) throw new IllegalArgumentException("mode == null");
+            this.lengthFieldLength = bytes;
+            this.lengthEndian = endian;
+            this.lengthMode = mode;
+            this.fixedPayloadLength = -1;
+            return this;
+        }
+
+        /**
+         * Added to the length field value (e.g. -1 if the field also counts a command byte).
+         */
+        public Builder lengthAdjustment(int adjustment) {
+            this.lengthAdjustment = adjustment;
+            return this;
+        }
+
+        /**
+         * Fixed payload size (no length field).
+         */
+        public Builder fixedPayload(int bytes) {
+            if (bytes < 0) throw new IllegalArgumentException("payload bytes < 0");
+            this.fixedPayloadLength = bytes;
+            this.lengthFieldLength = 0;
+            return this;
+        }
+
+        /**
+         * Trailing checksum after the payload. By default it covers everything from the end of
+         * start-of-frame to the checksum.
+         */
+        public Builder checksum(Checksum checksum, LengthFieldFrameDecoder.Endian endian) {
+            if (checksum == null) throw new IllegalArgumentException("checksum == null");
+            if (endian == null) throw new IllegalArgumentException("endian == null");
+            this.checksum = checksum;
+            this.checksumEndian = endian;
+            return this;
+        }
+
+        public Builder checksumCoversStartOfFrame(boolean covers) {
+            this.checksumCoversStartOfFrame = covers;
+            return this;
+        }
+
+        /**
+         * End-of-frame marker. Without a length field or fixed payload, the payload runs until it.
+         */
+        public Builder endOfFrame(byte... eof) {
+            this.endOfFrame = eof != null ? Arrays.copyOf(eof, eof.length) : new byte[0];
+            return this;
+        }
+
+        /**
+         * Byte stuffing after start-of-frame: {@code escape, b} stands for {@code b ^ xorMask}.
+         */
+        public Builder escape(byte escape, int xorMask) {
+            this.escaping = true;
+            this.escapeByte = escape;
+            this.escapeXorMask = xorMask & 0xFF;
+            return this;
+        }
+
+        public Builder emit(Emit emit) {
+            if (emit == null) throw new IllegalArgumentException("emit == null");
+            this.emit = emit;
+            return this;
+        }
+
+        public Builder maxFrameLength(int maxFrameLength) {
+            this.maxFrameLength = maxFrameLength;
+            return this;
+        }
+
+        public FrameSpec build() {
+            if (maxFrameLength <= 0) {
+                throw new IllegalArgumentException("maxFrameLength must be > 0");
+            }
+            if (lengthFieldLength == 0 && fixedPayloadLength < 0 && endOfFrame.length == 0) {
+                throw new IllegalArgumentException("payload size needs a length field, fixed payload or end-of-frame");
+            }
+            if (startOfFrame.length > 1 && Arrays.equals(startOfFrame, endOfFrame)) {
+                throw new IllegalArgumentException("a shared start/end-of-frame flag must be a single byte");
+            }
+            if (escaping && startOfFrame.length != 1) {
+                throw new IllegalArgumentException("escaping requires a single-byte start-of-frame");
+            }
+            if (escaping && lengthFieldLength == 0 && fixedPayloadLength < 0 && endOfFrame.length != 1) {
+                throw new IllegalArgumentException("escaping with end-of-frame delimiting requires a single-byte end-of-frame");
+            }
+            return new FrameSpec(this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.temon.serial.core;
+
+/**
+ * One step of a decoder pipeline built with {@link SerialFraming#pipeline(FrameDecoder)}.
+ *
+ * <p>A stage receives a slice of a frame and passes 0..N slices to the next stage. Stages may
+ * rewrite bytes in place inside the slice they were given (e.g. unescaping only ever shrinks a
+ * frame), so no intermediate arrays are needed between stages. The pipeline owns those arrays:
+ * frames from a decoder that might reuse its buffer are copied before the first stage sees
+ * them.</p>
+ *
+ * <p><b>Thread Safety:</b> same contract as {@link FrameDecoder}: stages are thread-confined and
+ * do NOT need to be thread-safe.</p>
+ */
+public interface FrameStage {
+
+    /**
+     * Receives slices emitted by a stage.
+     */
+    interface Sink {
+        /**
+         * @param buf Buffer holding the slice (owned by the pipeline until the frame is delivered)
+         * @param offset Start offset of the slice
+         * @param length Number of bytes in the slice
+         */
+        void onSlice(byte[] buf, int offset, int length);
+    }
+
+    /**
+     * Predicate used by {@link SerialFraming#filter(Filter)}.
+     */
+    interface Filter {
+        boolean accept(byte[] buf, int offset, int length);
+    }
+
+    /**
+     * Process one slice and emit 0..N slices to {@code next}.
+     */
+    void process(byte[] buf, int offset, int length, Sink next);
+
+    /**
+     * Emit any buffered data (stages without internal state do nothing).
+     */
+    void flush(Sink next);
+
+    /**
+     * Reset internal state. Called on open/close.
+     */
+    void reset();
+}
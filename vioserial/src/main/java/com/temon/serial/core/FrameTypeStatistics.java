@@ -0,0 +1,143 @@
+package com.temon.serial.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-key traffic table of received frames: count, bytes, last-seen time and checksum failures.
+ *
+ * <p>Frames are classified with a {@link FrameKeyExtractor}; keys {@code 0..maxKeys-1} get their
+ * own row, everything else (negative or too large) is counted in the {@link #OTHER} row. Rows are
+ * primitive arrays indexed by key, written only by the decoding thread (ordered stores, no
+ * allocation) and readable from any thread. Enable with
+ * {@link SerialConnection.Builder#frameTypeStatistics(FrameKeyExtractor, int)}.</p>
+ */
+public final class FrameTypeStatistics {
+
+    /** Row of frames whose key is negative or not below {@code maxKeys}. */
+    public static final int OTHER = -1;
+
+    private final FrameKeyExtractor classifier;
+    private final int maxKeys;
+    // One slot per key plus OTHER at index maxKeys
+    private final AtomicLongArray counts;
+    private final AtomicLongArray bytes;
+    private final AtomicLongArray lastSeenNanos;
+    private final AtomicLongArray checksumFailures;
+
+    public FrameTypeStatistics(FrameKeyExtractor classifier, int maxKeys) {
+        if (classifier == null) throw new IllegalArgumentException("classifier == null");
+        if (maxKeys <= 0 || maxKeys > 65536) throw new IllegalArgumentException("maxKeys must be 1..65536");
+        this.classifier = classifier;
+        this.maxKeys = maxKeys;
+        this.counts = new AtomicLongArray(maxKeys + 1);
+        this.bytes = new AtomicLongArray(maxKeys + 1);
+        this.lastSeenNanos = new AtomicLongArray(maxKeys + 1);
+        this.checksumFailures = new AtomicLongArray(maxKeys + 1);
+    }
+
+    /**
+     * Count a delivered frame. Decoding thread only.
+     *
+     * @param readNanos {@link System#nanoTime()} of the read the frame came from
+     */
+    void onFrame(byte[] frame, int length, int frameType, long readNanos) {
+        int i = slot(classifier.keyOf(frame, length, frameType));
+        counts.lazySet(i, counts.get(i) + 1);
+        bytes.lazySet(i, bytes.get(i) + length);
+        lastSeenNanos.lazySet(i, readNanos);
+    }
+
+    /**
+     * Count a frame dropped for a checksum mismatch. Decoding thread only.
+     */
+    void onChecksumFailure(byte[] buf, int offset, int length) {
+        byte[] frame = offset == 0 ? buf : Arrays.copyOfRange(buf, offset, offset + length);
+        int i = slot(classifier.keyOf(frame, length, TypedFrameCallback.UNTYPED));
+        checksumFailures.lazySet(i, checksumFailures.get(i) + 1);
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    /**
+     * @param key Key in {@code 0..maxKeys-1}, or {@link #OTHER}
+     */
+    public long getCount(int key) {
+        return counts.get(index(key));
+    }
+
+    public long getBytes(int key) {
+        return bytes.get(index(key));
+    }
+
+    public long getChecksumFailures(int key) {
+        return checksumFailures.get(index(key));
+    }
+
+    /**
+     * Time since a frame with {@code key} was last received (ms), -1 if never.
+     */
+    public long getTimeSinceLastSeenMs(int key) {
+        int i = index(key);
+        if (counts.get(i) == 0) return -1;
+        return (System.nanoTime() - lastSeenNanos.get(i)) / 1_000_000L;
+    }
+
+    /**
+     * Keys with at least one frame or checksum failure, ascending ({@link #OTHER} not included).
+     */
+    public int[] getActiveKeys() {
+        int n = 0;
+        for (int i = 0; i < maxKeys; i++) {
+            if (counts.get(i) != 0 || checksumFailures.get(i) != 0) n++;
+        }
+        int[] keys = new int[n];
+        int k = 0;
+        for (int i = 0; i < maxKeys && k < n; i++) {
+            if (counts.get(i) != 0 || checksumFailures.get(i) != 0) keys[k++] = i;
+        }
+        return k == n ? keys : Arrays.copyOf(keys, k);
+    }
+
+    /**
+     * Clear all rows. Not atomic with respect to frames being counted concurrently.
+     */
+    public void reset() {
+        for (int i = 0; i <= maxKeys; i++) {
+            counts.set(i, 0L);
+            bytes.set(i, 0L);
+            lastSeenNanos.set(i, 0L);
+            checksumFailures.set(i, 0L);
+        }
+    }
+
+    private int slot(int key) {
+        return key >= 0 && key < maxKeys ? key : maxKeys;
+    }
+
+    private int index(int key) {
+        if (key == OTHER) return maxKeys;
+        if (key < 0 || key >= maxKeys) throw new IllegalArgumentException("key must be 0.." + (maxKeys - 1) + " or OTHER");
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FrameTypeStatistics{");
+        boolean first = true;
+        for (int i = 0; i <= maxKeys; i++) {
+            long c = counts.get(i);
+            long f = checksumFailures.get(i);
+            if (c == 0 && f == 0) continue;
+            if (!first) sb.append(", ");
+            first = false;
+            sb.append(i == maxKeys ? "other" : String.valueOf(i))
+                    .append("=[frames=").append(c)
+                    .append(", bytes=").append(bytes.get(i))
+                    .append(", checksumFailures=").append(f).append(']');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -1,10 +1,26 @@
 package com.temon.serial.core;
 
+import android.os.SystemClock;
+
+import java.util.Locale;
+
 /**
  * Health monitoring and self-diagnosis for serial port connections.
- * 
+ *
  * <p>Designed for automotive and industrial applications requiring
  * continuous health monitoring and predictive failure detection.</p>
+ *
+ * <p>Pull with {@link #checkHealth()}, or {@link #start()} to evaluate every
+ * {@link Builder#evaluationPeriodMs(long) period} on a shared {@link SerialTimer} and get
+ * {@link OnHealthChangeListener} callbacks only when the status changes. A change is reported
+ * after the new status has held for {@link Builder#escalateAfter(int)} (worse) or
+ * {@link Builder#recoverAfter(int)} (better) consecutive evaluations, so a value hovering around a
+ * threshold does not flap. Evaluations reuse one {@link Report} and allocate nothing; listeners
+ * get a copy, made only when the status changes, and are called outside the monitor's lock.</p>
+ *
+ * <p>While started, {@link #checkHealth()} and {@link #getDiagnosis()} read the last scheduled
+ * evaluation instead of evaluating, so polling does not shorten the next evaluation's windows or
+ * count towards the hysteresis.</p>
  */
 public final class HealthMonitor {
     public enum HealthStatus {
@@ -13,123 +29,630 @@ public final class HealthMonitor {
         CRITICAL,       // Significant issues, may fail soon
         FAILED          // Connection failed
     }
-    
+
+    public interface OnHealthChangeListener {
+        /**
+         * Called on the timer thread (or the {@link #checkHealth()} caller) when the reported
+         * status changes. Keep it short: the timer also runs idle-gap flushes.
+         */
+        void onHealthChanged(HealthMonitor monitor, HealthStatus from, HealthStatus to, Report report);
+    }
+
+    /**
+     * Result of the last evaluation. Copy it with {@link HealthMonitor#getReport(Report)}.
+     */
+    public static final class Report {
+        public static final int REASON_NOT_OPEN = 1;
+        public static final int REASON_IDLE = 1 << 1;
+        public static final int REASON_ERROR_RATE = 1 << 2;
+        public static final int REASON_RECONNECTS = 1 << 3;
+        public static final int REASON_LOW_RECEIVE_RATE = 1 << 4;
+        public static final int REASON_DISPATCH_LATENCY = 1 << 5;
+        public static final int REASON_WRITE_QUEUE = 1 << 6;
+        public static final int REASON_DECODER_DROPS = 1 << 7;
+        public static final int REASON_OVERRUNS = 1 << 8;
+        public static final int REASON_LINE_ERRORS = 1 << 9;
+
+        private HealthStatus status = HealthStatus.HEALTHY;
+        private HealthStatus evaluatedStatus = HealthStatus.HEALTHY;
+        private int reasons;
+        private SerialConnection.State state;
+        private long evaluatedAtMs;
+        private long evaluationCount;
+        private long idleMs;
+        private double errorRate;
+        private long reconnectCount;
+        private double receiveRate;
+        private double sendRate;
+        private double dispatchLatencyMs;
+        private int queuedWrites;
+        private double decoderDropRate;
+        private int decoderBufferedBytes;
+        private double overrunRate;
+        private double lineErrorRate;
+
+        /**
+         * Reported status (after hysteresis).
+         */
+        public HealthStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Status of the last evaluation alone (before hysteresis).
+         */
+        public HealthStatus getEvaluatedStatus() {
+            return evaluatedStatus;
+        }
+
+        /**
+         * Checks that exceeded their threshold, as {@code REASON_*} bits.
+         */
+        public int getReasons() {
+            return reasons;
+        }
+
+        public boolean hasReason(int reason) {
+            return (reasons & reason) != 0;
+        }
+
+        public SerialConnection.State getState() {
+            return state;
+        }
+
+        /**
+         * {@link SystemClock#elapsedRealtime()} of the evaluation.
+         */
+        public long getEvaluatedAtMs() {
+            return evaluatedAtMs;
+        }
+
+        public long getEvaluationCount() {
+            return evaluationCount;
+        }
+
+        /**
+         * Time since last receive (ms), -1 if nothing was received.
+         */
+        public long getIdleMs() {
+            return idleMs;
+        }
+
+        /**
+         * Read plus write errors per second over the last minute.
+         */
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public long getReconnectCount() {
+            return reconnectCount;
+        }
+
+        /**
+         * Received bytes per second over the last 10 s.
+         */
+        public double getReceiveRate() {
+            return receiveRate;
+        }
+
+        /**
+         * Sent bytes per second over the last 10 s.
+         */
+        public double getSendRate() {
+            return sendRate;
+        }
+
+        /**
+         * Dispatch latency percentile over the evaluation period (ms), 0 if nothing was dispatched.
+         */
+        public double getDispatchLatencyMs() {
+            return dispatchLatencyMs;
+        }
+
+        public int getQueuedWrites() {
+            return queuedWrites;
+        }
+
+        /**
+         * Frames dropped by the decoder per second over the evaluation period.
+         */
+        public double getDecoderDropRate() {
+            return decoderDropRate;
+        }
+
+        public int getDecoderBufferedBytes() {
+            return decoderBufferedBytes;
+        }
+
+        /**
+         * UART hardware plus tty buffer overruns per second over the evaluation period.
+         */
+        public double getOverrunRate() {
+            return overrunRate;
+        }
+
+        /**
+         * UART parity plus framing errors per second over the evaluation period.
+         */
+        public double getLineErrorRate() {
+            return lineErrorRate;
+        }
+
+        public void copyFrom(Report o) {
+            status = o.status;
+            evaluatedStatus = o.evaluatedStatus;
+            reasons = o.reasons;
+            state = o.state;
+            evaluatedAtMs = o.evaluatedAtMs;
+            evaluationCount = o.evaluationCount;
+            idleMs = o.idleMs;
+            errorRate = o.errorRate;
+            reconnectCount = o.reconnectCount;
+            receiveRate = o.receiveRate;
+            sendRate = o.sendRate;
+            dispatchLatencyMs = o.dispatchLatencyMs;
+            queuedWrites = o.queuedWrites;
+            decoderDropRate = o.decoderDropRate;
+            decoderBufferedBytes = o.decoderBufferedBytes;
+            overrunRate = o.overrunRate;
+            lineErrorRate = o.lineErrorRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "Report{status=%s, evaluated=%s, reasons=0x%x, state=%s, idle=%dms, errorRate=%.4f/s, " +
+                    "reconnects=%d, rx=%.2f B/s, tx=%.2f B/s, dispatch=%.3fms, queuedWrites=%d, " +
+                    "decoderDrops=%.2f/s, decoderBuffered=%d, overruns=%.2f/s, lineErrors=%.2f/s}",
+                    status, evaluatedStatus, reasons, state, idleMs, errorRate, reconnectCount,
+                    receiveRate, sendRate, dispatchLatencyMs, queuedWrites, decoderDropRate, decoderBufferedBytes,
+                    overrunRate, lineErrorRate);
+        }
+    }
+
+    private static final OnHealthChangeListener[] NO_LISTENERS = new OnHealthChangeListener[0];
+
     private final SerialConnection connection;
     private final SerialStatistics statistics;
     private final long maxIdleTimeMs;  // Max time without data before warning
     private final double maxErrorRate;  // Max error rate before warning
     private final long maxReconnectCount;  // Max reconnects before warning
-    
+    private final double minReceiveRate;  // Min 10 s receive rate (B/s), 0 = off
+    private final double maxDispatchLatencyMs;  // Max dispatch latency percentile, 0 = off
+    private final double latencyPercentile;
+    private final int maxQueuedWrites;  // Max writes waiting, 0 = off
+    private final double maxDecoderDropRate;  // Max decoder drops per second, 0 = off
+    private final double maxOverrunRate;  // Max UART overruns per second, 0 = off
+    private final double maxLineErrorRate;  // Max UART parity/framing errors per second, 0 = off
+    private final long evaluationPeriodNanos;
+    private final int escalateAfter;
+    private final int recoverAfter;
+    private final SerialTimer timer;
+
+    // Guarded by this
+    private final Report report = new Report();
+    private final LatencyHistogram.Interval dispatchWindow;
+    private HealthStatus candidate;
+    private int candidateCount;
+    private SerialTimer.Timeout timeout;
+    private long nextDeadlineNanos;
+    private final PeriodRate decoderDrops = new PeriodRate();
+    private final PeriodRate overruns = new PeriodRate();
+    private final PeriodRate lineErrors = new PeriodRate();
+
+    private volatile boolean running;
+    private volatile OnHealthChangeListener[] listeners = NO_LISTENERS;
+
     public HealthMonitor(SerialConnection connection, SerialStatistics statistics,
                         long maxIdleTimeMs, double maxErrorRate, long maxReconnectCount) {
+        this(connection, statistics, new Builder()
+                .maxIdleTimeMs(maxIdleTimeMs)
+                .maxErrorRate(maxErrorRate)
+                .maxReconnectCount(maxReconnectCount));
+    }
+
+    private HealthMonitor(SerialConnection connection, SerialStatistics statistics, Builder b) {
         this.connection = connection;
         this.statistics = statistics;
-        this.maxIdleTimeMs = maxIdleTimeMs;
-        this.maxErrorRate = maxErrorRate;
-        this.maxReconnectCount = maxReconnectCount;
+        this.maxIdleTimeMs = b.maxIdleTimeMs;
+        this.maxErrorRate = b.maxErrorRate;
+        this.maxReconnectCount = b.maxReconnectCount;
+        this.minReceiveRate = b.minReceiveRate;
+        this.maxDispatchLatencyMs = b.maxDispatchLatencyMs;
+        this.latencyPercentile = b.latencyPercentile;
+        this.maxQueuedWrites = b.maxQueuedWrites;
+        this.maxDecoderDropRate = b.maxDecoderDropRate;
+        this.maxOverrunRate = b.maxOverrunRate;
+        this.maxLineErrorRate = b.maxLineErrorRate;
+        this.evaluationPeriodNanos = b.evaluationPeriodMs * 1_000_000L;
+        this.escalateAfter = b.escalateAfter;
+        this.recoverAfter = b.recoverAfter;
+        this.timer = b.timer;
+        this.dispatchWindow = connection.getLatencies().getDispatchLatency().newInterval();
+        long now = SystemClock.elapsedRealtime();
+        decoderDrops.rate(statistics.getDecoderDroppedCount(), now);
+        overruns.rate(statistics.getOverrunCount(), now);
+        lineErrors.rate(statistics.getLineErrorCount(), now);
+        if (b.listener != null) {
+            listeners = new OnHealthChangeListener[]{b.listener};
+        }
+    }
+
+    /**
+     * Start evaluating every period on the timer thread. Idempotent.
+     */
+    public synchronized void start() {
+        if (running) return;
+        if (timeout == null) {
+            timeout = (timer != null ? timer : SerialTimer.shared()).newTimeout(new Runnable() {
+                @Override
+                public void run() {
+                    onTimer();
+                }
+            });
+        }
+        running = true;
+        nextDeadlineNanos = System.nanoTime() + evaluationPeriodNanos;
+        timeout.scheduleAt(nextDeadlineNanos);
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (timeout != null) timeout.cancel();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public synchronized void addListener(OnHealthChangeListener listener) {
+        if (listener == null) return;
+        OnHealthChangeListener[] cur = listeners;
+        for (OnHealthChangeListener l : cur) {
+            if (l == listener) return;
+        }
+        OnHealthChangeListener[] next = new OnHealthChangeListener[cur.length + 1];
+        System.arraycopy(cur, 0, next, 0, cur.length);
+        next[cur.length] = listener;
+        listeners = next;
+    }
+
+    public synchronized void removeListener(OnHealthChangeListener listener) {
+        OnHealthChangeListener[] cur = listeners;
+        for (int i = 0; i < cur.length; i++) {
+            if (cur[i] != listener) continue;
+            OnHealthChangeListener[] next = new OnHealthChangeListener[cur.length - 1];
+            System.arraycopy(cur, 0, next, 0, i);
+            System.arraycopy(cur, i + 1, next, i, cur.length - i - 1);
+            listeners = next;
+            return;
+        }
     }
-    
+
+    /**
+     * Reported status (after hysteresis) of the last evaluation.
+     */
+    public synchronized HealthStatus getStatus() {
+        return report.status;
+    }
+
+    /**
+     * Copy the last evaluation into {@code into} (no allocation).
+     */
+    public synchronized void getReport(Report into) {
+        into.copyFrom(report);
+    }
+
+    public Report getReport() {
+        Report r = new Report();
+        getReport(r);
+        return r;
+    }
+
     /**
      * Perform health check and return current status.
+     *
+     * <p>Returns this evaluation's status; the reported status and listeners follow it with the
+     * configured hysteresis. The dispatch latency window covers the time since the previous
+     * evaluation. While {@link #start() started}, returns the status of the last scheduled
+     * evaluation instead (evaluating once if none has run yet).</p>
      */
     public HealthStatus checkHealth() {
+        HealthStatus status;
+        StatusChange change = null;
+        synchronized (this) {
+            if (!running || report.evaluationCount == 0) {
+                change = evaluate();
+            }
+            status = report.evaluatedStatus;
+        }
+        notifyListeners(change);
+        return status;
+    }
+
+    private void onTimer() {
+        StatusChange change;
+        synchronized (this) {
+            if (!running) return;
+            change = evaluate();
+            if (running) {
+                long now = System.nanoTime();
+                nextDeadlineNanos += evaluationPeriodNanos;
+                // Fell behind (e.g. device asleep): skip the missed periods.
+                if (nextDeadlineNanos - now <= 0) nextDeadlineNanos = now + evaluationPeriodNanos;
+                timeout.scheduleAt(nextDeadlineNanos);
+            }
+        }
+        notifyListeners(change);
+    }
+
+    /**
+     * Caller holds this.
+     *
+     * @return The status change to report once the lock is released, or null
+     */
+    private StatusChange evaluate() {
+        Report r = report;
         SerialConnection.State state = connection.getState();
-        
+        HealthStatus status = HealthStatus.HEALTHY;
+        int reasons = 0;
+
         // Failed if in ERROR or CLOSED state
-        if (state == SerialConnection.State.ERROR) {
-            return HealthStatus.FAILED;
-        }
-        if (state == SerialConnection.State.CLOSED) {
-            return HealthStatus.FAILED;
+        if (state == SerialConnection.State.ERROR || state == SerialConnection.State.CLOSED) {
+            status = HealthStatus.FAILED;
+            reasons |= Report.REASON_NOT_OPEN;
+        } else if (state != SerialConnection.State.OPEN) {
+            status = HealthStatus.WARNING;  // Not fully open
+            reasons |= Report.REASON_NOT_OPEN;
         }
-        
-        // Check idle time
+
+        // No data for too long
         long idleTime = statistics.getTimeSinceLastReceiveMs();
-        if (idleTime > 0 && idleTime > maxIdleTimeMs * 2) {
-            return HealthStatus.CRITICAL;  // No data for too long
-        }
-        if (idleTime > 0 && idleTime > maxIdleTimeMs) {
-            return HealthStatus.WARNING;  // Approaching idle threshold
+        HealthStatus s = grade(idleTime, maxIdleTimeMs);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_IDLE;
+        status = worse(status, s);
+
+        // Error rate over the last minute, so old errors age out
+        double errorRate = statistics.getRecentErrorRate();
+        s = grade(errorRate, maxErrorRate);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_ERROR_RATE;
+        status = worse(status, s);
+
+        long reconnectCount = statistics.getReconnectCount();
+        s = grade(reconnectCount, maxReconnectCount);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_RECONNECTS;
+        status = worse(status, s);
+
+        double rxRate = statistics.getReceiveByteRate().getTenSecondRate();
+        if (minReceiveRate > 0 && state == SerialConnection.State.OPEN && rxRate < minReceiveRate) {
+            reasons |= Report.REASON_LOW_RECEIVE_RATE;
+            status = worse(status, HealthStatus.WARNING);
         }
-        
-        // Check error rate
-        double errorRate = statistics.getErrorRate();
-        if (errorRate > maxErrorRate * 2) {
-            return HealthStatus.CRITICAL;  // Very high error rate
+
+        dispatchWindow.advance();
+        double dispatchMs = dispatchWindow.getPercentileMs(latencyPercentile);
+        s = grade(dispatchMs, maxDispatchLatencyMs);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_DISPATCH_LATENCY;
+        status = worse(status, s);
+
+        int queued = connection.getQueuedWriteCount();
+        s = grade(queued, maxQueuedWrites);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_WRITE_QUEUE;
+        status = worse(status, s);
+
+        long nowMs = SystemClock.elapsedRealtime();
+        double dropRate = decoderDrops.rate(statistics.getDecoderDroppedCount(), nowMs);
+        s = grade(dropRate, maxDecoderDropRate);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_DECODER_DROPS;
+        status = worse(status, s);
+
+        // UART driver counters: overruns mean the read path is too slow, parity/framing errors a bad line
+        double overrunRate = overruns.rate(statistics.getOverrunCount(), nowMs);
+        s = grade(overrunRate, maxOverrunRate);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_OVERRUNS;
+        status = worse(status, s);
+
+        double lineErrorRate = lineErrors.rate(statistics.getLineErrorCount(), nowMs);
+        s = grade(lineErrorRate, maxLineErrorRate);
+        if (s != HealthStatus.HEALTHY) reasons |= Report.REASON_LINE_ERRORS;
+        status = worse(status, s);
+
+        r.evaluatedStatus = status;
+        r.reasons = reasons;
+        r.state = state;
+        r.evaluatedAtMs = nowMs;
+        r.evaluationCount++;
+        r.idleMs = idleTime;
+        r.errorRate = errorRate;
+        r.reconnectCount = reconnectCount;
+        r.receiveRate = rxRate;
+        r.sendRate = statistics.getSendByteRate().getTenSecondRate();
+        r.dispatchLatencyMs = dispatchMs;
+        r.queuedWrites = queued;
+        r.decoderDropRate = dropRate;
+        r.decoderBufferedBytes = statistics.getDecoderBufferedBytes();
+        r.overrunRate = overrunRate;
+        r.lineErrorRate = lineErrorRate;
+        return applyHysteresis(status);
+    }
+
+    // Caller holds this
+    private StatusChange applyHysteresis(HealthStatus evaluated) {
+        HealthStatus reported = report.status;
+        if (evaluated == reported) {
+            candidate = null;
+            candidateCount = 0;
+            return null;
         }
-        if (errorRate > maxErrorRate) {
-            return HealthStatus.WARNING;  // Elevated error rate
+        if (evaluated != candidate) {
+            candidate = evaluated;
+            candidateCount = 0;
         }
-        
-        // Check reconnection count
-        long reconnectCount = statistics.getReconnectCount();
-        if (reconnectCount > maxReconnectCount * 2) {
-            return HealthStatus.CRITICAL;  // Too many reconnects
+        candidateCount++;
+        int needed = evaluated.ordinal() > reported.ordinal() ? escalateAfter : recoverAfter;
+        if (candidateCount < needed) return null;
+        candidate = null;
+        candidateCount = 0;
+        report.status = evaluated;
+        if (listeners.length == 0) return null;
+        return new StatusChange(reported, report, listeners);
+    }
+
+    /**
+     * Call the listeners of a change outside the lock, so a slow listener neither blocks pulls
+     * nor holds the timer thread inside this monitor.
+     */
+    private void notifyListeners(StatusChange change) {
+        if (change == null) return;
+        for (OnHealthChangeListener l : change.listeners) {
+            try {
+                l.onHealthChanged(this, change.from, change.report.status, change.report);
+            } catch (Throwable ignored) {
+                // A failing listener must not stop the evaluations.
+            }
         }
-        if (reconnectCount > maxReconnectCount) {
-            return HealthStatus.WARNING;  // Frequent reconnects
+    }
+
+    /**
+     * A reported status change with the report and listeners as of the change.
+     */
+    private static final class StatusChange {
+        final HealthStatus from;
+        final Report report = new Report();
+        final OnHealthChangeListener[] listeners;
+
+        StatusChange(HealthStatus from, Report report, OnHealthChangeListener[] listeners) {
+            this.from = from;
+            this.report.copyFrom(report);
+            this.listeners = listeners;
         }
-        
-        // Check if connection is open
-        if (state != SerialConnection.State.OPEN) {
-            return HealthStatus.WARNING;  // Not fully open
+    }
+
+    /**
+     * WARNING above {@code limit}, CRITICAL above twice the limit; a limit <= 0 disables the check.
+     */
+    private static HealthStatus grade(double value, double limit) {
+        if (limit <= 0 || value <= limit) return HealthStatus.HEALTHY;
+        return value > limit * 2 ? HealthStatus.CRITICAL : HealthStatus.WARNING;
+    }
+
+    private static HealthStatus worse(HealthStatus a, HealthStatus b) {
+        return b.ordinal() > a.ordinal() ? b : a;
+    }
+
+    /**
+     * Per-second rate of a session counter between two evaluations. Guarded by the monitor.
+     */
+    private static final class PeriodRate {
+        private long last;
+        private long lastAtMs;
+
+        double rate(long count, long nowMs) {
+            // A statistics reset (reopen) restarts the count
+            long delta = count >= last ? count - last : count;
+            long elapsed = nowMs - lastAtMs;
+            last = count;
+            lastAtMs = nowMs;
+            return elapsed > 0 ? delta * 1000.0 / elapsed : 0.0;
         }
-        
-        return HealthStatus.HEALTHY;
     }
-    
+
     /**
-     * Get detailed health diagnosis report.
+     * Get detailed health diagnosis report. While started, it describes the last scheduled
+     * evaluation.
      */
     public String getDiagnosis() {
-        HealthStatus status = checkHealth();
-        StringBuilder report = new StringBuilder();
-        report.append("Health Status: ").append(status).append("\n");
-        
-        SerialConnection.State state = connection.getState();
-        report.append("Connection State: ").append(state).append("\n");
-        
+        HealthStatus status;
+        Report r = new Report();
+        StatusChange change = null;
+        synchronized (this) {
+            // Started: describe the last scheduled evaluation rather than running another
+            if (!running || report.evaluationCount == 0) {
+                change = evaluate();
+            }
+            r.copyFrom(report);
+            status = r.evaluatedStatus;
+        }
+        notifyListeners(change);
+        StringBuilder text = new StringBuilder();
+        text.append("Health Status: ").append(status).append("\n");
+
+        text.append("Connection State: ").append(r.state).append("\n");
+
         long uptime = statistics.getSessionUptimeMs();
-        report.append("Uptime: ").append(uptime / 1000).append(" seconds\n");
-        
-        long idleTime = statistics.getTimeSinceLastReceiveMs();
-        if (idleTime > 0) {
-            report.append("Time since last receive: ").append(idleTime).append(" ms\n");
+        text.append("Uptime: ").append(uptime / 1000).append(" seconds\n");
+
+        if (r.idleMs > 0) {
+            text.append("Time since last receive: ").append(r.idleMs).append(" ms\n");
         }
-        
-        double errorRate = statistics.getErrorRate();
-        report.append("Error rate: ").append(String.format("%.4f", errorRate)).append(" errors/s\n");
-        
-        long reconnectCount = statistics.getReconnectCount();
-        report.append("Reconnection count: ").append(reconnectCount).append("\n");
-        
-        double rxThroughput = statistics.getReceiveThroughputBps();
-        double txThroughput = statistics.getSendThroughputBps();
-        report.append("Receive throughput: ").append(String.format("%.2f", rxThroughput)).append(" B/s\n");
-        report.append("Send throughput: ").append(String.format("%.2f", txThroughput)).append(" B/s\n");
-        
+
+        text.append("Error rate (1 min): ").append(String.format("%.4f", r.errorRate)).append(" errors/s\n");
+
+        text.append("Reconnection count: ").append(r.reconnectCount).append("\n");
+
+        RateMeter rx = statistics.getReceiveByteRate();
+        RateMeter tx = statistics.getSendByteRate();
+        text.append("Receive throughput (10 s): ").append(String.format("%.2f", r.receiveRate))
+                .append(" B/s, peak ").append(String.format("%.2f", rx.getPeakRate())).append(" B/s\n");
+        text.append("Send throughput (10 s): ").append(String.format("%.2f", r.sendRate))
+                .append(" B/s, peak ").append(String.format("%.2f", tx.getPeakRate())).append(" B/s\n");
+        text.append("Dispatch latency p").append(latencyPercentile).append(": ")
+                .append(String.format("%.3f", r.dispatchLatencyMs)).append(" ms\n");
+        text.append("Queued writes: ").append(r.queuedWrites).append("\n");
+        if (statistics.getDecoderMetrics() != null) {
+            text.append("Decoder: ").append(statistics.getDecoderDroppedCount()).append(" frames dropped (")
+                    .append(statistics.getDecoderDroppedBytes()).append(" bytes), ")
+                    .append(statistics.getDecoderResyncCount()).append(" resyncs, buffered ")
+                    .append(r.decoderBufferedBytes).append(" bytes (max ")
+                    .append(statistics.getDecoderMaxBufferedBytes()).append("), largest frame ")
+                    .append(statistics.getLargestFrameLength()).append(" bytes\n");
+        }
+        if (statistics.isLineCountsAvailable()) {
+            text.append("UART: ").append(statistics.getOverrunCount()).append(" overruns (")
+                    .append(String.format("%.2f", r.overrunRate)).append("/s), ")
+                    .append(statistics.getLineErrorCount()).append(" parity/framing errors (")
+                    .append(String.format("%.2f", r.lineErrorRate)).append("/s), ")
+                    .append(statistics.getBreakCount()).append(" breaks\n");
+        }
+
         Throwable lastError = connection.getLastError();
         if (lastError != null) {
-            report.append("Last error: ").append(lastError.getMessage()).append("\n");
+            text.append("Last error: ").append(lastError.getMessage()).append("\n");
         }
-        
+
         // Add recommendations
         if (status == HealthStatus.WARNING || status == HealthStatus.CRITICAL) {
-            report.append("\nRecommendations:\n");
-            if (idleTime > maxIdleTimeMs) {
-                report.append("- Check device connection and data flow\n");
+            text.append("\nRecommendations:\n");
+            if (r.hasReason(Report.REASON_IDLE) || r.hasReason(Report.REASON_LOW_RECEIVE_RATE)) {
+                text.append("- Check device connection and data flow\n");
+            }
+            if (r.hasReason(Report.REASON_ERROR_RATE)) {
+                text.append("- Investigate error sources (cable, interference, baud rate)\n");
+            }
+            if (r.hasReason(Report.REASON_RECONNECTS)) {
+                text.append("- Check device stability and power supply\n");
+            }
+            if (r.hasReason(Report.REASON_DISPATCH_LATENCY)) {
+                text.append("- Move slow listeners off the callback thread\n");
             }
-            if (errorRate > maxErrorRate) {
-                report.append("- Investigate error sources (cable, interference, baud rate)\n");
+            if (r.hasReason(Report.REASON_WRITE_QUEUE)) {
+                text.append("- Reduce send rate or send interval\n");
             }
-            if (reconnectCount > maxReconnectCount) {
-                report.append("- Check device stability and power supply\n");
+            if (r.hasReason(Report.REASON_OVERRUNS)) {
+                text.append("- Read path too slow: use NIO or a larger read buffer, reduce listener work\n");
+            }
+            if (r.hasReason(Report.REASON_LINE_ERRORS)) {
+                text.append("- Check baud rate, parity and stop bits, cabling and interference\n");
+            }
+            if (r.hasReason(Report.REASON_DECODER_DROPS)) {
+                text.append("- Check framing settings (maxFrameLength, delimiters, checksum) and baud rate\n");
             }
         }
-        
-        return report.toString();
+
+        return text.toString();
     }
-    
+
     /**
      * Builder for HealthMonitor configuration.
      */
@@ -137,24 +660,133 @@ public final class HealthMonitor {
         private long maxIdleTimeMs = 30000;  // 30 seconds default
         private double maxErrorRate = 1.0;  // 1 error per second
         private long maxReconnectCount = 5;  // 5 reconnects
-        
+        private double minReceiveRate = 0;
+        private double maxDispatchLatencyMs = 0;
+        private double latencyPercentile = 99.0;
+        private int maxQueuedWrites = 0;
+        private double maxDecoderDropRate = 0;
+        private double maxOverrunRate = 0;
+        private double maxLineErrorRate = 0;
+        private long evaluationPeriodMs = 1000;
+        private int escalateAfter = 1;
+        private int recoverAfter = 3;
+        private SerialTimer timer;
+        private OnHealthChangeListener listener;
+
         public Builder maxIdleTimeMs(long maxIdleTimeMs) {
             this.maxIdleTimeMs = maxIdleTimeMs;
             return this;
         }
-        
+
+        /**
+         * Max read plus write errors per second over the last minute.
+         */
         public Builder maxErrorRate(double maxErrorRate) {
             this.maxErrorRate = maxErrorRate;
             return this;
         }
-        
+
         public Builder maxReconnectCount(long maxReconnectCount) {
             this.maxReconnectCount = maxReconnectCount;
             return this;
         }
-        
+
+        /**
+         * Warn when the 10 s receive rate of an open port drops below this (B/s). 0 (default) = off.
+         */
+        public Builder minReceiveRate(double bytesPerSecond) {
+            this.minReceiveRate = bytesPerSecond;
+            return this;
+        }
+
+        /**
+         * Max dispatch latency (read to listener) at {@code percentile} over each evaluation
+         * period. 0 (default) = off.
+         */
+        public Builder maxDispatchLatencyMs(double percentile, double maxMs) {
+            if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("percentile must be 0..100");
+            this.latencyPercentile = percentile;
+            this.maxDispatchLatencyMs = maxMs;
+            return this;
+        }
+
+        /**
+         * Max writes waiting on the write thread. 0 (default) = off.
+         */
+        public Builder maxQueuedWrites(int maxQueuedWrites) {
+            this.maxQueuedWrites = maxQueuedWrites;
+            return this;
+        }
+
+        /**
+         * Max frames dropped by the decoder per second over each evaluation period (see
+         * {@link DecoderMetrics}). 0 (default) = off.
+         */
+        public Builder maxDecoderDropRate(double dropsPerSecond) {
+            this.maxDecoderDropRate = dropsPerSecond;
+            return this;
+        }
+
+        /**
+         * Max UART overruns (hardware FIFO plus tty buffer) per second over each evaluation
+         * period. Needs driver support, see {@link SerialStatistics#isLineCountsAvailable()}.
+         * 0 (default) = off.
+         */
+        public Builder maxOverrunRate(double overrunsPerSecond) {
+            this.maxOverrunRate = overrunsPerSecond;
+            return this;
+        }
+
+        /**
+         * Max UART parity plus framing errors per second over each evaluation period. 0 (default) = off.
+         */
+        public Builder maxLineErrorRate(double errorsPerSecond) {
+            this.maxLineErrorRate = errorsPerSecond;
+            return this;
+        }
+
+        /**
+         * Period of scheduled evaluations after {@link HealthMonitor#start()} (default 1000 ms).
+         */
+        public Builder evaluationPeriodMs(long periodMs) {
+            if (periodMs <= 0) throw new IllegalArgumentException("periodMs must be > 0");
+            this.evaluationPeriodMs = periodMs;
+            return this;
+        }
+
+        /**
+         * Consecutive worse evaluations before a worse status is reported (default 1).
+         */
+        public Builder escalateAfter(int evaluations) {
+            if (evaluations < 1) throw new IllegalArgumentException("evaluations must be >= 1");
+            this.escalateAfter = evaluations;
+            return this;
+        }
+
+        /**
+         * Consecutive better evaluations before a recovery is reported (default 3).
+         */
+        public Builder recoverAfter(int evaluations) {
+            if (evaluations < 1) throw new IllegalArgumentException("evaluations must be >= 1");
+            this.recoverAfter = evaluations;
+            return this;
+        }
+
+        /**
+         * Timer for scheduled evaluations. Default: {@link SerialTimer#shared()}.
+         */
+        public Builder timer(SerialTimer timer) {
+            this.timer = timer;
+            return this;
+        }
+
+        public Builder listener(OnHealthChangeListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
         public HealthMonitor build(SerialConnection connection, SerialStatistics statistics) {
-            return new HealthMonitor(connection, statistics, maxIdleTimeMs, maxErrorRate, maxReconnectCount);
+            return new HealthMonitor(connection, statistics, this);
         }
     }
 }
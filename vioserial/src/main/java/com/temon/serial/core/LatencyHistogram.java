@@ -0,0 +1,197 @@
+package com.temon.serial.core;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram of durations in nanoseconds.
+ *
+ * <p>Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so any recorded
+ * value is reported within about 6% of its true value. Values from 0 ns up to about 137 s are
+ * tracked; larger values are counted in the last bucket. Recording is two atomic adds (lock-free,
+ * allocation-free) and may be done from any thread.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /** Highest tracked exponent: values up to 2^(MAX_EXPONENT+1) - 1 ns. */
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalNanos = new AtomicLong(0);
+    private volatile long maxNanos = 0L;
+    /** Bumped by {@link #reset()} so intervals notice a reset even where counts grew back. */
+    private volatile int resets = 0;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(indexOf(nanos));
+        totalNanos.addAndGet(nanos);
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            n += buckets.get(i);
+        }
+        return n;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getMaxMs() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    public double getMeanMs() {
+        long n = getCount();
+        return n == 0 ? 0.0 : totalNanos.get() / (n * 1_000_000.0);
+    }
+
+    /**
+     * Value below which {@code percentile} percent of recordings fall (upper edge of the bucket).
+     *
+     * @param percentile 0..100, e.g. 99.0
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("percentile must be 0..100");
+        long n = getCount();
+        if (n == 0) return 0L;
+        long rank = (long) Math.ceil(percentile / 100.0 * n);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public double getPercentileMs(double percentile) {
+        return getPercentileNanos(percentile) / 1_000_000.0;
+    }
+
+    /**
+     * Add all recordings of {@code other} to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        if (other == null || other == this) return;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.buckets.get(i);
+            if (c != 0) buckets.addAndGet(i, c);
+        }
+        totalNanos.addAndGet(other.totalNanos.get());
+        long m = other.maxNanos;
+        if (m > maxNanos) maxNanos = m;
+    }
+
+    public void reset() {
+        resets++;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0L);
+        }
+        totalNanos.set(0L);
+        maxNanos = 0L;
+    }
+
+    /**
+     * Create a window over this histogram that reports only the recordings made between two
+     * calls of {@link Interval#advance()}.
+     */
+    public Interval newInterval() {
+        return new Interval(this);
+    }
+
+    /**
+     * Recordings of one histogram between the last two {@link #advance()} calls. Keeps its own
+     * copy of the bucket counts, so advancing and reading allocate nothing. Not thread-safe.
+     */
+    public static final class Interval {
+        private final LatencyHistogram histogram;
+        private final long[] previous = new long[BUCKET_COUNT];
+        private final long[] delta = new long[BUCKET_COUNT];
+        private long count;
+        private int resets;
+
+        private Interval(LatencyHistogram histogram) {
+            this.histogram = histogram;
+            this.resets = histogram.resets;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                previous[i] = histogram.buckets.get(i);
+            }
+        }
+
+        /**
+         * Close the current interval: it now covers the recordings since the previous call.
+         */
+        public void advance() {
+            int r = histogram.resets;
+            boolean wasReset = r != resets;
+            resets = r;
+            long n = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long c = histogram.buckets.get(i);
+                // The histogram was reset: count from zero.
+                long d = !wasReset && c >= previous[i] ? c - previous[i] : c;
+                delta[i] = d;
+                previous[i] = c;
+                n += d;
+            }
+            count = n;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Percentile of the closed interval (upper edge of the bucket), 0 if it had no recordings.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("percentile must be 0..100");
+            if (count == 0) return 0L;
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            if (rank < 1) rank = 1;
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += delta[i];
+                if (seen >= rank) return upperBound(i);
+            }
+            return upperBound(BUCKET_COUNT - 1);
+        }
+
+        public double getPercentileMs(double percentile) {
+            return getPercentileNanos(percentile) / 1_000_000.0;
+        }
+    }
+
+    static int indexOf(long v) {
+        if (v > MAX_VALUE) v = MAX_VALUE;
+        if (v < SUB_BUCKETS) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        return (exp - SUB_BITS + 1) * SUB_BUCKETS + (int) ((v >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exp = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        int shift = exp - SUB_BITS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "n=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                getCount(), getMeanMs(), getPercentileMs(50), getPercentileMs(99), getMaxMs());
+    }
+}
@@ -0,0 +1,15 @@
+package com.temon.serial.core;
+
+/**
+ * A {@link CallbackDispatcher} that can give each port its own ordered lane.
+ *
+ * <p>{@link SerialConnection} calls {@link #forPort(String)} once when it is built and dispatches
+ * all of its callbacks through the returned lane, so callbacks of one port keep their order while
+ * different ports may run concurrently.</p>
+ */
+public interface PortAwareDispatcher extends CallbackDispatcher {
+    /**
+     * Dispatcher for one port. Repeated calls with the same port return the same lane.
+     */
+    CallbackDispatcher forPort(String port);
+}
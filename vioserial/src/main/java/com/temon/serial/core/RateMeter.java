@@ -0,0 +1,140 @@
+package com.temon.serial.core;
+
+import android.os.SystemClock;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event rate over the last 1, 10 and 60 seconds (exponentially weighted moving averages), plus
+ * the highest 1 s rate seen.
+ *
+ * <p>Marking is one atomic add; the averages are updated every {@value #TICK_MS} ms by whichever
+ * thread marks or reads first after the tick is due, so a meter that stops receiving events
+ * decays towards 0 when it is read.</p>
+ */
+public final class RateMeter {
+
+    static final long TICK_MS = 250L;
+    private static final double ALPHA_1S = alpha(1);
+    private static final double ALPHA_10S = alpha(10);
+    private static final double ALPHA_60S = alpha(60);
+
+    private final AtomicLong count = new AtomicLong(0);
+    private volatile long lastTick;
+    // Written under this, read without
+    private long counted;
+    private boolean initialized;
+    private volatile double rate1s;
+    private volatile double rate10s;
+    private volatile double rate60s;
+    private volatile double peakRate;
+
+    public RateMeter() {
+        this(SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * @param nowMs start time on the {@link SystemClock#elapsedRealtime()} base
+     */
+    RateMeter(long nowMs) {
+        lastTick = nowMs;
+    }
+
+    public void mark(long n) {
+        mark(n, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * @param nowMs {@link SystemClock#elapsedRealtime()} already read by the caller
+     */
+    public void mark(long n, long nowMs) {
+        count.addAndGet(n);
+        if (nowMs - lastTick >= TICK_MS) tick(nowMs);
+    }
+
+    /**
+     * Total events marked since creation or {@link #reset()}.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Events per second, averaged over about the last second.
+     */
+    public double getOneSecondRate() {
+        tickIfDue();
+        return rate1s;
+    }
+
+    public double getTenSecondRate() {
+        tickIfDue();
+        return rate10s;
+    }
+
+    public double getOneMinuteRate() {
+        tickIfDue();
+        return rate60s;
+    }
+
+    /**
+     * Highest 1 s rate since creation or {@link #reset()}.
+     */
+    public double getPeakRate() {
+        tickIfDue();
+        return peakRate;
+    }
+
+    public synchronized void reset() {
+        count.set(0L);
+        counted = 0L;
+        initialized = false;
+        rate1s = 0.0;
+        rate10s = 0.0;
+        rate60s = 0.0;
+        peakRate = 0.0;
+        lastTick = SystemClock.elapsedRealtime();
+    }
+
+    private void tickIfDue() {
+        long now = SystemClock.elapsedRealtime();
+        if (now - lastTick >= TICK_MS) tick(now);
+    }
+
+    private synchronized void tick(long nowMs) {
+        long ticks = (nowMs - lastTick) / TICK_MS;
+        if (ticks <= 0) return;
+        lastTick += ticks * TICK_MS;
+        long total = count.get();
+        double instant = (total - counted) * 1000.0 / TICK_MS;
+        counted = total;
+        if (!initialized) {
+            initialized = true;
+            rate1s = instant;
+            rate10s = instant;
+            rate60s = instant;
+        } else {
+            // Ticks nobody was around for had no events; the pending ones go into the last tick.
+            rate1s = update(rate1s, ALPHA_1S, ticks, instant);
+            rate10s = update(rate10s, ALPHA_10S, ticks, instant);
+            rate60s = update(rate60s, ALPHA_60S, ticks, instant);
+        }
+        if (rate1s > peakRate) peakRate = rate1s;
+    }
+
+    private static double update(double rate, double alpha, long ticks, double instant) {
+        if (ticks > 1) rate *= Math.pow(1.0 - alpha, ticks - 1);
+        return rate + alpha * (instant - rate);
+    }
+
+    private static double alpha(int windowSeconds) {
+        return 1.0 - Math.exp(-TICK_MS / (windowSeconds * 1000.0));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "count=%d 1s=%.2f/s 10s=%.2f/s 60s=%.2f/s peak=%.2f/s",
+                getCount(), getOneSecondRate(), getTenSecondRate(), getOneMinuteRate(), getPeakRate());
+    }
+}
@@ -0,0 +1,338 @@
+package com.temon.serial.core;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link SerialTracer} recording the last {@code capacity} events in memory, dumped on demand as
+ * a Chrome trace JSON file (open in {@code chrome://tracing} or Perfetto).
+ *
+ * <p>Each event is four longs in a preallocated ring (time, thread, kind/port/arguments and a
+ * completion stamp), written with ordered stores after claiming a sequence number; recording
+ * does not lock or allocate. Older events are overwritten. Timestamps are
+ * {@link System#nanoTime()}, the monotonic clock also used by {@link android.os.Trace}, so a
+ * dump lines up with a systrace capture of the same run. Each port is a separate process row in
+ * the dump, with one track per thread.</p>
+ */
+public class RecordingSerialTracer implements SerialTracer {
+    private static final int READ_BEGIN = 1;
+    private static final int READ_END = 2;
+    private static final int DECODE_BEGIN = 3;
+    private static final int DECODE_END = 4;
+    private static final int FRAME = 5;
+    private static final int DISPATCH_BEGIN = 6;
+    private static final int DISPATCH_END = 7;
+    private static final int WRITE_BEGIN = 8;
+    private static final int WRITE_END = 9;
+
+    private static final int MAX_PORTS = 255;
+    // Slot layout: stamp (sequence + 1 once written), nanos, thread id, packed event
+    private static final int SLOT = 4;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray slots;
+    private final AtomicLong next = new AtomicLong();
+    // Sequences below this were cleared
+    private volatile long floor;
+
+    // Port index in a packed event; copy-on-write
+    private volatile String[] ports = new String[0];
+    private final ConcurrentHashMap<Long, String> threadNames = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> threadSeen = new ThreadLocal<>();
+
+    /**
+     * @param capacity Number of events kept, rounded up to a power of two (each takes 32 bytes)
+     */
+    public RecordingSerialTracer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 24)) throw new IllegalArgumentException("capacity must be 1..16777216");
+        int c = Integer.highestOneBit(capacity);
+        if (c < capacity) c <<= 1;
+        this.capacity = c;
+        this.mask = c - 1;
+        this.slots = new AtomicLongArray(c * SLOT);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Events recorded since creation or {@link #clear()}, including those already overwritten.
+     */
+    public long getEventCount() {
+        return next.get() - floor;
+    }
+
+    /**
+     * Forget recorded events. Events being recorded concurrently may survive.
+     */
+    public void clear() {
+        long end = next.get();
+        for (int i = 0; i < capacity; i++) {
+            slots.set(i * SLOT, 0L);
+        }
+        // Only sequences claimed from here on are dumped
+        floor = end;
+    }
+
+    @Override
+    public void readBegin(String port) {
+        record(READ_BEGIN, port, 0, 0);
+    }
+
+    @Override
+    public void readEnd(String port, int bytes) {
+        record(READ_END, port, 0, bytes);
+    }
+
+    @Override
+    public void decodeBegin(String port, int bytes) {
+        record(DECODE_BEGIN, port, 0, bytes);
+    }
+
+    @Override
+    public void decodeEnd(String port) {
+        record(DECODE_END, port, 0, 0);
+    }
+
+    @Override
+    public void frameEmitted(String port, int length, int frameType) {
+        record(FRAME, port, frameType, length);
+    }
+
+    @Override
+    public void dispatchBegin(String port) {
+        record(DISPATCH_BEGIN, port, 0, 0);
+    }
+
+    @Override
+    public void dispatchEnd(String port) {
+        record(DISPATCH_END, port, 0, 0);
+    }
+
+    @Override
+    public void writeBegin(String port, int bytes) {
+        record(WRITE_BEGIN, port, 0, bytes);
+    }
+
+    @Override
+    public void writeEnd(String port, boolean success) {
+        record(WRITE_END, port, 0, success ? 1 : 0);
+    }
+
+    private void record(int kind, String port, int type, int arg) {
+        long nanos = System.nanoTime();
+        Thread t = Thread.currentThread();
+        long tid = t.getId();
+        if (threadSeen.get() == null) {
+            threadSeen.set(Boolean.TRUE);
+            threadNames.put(tid, t.getName());
+        }
+        // kind (8) | port (8) | frame type (16, two's complement) | argument (32)
+        long packed = ((long) kind << 56) | ((long) portIndex(port) << 48)
+                | ((long) (type & 0xFFFF) << 32) | (arg & 0xFFFFFFFFL);
+        long seq = next.getAndIncrement();
+        int base = (int) (seq & mask) * SLOT;
+        slots.lazySet(base + 1, nanos);
+        slots.lazySet(base + 2, tid);
+        slots.lazySet(base + 3, packed);
+        slots.lazySet(base, seq + 1);
+    }
+
+    private int portIndex(String port) {
+        String[] table = ports;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i].equals(port)) return i;
+        }
+        synchronized (this) {
+            table = ports;
+            for (int i = 0; i < table.length; i++) {
+                if (table[i].equals(port)) return i;
+            }
+            // Beyond MAX_PORTS ports, the last one collects the rest
+            if (table.length == MAX_PORTS) return MAX_PORTS - 1;
+            String[] grown = new String[table.length + 1];
+            System.arraycopy(table, 0, grown, 0, table.length);
+            grown[table.length] = port != null ? port : "?";
+            ports = grown;
+            return table.length;
+        }
+    }
+
+    /**
+     * Write the recorded events as Chrome trace JSON ({@code {"traceEvents": [...]}}) to
+     * {@code file}. Safe while recording continues; events overwritten during the dump are left out.
+     */
+    public void writeChromeTrace(File file) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            writeChromeTrace(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write the recorded events as Chrome trace JSON to {@code out} (not closed).
+     */
+    public void writeChromeTrace(Writer out) throws IOException {
+        // Copy first, then drop what writers may have overwritten while copying
+        long end = next.get();
+        long start = Math.max(Math.max(0L, end - capacity), floor);
+        int n = (int) (end - start);
+        long[] nanos = new long[n];
+        long[] tids = new long[n];
+        long[] packed = new long[n];
+        boolean[] valid = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            long seq = start + i;
+            int base = (int) (seq & mask) * SLOT;
+            if (slots.get(base) != seq + 1) continue;
+            nanos[i] = slots.get(base + 1);
+            tids[i] = slots.get(base + 2);
+            packed[i] = slots.get(base + 3);
+            valid[i] = true;
+        }
+        long overwritten = next.get() - capacity;
+        String[] portNames = ports;
+
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        HashSet<Integer> pids = new HashSet<>();
+        HashSet<String> threads = new HashSet<>();
+        // Open begin events per port and thread: ends whose begin was overwritten are skipped
+        HashMap<String, int[]> depth = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (!valid[i] || start + i < overwritten) continue;
+            int kind = (int) (packed[i] >>> 56);
+            int portIndex = (int) (packed[i] >>> 48) & 0xFF;
+            int type = (short) (packed[i] >>> 32);
+            int arg = (int) packed[i];
+            int pid = portIndex + 1;
+            long tid = tids[i];
+
+            if (pids.add(pid)) {
+                String name = portIndex < portNames.length ? portNames[portIndex] : "?";
+                first = separator(out, first);
+                out.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + pid
+                        + ",\"args\":{\"name\":\"" + escape(name) + "\"}}");
+            }
+            String threadKey = pid + "/" + tid;
+            if (threads.add(threadKey)) {
+                String name = threadNames.get(tid);
+                first = separator(out, first);
+                out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + pid + ",\"tid\":" + tid
+                        + ",\"args\":{\"name\":\"" + escape(name != null ? name : "thread-" + tid) + "\"}}");
+            }
+            int[] open = depth.get(threadKey);
+            if (open == null) {
+                open = new int[1];
+                depth.put(threadKey, open);
+            }
+
+            String name;
+            String ph;
+            String args = null;
+            switch (kind) {
+                case READ_BEGIN:
+                    name = "read";
+                    ph = "B";
+                    break;
+                case READ_END:
+                    name = "read";
+                    ph = "E";
+                    args = "{\"bytes\":" + arg + "}";
+                    break;
+                case DECODE_BEGIN:
+                    name = "decode";
+                    ph = "B";
+                    args = "{\"bytes\":" + arg + "}";
+                    break;
+                case DECODE_END:
+                    name = "decode";
+                    ph = "E";
+                    break;
+                case FRAME:
+                    name = "frame";
+                    ph = "i";
+                    args = "{\"length\":" + arg + ",\"type\":" + type + "}";
+                    break;
+                case DISPATCH_BEGIN:
+                    name = "dispatch";
+                    ph = "B";
+                    break;
+                case DISPATCH_END:
+                    name = "dispatch";
+                    ph = "E";
+                    break;
+                case WRITE_BEGIN:
+                    name = "write";
+                    ph = "B";
+                    args = "{\"bytes\":" + arg + "}";
+                    break;
+                case WRITE_END:
+                    name = "write";
+                    ph = "E";
+                    args = "{\"success\":" + (arg != 0) + "}";
+                    break;
+                default:
+                    continue;
+            }
+            if ("B".equals(ph)) {
+                open[0]++;
+            } else if ("E".equals(ph)) {
+                if (open[0] == 0) continue;
+                open[0]--;
+            }
+
+            first = separator(out, first);
+            out.write("{\"name\":\"" + name + "\",\"cat\":\"serial\",\"ph\":\"" + ph + "\"");
+            if ("i".equals(ph)) out.write(",\"s\":\"t\"");
+            out.write(",\"ts\":" + micros(nanos[i]) + ",\"pid\":" + pid + ",\"tid\":" + tid);
+            if (args != null) out.write(",\"args\":" + args);
+            out.write('}');
+        }
+        out.write("]}\n");
+        out.flush();
+    }
+
+    private static boolean separator(Writer out, boolean first) throws IOException {
+        if (!first) out.write(",\n");
+        return false;
+    }
+
+    private static String micros(long nanos) {
+        long us = nanos / 1000;
+        int frac = (int) (nanos % 1000);
+        if (frac < 0) {
+            us--;
+            frac += 1000;
+        }
+        return us + (frac < 10 ? ".00" : frac < 100 ? ".0" : ".") + frac;
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
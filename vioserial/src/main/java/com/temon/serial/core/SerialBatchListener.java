@@ -0,0 +1,18 @@
+package com.temon.serial.core;
+
+import java.util.List;
+
+/**
+ * Optional extension of {@link SerialListener} that receives frames in batches.
+ *
+ * <p>When the listener implements this interface, {@link SerialConnection} calls
+ * {@link #onFrames(List)} <b>instead of</b> {@link #onFrame(byte[], int)}. Frames arriving while a
+ * batch is waiting for the callback thread join that batch, so with
+ * {@link Dispatchers#mainThreadBatched()} a UI gets at most one call per display frame.</p>
+ */
+public interface SerialBatchListener extends SerialListener {
+    /**
+     * @param frames Complete frames in arrival order; each array is exactly one frame
+     */
+    void onFrames(List<byte[]> frames);
+}
@@ -0,0 +1,23 @@
+package com.temon.serial.core;
+
+/**
+ * Monotonic time source used by time-sensitive decoders and timers.
+ *
+ * <p>Inject a custom implementation to drive decoders with recorded or synthetic timestamps.</p>
+ */
+public interface SerialClock {
+    /**
+     * Monotonic time in nanoseconds (arbitrary origin).
+     */
+    long nanoTime();
+
+    /**
+     * Default clock backed by {@link System#nanoTime()}.
+     */
+    SerialClock SYSTEM = new SerialClock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+}
@@ -14,8 +14,10 @@ public final class SerialConfig {
     public final int sendIntervalMs;
     public final int readTimeoutMs;
     public final int deviceCheckIntervalMs;
+    public final int lineStatusIntervalMs;  // UART error counter / modem line sampling, 0 = off
     public final boolean useNioMode;  // Use NIO Selector for better timeout precision
     public final int readBufferSize;  // Read buffer size (adaptive if <= 0)
+    public final boolean nativeIdleFraming;  // Idle-gap framing measured in the native read loop
     public final PermissionStrategy permissionStrategy;
 
     private SerialConfig(Builder b) {
@@ -30,11 +32,44 @@ public final class SerialConfig {
         this.sendIntervalMs = b.sendIntervalMs;
         this.readTimeoutMs = b.readTimeoutMs;
         this.deviceCheckIntervalMs = b.deviceCheckIntervalMs;
+        this.lineStatusIntervalMs = b.lineStatusIntervalMs;
         this.useNioMode = b.useNioMode;
         this.readBufferSize = b.readBufferSize > 0 ? b.readBufferSize : SerialDefaults.READ_BUFFER_SIZE;
+        this.nativeIdleFraming = b.nativeIdleFraming;
         this.permissionStrategy = b.permissionStrategy;
     }
 
+    /**
+     * {@code base} with the line settings (baud rate, stop bits, data bits, parity, flow control,
+     * read timeout) and send interval of {@code line}.
+     */
+    private SerialConfig(SerialConfig base, SerialConfig line) {
+        this.port = base.port;
+        this.baudRate = line.baudRate;
+        this.stopBits = line.stopBits;
+        this.dataBits = line.dataBits;
+        this.parity = line.parity;
+        this.flowCon = line.flowCon;
+        this.flags = base.flags;
+        this.textCharset = base.textCharset;
+        this.sendIntervalMs = line.sendIntervalMs;
+        this.readTimeoutMs = line.readTimeoutMs;
+        this.deviceCheckIntervalMs = base.deviceCheckIntervalMs;
+        this.lineStatusIntervalMs = base.lineStatusIntervalMs;
+        this.useNioMode = base.useNioMode;
+        this.readBufferSize = base.readBufferSize;
+        this.nativeIdleFraming = base.nativeIdleFraming;
+        this.permissionStrategy = base.permissionStrategy;
+    }
+
+    /**
+     * The settings an open port can change in place (see {@link SerialConnection#reconfigure}),
+     * taken from {@code line}; everything else from this config.
+     */
+    SerialConfig withLineSettingsOf(SerialConfig line) {
+        return new SerialConfig(this, line);
+    }
+
     public static final class Builder {
         private String port;
         private int baudRate;
@@ -47,8 +82,10 @@ public final class SerialConfig {
         private int sendIntervalMs = 0;
         private int readTimeoutMs = SerialDefaults.READ_TIMEOUT_MS;  // Default timeout for device checks
         private int deviceCheckIntervalMs = SerialDefaults.DEVICE_CHECK_INTERVAL_MS;  // Default: check every 5 seconds
+        private int lineStatusIntervalMs = SerialDefaults.LINE_STATUS_INTERVAL_MS;
         private boolean useNioMode = false;  // Default: use traditional blocking I/O
         private int readBufferSize = 0;  // 0 = use default, >0 = custom size
+        private boolean nativeIdleFraming = false;
         private PermissionStrategy permissionStrategy;
 
         public Builder port(String port) {
@@ -126,6 +163,21 @@ public final class SerialConfig {
             return this;
         }
 
+        /**
+         * UART line status sampling interval in milliseconds. Default: 1000.
+         *
+         * <p>The read thread reads the driver's error counters (overrun, parity, framing, break;
+         * TIOCGICOUNT) and the modem lines (TIOCMGET) at this interval into
+         * {@link SerialStatistics}. Drivers without them (ptys, many USB adapters) are detected on
+         * the first sample and not polled again.</p>
+         *
+         * <p>Set to 0 to disable.</p>
+         */
+        public Builder lineStatusIntervalMs(int lineStatusIntervalMs) {
+            this.lineStatusIntervalMs = Math.max(0, lineStatusIntervalMs);
+            return this;
+        }
+
         /**
          * Enable NIO Selector mode for millisecond-precision timeout and better interrupt response.
          * 
@@ -159,6 +211,19 @@ public final class SerialConfig {
             return this;
         }
 
+        /**
+         * Split idle-gap frames in the native read loop. Default: false.
+         *
+         * <p>Only applies when the frame decoder is {@code SerialFraming.idleGap(...)} and NIO mode is
+         * off. The read thread then waits in native code until the line has been silent for the
+         * idle gap (microsecond timeouts) and receives a whole frame per wakeup, instead of
+         * measuring gaps in Java and flushing from a timer.</p>
+         */
+        public Builder nativeIdleFraming(boolean nativeIdleFraming) {
+            this.nativeIdleFraming = nativeIdleFraming;
+            return this;
+        }
+
         /**
          * Set permission strategy for opening device nodes.
          *
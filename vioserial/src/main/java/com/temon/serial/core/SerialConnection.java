@@ -4,7 +4,11 @@ import android.os.Build;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.SystemClock;
+import com.temon.serial.internal.framing.BaudRateAware;
+import com.temon.serial.internal.framing.FreshFrameDecoder;
+import com.temon.serial.internal.framing.IdleGapAware;
 import com.temon.serial.internal.framing.IdleGapFrameDecoder;
+import com.temon.serial.internal.framing.ReadTimeAware;
 import com.temon.serial.internal.serialport.SerialPort;
 
 import com.temon.serial.codec.HexCodec;
@@ -20,9 +24,13 @@ import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A library-grade serial connection: explicit lifecycle, stable framing, and predictable callbacks.
@@ -31,10 +39,27 @@ public final class SerialConnection {
 
     public enum State {CLOSED, OPENING, OPEN, CLOSING, ERROR}
 
-    private final SerialConfig config;
+    /** When {@link #reconfigure(SerialConfig, ReconfigureMode)} applies the new line settings. */
+    public enum ReconfigureMode {
+        /** Immediately; writes still queued are sent with the new settings. */
+        NOW,
+        /** After every write queued so far has been transmitted. */
+        DRAIN,
+        /** Like DRAIN, then discard input not yet read and reset the decoder. */
+        DRAIN_FLUSH_INPUT
+    }
+
+    /** Total time {@link #close()} waits for the read and write threads to exit. */
+    private static final long DEFAULT_CLOSE_TIMEOUT_MS = 10_000L;
+    private static final long RECONFIGURE_TIMEOUT_MS = 10_000L;
+
+    private volatile SerialConfig config;
+    // Full config passed to reconfigure, used from the next open or reconnect (null if none)
+    private volatile SerialConfig reopenConfig;
     private final FrameDecoder frameDecoder;
     private final CallbackDispatcher callbackDispatcher;
     private final SerialLogger logger;
+    private final SerialTracer tracer;
     private final ReconnectPolicy reconnectPolicy;
 
     private volatile State state = State.CLOSED;
@@ -52,28 +77,71 @@ public final class SerialConnection {
     private HandlerThread writeThread;
     private Handler writeHandler;
     private long nextSendUptimeMs = 0L;
+    /** Queued writes with a completion, failed if the queue is cleared by close. */
+    private final ArrayList<WriteCompletion> pendingWrites = new ArrayList<>();
+    /** Writes posted to the write thread and not yet started. */
+    private final AtomicInteger queuedWrites = new AtomicInteger(0);
     private long sessionId = 0L;
     private volatile Throwable lastError;
     private volatile int reconnectAttemptCount = 0;
-    private long idleGapMs = 0L;
-    private long lastFeedUptimeMs = 0L;
-    private Runnable pendingIdleFlush;
+    private long idleGapNanos = 0L;
+    private final SerialTimer idleTimer;
+    private SerialTimer.Timeout idleTimeout;
+    private volatile long idleSession;
+    private volatile long idleDeadlineNanos;
+    /** {@link System#nanoTime()} of the last read, for frames completed by an idle flush. */
+    private volatile long lastReadNanos;
+    private int nativeIdleGapMicros = 0;  // > 0: frames are split by SerialPort.readFrame
+    private int nativeMaxFrameLength = 0;
+    // Guards the decoder between the read thread and idle flushes on the timer thread.
+    private final Object decoderLock = new Object();
+    // Frames completed under decoderLock, delivered once it is released (guarded by decoderLock)
+    private DecodedFrames decodedFrames = new DecodedFrames();
+    // Batch being delivered, owned by the thread that set draining
+    private DecodedFrames deliveringFrames = new DecodedFrames();
+    private boolean draining = false;
+    // Callback for idle and close flushes, one per session (guarded by decoderLock)
+    private FrameEmitter flushEmitter;
+    private final Runnable deliverTask = new Runnable() {
+        @Override
+        public void run() {
+            deliverDecodedFrames();
+        }
+    };
+    private final boolean freshFrames;
+    // Frames waiting for one SerialBatchListener callback
+    private final Object frameBatchLock = new Object();
+    private ArrayList<byte[]> frameBatch = new ArrayList<>();
+    private long frameBatchSession = -1L;
     
     // Statistics and monitoring
     private final SerialStatistics statistics = new SerialStatistics();
+    private final SerialLatencies latencies = new SerialLatencies();
+    private final FrameTypeStatistics frameTypeStatistics;  // null = disabled
     private volatile int adaptiveBufferSize;  // Adaptive buffer size
 
     private SerialConnection(Builder b) {
         this.config = b.config;
+        this.frameTypeStatistics = b.frameTypeStatistics;
         // Protocol-agnostic default: no framing unless caller provides a decoder.
         this.frameDecoder = b.frameDecoder;
+        this.freshFrames = frameDecoder instanceof FreshFrameDecoder;
+        if (frameDecoder instanceof DecoderMetrics) {
+            statistics.setDecoderMetrics((DecoderMetrics) frameDecoder);
+        }
         // Professional default: inline callbacks on the read/write threads (most efficient).
-        this.callbackDispatcher = b.callbackDispatcher != null
+        CallbackDispatcher dispatcher = b.callbackDispatcher != null
                 ? b.callbackDispatcher
                 : Dispatchers.direct();
+        // Port-aware dispatchers (e.g. striped) keep this connection's callbacks in their own lane.
+        this.callbackDispatcher = dispatcher instanceof PortAwareDispatcher
+                ? ((PortAwareDispatcher) dispatcher).forPort(config.port)
+                : dispatcher;
         this.logger = b.logger != null ? b.logger : SerialLogger.NO_OP;
+        this.tracer = b.tracer != null ? b.tracer : SerialTracer.NO_OP;
         this.reconnectPolicy = b.reconnectPolicy != null ? b.reconnectPolicy : ReconnectPolicy.NONE;
         this.listener = b.listener;
+        this.idleTimer = b.idleTimer;
         this.adaptiveBufferSize = config.readBufferSize;
     }
     
@@ -83,6 +151,21 @@ public final class SerialConnection {
     public SerialStatistics getStatistics() {
         return statistics;
     }
+
+    /**
+     * Latency histograms of the receive, dispatch and transmit stages (reset on open).
+     */
+    public SerialLatencies getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Per-frame-type traffic table (reset on open), or null if not enabled with
+     * {@link Builder#frameTypeStatistics(FrameKeyExtractor, int)}.
+     */
+    public FrameTypeStatistics getFrameTypeStatistics() {
+        return frameTypeStatistics;
+    }
     
     /**
      * Create a health monitor for this connection.
@@ -101,6 +184,15 @@ public final class SerialConnection {
         return new HealthMonitor.Builder().build(this, statistics);
     }
 
+    /**
+     * Timer running this connection's idle-gap flushes (for lag metrics), or null if the decoder
+     * has not needed one yet.
+     */
+    public SerialTimer getIdleTimer() {
+        SerialTimer.Timeout t = idleTimeout;
+        return t != null ? t.timer() : null;
+    }
+
     public static Builder builder(SerialConfig config) {
         return new Builder(config);
     }
@@ -109,6 +201,153 @@ public final class SerialConnection {
         return state;
     }
 
+    /**
+     * Current configuration (replaced by {@link #reconfigure}).
+     */
+    public SerialConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Same as {@link #reconfigure(SerialConfig, ReconfigureMode)} with {@link ReconfigureMode#DRAIN}.
+     */
+    public void reconfigure(SerialConfig newConfig) throws SerialException {
+        reconfigure(newConfig, ReconfigureMode.DRAIN);
+    }
+
+    /**
+     * Change baud rate and line settings of the open port without reopening it.
+     *
+     * <p>The settings are applied with tcsetattr on the existing fd: the read and write threads,
+     * queued writes, statistics and decoder state are kept. Baud rate, stop bits, data bits,
+     * parity, flow control and read timeout take effect on the line; the send interval applies to
+     * the next queued write; decoders with baud-dependent timing (e.g. Modbus RTU) are updated.
+     * Other fields (flags, NIO mode, buffer size, check intervals, permission strategy) keep their
+     * current values until the next reopen or reconnect, which uses {@code newConfig} in full.
+     * Blocks until the settings are applied.</p>
+     *
+     * @param newConfig Settings for the same port
+     * @param mode      When to apply, relative to queued writes
+     */
+    public void reconfigure(final SerialConfig newConfig, final ReconfigureMode mode) throws SerialException {
+        if (newConfig == null) throw new SerialException(SerialError.INVALID_PARAMETER, "config == null");
+        if (mode == null) throw new SerialException(SerialError.INVALID_PARAMETER, "mode == null");
+        if (!config.port.equals(newConfig.port)) {
+            throw new SerialException(SerialError.INVALID_PARAMETER, "cannot reconfigure to another port: " + newConfig.port);
+        }
+        final SerialPort port;
+        final Handler handler;
+        final HandlerThread writer;
+        final long session;
+        final long when;
+        synchronized (this) {
+            if (state != State.OPEN || serialPort == null || writeHandler == null) {
+                throw new SerialException(SerialError.CLOSED, "connection is not open");
+            }
+            port = serialPort;
+            handler = writeHandler;
+            writer = writeThread;
+            session = sessionId;
+            // Same time as the last queued write: the Handler runs it right after that write.
+            when = Math.max(SystemClock.uptimeMillis(), nextSendUptimeMs - config.sendIntervalMs);
+        }
+        if (mode == ReconfigureMode.NOW) {
+            // Under the connection lock, so close() cannot close the fd between the session
+            // check and tcsetattr (TCSANOW does not wait for output, so the lock is held briefly)
+            synchronized (this) {
+                applyReconfigure(port, newConfig, mode, session);
+            }
+            return;
+        }
+        if (Thread.currentThread() == writer) {
+            applyReconfigure(port, newConfig, mode, session);
+            return;
+        }
+        final CountDownLatch applied = new CountDownLatch(1);
+        final SerialException[] failure = new SerialException[1];
+        // Registered like a queued write, so close() fails it instead of leaving us waiting.
+        final WriteCompletion onDropped = new WriteCompletion() {
+            @Override
+            public void onWriteDone(long startNanos, long endNanos, Throwable error) {
+                failure[0] = new SerialException(SerialError.CLOSED, "connection closed before reconfigure", error);
+                applied.countDown();
+            }
+        };
+        synchronized (pendingWrites) {
+            pendingWrites.add(onDropped);
+        }
+        handler.postAtTime(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (pendingWrites) {
+                    if (!pendingWrites.remove(onDropped)) return;
+                }
+                try {
+                    applyReconfigure(port, newConfig, mode, session);
+                } catch (SerialException e) {
+                    failure[0] = e;
+                }
+                applied.countDown();
+            }
+        }, when);
+        try {
+            if (!applied.await(RECONFIGURE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SerialException(SerialError.IO_ERROR, "reconfigure timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SerialException(SerialError.IO_ERROR, "interrupted while waiting for reconfigure", e);
+        }
+        if (failure[0] != null) throw failure[0];
+    }
+
+    private void applyReconfigure(SerialPort port, SerialConfig newConfig, ReconfigureMode mode, long session)
+            throws SerialException {
+        if (session != sessionId || state != State.OPEN) {
+            throw new SerialException(SerialError.CLOSED, "connection closed before reconfigure");
+        }
+        int when = mode == ReconfigureMode.NOW ? SerialPort.RECONFIGURE_NOW
+                : mode == ReconfigureMode.DRAIN ? SerialPort.RECONFIGURE_DRAIN
+                : SerialPort.RECONFIGURE_FLUSH;
+        try {
+            port.reconfigure(newConfig.baudRate, newConfig.stopBits, newConfig.dataBits, newConfig.parity,
+                    newConfig.flowCon, newConfig.readTimeoutMs, when);
+        } catch (IOException e) {
+            logger.logError(config.port, "Reconfigure failed", e);
+            throw new SerialException(SerialError.IO_ERROR, "reconfigure failed: " + e.getMessage(), e);
+        }
+        SerialConfig old = config;
+        if (frameDecoder != null) {
+            synchronized (decoderLock) {
+                if (frameDecoder instanceof BaudRateAware && newConfig.baudRate != old.baudRate) {
+                    ((BaudRateAware) frameDecoder).onBaudRateChanged(newConfig.baudRate);
+                }
+                if (mode == ReconfigureMode.DRAIN_FLUSH_INPUT) {
+                    frameDecoder.reset();
+                }
+            }
+        }
+        // The read loops read the other fields live; they change with the next open
+        config = old.withLineSettingsOf(newConfig);
+        reopenConfig = newConfig;
+        if (idleGapNanos > 0 && frameDecoder instanceof IdleGapAware) {
+            idleGapNanos = TimeUnit.MILLISECONDS.toNanos(((IdleGapAware) frameDecoder).getIdleGapMs());
+        }
+        logger.logInfo(config.port, "Reconfigured: " + old.baudRate + " -> " + newConfig.baudRate + " baud");
+    }
+
+    /**
+     * Switch to the full config of the last reconfigure, if any. Caller holds this.
+     */
+    private void takeReopenConfig() {
+        SerialConfig c = reopenConfig;
+        if (c != null) {
+            reopenConfig = null;
+            config = c;
+            adaptiveBufferSize = c.readBufferSize;
+        }
+    }
+
     public boolean isOpen() {
         return state == State.OPEN;
     }
@@ -122,6 +361,13 @@ public final class SerialConnection {
         return lastError;
     }
 
+    /**
+     * Writes waiting on the write thread (held by the send interval or behind a slow write).
+     */
+    public int getQueuedWriteCount() {
+        return Math.max(0, queuedWrites.get());
+    }
+
     public void setListener(SerialListener listener) {
         this.listener = listener;
     }
@@ -135,6 +381,7 @@ public final class SerialConnection {
         state = State.OPENING;
         logger.logStateChange(config.port, oldState, state);
         sessionId++;
+        takeReopenConfig();
         lastError = null;  // Clear previous error on new open attempt
         reconnectAttemptCount = 0;  // Reset reconnect attempts on manual open
         if (frameDecoder != null) {
@@ -155,11 +402,6 @@ public final class SerialConnection {
             );
             out = serialPort.getOutputStream();
             in = serialPort.getInputStream();
-            if (frameDecoder instanceof IdleGapFrameDecoder) {
-                idleGapMs = ((IdleGapFrameDecoder) frameDecoder).getIdleGapMs();
-            } else {
-                idleGapMs = 0L;
-            }
 
             // Setup NIO if enabled
             if (config.useNioMode && in instanceof FileInputStream) {
@@ -175,6 +417,7 @@ public final class SerialConnection {
                     logger.logInfo(config.port, "NIO mode requested but channel is not selectable; falling back to blocking I/O");
                 }
             }
+            setupIdleFraming();
 
             writeThread = new HandlerThread("serial-writer");
             writeThread.start();
@@ -183,6 +426,8 @@ public final class SerialConnection {
             
             // Reset statistics on open
             statistics.reset();
+            latencies.reset();
+            if (frameTypeStatistics != null) frameTypeStatistics.reset();
 
             startReadThread();
 
@@ -221,87 +466,167 @@ public final class SerialConnection {
         }
     }
 
-    public synchronized void close() {
-        if (state == State.CLOSED) return;
+    public void close() {
+        close(DEFAULT_CLOSE_TIMEOUT_MS);
+    }
+
+    /**
+     * Close, waiting at most {@code timeoutMs} in total for the read and write threads to exit.
+     *
+     * <p>The port is closed and the connection is {@link State#CLOSED} either way; a thread that
+     * has not exited by then is left to finish on its own.</p>
+     *
+     * @return true if both threads exited in time
+     */
+    public synchronized boolean close(long timeoutMs) {
+        if (state == State.CLOSED) return true;
         State oldState = state;
         state = State.CLOSING;
         logger.logStateChange(config.port, oldState, state);
         sessionId++;
         reconnectAttemptCount = 0;  // Reset reconnect attempts
-        safeCloseInternal();
+        boolean clean = safeCloseInternal(System.nanoTime() + Math.max(0L, timeoutMs) * 1_000_000L);
         state = State.CLOSED;
         logger.logStateChange(config.port, State.CLOSING, state);
         logger.logInfo(config.port, "Serial port closed");
         dispatchClose();
+        return clean;
     }
 
     public void sendBytes(final byte[] data) throws SerialException {
         if (data == null) throw new SerialException(SerialError.INVALID_PARAMETER, "data == null");
+        send(Arrays.copyOf(data, data.length), 0L, null);
+    }
+
+    /**
+     * Completion of one queued write (used by {@link SerialManager#broadcast}).
+     */
+    interface WriteCompletion {
+        /**
+         * @param startNanos {@link System#nanoTime()} when the write started, 0 if it never started
+         * @param endNanos   {@link System#nanoTime()} when it finished or failed
+         * @param error      Null on success
+         */
+        void onWriteDone(long startNanos, long endNanos, Throwable error);
+    }
+
+    /**
+     * Queue {@code payload} without copying it; the caller must not modify it afterwards.
+     *
+     * @param notBeforeUptimeMs Earliest start ({@link SystemClock#uptimeMillis()}), 0 for asap;
+     *                          the send interval still applies
+     */
+    void send(final byte[] payload, long notBeforeUptimeMs, final WriteCompletion done) throws SerialException {
         if (state != State.OPEN || writeHandler == null) {
             if (state == State.ERROR) {
                 throw new SerialException(SerialError.IO_ERROR, "connection is in ERROR state");
             }
             throw new SerialException(SerialError.CLOSED, "connection is not open");
         }
-        final byte[] payload = Arrays.copyOf(data, data.length);
         final long session = sessionId;
-        final long now = SystemClock.uptimeMillis();
+        final long queuedNanos = System.nanoTime();
+        if (done != null) {
+            synchronized (pendingWrites) {
+                pendingWrites.add(done);
+            }
+        }
+        final long now = Math.max(SystemClock.uptimeMillis(), notBeforeUptimeMs);
         final long when;
         synchronized (this) {
             when = Math.max(now, nextSendUptimeMs);
             nextSendUptimeMs = when + config.sendIntervalMs;
         }
+        latencies.getPacingDelay().record((when - now) * 1_000_000L);
+        queuedWrites.incrementAndGet();
         writeHandler.postAtTime(new Runnable() {
             @Override
             public void run() {
-                if (session != sessionId) {
-                    statistics.onWriteError();
-                    logger.logError(config.port, "Write dropped: session changed before send", null);
-                    return;
-                }
-                if (state != State.OPEN) {
-                    statistics.onWriteError();
-                    logger.logError(config.port, "Write dropped: connection not open", null);
-                    dispatchError(session, new IOException("Write dropped: connection not open"));
-                    return;
+                queuedWrites.decrementAndGet();
+                write(session, payload, done, queuedNanos);
+            }
+        }, when);
+    }
+
+    private void write(long session, byte[] payload, WriteCompletion done, long queuedNanos) {
+        if (done != null) {
+            synchronized (pendingWrites) {
+                // Already failed by close.
+                if (!pendingWrites.remove(done)) return;
+            }
+        }
+        if (session != sessionId) {
+            statistics.onWriteError();
+            logger.logError(config.port, "Write dropped: session changed before send", null);
+            if (done != null) {
+                long t = System.nanoTime();
+                done.onWriteDone(0L, t, new IOException("Write dropped: session changed before send"));
+            }
+            return;
+        }
+        if (state != State.OPEN) {
+            statistics.onWriteError();
+            logger.logError(config.port, "Write dropped: connection not open", null);
+            IOException e = new IOException("Write dropped: connection not open");
+            dispatchError(session, e);
+            if (done != null) {
+                done.onWriteDone(0L, System.nanoTime(), e);
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        long end;
+        Throwable failure = null;
+        boolean written = false;
+        tracer.writeBegin(config.port, payload.length);
+        try {
+            try {
+                out.write(payload);
+                written = true;
+            } finally {
+                tracer.writeEnd(config.port, written);
+            }
+            end = System.nanoTime();
+            statistics.onBytesSent(payload.length);
+            latencies.getTransmitLatency().record(end - queuedNanos);
+            if (logger.isEnabled()) {
+                logger.logTxBytes(config.port, payload, payload.length);
+            }
+        } catch (IOException e) {
+            end = System.nanoTime();
+            failure = e;
+            statistics.onWriteError();
+            // IO exception during write: device may be disconnected
+            lastError = e;
+            synchronized (SerialConnection.this) {
+                if (session == sessionId && state == State.OPEN) {
+                    State oldState = state;
+                    state = State.ERROR;
+                    logger.logStateChange(config.port, oldState, state);
+                    logger.logError(config.port, "IO exception during write, device may be disconnected", e);
+                    safeCloseInternal();
                 }
-                try {
-                    out.write(payload);
-                    statistics.onBytesSent(payload.length);
-                    if (logger.isEnabled()) {
-                        logger.logTxBytes(config.port, payload, payload.length);
-                    }
-                } catch (IOException e) {
-                    statistics.onWriteError();
-                    // IO exception during write: device may be disconnected
-                    lastError = e;
-                    synchronized (SerialConnection.this) {
-                        if (session == sessionId && state == State.OPEN) {
-                            State oldState = state;
-                            state = State.ERROR;
-                            logger.logStateChange(config.port, oldState, state);
-                            logger.logError(config.port, "IO exception during write, device may be disconnected", e);
-                            safeCloseInternal();
-                        }
-                    }
-                    dispatchError(session, e);
-                    startReconnectIfNeeded();
-                } catch (Throwable t) {
-                    lastError = t;
-                    synchronized (SerialConnection.this) {
-                        if (session == sessionId && state == State.OPEN) {
-                            State oldState = state;
-                            state = State.ERROR;
-                            logger.logStateChange(config.port, oldState, state);
-                            logger.logError(config.port, "Unexpected error during write", t);
-                            safeCloseInternal();
-                        }
-                    }
-                    dispatchError(session, t);
-                    startReconnectIfNeeded();
+            }
+            dispatchError(session, e);
+            startReconnectIfNeeded();
+        } catch (Throwable t) {
+            end = System.nanoTime();
+            failure = t;
+            lastError = t;
+            synchronized (SerialConnection.this) {
+                if (session == sessionId && state == State.OPEN) {
+                    State oldState = state;
+                    state = State.ERROR;
+                    logger.logStateChange(config.port, oldState, state);
+                    logger.logError(config.port, "Unexpected error during write", t);
+                    safeCloseInternal();
                 }
             }
-        }, when);
+            dispatchError(session, t);
+            startReconnectIfNeeded();
+        }
+        if (done != null) {
+            done.onWriteDone(start, end, failure);
+        }
     }
 
     public void sendHex(String hex) throws SerialException {
@@ -326,21 +651,96 @@ public final class SerialConnection {
             public void run() {
                 if (config.useNioMode && selector != null) {
                     runNioMode(session);
+                } else if (nativeIdleGapMicros > 0) {
+                    runNativeIdleMode(session);
                 } else {
                     runBlockingMode(session);
                 }
             }
+
+            /**
+             * Idle-gap framing done by the native read loop: one wakeup per frame, boundaries
+             * measured with microsecond timeouts. The Java decoder is bypassed.
+             */
+            private void runNativeIdleMode(final long session) {
+                final byte[] buf = new byte[nativeMaxFrameLength];
+                final int gapMicros = nativeIdleGapMicros;
+                final int timeoutMs = config.readTimeoutMs > 0 ? config.readTimeoutMs : 1000;
+                final LineSampler lineSampler = new LineSampler();
+                long lastDeviceCheck = SystemClock.uptimeMillis();
+
+                try {
+                    while (session == sessionId && state == State.OPEN && !Thread.currentThread().isInterrupted()) {
+                        SerialPort port = serialPort;
+                        if (port == null) break;
+                        if (config.deviceCheckIntervalMs > 0) {
+                            long now = SystemClock.uptimeMillis();
+                            if (now - lastDeviceCheck >= config.deviceCheckIntervalMs) {
+                                lastDeviceCheck = now;
+                                if (!port.isDeviceOnline()) {
+                                    handleDeviceDisconnected(session);
+                                    break;
+                                }
+                            }
+                        }
+                        lineSampler.maybeSample(SystemClock.elapsedRealtime());
+
+                        int n = SerialPort.READ_FRAME_EOF;
+                        tracer.readBegin(config.port);
+                        try {
+                            n = port.readFrame(buf, 0, buf.length, gapMicros, timeoutMs);
+                        } finally {
+                            tracer.readEnd(config.port, n);
+                        }
+                        if (n == SerialPort.READ_FRAME_EOF) {
+                            handleDeviceDisconnected(session);
+                            break;
+                        }
+                        if (n == SerialPort.READ_FRAME_OVERFLOW) {
+                            // Same as IdleGapFrameDecoder: an over-long frame is dropped.
+                            ((IdleGapFrameDecoder) frameDecoder).onNativeOverflow();
+                            logger.logError(config.port, "Idle-gap frame exceeded " + buf.length + " bytes, dropped", null);
+                            continue;
+                        }
+                        if (n == SerialPort.READ_FRAME_TIMEOUT) {
+                            continue;
+                        }
+
+                        long rxNanos = System.nanoTime();
+                        byte[] chunk = Arrays.copyOf(buf, n);
+                        statistics.onBytesReceived(n, SystemClock.elapsedRealtime());
+                        if (logger.isEnabled()) {
+                            logger.logRxBytes(config.port, chunk, n);
+                        }
+                        dispatchBytes(session, chunk, n, rxNanos);
+                        // No decoder and no lock here: the frame is delivered right away
+                        statistics.onFrameReceived();
+                        tracer.frameEmitted(config.port, n, TypedFrameCallback.UNTYPED);
+                        deliverFrame(session, Arrays.copyOf(buf, n), n, TypedFrameCallback.UNTYPED, rxNanos);
+                        latencies.getReceiveLatency().record(System.nanoTime() - rxNanos);
+                    }
+                } catch (IOException e) {
+                    handleReadError(session, e);
+                } catch (Throwable t) {
+                    handleReadError(session, t);
+                } finally {
+                    logger.logInfo(config.port, "Native idle-gap read thread exiting");
+                }
+            }
             
             private void runNioMode(final long session) {
                 ByteBuffer buffer = ByteBuffer.allocate(adaptiveBufferSize);
-                long lastDeviceCheck = SystemClock.uptimeMillis();
-                long lastAdaptiveAdjust = SystemClock.uptimeMillis();
+                final FrameEmitter emitter = new FrameEmitter(session, true);
+                final LineSampler lineSampler = new LineSampler();
+                // One clock read per read batch, shared by the periodic checks and the statistics.
+                long now = SystemClock.elapsedRealtime();
+                long lastDeviceCheck = now;
+                long lastAdaptiveAdjust = now;
                 
                 try {
                     while (session == sessionId && state == State.OPEN && !Thread.currentThread().isInterrupted()) {
                         // Periodic device online check
                         if (config.deviceCheckIntervalMs > 0) {
-                            long now = SystemClock.uptimeMillis();
                             if (now - lastDeviceCheck >= config.deviceCheckIntervalMs) {
                                 lastDeviceCheck = now;
                                 if (serialPort != null && !serialPort.isDeviceOnline()) {
@@ -350,8 +750,9 @@ public final class SerialConnection {
                             }
                         }
                         
+                        lineSampler.maybeSample(now);
+
                         // Adaptive buffer size adjustment (every 10 seconds)
-                        long now = SystemClock.uptimeMillis();
                         if (now - lastAdaptiveAdjust >= 10000) {
                             adjustBufferSize();
                             lastAdaptiveAdjust = now;
@@ -364,6 +765,7 @@ public final class SerialConnection {
                         // Select with timeout
                         int timeout = config.readTimeoutMs > 0 ? config.readTimeoutMs : 1000;
                         int selected = selector.select(timeout);
+                        now = SystemClock.elapsedRealtime();
                         
                         if (selected == 0) {
                             // Timeout - check device if configured
@@ -385,33 +787,45 @@ public final class SerialConnection {
                             
                             if (key.isReadable()) {
                                 buffer.clear();
-                                int n = readChannel.read(buffer);
+                                int n = -1;
+                                tracer.readBegin(config.port);
+                                try {
+                                    n = readChannel.read(buffer);
+                                } finally {
+                                    tracer.readEnd(config.port, n);
+                                }
                                 
                                 if (n < 0) {
                                     // EOF - device disconnected
                                     handleDeviceDisconnected(session);
                                     break;
                                 } else if (n > 0) {
+                                    long rxNanos = System.nanoTime();
+                                    lastReadNanos = rxNanos;
                                     buffer.flip();
                                     byte[] chunk = new byte[n];
                                     buffer.get(chunk);
                                     
-                                    statistics.onBytesReceived(n);
+                                    statistics.onBytesReceived(n, now);
                                     if (logger.isEnabled()) {
                                         logger.logRxBytes(config.port, chunk, n);
                                     }
-                                    dispatchBytes(session, chunk, n);
+                                    dispatchBytes(session, chunk, n, rxNanos);
                                     
                                     if (frameDecoder != null) {
-                                        frameDecoder.feed(chunk, 0, n, new FrameDecoder.FrameCallback() {
-                                            @Override
-                                            public void onFrame(byte[] frameBytes, int length) {
-                                                statistics.onFrameReceived();
-                                                dispatchFrame(session, frameBytes, length);
+                                        emitter.readNanos = rxNanos;
+                                        tracer.decodeBegin(config.port, n);
+                                        try {
+                                            synchronized (decoderLock) {
+                                                feedDecoder(chunk, n, rxNanos, emitter);
                                             }
-                                        });
-                                        scheduleIdleFlush(session);
+                                            deliverDecodedFrames();
+                                        } finally {
+                                            tracer.decodeEnd(config.port);
+                                        }
+                                        scheduleIdleFlush(session, rxNanos);
                                     }
+                                    latencies.getReceiveLatency().record(System.nanoTime() - rxNanos);
                                 }
                             }
                         }
@@ -427,14 +841,17 @@ public final class SerialConnection {
             
             private void runBlockingMode(final long session) {
                 byte[] buf = new byte[adaptiveBufferSize];
-                long lastDeviceCheck = SystemClock.uptimeMillis();
-                long lastAdaptiveAdjust = SystemClock.uptimeMillis();
+                final FrameEmitter emitter = new FrameEmitter(session, true);
+                final LineSampler lineSampler = new LineSampler();
+                // One clock read per read batch, shared by the periodic checks and the statistics.
+                long now = SystemClock.elapsedRealtime();
+                long lastDeviceCheck = now;
+                long lastAdaptiveAdjust = now;
                 
                 try {
                     while (session == sessionId && state == State.OPEN && !Thread.currentThread().isInterrupted()) {
                         // Periodic device online check
                         if (config.deviceCheckIntervalMs > 0) {
-                            long now = SystemClock.uptimeMillis();
                             if (now - lastDeviceCheck >= config.deviceCheckIntervalMs) {
                                 lastDeviceCheck = now;
                                 if (serialPort != null && !serialPort.isDeviceOnline()) {
@@ -456,8 +873,9 @@ public final class SerialConnection {
                             }
                         }
 
+                        lineSampler.maybeSample(now);
+
                         // Adaptive buffer size adjustment (every 10 seconds)
-                        long now = SystemClock.uptimeMillis();
                         if (now - lastAdaptiveAdjust >= 10000) {
                             adjustBufferSize();
                             lastAdaptiveAdjust = now;
@@ -467,7 +885,14 @@ public final class SerialConnection {
                             }
                         }
                         
-                        int n = in.read(buf);
+                        int n = -1;
+                        tracer.readBegin(config.port);
+                        try {
+                            n = in.read(buf);
+                        } finally {
+                            tracer.readEnd(config.port, n);
+                        }
+                        now = SystemClock.elapsedRealtime();
                         if (n <= 0) {
                             // If read returns 0 and we have timeout configured, check device
                             if (n == 0 && config.readTimeoutMs > 0 && serialPort != null) {
@@ -479,23 +904,29 @@ public final class SerialConnection {
                             continue;
                         }
 
+                        long rxNanos = System.nanoTime();
+                        lastReadNanos = rxNanos;
                         byte[] chunk = Arrays.copyOf(buf, n);
-                        statistics.onBytesReceived(n);
+                        statistics.onBytesReceived(n, now);
                         if (logger.isEnabled()) {
                             logger.logRxBytes(config.port, chunk, n);
                         }
-                        dispatchBytes(session, chunk, n);
+                        dispatchBytes(session, chunk, n, rxNanos);
 
                         if (frameDecoder != null) {
-                            frameDecoder.feed(buf, 0, n, new FrameDecoder.FrameCallback() {
-                                @Override
-                                public void onFrame(byte[] frameBytes, int length) {
-                                    statistics.onFrameReceived();
-                                    dispatchFrame(session, frameBytes, length);
+                            emitter.readNanos = rxNanos;
+                            tracer.decodeBegin(config.port, n);
+                            try {
+                                synchronized (decoderLock) {
+                                    feedDecoder(buf, n, rxNanos, emitter);
                                 }
-                            });
-                            scheduleIdleFlush(session);
+                                deliverDecodedFrames();
+                            } finally {
+                                tracer.decodeEnd(config.port);
+                            }
+                            scheduleIdleFlush(session, rxNanos);
                         }
+                        latencies.getReceiveLatency().record(System.nanoTime() - rxNanos);
                     }
                 } catch (IOException e) {
                     handleReadError(session, e);
@@ -545,9 +976,10 @@ public final class SerialConnection {
     /**
      * Adaptive buffer size adjustment based on throughput.
      * Increases buffer size for high-throughput scenarios (e.g., automotive CAN bus).
+     * Uses the 10 s receive rate, matching how often it runs.
      */
     private synchronized void adjustBufferSize() {
-        double throughput = statistics.getReceiveThroughputBps();
+        double throughput = statistics.getReceiveByteRate().getTenSecondRate();
         int currentSize = adaptiveBufferSize;
         int minSize = 512;
         int maxSize = 8192;
@@ -569,37 +1001,146 @@ public final class SerialConnection {
         }
     }
 
-    private void scheduleIdleFlush(final long session) {
-        if (idleGapMs <= 0 || writeHandler == null) return;
-        lastFeedUptimeMs = SystemClock.uptimeMillis();
-        if (pendingIdleFlush != null) {
-            writeHandler.removeCallbacks(pendingIdleFlush);
+    /**
+     * Choose how idle gaps are detected: in the native read loop (nativeIdleFraming with a plain
+     * idle-gap decoder and blocking I/O), or in Java with flushes from the shared timer.
+     */
+    private void setupIdleFraming() {
+        nativeIdleGapMicros = 0;
+        idleGapNanos = 0L;
+        if (config.nativeIdleFraming && selector == null && frameDecoder instanceof IdleGapFrameDecoder) {
+            IdleGapFrameDecoder d = (IdleGapFrameDecoder) frameDecoder;
+            nativeIdleGapMicros = (int) Math.min(Integer.MAX_VALUE, TimeUnit.MILLISECONDS.toMicros(d.getIdleGapMs()));
+            nativeMaxFrameLength = d.getMaxFrameLength();
+            return;
         }
-        pendingIdleFlush = new Runnable() {
-            @Override
-            public void run() {
-                if (session != sessionId || state != State.OPEN) return;
-                long now = SystemClock.uptimeMillis();
-                if (now - lastFeedUptimeMs >= idleGapMs) {
-                    flushPendingFrameIfNeeded(session);
+        if (frameDecoder instanceof IdleGapAware) {
+            idleGapNanos = TimeUnit.MILLISECONDS.toNanos(((IdleGapAware) frameDecoder).getIdleGapMs());
+        }
+        if (idleGapNanos > 0 && idleTimeout == null) {
+            idleTimeout = (idleTimer != null ? idleTimer : SerialTimer.shared()).newTimeout(new Runnable() {
+                @Override
+                public void run() {
+                    onIdleTimeout();
                 }
+            });
+        }
+    }
+
+    /**
+     * Feed a chunk read at {@code rxNanos}; timing-sensitive decoders get the read time, not the
+     * time they happen to run. Caller holds {@link #decoderLock}.
+     */
+    private void feedDecoder(byte[] data, int length, long rxNanos, FrameEmitter emitter) {
+        if (frameDecoder instanceof ReadTimeAware) {
+            ((ReadTimeAware) frameDecoder).feed(data, 0, length, rxNanos, emitter);
+        } else {
+            frameDecoder.feed(data, 0, length, emitter);
+        }
+    }
+
+    /**
+     * Push the idle deadline out by one gap. Runs per chunk, so it only writes the deadline of the
+     * connection's reusable timeout; the shared timer thread does the rest.
+     */
+    private void scheduleIdleFlush(final long session, long readNanos) {
+        SerialTimer.Timeout t = idleTimeout;
+        if (idleGapNanos <= 0 || t == null) return;
+        idleSession = session;
+        long deadline = readNanos + idleGapNanos;
+        idleDeadlineNanos = deadline;
+        t.scheduleAt(deadline);
+    }
+
+    private void onIdleTimeout() {
+        long session = idleSession;
+        if (session != sessionId || state != State.OPEN) return;
+        long lag = System.nanoTime() - idleDeadlineNanos;
+        // Negative if a read moved the deadline while this flush was starting.
+        if (lag >= 0) latencies.getIdleFlushLag().record(lag);
+        if (flushPendingFrameIfNeeded(session, true)) {
+            // Off the writer's Looper: with the direct dispatcher listeners run here, on the timer
+            callbackDispatcher.dispatch(deliverTask);
+        }
+    }
+
+    /**
+     * @param idleOnly Only flush if no chunk was read within the idle gap. A read that lands
+     *                 while the timer fires has already been fed (or is about to be) and re-arms
+     *                 the timeout, so flushing now would split its frame.
+     * @return true if the flush completed frames that wait for {@link #deliverDecodedFrames()}
+     */
+    private boolean flushPendingFrameIfNeeded(final long session, boolean idleOnly) {
+        if (!(frameDecoder instanceof FlushableFrameDecoder)) return false;
+        synchronized (decoderLock) {
+            long readNanos = lastReadNanos;
+            if (idleOnly && System.nanoTime() - readNanos < idleGapNanos) {
+                scheduleIdleFlush(session, readNanos);
+                return false;
             }
-        };
-        writeHandler.postDelayed(pendingIdleFlush, idleGapMs);
+            FrameEmitter emitter = flushEmitter;
+            if (emitter == null || emitter.session != session) {
+                emitter = new FrameEmitter(session, false);
+                flushEmitter = emitter;
+            }
+            emitter.readNanos = readNanos;
+            ((FlushableFrameDecoder) frameDecoder).flush(emitter);
+            return decodedFrames.size > 0;
+        }
     }
 
-    private void flushPendingFrameIfNeeded(final long session) {
-        if (frameDecoder instanceof FlushableFrameDecoder) {
-            ((FlushableFrameDecoder) frameDecoder).flush(new FrameDecoder.FrameCallback() {
-                @Override
-                public void onFrame(byte[] frameBytes, int length) {
-                    dispatchFrame(session, frameBytes, length);
+    /**
+     * Deliver the frames completed so far, outside {@link #decoderLock} so that a listener may
+     * write, reconfigure or close. One thread delivers at a time and frames completed meanwhile
+     * are picked up by that thread, so listeners see frames in decode order.
+     */
+    private void deliverDecodedFrames() {
+        while (true) {
+            DecodedFrames batch;
+            synchronized (decoderLock) {
+                if (draining || decodedFrames.size == 0) return;
+                draining = true;
+                batch = decodedFrames;
+                decodedFrames = deliveringFrames;
+                deliveringFrames = batch;
+            }
+            try {
+                for (int i = 0; i < batch.size; i++) {
+                    if (batch.failures[i]) {
+                        FrameTypeStatistics types = frameTypeStatistics;
+                        if (types != null) types.onChecksumFailure(batch.frames[i], 0, batch.lengths[i]);
+                    } else {
+                        deliverFrame(batch.sessions[i], batch.frames[i], batch.lengths[i], batch.types[i],
+                                batch.readNanos[i]);
+                    }
                 }
-            });
+            } finally {
+                batch.clear();
+                synchronized (decoderLock) {
+                    draining = false;
+                }
+            }
+        }
+    }
+
+    private void deliverFrame(long session, byte[] frame, int length, int type, long readNanos) {
+        FrameTypeStatistics types = frameTypeStatistics;
+        if (types != null) {
+            types.onFrame(frame, length, type, readNanos);
         }
+        dispatchFrame(session, frame, length, type, readNanos);
     }
 
     private void safeCloseInternal() {
+        safeCloseInternal(System.nanoTime() + DEFAULT_CLOSE_TIMEOUT_MS * 1_000_000L);
+    }
+
+    /**
+     * @param deadlineNanos {@link System#nanoTime()} by which the IO threads should have exited
+     * @return true if the read and write threads exited before the deadline
+     */
+    private boolean safeCloseInternal(long deadlineNanos) {
+        boolean clean = true;
         // Stop reconnect thread if running
         if (reconnectThread != null) {
             reconnectThread.interrupt();
@@ -608,6 +1149,11 @@ public final class SerialConnection {
         if (writeHandler != null) {
             writeHandler.removeCallbacksAndMessages(null);
         }
+        failPendingWrites();
+        queuedWrites.set(0);
+        if (idleTimeout != null) {
+            idleTimeout.cancel();
+        }
         
         // Close NIO resources
         if (selector != null) {
@@ -630,6 +1176,10 @@ public final class SerialConnection {
         
         if (readThread != null) {
             readThread.interrupt();
+            // The native idle-gap loop waits in select(), which closing the stream does not wake
+            if (serialPort != null) {
+                serialPort.cancelRead();
+            }
             // Close InputStream to unblock read() if it's blocking
             try {
                 if (in != null) {
@@ -642,11 +1192,12 @@ public final class SerialConnection {
             if (selector != null) {
                 selector.wakeup();
             }
-            // Wait for thread to exit with timeout (5 seconds), unless we're on the read thread.
+            // Wait for thread to exit until the deadline, unless we're on the read thread.
             if (Thread.currentThread() != readThread) {
                 try {
-                    readThread.join(5000);
+                    joinUntil(readThread, deadlineNanos);
                     if (readThread.isAlive()) {
+                        clean = false;
                         logger.logError(config.port, "Read thread did not exit within timeout", null);
                     }
                 } catch (InterruptedException e) {
@@ -656,14 +1207,8 @@ public final class SerialConnection {
             }
         }
         // Flush last pending frame if decoder supports it (useful for idle-gap framing).
-        if (frameDecoder instanceof FlushableFrameDecoder) {
-            final long session = sessionId;
-            ((FlushableFrameDecoder) frameDecoder).flush(new FrameDecoder.FrameCallback() {
-                @Override
-                public void onFrame(byte[] frameBytes, int length) {
-                    dispatchFrame(session, frameBytes, length);
-                }
-            });
+        if (flushPendingFrameIfNeeded(sessionId, false)) {
+            deliverDecodedFrames();
         }
         try {
             if (in != null) in.close();
@@ -693,8 +1238,9 @@ public final class SerialConnection {
             }
             if (Thread.currentThread() != writeThread) {
                 try {
-                    writeThread.join(5000);
+                    joinUntil(writeThread, deadlineNanos);
                     if (writeThread.isAlive()) {
+                        clean = false;
                         logger.logError(config.port, "Write thread did not exit within timeout", null);
                     }
                 } catch (InterruptedException e) {
@@ -705,9 +1251,39 @@ public final class SerialConnection {
         }
         writeThread = null;
         writeHandler = null;
-        pendingIdleFlush = null;
         if (frameDecoder != null) {
-            frameDecoder.reset();
+            synchronized (decoderLock) {
+                frameDecoder.reset();
+                decodedFrames.clear();
+            }
+        }
+        return clean;
+    }
+
+    /**
+     * Complete writes that were queued with a completion but removed from the write queue.
+     */
+    private void failPendingWrites() {
+        WriteCompletion[] dropped;
+        synchronized (pendingWrites) {
+            if (pendingWrites.isEmpty()) return;
+            dropped = pendingWrites.toArray(new WriteCompletion[0]);
+            pendingWrites.clear();
+        }
+        IOException e = new IOException("Write dropped: connection closed");
+        long now = System.nanoTime();
+        for (WriteCompletion d : dropped) {
+            d.onWriteDone(0L, now, e);
+        }
+    }
+
+    /**
+     * Join {@code t} until it exits or the deadline passes (a past deadline still checks once).
+     */
+    private static void joinUntil(Thread t, long deadlineNanos) throws InterruptedException {
+        long remainingMs = (deadlineNanos - System.nanoTime()) / 1_000_000L;
+        if (remainingMs > 0) {
+            t.join(remainingMs);
         }
     }
 
@@ -735,32 +1311,280 @@ public final class SerialConnection {
         });
     }
 
-    private void dispatchBytes(final long session, final byte[] data, final int len) {
+    private void dispatchBytes(final long session, final byte[] data, final int len, final long readNanos) {
+        if (callbackDispatcher instanceof EventDispatcher) {
+            ((EventDispatcher) callbackDispatcher).dispatchEvent(
+                    eventHandler, EventDispatcher.EVENT_BYTES, session, data, len, 0, null, readNanos);
+            return;
+        }
         callbackDispatcher.dispatch(new Runnable() {
             @Override
             public void run() {
                 if (session != sessionId) return;
+                latencies.getDispatchLatency().record(System.nanoTime() - readNanos);
                 SerialListener l = listener;
-                if (l != null) l.onBytes(data, len);
+                if (l == null) return;
+                tracer.dispatchBegin(config.port);
+                try {
+                    l.onBytes(data, len);
+                } finally {
+                    tracer.dispatchEnd(config.port);
+                }
             }
         });
     }
 
-    private void dispatchFrame(final long session, final byte[] frame, final int len) {
+    private void dispatchFrame(final long session, final byte[] frame, final int len, final int type,
+                               final long readNanos) {
         if (logger.isEnabled()) {
             logger.logFrame(config.port, frame, len);
         }
+        if (listener instanceof SerialBatchListener) {
+            dispatchBatchedFrame(session, len == frame.length ? frame : Arrays.copyOf(frame, len), readNanos);
+            return;
+        }
+        if (callbackDispatcher instanceof EventDispatcher) {
+            ((EventDispatcher) callbackDispatcher).dispatchEvent(
+                    eventHandler, EventDispatcher.EVENT_FRAME, session, frame, len, type, null, readNanos);
+            return;
+        }
         callbackDispatcher.dispatch(new Runnable() {
             @Override
             public void run() {
                 if (session != sessionId) return;
+                latencies.getDispatchLatency().record(System.nanoTime() - readNanos);
                 SerialListener l = listener;
-                if (l != null) l.onFrame(frame, len);
+                if (l == null) return;
+                tracer.dispatchBegin(config.port);
+                try {
+                    if (l instanceof TypedSerialListener) {
+                        ((TypedSerialListener) l).onTypedFrame(type, frame, len);
+                    } else {
+                        l.onFrame(frame, len);
+                    }
+                } finally {
+                    tracer.dispatchEnd(config.port);
+                }
             }
         });
     }
 
+    /**
+     * Listener delivery for events published through an {@link EventDispatcher}: the same
+     * checks as the Runnable paths, without a Runnable per event.
+     */
+    private final EventDispatcher.EventHandler eventHandler = new EventDispatcher.EventHandler() {
+        @Override
+        public void onEvent(int kind, long session, byte[] data, int length, int frameType, Throwable error,
+                            long timestampNanos) {
+            if (session != sessionId) return;
+            if (timestampNanos != 0L) {
+                latencies.getDispatchLatency().record(System.nanoTime() - timestampNanos);
+            }
+            SerialListener l = listener;
+            if (l == null) return;
+            if (kind == EventDispatcher.EVENT_ERROR) {
+                l.onError(error);
+                return;
+            }
+            tracer.dispatchBegin(config.port);
+            try {
+                switch (kind) {
+                    case EventDispatcher.EVENT_BYTES:
+                        l.onBytes(data, length);
+                        break;
+                    case EventDispatcher.EVENT_FRAME:
+                        if (l instanceof TypedSerialListener) {
+                            ((TypedSerialListener) l).onTypedFrame(frameType, data, length);
+                        } else {
+                            l.onFrame(data, length);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } finally {
+                tracer.dispatchEnd(config.port);
+            }
+        }
+    };
+
+    /**
+     * Add a frame to the pending batch; only the first frame of a batch posts a callback.
+     */
+    private void dispatchBatchedFrame(final long session, byte[] frame, final long readNanos) {
+        boolean first;
+        synchronized (frameBatchLock) {
+            if (frameBatchSession != session) {
+                frameBatch.clear();
+                frameBatchSession = session;
+            }
+            first = frameBatch.isEmpty();
+            frameBatch.add(frame);
+        }
+        if (!first) return;
+        callbackDispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                ArrayList<byte[]> batch;
+                synchronized (frameBatchLock) {
+                    if (frameBatchSession != session || frameBatch.isEmpty()) return;
+                    batch = frameBatch;
+                    frameBatch = new ArrayList<>();
+                }
+                if (session != sessionId) return;
+                // Timed once per batch, from the read of its first frame.
+                latencies.getDispatchLatency().record(System.nanoTime() - readNanos);
+                SerialListener l = listener;
+                if (l == null) return;
+                tracer.dispatchBegin(config.port);
+                try {
+                    if (l instanceof SerialBatchListener) {
+                        ((SerialBatchListener) l).onFrames(batch);
+                    } else {
+                        for (int i = 0, n = batch.size(); i < n; i++) {
+                            byte[] f = batch.get(i);
+                            l.onFrame(f, f.length);
+                        }
+                    }
+                } finally {
+                    tracer.dispatchEnd(config.port);
+                }
+            }
+        });
+    }
+
+    /**
+     * Samples the driver's line counters and modem lines for {@link SerialStatistics}. Owned by one
+     * read loop, so the first sample of a session only sets the reference point; drivers without
+     * TIOCGICOUNT / TIOCMGET are not asked again.
+     */
+    private final class LineSampler {
+        // SerialPort.ICOUNT_* and SerialStatistics.LINE_* use the same order
+        private final int[] counts = new int[SerialPort.ICOUNT_SIZE];
+        private final int[] previous = new int[SerialPort.ICOUNT_SIZE];
+        private final long[] increments = new long[SerialPort.ICOUNT_SIZE];
+        private boolean hasPrevious = false;
+        private boolean countsSupported = true;
+        private boolean modemSupported = true;
+        private long lastSampleMs = Long.MIN_VALUE / 2;
+
+        void maybeSample(long nowMs) {
+            int interval = config.lineStatusIntervalMs;
+            if (interval <= 0 || nowMs - lastSampleMs < interval) return;
+            lastSampleMs = nowMs;
+            SerialPort port = serialPort;
+            if (port == null || (!countsSupported && !modemSupported)) return;
+            try {
+                if (countsSupported) {
+                    if (port.getInterruptCounts(counts)) {
+                        for (int i = 0; i < counts.length; i++) {
+                            // 32-bit driver counters wrap; the fd stays the same for this loop.
+                            increments[i] = hasPrevious ? (counts[i] - previous[i]) & 0xFFFFFFFFL : 0L;
+                            previous[i] = counts[i];
+                        }
+                        hasPrevious = true;
+                        statistics.onLineCounts(increments);
+                    } else {
+                        countsSupported = false;
+                    }
+                }
+                if (modemSupported) {
+                    int bits = port.getModemLines();
+                    if (bits < 0) {
+                        modemSupported = false;
+                    } else {
+                        statistics.onModemLines(bits);
+                    }
+                }
+            } catch (IOException e) {
+                // Closed under us; the next read reports it.
+            }
+        }
+    }
+
+    /**
+     * Frames (and checksum failures, for {@link FrameTypeStatistics}) in decode order.
+     */
+    private static final class DecodedFrames {
+        long[] sessions = new long[8];
+        byte[][] frames = new byte[8][];
+        int[] lengths = new int[8];
+        int[] types = new int[8];
+        long[] readNanos = new long[8];
+        boolean[] failures = new boolean[8];
+        int size;
+
+        void add(long session, byte[] frame, int length, int type, long nanos, boolean failure) {
+            if (size == frames.length) {
+                int n = size * 2;
+                sessions = Arrays.copyOf(sessions, n);
+                frames = Arrays.copyOf(frames, n);
+                lengths = Arrays.copyOf(lengths, n);
+                types = Arrays.copyOf(types, n);
+                readNanos = Arrays.copyOf(readNanos, n);
+                failures = Arrays.copyOf(failures, n);
+            }
+            sessions[size] = session;
+            frames[size] = frame;
+            lengths[size] = length;
+            types[size] = type;
+            readNanos[size] = nanos;
+            failures[size] = failure;
+            size++;
+        }
+
+        void clear() {
+            Arrays.fill(frames, 0, size, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Decoder callback bound to one session, reused for every chunk read in that session. Runs
+     * under {@link #decoderLock}, so it only queues frames for {@link #deliverDecodedFrames()}.
+     */
+    private final class FrameEmitter implements TypedFrameCallback, ChecksumFailureCallback {
+        private final long session;
+        private final boolean countFrames;
+        /** {@link System#nanoTime()} of the read being decoded. */
+        long readNanos;
+
+        FrameEmitter(long session, boolean countFrames) {
+            this.session = session;
+            this.countFrames = countFrames;
+        }
+
+        @Override
+        public void onFrame(byte[] frameBytes, int length) {
+            onFrame(UNTYPED, frameBytes, length);
+        }
+
+        @Override
+        public void onFrame(int type, byte[] frameBytes, int length) {
+            if (countFrames) {
+                statistics.onFrameReceived();
+            }
+            tracer.frameEmitted(config.port, length, type);
+            // Delivered after the decoder returns, so a reused decoder buffer must be copied
+            byte[] frame = freshFrames ? frameBytes : Arrays.copyOf(frameBytes, length);
+            decodedFrames.add(session, frame, length, type, readNanos, false);
+        }
+
+        @Override
+        public void onChecksumFailure(byte[] buf, int offset, int length) {
+            if (frameTypeStatistics == null) return;
+            byte[] frame = Arrays.copyOfRange(buf, offset, offset + length);
+            decodedFrames.add(session, frame, length, TypedFrameCallback.UNTYPED, readNanos, true);
+        }
+    }
+
     private void dispatchError(final long session, final Throwable t) {
+        if (callbackDispatcher instanceof EventDispatcher) {
+            ((EventDispatcher) callbackDispatcher).dispatchEvent(
+                    eventHandler, EventDispatcher.EVENT_ERROR, session, null, 0, 0, t, 0L);
+            return;
+        }
         callbackDispatcher.dispatch(new Runnable() {
             @Override
             public void run() {
@@ -816,6 +1640,7 @@ public final class SerialConnection {
                                 state = State.OPENING;
                                 logger.logStateChange(config.port, State.ERROR, state);
                                 sessionId++;
+                                takeReopenConfig();
                                 lastError = null;
 
                                 if (frameDecoder != null) {
@@ -849,6 +1674,7 @@ public final class SerialConnection {
                                         logger.logInfo(config.port, "NIO mode requested but channel is not selectable; falling back to blocking I/O");
                                     }
                                 }
+                                setupIdleFraming();
 
                                 writeThread = new HandlerThread("serial-writer");
                                 writeThread.start();
@@ -891,7 +1717,10 @@ public final class SerialConnection {
         private CallbackDispatcher callbackDispatcher;
         private SerialListener listener;
         private SerialLogger logger;
+        private SerialTracer tracer;
         private ReconnectPolicy reconnectPolicy;
+        private SerialTimer idleTimer;
+        private FrameTypeStatistics frameTypeStatistics;
 
         private Builder(SerialConfig config) {
             if (config == null) throw new IllegalArgumentException("config == null");
@@ -923,6 +1752,16 @@ public final class SerialConnection {
             return this;
         }
 
+        /**
+         * Set tracer for the read / decode / dispatch / write path. Default: NO_OP (disabled).
+         *
+         * @param tracer Tracer instance, or null to disable
+         */
+        public Builder tracer(SerialTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
         /**
          * Set reconnection policy. Default: NONE (disabled).
          * 
@@ -936,6 +1775,26 @@ public final class SerialConnection {
             return this;
         }
 
+        /**
+         * Timer for idle-gap flushes. Default: {@link SerialTimer#shared()}.
+         *
+         * <p>Connections created by one {@link SerialManager} share that manager's timer.</p>
+         */
+        public Builder idleTimer(SerialTimer timer) {
+            this.idleTimer = timer;
+            return this;
+        }
+
+        /**
+         * Count received frames per type: {@code classifier} maps each frame to a key in
+         * {@code 0..maxKeys-1} (e.g. the command byte with {@code maxKeys = 256}). Off by default;
+         * when off, frames are not classified at all.
+         */
+        public Builder frameTypeStatistics(FrameKeyExtractor classifier, int maxKeys) {
+            this.frameTypeStatistics = classifier != null ? new FrameTypeStatistics(classifier, maxKeys) : null;
+            return this;
+        }
+
         public SerialConnection build() {
             return new SerialConnection(this);
         }
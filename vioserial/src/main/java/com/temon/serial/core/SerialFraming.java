@@ -1,9 +1,26 @@
 package com.temon.serial.core;
 
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.internal.framing.ByteStuffingFrameDecoder;
+import com.temon.serial.internal.framing.ByteStuffingFrameEncoder;
+import com.temon.serial.internal.framing.ChecksumStage;
+import com.temon.serial.internal.framing.CobsFrameDecoder;
+import com.temon.serial.internal.framing.CobsFrameEncoder;
+import com.temon.serial.internal.framing.DecoderStage;
 import com.temon.serial.internal.framing.DelimiterFrameDecoder;
+import com.temon.serial.internal.framing.DemuxFrameDecoder;
+import com.temon.serial.internal.framing.FilterStage;
 import com.temon.serial.internal.framing.FixedLengthFrameDecoder;
 import com.temon.serial.internal.framing.IdleGapFrameDecoder;
 import com.temon.serial.internal.framing.LengthFieldFrameDecoder;
+import com.temon.serial.internal.framing.ModbusRtuFrameDecoder;
+import com.temon.serial.internal.framing.PipelineFrameDecoder;
+import com.temon.serial.internal.framing.SliceStage;
+import com.temon.serial.internal.framing.SpecFrameDecoder;
+import com.temon.serial.internal.framing.UnescapeStage;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Built-in framing strategies (optional).
@@ -60,6 +77,151 @@ public final class SerialFraming {
         );
     }
 
+    /** SLIP framing (RFC 1055): END 0xC0, ESC 0xDB. Frames are emitted unescaped. */
+    public static FrameDecoder slip(int maxFrameLength) {
+        return ByteStuffingFrameDecoder.slip(maxFrameLength);
+    }
+
+    /** Encoder matching {@link #slip(int)}. */
+    public static FrameEncoder slipEncoder() {
+        return ByteStuffingFrameEncoder.slip();
+    }
+
+    /** COBS framing with 0x00 delimiter. Frames are emitted decoded. */
+    public static FrameDecoder cobs(int maxFrameLength) {
+        return new CobsFrameDecoder(maxFrameLength);
+    }
+
+    /** Encoder matching {@link #cobs(int)}. */
+    public static FrameEncoder cobsEncoder() {
+        return new CobsFrameEncoder();
+    }
+
+    /**
+     * HDLC-like async framing: flag 0x7E, escape 0x7D (escaped byte XOR 0x20). Frames are emitted
+     * unescaped; add a {@link #checksum} stage via {@link #pipeline(FrameDecoder)} to check the FCS.
+     */
+    public static FrameDecoder hdlc(int maxFrameLength) {
+        return ByteStuffingFrameDecoder.hdlc(maxFrameLength);
+    }
+
+    /** Encoder matching {@link #hdlc(int)}. */
+    public static FrameEncoder hdlcEncoder() {
+        return ByteStuffingFrameEncoder.hdlc();
+    }
+
+    /**
+     * Modbus RTU responses (host acting as master) at {@code baudRate}, 11 bits per character.
+     *
+     * <p>Frames complete as soon as the function code predicts their length; otherwise after a
+     * baud-derived 3.5-character silence. CRC-16/MODBUS is validated and kept in the frame.</p>
+     */
+    public static FrameDecoder modbusRtu(int baudRate) {
+        return new ModbusRtuBuilder().baudRate(baudRate).build();
+    }
+
+    public static ModbusRtuBuilder modbusRtuBuilder() {
+        return new ModbusRtuBuilder();
+    }
+
+    /**
+     * Demultiplex message families sharing one line by their header byte(s).
+     *
+     * <p>Each route owns a decoder with its own length rules and a type (0..255). Frames are
+     * reported to {@link TypedFrameCallback}/{@link TypedSerialListener} with that type, so they
+     * are classified once on the IO thread; see {@link SerialManager#addFrameListener(String, int,
+     * SerialManager.OnFrameListener)}.</p>
+     */
+    public static DemuxBuilder demux() {
+        return new DemuxBuilder();
+    }
+
+    /**
+     * Compile a declarative {@link FrameSpec} into a decoder specialized for it.
+     *
+     * <p>The resulting decoder skips over payload bytes by index and computes the checksum once
+     * per frame, instead of chaining generic stages.</p>
+     */
+    public static FrameDecoder compile(FrameSpec spec) {
+        return new SpecFrameDecoder(spec);
+    }
+
+    /**
+     * Start a decoder pipeline: {@code framer} splits the stream into frames, then each added
+     * {@link FrameStage} post-processes them in order (e.g. unescape, then checksum, then filter).
+     *
+     * <pre>
+     * FrameDecoder d = SerialFraming.pipeline(SerialFraming.delimiter(new byte[]{0x7E}, false))
+     *         .then(SerialFraming.unescape((byte) 0x7D, 0x20))
+     *         .then(SerialFraming.checksum(Checksum.CRC16_CCITT, LengthFieldFrameDecoder.Endian.BIG, 0, true))
+     *         .build();
+     * </pre>
+     */
+    public static PipelineBuilder pipeline(FrameDecoder framer) {
+        return new PipelineBuilder(framer);
+    }
+
+    /** Use any {@link FrameDecoder} (including built-in ones) as a pipeline stage. */
+    public static FrameStage stage(FrameDecoder decoder) {
+        return new DecoderStage(decoder);
+    }
+
+    /** Stage: remove byte stuffing in place ({@code escape, b} becomes {@code b ^ xorMask}). */
+    public static FrameStage unescape(byte escape, int xorMask) {
+        return new UnescapeStage(escape, xorMask);
+    }
+
+    /**
+     * Stage: verify the trailing checksum and drop frames that do not match.
+     *
+     * @param skipLeading Leading bytes not covered by the checksum (e.g. start-of-frame)
+     * @param stripChecksum Remove the checksum bytes from the emitted frame
+     */
+    public static FrameStage checksum(
+            Checksum checksum,
+            LengthFieldFrameDecoder.Endian endian,
+            int skipLeading,
+            boolean stripChecksum
+    ) {
+        return new ChecksumStage(checksum, endian, skipLeading, stripChecksum);
+    }
+
+    /** Stage: drop frames rejected by {@code filter}. */
+    public static FrameStage filter(FrameStage.Filter filter) {
+        return new FilterStage(filter);
+    }
+
+    /** Stage: strip a fixed number of leading and trailing bytes without copying. */
+    public static FrameStage strip(int head, int tail) {
+        return new SliceStage(head, tail);
+    }
+
+    public static final class PipelineBuilder {
+        private final List<FrameStage> stages = new ArrayList<>();
+
+        private PipelineBuilder(FrameDecoder framer) {
+            if (framer == null) throw new IllegalArgumentException("framer == null");
+            stages.add(new DecoderStage(framer));
+        }
+
+        public PipelineBuilder then(FrameStage stage) {
+            if (stage == null) throw new IllegalArgumentException("stage == null");
+            stages.add(stage);
+            return this;
+        }
+
+        /**
+         * Feed frames emitted so far into another decoder (e.g. length-field inside a delimiter frame).
+         */
+        public PipelineBuilder then(FrameDecoder decoder) {
+            return then(new DecoderStage(decoder));
+        }
+
+        public FrameDecoder build() {
+            return new PipelineFrameDecoder(new ArrayList<>(stages));
+        }
+    }
+
     public static LengthFieldBuilder lengthFieldBuilder() {
         return new LengthFieldBuilder();
     }
@@ -120,6 +282,124 @@ public final class SerialFraming {
             );
         }
     }
-}
 
+    public static final class ModbusRtuBuilder {
+        private int baudRate;
+        private int bitsPerChar = 11;
+        private boolean fixedTimeoutAbove19200 = false;
+        private ModbusRtuFrameDecoder.Direction direction = ModbusRtuFrameDecoder.Direction.RESPONSE;
+        private int maxFrameLength = 256;
+        private SerialClock clock = SerialClock.SYSTEM;
+
+        public ModbusRtuBuilder baudRate(int baudRate) {
+            this.baudRate = baudRate;
+            return this;
+        }
+
+        /**
+         * Bits per character on the wire: start + data + parity + stop. Default: 11 (Modbus 8E1/8N2).
+         */
+        public ModbusRtuBuilder bitsPerChar(int bitsPerChar) {
+            this.bitsPerChar = bitsPerChar;
+            return this;
+        }
+
+        /**
+         * Take baud rate and character size from a port config.
+         */
+        public ModbusRtuBuilder lineSettings(SerialConfig config) {
+            if (config == null) throw new IllegalArgumentException("config == null");
+            this.baudRate = config.baudRate;
+            this.bitsPerChar = 1 + config.dataBits + (config.parity != 0 ? 1 : 0) + config.stopBits;
+            return this;
+        }
+
+        /**
+         * Use the spec's fixed 1750 us silence above 19200 baud instead of 3.5 character times.
+         * Default: false (baud-derived, about 334 us at 115200 with 11-bit characters).
+         */
+        public ModbusRtuBuilder fixedTimeoutAbove19200(boolean fixed) {
+            this.fixedTimeoutAbove19200 = fixed;
+            return this;
+        }
+
+        /**
+         * Which frames to parse. Default: RESPONSE (host is the master).
+         */
+        public ModbusRtuBuilder direction(ModbusRtuFrameDecoder.Direction direction) {
+            if (direction == null) throw new IllegalArgumentException("direction == null");
+            this.direction = direction;
+            return this;
+        }
+
+        public ModbusRtuBuilder maxFrameLength(int maxFrameLength) {
+            this.maxFrameLength = maxFrameLength;
+            return this;
+        }
+
+        /**
+         * Time source for silence detection when chunks are fed without a read timestamp
+         * (inject for deterministic tests). A {@link SerialConnection} passes its own read times.
+         */
+        public ModbusRtuBuilder clock(SerialClock clock) {
+            this.clock = clock != null ? clock : SerialClock.SYSTEM;
+            return this;
+        }
+
+        public FrameDecoder build() {
+            return new ModbusRtuFrameDecoder(
+                    baudRate,
+                    bitsPerChar,
+                    fixedTimeoutAbove19200,
+                    direction,
+                    maxFrameLength,
+                    clock
+            );
+        }
+    }
+
+    public static final class DemuxBuilder {
+        /** Largest frame type; types index per-type listener tables. */
+        public static final int MAX_TYPE = 255;
+
+        private final DemuxFrameDecoder.Routes routes = new DemuxFrameDecoder.Routes();
+        private int maxFrameLength = 4096;
+
+        /**
+         * Route frames starting with {@code header} to {@code decoder}. The decoder sees the
+         * whole frame, header included.
+         */
+        public DemuxBuilder route(int header, int type, FrameDecoder decoder) {
+            checkRoute(type, decoder);
+            routes.add(header, type, decoder);
+            return this;
+        }
+
+        /**
+         * Route frames starting with {@code header1, header2}. A single-byte route on
+         * {@code header1}, if any, is used as a fallback for unmatched second bytes.
+         */
+        public DemuxBuilder route(int header1, int header2, int type, FrameDecoder decoder) {
+            checkRoute(type, decoder);
+            routes.add(header1, header2, type, decoder);
+            return this;
+        }
+
+        /**
+         * Abandon a routed frame that grows past this many bytes without being emitted.
+         */
+        public DemuxBuilder maxFrameLength(int maxFrameLength) {
+            this.maxFrameLength = maxFrameLength;
+            return this;
+        }
+
+        public FrameDecoder build() {
+            return new DemuxFrameDecoder(routes, maxFrameLength);
+        }
 
+        private static void checkRoute(int type, FrameDecoder decoder) {
+            if (type < 0 || type > MAX_TYPE) throw new IllegalArgumentException("type must be 0.." + MAX_TYPE);
+            if (decoder == null) throw new IllegalArgumentException("decoder == null");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.temon.serial.core;
+
+/**
+ * Latency histograms of one connection's pipeline stages, or the sum of several connections
+ * (see {@link SerialManager#getLatencies()}).
+ *
+ * <p>Recording costs two atomic adds per event and never allocates, so tracking is always on.</p>
+ */
+public final class SerialLatencies {
+
+    private final LatencyHistogram receive = new LatencyHistogram();
+    private final LatencyHistogram dispatch = new LatencyHistogram();
+    private final LatencyHistogram transmit = new LatencyHistogram();
+    private final LatencyHistogram pacing = new LatencyHistogram();
+    private final LatencyHistogram idleFlushLag = new LatencyHistogram();
+
+    /**
+     * Read thread time per read: from read() returning to the chunk being decoded and handed to
+     * the dispatcher.
+     */
+    public LatencyHistogram getReceiveLatency() {
+        return receive;
+    }
+
+    /**
+     * From read() returning to the listener being invoked (bytes and frames; frames completed
+     * by an idle flush count from their last read, batched frames once per batch).
+     */
+    public LatencyHistogram getDispatchLatency() {
+        return dispatch;
+    }
+
+    /**
+     * From {@code sendBytes} to write() returning, including pacing and the write queue.
+     */
+    public LatencyHistogram getTransmitLatency() {
+        return transmit;
+    }
+
+    /**
+     * Delay added to each write by the send interval (millisecond resolution).
+     */
+    public LatencyHistogram getPacingDelay() {
+        return pacing;
+    }
+
+    /**
+     * How late the idle-gap flush ran compared with its deadline.
+     */
+    public LatencyHistogram getIdleFlushLag() {
+        return idleFlushLag;
+    }
+
+    /**
+     * Add all recordings of {@code other} to this instance.
+     */
+    public void add(SerialLatencies other) {
+        if (other == null || other == this) return;
+        receive.add(other.receive);
+        dispatch.add(other.dispatch);
+        transmit.add(other.transmit);
+        pacing.add(other.pacing);
+        idleFlushLag.add(other.idleFlushLag);
+    }
+
+    public void reset() {
+        receive.reset();
+        dispatch.reset();
+        transmit.reset();
+        pacing.reset();
+        idleFlushLag.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "SerialLatencies{receive=[" + receive + "], dispatch=[" + dispatch + "], transmit=[" + transmit
+                + "], pacing=[" + pacing + "], idleFlushLag=[" + idleFlushLag + "]}";
+    }
+}
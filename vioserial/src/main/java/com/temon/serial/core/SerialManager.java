@@ -1,10 +1,27 @@
 package com.temon.serial.core;
 
+import android.os.SystemClock;
+
 import com.temon.serial.codec.HexCodec;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Serial port manager supporting multiple ports and multiple instances.
@@ -48,6 +65,14 @@ public final class SerialManager {
         void onFrame(byte[] frame, int length);
     }
 
+    public interface OnTextListener {
+        /**
+         * Data decoded in the charset given at registration. In framed mode, it's a complete
+         * frame. In RAW mode, it's a chunk from the stream (a multi-byte character may be split).
+         */
+        void onText(String text);
+    }
+
     public interface OnErrorListener {
         /**
          * Called when an error occurs on the serial port.
@@ -60,6 +85,56 @@ public final class SerialManager {
         void onError(String port, SerialError error, String message, Throwable throwable);
     }
 
+    public interface OnSlowListenerListener {
+        /**
+         * A bytes/frame/hex listener took longer than the budget set with
+         * {@link #setListenerBudget(long, OnSlowListenerListener)}.
+         *
+         * <p>Called on the thread that ran the slow listener.</p>
+         *
+         * @param port          Serial port path
+         * @param listener      The slow listener
+         * @param durationNanos How long the call took
+         * @param movedToAsync  True if the listener is now called on the slow-listener dispatcher
+         */
+        void onSlowListener(String port, Object listener, long durationNanos, boolean movedToAsync);
+    }
+
+    /**
+     * Chooses the frame decoder for each port opened by {@link #openAll(List, DecoderProvider, int)}.
+     */
+    public interface DecoderProvider {
+        /**
+         * @return A new decoder for this port (decoders keep per-stream state and must not be
+         * shared between ports), or null for raw mode
+         */
+        FrameDecoder decoderFor(SerialConfig config);
+    }
+
+    /**
+     * Outcome of opening one port in {@link #openAll(List, DecoderProvider, int)}.
+     */
+    public static final class OpenResult {
+        public final String port;
+        public final boolean success;
+        /** Why the open failed, or null on success. */
+        public final SerialException error;
+        /** Time spent in open, including waiting for the port's lock. */
+        public final long elapsedMs;
+
+        OpenResult(String port, boolean success, SerialException error, long elapsedMs) {
+            this.port = port;
+            this.success = success;
+            this.error = error;
+            this.elapsedMs = elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return port + (success ? " opened" : " failed: " + error.getMessage()) + " in " + elapsedMs + " ms";
+        }
+    }
+
     private static final class ErrorInfo {
         final SerialError error;
         final String message;
@@ -71,16 +146,29 @@ public final class SerialManager {
     }
 
     private final Object lock = new Object();
+    /** Serializes open/close of one port; different ports open in parallel. */
+    private final ConcurrentHashMap<String, Object> portLocks = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, SerialConnection> connections = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, CopyOnWriteArrayList<OnHexDataListener>> listeners = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, CopyOnWriteArrayList<OnBytesListener>> byteListeners = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, CopyOnWriteArrayList<OnFrameListener>> frameListeners = new ConcurrentHashMap<>();
+    private final Object subscriptionLock = new Object();
+    private final ConcurrentHashMap<String, PortSubscriptions> subscriptions = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<OnErrorListener> errorListeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Object, ListenerTiming>> listenerTimings =
+            new ConcurrentHashMap<>();
+
+    private static final int DEFAULT_OPEN_PARALLELISM = 4;
+    private static final long DEFAULT_CLOSE_TIMEOUT_MS = 10_000L;
 
     private volatile FrameDecoder defaultDecoder = null;
+    // When set, replaces defaultDecoder with a new decoder per port
+    private volatile DecoderProvider defaultDecoderProvider = null;
     private volatile ReconnectPolicy defaultReconnectPolicy = ReconnectPolicy.NONE;
     private volatile CallbackDispatcher callbackDispatcher = Dispatchers.direct();
     private volatile SerialLogger logger = SerialLogger.NO_OP;
+    private volatile SerialTracer tracer = SerialTracer.NO_OP;
+    private volatile SerialTimer idleTimer;
+    private volatile long listenerBudgetNanos = 0L;
+    private volatile OnSlowListenerListener slowListenerListener;
+    private volatile CallbackDispatcher slowListenerDispatcher;
 
     /**
      * Chain-style configuration (fluent).
@@ -112,14 +200,102 @@ public final class SerialManager {
         return logger;
     }
 
+    /**
+     * Configure the tracer for connections opened by this manager (applies from the next open).
+     */
+    public void setTracer(SerialTracer tracer) {
+        this.tracer = tracer != null ? tracer : SerialTracer.NO_OP;
+    }
+
+    public SerialTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Warn when a bytes/frame/hex listener call takes longer than {@code budgetMs}.
+     *
+     * <p>Every listener call is timed regardless (see {@link #getListenerLatency}); this only
+     * controls the warning. The slow call is also logged through the configured logger.</p>
+     *
+     * @param budgetMs Budget per call, 0 to disable warnings
+     * @param callback Receives the warnings (may be null to only log)
+     */
+    public void setListenerBudget(long budgetMs, OnSlowListenerListener callback) {
+        if (budgetMs < 0) throw new IllegalArgumentException("budgetMs must be >= 0");
+        this.listenerBudgetNanos = budgetMs * 1_000_000L;
+        this.slowListenerListener = callback;
+    }
+
+    /**
+     * Move listeners that exceed the budget to {@code dispatcher}, so they stop blocking the
+     * callback thread (by default the IO thread). A moved listener stays on that dispatcher
+     * until it is removed. Use null (default) to only warn.
+     */
+    public void setSlowListenerDispatcher(CallbackDispatcher dispatcher) {
+        this.slowListenerDispatcher = dispatcher;
+    }
+
+    /**
+     * Call-duration histogram of a bytes/frame/hex listener on {@code port}, or null if it has
+     * not been called yet.
+     */
+    public LatencyHistogram getListenerLatency(String port, Object listener) {
+        if (port == null || listener == null) return null;
+        ConcurrentHashMap<Object, ListenerTiming> timings = listenerTimings.get(port);
+        ListenerTiming timing = timings != null ? timings.get(listener) : null;
+        return timing != null ? timing.histogram : null;
+    }
+
+    /**
+     * Whether {@code listener} on {@code port} was moved to the slow-listener dispatcher.
+     */
+    public boolean isListenerMovedToAsync(String port, Object listener) {
+        if (port == null || listener == null) return false;
+        ConcurrentHashMap<Object, ListenerTiming> timings = listenerTimings.get(port);
+        ListenerTiming timing = timings != null ? timings.get(listener) : null;
+        return timing != null && timing.async;
+    }
+
+    /**
+     * Receive/dispatch/transmit latency histograms of {@code port}, or null if it is not managed.
+     */
+    public SerialLatencies getLatencies(String port) {
+        SerialConnection c = port != null ? connections.get(port) : null;
+        return c != null ? c.getLatencies() : null;
+    }
+
+    /**
+     * Latency histograms of all managed ports added together (a new copy on each call).
+     */
+    public SerialLatencies getLatencies() {
+        SerialLatencies total = new SerialLatencies();
+        for (SerialConnection c : connections.values()) {
+            total.add(c.getLatencies());
+        }
+        return total;
+    }
+
     /**
      * Configure default framing strategy for {@link #open(String, int)}.
      * Use null to disable framing (raw mode).
+     *
+     * <p>The decoder instance is shared by every port opened with the default, so it suits one
+     * port at a time; use {@link #setDefaultDecoderProvider} for several ports.</p>
      */
     public void setDefaultFrameDecoder(FrameDecoder decoder) {
+        this.defaultDecoderProvider = null;
         this.defaultDecoder = decoder;
     }
 
+    /**
+     * Create the default decoder per port for {@link #open(String, int)} and
+     * {@link #openAll(List)}. Replaces {@link #setDefaultFrameDecoder}; null clears it.
+     */
+    public void setDefaultDecoderProvider(DecoderProvider provider) {
+        this.defaultDecoder = null;
+        this.defaultDecoderProvider = provider;
+    }
+
     /**
      * Configure default reconnection policy for {@link #open(String, int)}.
      */
@@ -128,10 +304,15 @@ public final class SerialManager {
     }
 
     /**
-     * Convenience: use CRLF framing.
+     * Convenience: use CRLF framing (a new decoder per port).
      */
     public void useDefaultCrlf() {
-        this.defaultDecoder = SerialFraming.crlf();
+        setDefaultDecoderProvider(new DecoderProvider() {
+            @Override
+            public FrameDecoder decoderFor(SerialConfig config) {
+                return SerialFraming.crlf();
+            }
+        });
     }
 
     /**
@@ -153,7 +334,134 @@ public final class SerialManager {
                 .port(port)
                 .baudRate(baudRate)
                 .build();
-        return openInternal(config, defaultDecoder);
+        DecoderProvider provider = defaultDecoderProvider;
+        return openInternal(config, provider != null ? provider.decoderFor(config) : defaultDecoder);
+    }
+
+    /**
+     * Open several ports concurrently with the default decoder (see {@link #openAll(List, DecoderProvider, int)}).
+     *
+     * <p>Like {@link #open(String, int)}, each port gets a decoder from
+     * {@link #setDefaultDecoderProvider} (or raw mode if no default is set). A single decoder set
+     * with {@link #setDefaultFrameDecoder} keeps per-stream state and cannot serve several ports
+     * read at the same time, so it is only accepted for one config.</p>
+     *
+     * @throws IllegalArgumentException if a shared default decoder is set and there are several configs
+     */
+    public List<OpenResult> openAll(List<SerialConfig> configs) {
+        if (configs == null) throw new IllegalArgumentException("configs == null");
+        DecoderProvider provider = defaultDecoderProvider;
+        if (provider != null) return openAll(configs, provider, DEFAULT_OPEN_PARALLELISM);
+        final FrameDecoder decoder = defaultDecoder;
+        if (decoder != null && configs.size() > 1) {
+            throw new IllegalArgumentException("the default frame decoder cannot be shared by " + configs.size()
+                    + " ports; use setDefaultDecoderProvider or openAll(configs, decoders, maxParallel)");
+        }
+        return openAll(configs, new DecoderProvider() {
+            @Override
+            public FrameDecoder decoderFor(SerialConfig config) {
+                return decoder;
+            }
+        }, DEFAULT_OPEN_PARALLELISM);
+    }
+
+    /**
+     * Open several ports concurrently, e.g. at boot.
+     *
+     * <p>Each port is opened on a worker of a pool bounded by {@code maxParallel}; a failure on one
+     * port does not affect the others. Blocks until every port has been attempted.</p>
+     *
+     * @param configs     Ports to open
+     * @param decoders    Decoder per port
+     * @param maxParallel Maximum concurrent opens, e.g. 4
+     * @return One result per config, in the same order
+     */
+    public List<OpenResult> openAll(List<SerialConfig> configs, final DecoderProvider decoders, int maxParallel) {
+        if (configs == null) throw new IllegalArgumentException("configs == null");
+        if (decoders == null) throw new IllegalArgumentException("decoders == null");
+        if (maxParallel <= 0) throw new IllegalArgumentException("maxParallel must be > 0");
+        int n = configs.size();
+        List<OpenResult> results = new ArrayList<>(n);
+        if (n == 0) return results;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(maxParallel, n), new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "serial-open-" + index.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        try {
+            List<Future<OpenResult>> futures = new ArrayList<>(n);
+            for (final SerialConfig config : configs) {
+                futures.add(pool.submit(new Callable<OpenResult>() {
+                    @Override
+                    public OpenResult call() {
+                        return openOne(config, decoders);
+                    }
+                }));
+            }
+            boolean interrupted = false;
+            for (int i = 0; i < n; i++) {
+                SerialConfig config = configs.get(i);
+                String port = config != null ? config.port : null;
+                OpenResult r;
+                try {
+                    r = futures.get(i).get();
+                } catch (InterruptedException e) {
+                    // Keep waiting: the opens are running and their results must be reported.
+                    interrupted = true;
+                    i--;
+                    continue;
+                } catch (ExecutionException e) {
+                    r = new OpenResult(port, false,
+                            new SerialException(SerialError.OPEN_FAILED, "open failed: " + port, e.getCause()), 0L);
+                }
+                results.add(r);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private OpenResult openOne(SerialConfig config, DecoderProvider decoders) {
+        long start = SystemClock.elapsedRealtime();
+        String port = config != null ? config.port : null;
+        try {
+            if (config == null) throw new SerialException(SerialError.INVALID_PARAMETER, "config == null");
+            openInternal(config, decoders.decoderFor(config));
+            return new OpenResult(port, true, null, SystemClock.elapsedRealtime() - start);
+        } catch (SerialException e) {
+            return new OpenResult(port, false, e, SystemClock.elapsedRealtime() - start);
+        } catch (RuntimeException e) {
+            return new OpenResult(port, false,
+                    new SerialException(SerialError.OPEN_FAILED, "open failed: " + port, e),
+                    SystemClock.elapsedRealtime() - start);
+        }
+    }
+
+    /**
+     * Timer thread shared by this manager's connections for idle-gap flushes. Read its lag
+     * metrics to see how late flushes run.
+     */
+    public SerialTimer getIdleTimer() {
+        SerialTimer t = idleTimer;
+        if (t == null) {
+            synchronized (lock) {
+                t = idleTimer;
+                if (t == null) {
+                    t = new SerialTimer("serial-timer");
+                    idleTimer = t;
+                }
+            }
+        }
+        return t;
     }
 
     public boolean isOpen(String port) {
@@ -162,20 +470,121 @@ public final class SerialManager {
     }
 
     public void close(String port) {
-        SerialConnection c = connections.remove(port);
-        if (c != null) c.close();
-        listeners.remove(port);
-        byteListeners.remove(port);
-        frameListeners.remove(port);
+        if (port == null) return;
+        closePort(port, DEFAULT_CLOSE_TIMEOUT_MS);
+    }
+
+    /**
+     * @return true if the connection's IO threads exited within {@code timeoutMs}
+     */
+    private boolean closePort(String port, long timeoutMs) {
+        boolean clean = true;
+        synchronized (portLock(port)) {
+            SerialConnection c = connections.remove(port);
+            if (c != null) clean = c.close(timeoutMs);
+            // Under the port lock, so an open of the same port cannot slip in between and lose
+            // the listeners it was opened with
+            synchronized (subscriptionLock) {
+                subscriptions.remove(port);
+            }
+            listenerTimings.remove(port);
+        }
+        return clean;
     }
 
     /**
      * Close all ports.
      */
     public void closeAll() {
-        for (String port : connections.keySet()) {
-            close(port);
+        closeAll(DEFAULT_CLOSE_TIMEOUT_MS);
+    }
+
+    /**
+     * Close all ports in parallel, waiting at most {@code timeoutMs} in total.
+     *
+     * <p>Every connection starts closing at once and all of them share one deadline, so the
+     * call takes about as long as the slowest port (bounded by {@code timeoutMs}) rather than
+     * the sum. Ports are removed from this manager either way.</p>
+     *
+     * @return Ports that did not shut down cleanly (an IO thread still running, or close still
+     * in progress at the deadline); empty if all closed cleanly
+     */
+    public List<String> closeAll(long timeoutMs) {
+        if (timeoutMs < 0) throw new IllegalArgumentException("timeoutMs must be >= 0");
+        final long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        List<String> ports = new ArrayList<>(connections.keySet());
+        List<String> failed = new ArrayList<>();
+        if (ports.isEmpty()) return failed;
+        List<FutureTask<Boolean>> tasks = new ArrayList<>(ports.size());
+        for (int i = 0; i < ports.size(); i++) {
+            final String port = ports.get(i);
+            FutureTask<Boolean> task = new FutureTask<>(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return closePort(port, (deadline - System.nanoTime()) / 1_000_000L);
+                }
+            });
+            Thread t = new Thread(task, "serial-close-" + (i + 1));
+            t.setDaemon(true);
+            t.start();
+            tasks.add(task);
+        }
+        boolean interrupted = false;
+        for (int i = 0; i < tasks.size(); i++) {
+            FutureTask<Boolean> task = tasks.get(i);
+            boolean clean;
+            if (interrupted) {
+                // Stopped waiting: report the ports not known to be closed.
+                clean = task.isDone() && Boolean.TRUE.equals(doneValue(task));
+            } else {
+                try {
+                    long remaining = deadline - System.nanoTime();
+                    clean = task.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    clean = false;
+                } catch (ExecutionException e) {
+                    clean = false;
+                    if (logger.isEnabled()) {
+                        logger.logError(ports.get(i), "close failed", e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    clean = false;
+                }
+            }
+            if (!clean) failed.add(ports.get(i));
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failed;
+    }
+
+    private static Boolean doneValue(FutureTask<Boolean> task) {
+        try {
+            return task.get(0L, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Close all ports (see {@link #closeAll(long)}) and stop this manager's timer thread.
+     * The manager can still be used afterwards; the timer is recreated on the next open.
+     *
+     * @return Ports that did not shut down cleanly
+     */
+    public List<String> shutdown(long timeoutMs) {
+        List<String> failed = closeAll(timeoutMs);
+        SerialTimer t;
+        synchronized (lock) {
+            t = idleTimer;
+            idleTimer = null;
+        }
+        if (t != null) {
+            t.stop();
         }
+        return failed;
     }
 
     /**
@@ -197,63 +606,280 @@ public final class SerialManager {
         c.sendBytes(data);
     }
 
+    /**
+     * Change baud rate and line settings of an open port without reopening it, after the writes
+     * already queued. See {@link SerialConnection#reconfigure(SerialConfig, SerialConnection.ReconfigureMode)}.
+     */
+    public void reconfigure(SerialConfig config) throws SerialException {
+        reconfigure(config, SerialConnection.ReconfigureMode.DRAIN);
+    }
+
+    public void reconfigure(SerialConfig config, SerialConnection.ReconfigureMode mode) throws SerialException {
+        if (config == null) throw new SerialException(SerialError.INVALID_PARAMETER, "config == null");
+        SerialConnection c = connections.get(config.port);
+        if (c == null || !c.isOpen()) {
+            throw new SerialException(SerialError.CLOSED, "serial is not open: " + config.port);
+        }
+        c.reconfigure(config, mode);
+    }
+
+    /**
+     * Send the same bytes to several ports.
+     *
+     * <p>{@code data} is copied once and the copy is shared by all writers. Ports that are not
+     * open fail immediately in the result instead of throwing.</p>
+     */
+    public BroadcastResult broadcast(Collection<String> ports, byte[] data) {
+        return broadcast(ports, data, 0L);
+    }
+
+    /**
+     * Like {@link #broadcast(Collection, byte[])}, with aligned start times.
+     *
+     * @param alignDelayMs If > 0, every port starts writing at the same moment, this many ms from
+     *                     now (each port's send interval can still delay it). Use enough delay
+     *                     for all writes to be queued, e.g. 5-20 ms. 0 to start each write asap.
+     * @return Completion with per-port results and start/completion skew
+     */
+    public BroadcastResult broadcast(Collection<String> ports, byte[] data, long alignDelayMs) {
+        if (ports == null) throw new IllegalArgumentException("ports == null");
+        if (data == null) throw new IllegalArgumentException("data == null");
+        if (alignDelayMs < 0) throw new IllegalArgumentException("alignDelayMs must be >= 0");
+        final String[] targets = ports.toArray(new String[0]);
+        final BroadcastResult result = new BroadcastResult(targets);
+        final byte[] payload = Arrays.copyOf(data, data.length);
+        long notBefore = alignDelayMs > 0 ? SystemClock.uptimeMillis() + alignDelayMs : 0L;
+        for (int i = 0; i < targets.length; i++) {
+            final int index = i;
+            SerialConnection c = targets[i] != null ? connections.get(targets[i]) : null;
+            try {
+                if (c == null) {
+                    throw new SerialException(SerialError.CLOSED, "serial is not open: " + targets[i]);
+                }
+                c.send(payload, notBefore, new SerialConnection.WriteCompletion() {
+                    @Override
+                    public void onWriteDone(long startNanos, long endNanos, Throwable error) {
+                        result.complete(index, startNanos, endNanos, error);
+                    }
+                });
+            } catch (SerialException e) {
+                result.complete(index, 0L, System.nanoTime(), e);
+            }
+        }
+        return result;
+    }
+
     public void addDataListener(String port, OnHexDataListener listener) {
         if (listener == null || port == null) return;
-        getOrCreateList(listeners, port).addIfAbsent(listener);
+        synchronized (subscriptionLock) {
+            Subscriptions next = holder(port).current.copy();
+            next.hex = plus(next.hex, listener);
+            publish(port, next);
+        }
     }
 
     public void removeDataListener(String port, OnHexDataListener listener) {
         if (listener == null || port == null) return;
-        CopyOnWriteArrayList<OnHexDataListener> list = listeners.get(port);
-        if (list != null) {
-            list.remove(listener);
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            next.hex = minus(next.hex, listener);
+            publish(port, next);
         }
+        forgetTiming(port, listener);
     }
 
     public void clearDataListeners(String port) {
-        CopyOnWriteArrayList<OnHexDataListener> list = listeners.get(port);
-        if (list != null) {
-            list.clear();
+        if (port == null) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            forgetTimings(port, next.hex);
+            next.hex = new OnHexDataListener[0];
+            publish(port, next);
+        }
+    }
+
+    /**
+     * Listen for data as upper-case hex with a space between bytes (e.g. "AA 03 3C").
+     * Same event source as {@link #addDataListener}: frames in framed mode, chunks in raw mode.
+     */
+    public void addSpacedHexListener(String port, OnHexDataListener listener) {
+        if (listener == null || port == null) return;
+        synchronized (subscriptionLock) {
+            Subscriptions next = holder(port).current.copy();
+            next.spacedHex = plus(next.spacedHex, listener);
+            publish(port, next);
         }
     }
 
+    public void removeSpacedHexListener(String port, OnHexDataListener listener) {
+        if (listener == null || port == null) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            next.spacedHex = minus(next.spacedHex, listener);
+            publish(port, next);
+        }
+        forgetTiming(port, listener);
+    }
+
+    /**
+     * Listen for data decoded as text in {@code charset}. Same event source as
+     * {@link #addDataListener}: frames in framed mode, chunks in raw mode.
+     */
+    public void addTextListener(String port, Charset charset, OnTextListener listener) {
+        if (listener == null || port == null) return;
+        if (charset == null) throw new IllegalArgumentException("charset == null");
+        synchronized (subscriptionLock) {
+            Subscriptions next = holder(port).current.copy();
+            for (TextSubscription t : next.text) {
+                if (t.listener.equals(listener)) return;
+            }
+            // Keep subscriptions of one charset together so each charset is decoded once per event.
+            TextSubscription[] text = new TextSubscription[next.text.length + 1];
+            int insertAt = next.text.length;
+            for (int i = next.text.length - 1; i >= 0; i--) {
+                if (next.text[i].charset.equals(charset)) {
+                    insertAt = i + 1;
+                    break;
+                }
+            }
+            System.arraycopy(next.text, 0, text, 0, insertAt);
+            text[insertAt] = new TextSubscription(listener, charset);
+            System.arraycopy(next.text, insertAt, text, insertAt + 1, next.text.length - insertAt);
+            next.text = text;
+            publish(port, next);
+        }
+    }
+
+    public void removeTextListener(String port, OnTextListener listener) {
+        if (listener == null || port == null) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            for (int i = 0; i < next.text.length; i++) {
+                if (next.text[i].listener.equals(listener)) {
+                    next.text = minus(next.text, next.text[i]);
+                    break;
+                }
+            }
+            publish(port, next);
+        }
+        forgetTiming(port, listener);
+    }
+
     public void addBytesListener(String port, OnBytesListener listener) {
         if (listener == null || port == null) return;
-        getOrCreateList(byteListeners, port).addIfAbsent(listener);
+        synchronized (subscriptionLock) {
+            Subscriptions next = holder(port).current.copy();
+            next.bytes = plus(next.bytes, listener);
+            publish(port, next);
+        }
     }
 
     public void removeBytesListener(String port, OnBytesListener listener) {
         if (listener == null || port == null) return;
-        CopyOnWriteArrayList<OnBytesListener> list = byteListeners.get(port);
-        if (list != null) {
-            list.remove(listener);
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            next.bytes = minus(next.bytes, listener);
+            publish(port, next);
         }
+        forgetTiming(port, listener);
     }
 
     public void clearBytesListeners(String port) {
-        CopyOnWriteArrayList<OnBytesListener> list = byteListeners.get(port);
-        if (list != null) {
-            list.clear();
+        if (port == null) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            forgetTimings(port, next.bytes);
+            next.bytes = new OnBytesListener[0];
+            publish(port, next);
         }
     }
 
     public void addFrameListener(String port, OnFrameListener listener) {
         if (listener == null || port == null) return;
-        getOrCreateList(frameListeners, port).addIfAbsent(listener);
+        synchronized (subscriptionLock) {
+            Subscriptions next = holder(port).current.copy();
+            next.frames = plus(next.frames, listener);
+            publish(port, next);
+        }
     }
 
     public void removeFrameListener(String port, OnFrameListener listener) {
         if (listener == null || port == null) return;
-        CopyOnWriteArrayList<OnFrameListener> list = frameListeners.get(port);
-        if (list != null) {
-            list.remove(listener);
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            next.frames = minus(next.frames, listener);
+            publish(port, next);
         }
+        forgetTiming(port, listener);
     }
 
     public void clearFrameListeners(String port) {
-        CopyOnWriteArrayList<OnFrameListener> list = frameListeners.get(port);
-        if (list != null) {
-            list.clear();
+        if (port == null) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            forgetTimings(port, next.frames);
+            next.frames = new OnFrameListener[0];
+            publish(port, next);
+        }
+    }
+
+    /**
+     * Listen for frames of one type, as classified by a {@link SerialFraming#demux()} decoder.
+     *
+     * <p>The decoder classifies each frame once on the IO thread; listeners registered here are
+     * only called for their type (in addition to the untyped frame listeners).</p>
+     *
+     * @param type Frame type, 0..{@link SerialFraming.DemuxBuilder#MAX_TYPE}
+     */
+    public void addFrameListener(String port, int type, OnFrameListener listener) {
+        if (listener == null || port == null) return;
+        if (type < 0 || type > SerialFraming.DemuxBuilder.MAX_TYPE) {
+            throw new IllegalArgumentException("type must be 0.." + SerialFraming.DemuxBuilder.MAX_TYPE);
+        }
+        synchronized (subscriptionLock) {
+            Subscriptions next = holder(port).current.copy();
+            next.setTyped(type, plus(next.typed(type), listener));
+            publish(port, next);
+        }
+    }
+
+    public void removeFrameListener(String port, int type, OnFrameListener listener) {
+        if (listener == null || port == null || type < 0 || type > SerialFraming.DemuxBuilder.MAX_TYPE) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            next.setTyped(type, minus(next.typed(type), listener));
+            publish(port, next);
+        }
+        forgetTiming(port, listener);
+    }
+
+    public void clearFrameListeners(String port, int type) {
+        if (port == null || type < 0 || type > SerialFraming.DemuxBuilder.MAX_TYPE) return;
+        synchronized (subscriptionLock) {
+            PortSubscriptions h = subscriptions.get(port);
+            if (h == null) return;
+            Subscriptions next = h.current.copy();
+            forgetTimings(port, next.typed(type));
+            next.setTyped(type, new OnFrameListener[0]);
+            publish(port, next);
         }
     }
 
@@ -273,17 +899,53 @@ public final class SerialManager {
         errorListeners.clear();
     }
 
-    private static <T> CopyOnWriteArrayList<T> getOrCreateList(
-            ConcurrentHashMap<String, CopyOnWriteArrayList<T>> map,
-            String port
-    ) {
-        CopyOnWriteArrayList<T> list = map.get(port);
-        if (list == null) {
-            CopyOnWriteArrayList<T> newList = new CopyOnWriteArrayList<>();
-            CopyOnWriteArrayList<T> existing = map.putIfAbsent(port, newList);
-            list = existing != null ? existing : newList;
+    private void forgetTiming(String port, Object listener) {
+        ConcurrentHashMap<Object, ListenerTiming> timings = listenerTimings.get(port);
+        if (timings != null) {
+            timings.remove(listener);
+        }
+    }
+
+    private void forgetTimings(String port, Object[] removed) {
+        for (Object l : removed) {
+            forgetTiming(port, l);
+        }
+    }
+
+    /**
+     * Subscription holder for {@code port}, created on first use. Caller holds subscriptionLock.
+     */
+    private PortSubscriptions holder(String port) {
+        PortSubscriptions h = subscriptions.get(port);
+        if (h == null) {
+            h = new PortSubscriptions();
+            subscriptions.put(port, h);
         }
-        return list;
+        return h;
+    }
+
+    private void publish(String port, Subscriptions next) {
+        holder(port).current = next;
+    }
+
+    private static <T> T[] plus(T[] array, T item) {
+        for (T t : array) {
+            if (t.equals(item)) return array;
+        }
+        T[] out = Arrays.copyOf(array, array.length + 1);
+        out[array.length] = item;
+        return out;
+    }
+
+    private static <T> T[] minus(T[] array, Object item) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(item)) {
+                T[] out = Arrays.copyOf(array, array.length - 1);
+                System.arraycopy(array, i + 1, out, i, array.length - i - 1);
+                return out;
+            }
+        }
+        return array;
     }
 
     private boolean openInternal(SerialConfig config, FrameDecoder decoder) throws SerialException {
@@ -292,7 +954,9 @@ public final class SerialManager {
             throw new SerialException(SerialError.INVALID_PARAMETER, "port cannot be empty");
         }
         final boolean rawMode = decoder == null;
-        synchronized (lock) {
+        // Closing the old connection and open() (which may run an su permission fix) can take
+        // seconds, so only this port is locked.
+        synchronized (portLock(port)) {
             SerialConnection existing = connections.remove(port);
             if (existing != null) {
                 existing.close();
@@ -302,91 +966,9 @@ public final class SerialManager {
                     .reconnectPolicy(defaultReconnectPolicy)
                     .callbackDispatcher(callbackDispatcher)
                     .logger(logger)
-                    .listener(new SerialListenerAdapter() {
-                        @Override
-                        public void onBytes(byte[] data, int length) {
-                            if (length <= 0 || data == null) return;
-                            CopyOnWriteArrayList<OnBytesListener> list = byteListeners.get(port);
-                            if (list != null) {
-                                for (OnBytesListener l : list) {
-                                    try {
-                                        l.onBytes(data, length);
-                                    } catch (Throwable t) {
-                                        // Protect IO thread from listener errors
-                                        if (logger.isEnabled()) {
-                                            logger.logError(port, "OnBytesListener threw", t);
-                                        }
-                                    }
-                                }
-                            }
-                            if (rawMode) {
-                                String hex = HexCodec.encode(data, 0, length);
-                                CopyOnWriteArrayList<OnHexDataListener> hexList = listeners.get(port);
-                                if (hexList != null) {
-                                    for (OnHexDataListener l : hexList) {
-                                        try {
-                                            l.onData(hex);
-                                        } catch (Throwable t) {
-                                            // Protect IO thread from listener errors
-                                            if (logger.isEnabled()) {
-                                                logger.logError(port, "OnHexDataListener threw", t);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        @Override
-                        public void onFrame(byte[] frame, int length) {
-                            if (length <= 0) return;
-                            CopyOnWriteArrayList<OnFrameListener> frameList = frameListeners.get(port);
-                            if (frameList != null) {
-                                for (OnFrameListener l : frameList) {
-                                    try {
-                                        l.onFrame(frame, length);
-                                    } catch (Throwable t) {
-                                        // Protect IO thread from listener errors
-                                        if (logger.isEnabled()) {
-                                            logger.logError(port, "OnFrameListener threw", t);
-                                        }
-                                    }
-                                }
-                            }
-                            String hex = HexCodec.encode(frame, 0, length);
-                            CopyOnWriteArrayList<OnHexDataListener> list = listeners.get(port);
-                            if (list != null) {
-                                for (OnHexDataListener l : list) {
-                                    try {
-                                        l.onData(hex);
-                                    } catch (Throwable t) {
-                                        // Protect IO thread from listener errors
-                                        if (logger.isEnabled()) {
-                                            logger.logError(port, "OnHexDataListener threw", t);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        @Override
-                        public void onError(Throwable t) {
-                            ErrorInfo info = buildErrorInfo(t);
-                            if (logger.isEnabled()) {
-                                logger.logError(port, info.message, t);
-                            }
-                            for (OnErrorListener l : errorListeners) {
-                                try {
-                                    l.onError(port, info.error, info.message, t);
-                                } catch (Throwable t2) {
-                                    // Don't let listener exceptions break the system
-                                    if (logger.isEnabled()) {
-                                        logger.logError(port, "OnErrorListener threw", t2);
-                                    }
-                                }
-                            }
-                        }
-                    })
+                    .tracer(tracer)
+                    .idleTimer(getIdleTimer())
+                    .listener(new PortListener(port, rawMode))
                     .build();
             c.open();
             connections.put(port, c);
@@ -394,6 +976,274 @@ public final class SerialManager {
         }
     }
 
+    private Object portLock(String port) {
+        Object l = portLocks.get(port);
+        if (l == null) {
+            Object created = new Object();
+            Object existing = portLocks.putIfAbsent(port, created);
+            l = existing != null ? existing : created;
+        }
+        return l;
+    }
+
+    private static final int CALL_BYTES = 0;
+    private static final int CALL_FRAME = 1;
+    private static final int CALL_HEX = 2;
+    private static final int CALL_TEXT = 3;
+
+    private static final class TextSubscription {
+        final OnTextListener listener;
+        final Charset charset;
+
+        TextSubscription(OnTextListener listener, Charset charset) {
+            this.listener = listener;
+            this.charset = charset;
+        }
+    }
+
+    /**
+     * Listeners of one port. A snapshot is never modified after it is published; add/remove
+     * publish a new copy, so the callback thread reads it with one volatile load.
+     */
+    private static final class Subscriptions {
+        private static final OnFrameListener[] NO_FRAME_LISTENERS = new OnFrameListener[0];
+
+        OnBytesListener[] bytes = new OnBytesListener[0];
+        OnFrameListener[] frames = NO_FRAME_LISTENERS;
+        OnHexDataListener[] hex = new OnHexDataListener[0];
+        OnHexDataListener[] spacedHex = new OnHexDataListener[0];
+        TextSubscription[] text = new TextSubscription[0];
+        /** Per-type frame listeners, null until the first typed listener is added. */
+        OnFrameListener[][] typed;
+
+        Subscriptions copy() {
+            Subscriptions c = new Subscriptions();
+            c.bytes = bytes;
+            c.frames = frames;
+            c.hex = hex;
+            c.spacedHex = spacedHex;
+            c.text = text;
+            c.typed = typed;
+            return c;
+        }
+
+        OnFrameListener[] typed(int type) {
+            OnFrameListener[] l = typed != null ? typed[type] : null;
+            return l != null ? l : NO_FRAME_LISTENERS;
+        }
+
+        void setTyped(int type, OnFrameListener[] listeners) {
+            typed = typed != null ? typed.clone() : new OnFrameListener[SerialFraming.DemuxBuilder.MAX_TYPE + 1][];
+            typed[type] = listeners;
+        }
+    }
+
+    private static final class PortSubscriptions {
+        volatile Subscriptions current = new Subscriptions();
+    }
+
+    /**
+     * Call-duration record of one listener on one port.
+     */
+    private static final class ListenerTiming {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        volatile boolean async;
+    }
+
+    /**
+     * Fans out connection callbacks for one port to the listeners registered on this manager.
+     *
+     * <p>Hex, spaced hex and text are only built when a listener for them is registered, and at
+     * most once per event (once per charset for text).</p>
+     */
+    private final class PortListener extends SerialListenerAdapter implements TypedSerialListener {
+        private final String port;
+        private final boolean rawMode;
+        private final ConcurrentHashMap<Object, ListenerTiming> timings;
+        private final PortSubscriptions subs;
+
+        PortListener(String port, boolean rawMode) {
+            this.port = port;
+            this.rawMode = rawMode;
+            this.timings = getOrCreateTimings(port);
+            synchronized (subscriptionLock) {
+                this.subs = holder(port);
+            }
+        }
+
+        @Override
+        public void onBytes(byte[] data, int length) {
+            if (length <= 0 || data == null) return;
+            Subscriptions s = subs.current;
+            for (OnBytesListener l : s.bytes) {
+                deliver(l, CALL_BYTES, data, length, null);
+            }
+            if (rawMode) {
+                deliverDerived(s, data, length);
+            }
+        }
+
+        @Override
+        public void onFrame(byte[] frame, int length) {
+            if (length <= 0) return;
+            fanOutFrame(subs.current, frame, length);
+        }
+
+        private void fanOutFrame(Subscriptions s, byte[] frame, int length) {
+            for (OnFrameListener l : s.frames) {
+                deliver(l, CALL_FRAME, frame, length, null);
+            }
+            deliverDerived(s, frame, length);
+        }
+
+        private void deliverDerived(Subscriptions s, byte[] data, int length) {
+            if (s.hex.length > 0) {
+                String hex = HexCodec.encode(data, 0, length);
+                for (OnHexDataListener l : s.hex) {
+                    deliver(l, CALL_HEX, data, length, hex);
+                }
+            }
+            if (s.spacedHex.length > 0) {
+                String spaced = HexCodec.encodeSpaced(data, 0, length);
+                for (OnHexDataListener l : s.spacedHex) {
+                    deliver(l, CALL_HEX, data, length, spaced);
+                }
+            }
+            Charset charset = null;
+            String text = null;
+            for (TextSubscription t : s.text) {
+                if (!t.charset.equals(charset)) {
+                    charset = t.charset;
+                    text = new String(data, 0, length, charset);
+                }
+                deliver(t.listener, CALL_TEXT, data, length, text);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            ErrorInfo info = buildErrorInfo(t);
+            if (logger.isEnabled()) {
+                logger.logError(port, info.message, t);
+            }
+            for (OnErrorListener l : errorListeners) {
+                try {
+                    l.onError(port, info.error, info.message, t);
+                } catch (Throwable t2) {
+                    // Don't let listener exceptions break the system
+                    if (logger.isEnabled()) {
+                        logger.logError(port, "OnErrorListener threw", t2);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onTypedFrame(int type, byte[] frame, int length) {
+            if (length <= 0) return;
+            Subscriptions s = subs.current;
+            fanOutFrame(s, frame, length);
+            if (type < 0 || type > SerialFraming.DemuxBuilder.MAX_TYPE) return;
+            for (OnFrameListener l : s.typed(type)) {
+                deliver(l, CALL_FRAME, frame, length, null);
+            }
+        }
+
+        /**
+         * Run one listener call, timing it and applying the slow-listener budget.
+         */
+        private void deliver(final Object l, final int call, final byte[] data, final int length, final String derived) {
+            ListenerTiming timing = timings.get(l);
+            if (timing == null) {
+                ListenerTiming created = new ListenerTiming();
+                ListenerTiming existing = timings.putIfAbsent(l, created);
+                timing = existing != null ? existing : created;
+            }
+            CallbackDispatcher async = slowListenerDispatcher;
+            if (timing.async && async != null) {
+                final ListenerTiming t = timing;
+                // The source buffer may be reused once this callback returns.
+                final byte[] copy = data != null ? Arrays.copyOf(data, length) : null;
+                async.dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        t.histogram.record(invoke(l, call, copy, length, derived));
+                    }
+                });
+                return;
+            }
+            long took = invoke(l, call, data, length, derived);
+            timing.histogram.record(took);
+            long budget = listenerBudgetNanos;
+            if (budget > 0 && took > budget) {
+                onSlow(l, timing, took, async);
+            }
+        }
+
+        /**
+         * @return Call duration in nanoseconds
+         */
+        private long invoke(Object l, int call, byte[] data, int length, String derived) {
+            long start = System.nanoTime();
+            try {
+                switch (call) {
+                    case CALL_BYTES:
+                        ((OnBytesListener) l).onBytes(data, length);
+                        break;
+                    case CALL_FRAME:
+                        ((OnFrameListener) l).onFrame(data, length);
+                        break;
+                    case CALL_TEXT:
+                        ((OnTextListener) l).onText(derived);
+                        break;
+                    default:
+                        ((OnHexDataListener) l).onData(derived);
+                        break;
+                }
+            } catch (Throwable t) {
+                // Protect IO thread from listener errors
+                if (logger.isEnabled()) {
+                    String name = call == CALL_BYTES ? "OnBytesListener"
+                            : call == CALL_FRAME ? "OnFrameListener"
+                            : call == CALL_TEXT ? "OnTextListener" : "OnHexDataListener";
+                    logger.logError(port, name + " threw", t);
+                }
+            }
+            return System.nanoTime() - start;
+        }
+
+        private void onSlow(Object l, ListenerTiming timing, long took, CallbackDispatcher async) {
+            boolean moved = async != null && !timing.async;
+            if (moved) {
+                timing.async = true;
+            }
+            if (logger.isEnabled()) {
+                logger.logError(port, "Listener " + l.getClass().getName() + " took " + took / 1_000_000L
+                        + " ms" + (moved ? ", moved to async dispatcher" : ""), null);
+            }
+            OnSlowListenerListener cb = slowListenerListener;
+            if (cb != null) {
+                try {
+                    cb.onSlowListener(port, l, took, moved);
+                } catch (Throwable t) {
+                    if (logger.isEnabled()) {
+                        logger.logError(port, "OnSlowListenerListener threw", t);
+                    }
+                }
+            }
+        }
+    }
+
+    private ConcurrentHashMap<Object, ListenerTiming> getOrCreateTimings(String port) {
+        ConcurrentHashMap<Object, ListenerTiming> timings = listenerTimings.get(port);
+        if (timings == null) {
+            ConcurrentHashMap<Object, ListenerTiming> created = new ConcurrentHashMap<>();
+            ConcurrentHashMap<Object, ListenerTiming> existing = listenerTimings.putIfAbsent(port, created);
+            timings = existing != null ? existing : created;
+        }
+        return timings;
+    }
+
     private static ErrorInfo buildErrorInfo(Throwable t) {
         if (t == null) {
             return new ErrorInfo(SerialError.OPEN_FAILED, "Unknown error occurred");
@@ -482,6 +1332,11 @@ public final class SerialManager {
             return this;
         }
 
+        public Configurator tracer(SerialTracer tracer) {
+            target.setTracer(tracer);
+            return this;
+        }
+
         public Configurator raw() {
             this.decoder = null;
             return this;
@@ -2,30 +2,97 @@ package com.temon.serial.core;
 
 import android.os.SystemClock;
 
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 /**
  * Statistics and performance metrics for serial port communication.
- * 
+ *
  * <p>Useful for monitoring, diagnostics, and performance optimization
  * in automotive and industrial applications.</p>
+ *
+ * <p>Updates take no lock. Receive counters are written only by the connection's read thread and
+ * send counters only by its write thread (ordered stores, no read-modify-write); counters that can
+ * be updated from several threads are striped. Counters only grow: {@link #reset()} and
+ * {@link #resetThroughput()} publish a new baseline that the getters subtract, so a reset never
+ * races with an update. Use {@link #snapshot()} to read all values at once.</p>
+ *
+ * <p>Recent rates (1/10/60 s and peak) of bytes, frames and errors in each direction are kept in
+ * {@link RateMeter}s; the {@code *Throughput*} and {@link #getErrorRate()} averages cover the
+ * whole session.</p>
+ *
+ * <p>If the connection's decoder implements {@link DecoderMetrics}, its drop and resync counters
+ * are reported per session too, and its buffer occupancy as is.</p>
+ *
+ * <p>UART line counters ({@code LINE_*}: overruns, parity/framing errors, breaks, driver rx/tx
+ * counts) are sampled from the driver by the read thread every
+ * {@link SerialConfig#lineStatusIntervalMs}, when the driver keeps them.</p>
  */
 
 public final class SerialStatistics {
+
+    /** {@link #getLineCount(int)}: characters received, as counted by the UART driver. */
+    public static final int LINE_RX = 0;
+    /** Characters transmitted, as counted by the UART driver. */
+    public static final int LINE_TX = 1;
+    public static final int LINE_FRAMING_ERRORS = 2;
+    /** Hardware FIFO overruns: the driver did not empty the UART in time. */
+    public static final int LINE_OVERRUNS = 3;
+    public static final int LINE_PARITY_ERRORS = 4;
+    public static final int LINE_BREAKS = 5;
+    /** tty buffer overruns: the reader did not drain the tty buffer in time. */
+    public static final int LINE_BUFFER_OVERRUNS = 6;
+    static final int LINE_COUNTERS = 7;
+
+    /** {@link #getModemLines()} bits, as reported by {@code TIOCMGET}. */
+    public static final int MODEM_DTR = 0x002;
+    public static final int MODEM_RTS = 0x004;
+    public static final int MODEM_CTS = 0x020;
+    public static final int MODEM_CD = 0x040;
+    public static final int MODEM_RI = 0x080;
+    public static final int MODEM_DSR = 0x100;
+
+    private static final AtomicLongFieldUpdater<SerialStatistics> BYTES_RECEIVED =
+            AtomicLongFieldUpdater.newUpdater(SerialStatistics.class, "bytesReceived");
+    private static final AtomicLongFieldUpdater<SerialStatistics> FRAMES_RECEIVED =
+            AtomicLongFieldUpdater.newUpdater(SerialStatistics.class, "framesReceived");
+    private static final AtomicLongFieldUpdater<SerialStatistics> LAST_RECEIVE_TIME =
+            AtomicLongFieldUpdater.newUpdater(SerialStatistics.class, "lastReceiveTime");
+    private static final AtomicLongFieldUpdater<SerialStatistics> BYTES_SENT =
+            AtomicLongFieldUpdater.newUpdater(SerialStatistics.class, "bytesSent");
+    private static final AtomicLongFieldUpdater<SerialStatistics> LAST_SEND_TIME =
+            AtomicLongFieldUpdater.newUpdater(SerialStatistics.class, "lastSendTime");
+
+    // Read thread only
     private volatile long bytesReceived = 0;
-    private volatile long bytesSent = 0;
     private volatile long framesReceived = 0;
-    private volatile long framesSent = 0;
-    private volatile long readErrors = 0;
-    private volatile long writeErrors = 0;
-    private volatile long reconnectCount = 0;
-    
     private volatile long lastReceiveTime = 0;
+    // Write thread only
+    private volatile long bytesSent = 0;
     private volatile long lastSendTime = 0;
-    private volatile long sessionStartTime = 0;
-    
-    // Throughput calculation
-    private volatile long lastThroughputResetTime = 0;
-    private volatile long bytesReceivedSinceReset = 0;
-    private volatile long bytesSentSinceReset = 0;
+    // Any thread
+    private final StripedCounter framesSent = new StripedCounter();
+    private final StripedCounter readErrors = new StripedCounter();
+    private final StripedCounter writeErrors = new StripedCounter();
+    private final StripedCounter reconnectCount = new StripedCounter();
+    // Windowed rates
+    private final RateMeter receiveByteRate = new RateMeter();
+    private final RateMeter sendByteRate = new RateMeter();
+    private final RateMeter receiveFrameRate = new RateMeter();
+    private final RateMeter sendFrameRate = new RateMeter();
+    private final RateMeter readErrorRate = new RateMeter();
+    private final RateMeter writeErrorRate = new RateMeter();
+
+    // Read thread only: sums of driver counter increments
+    private final AtomicLongArray lineCounts = new AtomicLongArray(LINE_COUNTERS);
+    private volatile boolean lineCountsAvailable;
+    private volatile int modemLines = -1;
+    // Set by the connection; null if the decoder has no metrics
+    private volatile DecoderMetrics decoder;
+
+    private final Object resetLock = new Object();
+    private volatile Baseline baseline;
 
     public SerialStatistics() {
         reset();
@@ -34,142 +101,332 @@ public final class SerialStatistics {
     /**
      * Reset all statistics.
      */
-    public synchronized void reset() {
-        bytesReceived = 0;
-        bytesSent = 0;
-        framesReceived = 0;
-        framesSent = 0;
-        readErrors = 0;
-        writeErrors = 0;
-        reconnectCount = 0;
-        lastReceiveTime = 0;
-        lastSendTime = 0;
-        sessionStartTime = SystemClock.elapsedRealtime();
-        lastThroughputResetTime = sessionStartTime;
-        bytesReceivedSinceReset = 0;
-        bytesSentSinceReset = 0;
+    public void reset() {
+        synchronized (resetLock) {
+            long now = SystemClock.elapsedRealtime();
+            long rx = bytesReceived;
+            long tx = bytesSent;
+            DecoderMetrics d = decoder;
+            baseline = new Baseline(rx, tx, framesReceived, framesSent.sum(), readErrors.sum(),
+                    writeErrors.sum(), reconnectCount.sum(), now, now, rx, tx,
+                    d != null ? d.getDroppedCount() : 0L, d != null ? d.getDroppedBytes() : 0L,
+                    d != null ? d.getResyncCount() : 0L, lineCounts());
+            receiveByteRate.reset();
+            sendByteRate.reset();
+            receiveFrameRate.reset();
+            sendFrameRate.reset();
+            readErrorRate.reset();
+            writeErrorRate.reset();
+        }
     }
 
-    public synchronized void onBytesReceived(int count) {
-        bytesReceived += count;
-        bytesReceivedSinceReset += count;
-        lastReceiveTime = SystemClock.elapsedRealtime();
+    /**
+     * Report the counters of {@code decoder} from now on (null = none). Counts already on it are
+     * not attributed to this session.
+     */
+    void setDecoderMetrics(DecoderMetrics decoder) {
+        synchronized (resetLock) {
+            Baseline b = baseline;
+            this.decoder = decoder;
+            baseline = new Baseline(b.bytesReceived, b.bytesSent, b.framesReceived, b.framesSent, b.readErrors,
+                    b.writeErrors, b.reconnectCount, b.sessionStartTime, b.throughputStartTime,
+                    b.throughputBytesReceived, b.throughputBytesSent,
+                    decoder != null ? decoder.getDroppedCount() : 0L, decoder != null ? decoder.getDroppedBytes() : 0L,
+                    decoder != null ? decoder.getResyncCount() : 0L, b.lineCounts);
+        }
     }
 
-    public synchronized void onBytesSent(int count) {
-        bytesSent += count;
-        bytesSentSinceReset += count;
-        lastSendTime = SystemClock.elapsedRealtime();
+    /**
+     * Count received bytes. Called by the read thread.
+     */
+    public void onBytesReceived(int count) {
+        onBytesReceived(count, SystemClock.elapsedRealtime());
     }
 
-    public synchronized void onFrameReceived() {
-        framesReceived++;
+    /**
+     * Same as {@link #onBytesReceived(int)} with a timestamp the caller already read, so a read
+     * batch costs one clock read.
+     *
+     * @param nowMs {@link SystemClock#elapsedRealtime()}
+     */
+    public void onBytesReceived(int count, long nowMs) {
+        BYTES_RECEIVED.lazySet(this, bytesReceived + count);
+        LAST_RECEIVE_TIME.lazySet(this, nowMs);
+        receiveByteRate.mark(count, nowMs);
     }
 
-    public synchronized void onFrameSent() {
-        framesSent++;
+    /**
+     * Count sent bytes. Called by the write thread.
+     */
+    public void onBytesSent(int count) {
+        onBytesSent(count, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * @param nowMs {@link SystemClock#elapsedRealtime()}
+     */
+    public void onBytesSent(int count, long nowMs) {
+        BYTES_SENT.lazySet(this, bytesSent + count);
+        LAST_SEND_TIME.lazySet(this, nowMs);
+        sendByteRate.mark(count, nowMs);
     }
 
-    public synchronized void onReadError() {
-        readErrors++;
+    /**
+     * Count a received frame. Called by the read thread, after the bytes it was decoded from.
+     */
+    public void onFrameReceived() {
+        FRAMES_RECEIVED.lazySet(this, framesReceived + 1);
+        // Same read batch as the bytes: reuse their timestamp.
+        receiveFrameRate.mark(1L, lastReceiveTime);
     }
 
-    public synchronized void onWriteError() {
-        writeErrors++;
+    public void onFrameSent() {
+        framesSent.increment();
+        sendFrameRate.mark(1L);
     }
 
-    public synchronized void onReconnect() {
-        reconnectCount++;
+    public void onReadError() {
+        readErrors.increment();
+        readErrorRate.mark(1L);
+    }
+
+    public void onWriteError() {
+        writeErrors.increment();
+        writeErrorRate.mark(1L);
+    }
+
+    public void onReconnect() {
+        reconnectCount.increment();
+    }
+
+    /**
+     * Add driver line counter increments since the previous sample, indexed by {@code LINE_*}.
+     * Called by the read thread.
+     */
+    public void onLineCounts(long[] increments) {
+        for (int i = 0; i < LINE_COUNTERS; i++) {
+            if (increments[i] != 0) lineCounts.lazySet(i, lineCounts.get(i) + increments[i]);
+        }
+        if (!lineCountsAvailable) lineCountsAvailable = true;
+    }
+
+    /**
+     * Current modem line state ({@code SerialPort.MODEM_*} bits), -1 if unknown.
+     */
+    public void onModemLines(int bits) {
+        if (bits != modemLines) modemLines = bits;
     }
 
     /**
      * Get total bytes received since session start.
      */
     public long getBytesReceived() {
-        return bytesReceived;
+        return bytesReceived - baseline.bytesReceived;
     }
 
     /**
      * Get total bytes sent since session start.
      */
     public long getBytesSent() {
-        return bytesSent;
+        return bytesSent - baseline.bytesSent;
     }
 
     /**
      * Get total frames received since session start.
      */
     public long getFramesReceived() {
-        return framesReceived;
+        return framesReceived - baseline.framesReceived;
     }
 
     /**
      * Get total frames sent since session start.
      */
     public long getFramesSent() {
-        return framesSent;
+        return framesSent.sum() - baseline.framesSent;
     }
 
     /**
      * Get total read errors since session start.
      */
     public long getReadErrors() {
-        return readErrors;
+        return readErrors.sum() - baseline.readErrors;
     }
 
     /**
      * Get total write errors since session start.
      */
     public long getWriteErrors() {
-        return writeErrors;
+        return writeErrors.sum() - baseline.writeErrors;
     }
 
     /**
      * Get total reconnection count since session start.
      */
     public long getReconnectCount() {
-        return reconnectCount;
+        return reconnectCount.sum() - baseline.reconnectCount;
     }
 
     /**
      * Get session uptime in milliseconds.
      */
     public long getSessionUptimeMs() {
-        if (sessionStartTime == 0) return 0;
-        return SystemClock.elapsedRealtime() - sessionStartTime;
+        return SystemClock.elapsedRealtime() - baseline.sessionStartTime;
+    }
+
+    /**
+     * Decoder metrics being reported, or null if the decoder has none (or there is no decoder).
+     */
+    public DecoderMetrics getDecoderMetrics() {
+        return decoder;
+    }
+
+    /**
+     * Frames dropped by the decoder since session start (see {@link DecoderMetrics#getDroppedCount()}).
+     */
+    public long getDecoderDroppedCount() {
+        DecoderMetrics d = decoder;
+        return d != null ? d.getDroppedCount() - baseline.decoderDroppedCount : 0L;
+    }
+
+    public long getDecoderDroppedBytes() {
+        DecoderMetrics d = decoder;
+        return d != null ? d.getDroppedBytes() - baseline.decoderDroppedBytes : 0L;
+    }
+
+    /**
+     * Times the decoder resynchronized since session start.
+     */
+    public long getDecoderResyncCount() {
+        DecoderMetrics d = decoder;
+        return d != null ? d.getResyncCount() - baseline.decoderResyncCount : 0L;
+    }
+
+    /**
+     * Bytes the decoder holds for an incomplete frame right now.
+     */
+    public int getDecoderBufferedBytes() {
+        DecoderMetrics d = decoder;
+        return d != null ? d.getBufferedBytes() : 0;
+    }
+
+    /**
+     * Highest decoder buffer occupancy over the decoder's lifetime (not reset per session).
+     */
+    public int getDecoderMaxBufferedBytes() {
+        DecoderMetrics d = decoder;
+        return d != null ? d.getMaxBufferedBytes() : 0;
+    }
+
+    /**
+     * Largest frame the decoder emitted over its lifetime (not reset per session).
+     */
+    public int getLargestFrameLength() {
+        DecoderMetrics d = decoder;
+        return d != null ? d.getLargestFrameLength() : 0;
     }
 
     /**
-     * Get receive throughput in bytes per second.
-     * 
+     * Whether the driver reports line counters (TIOCGICOUNT). If not, all {@code LINE_*} counts stay 0.
+     */
+    public boolean isLineCountsAvailable() {
+        return lineCountsAvailable;
+    }
+
+    /**
+     * UART driver counter {@code LINE_*} since session start.
+     */
+    public long getLineCount(int counter) {
+        if (counter < 0 || counter >= LINE_COUNTERS) throw new IllegalArgumentException("invalid line counter");
+        return lineCounts.get(counter) - baseline.lineCounts[counter];
+    }
+
+    /**
+     * Hardware plus tty buffer overruns since session start: received bytes lost because the
+     * driver or the reader did not keep up.
+     */
+    public long getOverrunCount() {
+        return getLineCount(LINE_OVERRUNS) + getLineCount(LINE_BUFFER_OVERRUNS);
+    }
+
+    /**
+     * Parity plus framing errors since session start (noise, wrong baud rate or line settings).
+     */
+    public long getLineErrorCount() {
+        return getLineCount(LINE_PARITY_ERRORS) + getLineCount(LINE_FRAMING_ERRORS);
+    }
+
+    public long getBreakCount() {
+        return getLineCount(LINE_BREAKS);
+    }
+
+    /**
+     * Modem line state ({@link #MODEM_CTS} etc. bits) at the last sample, -1 if unknown.
+     */
+    public int getModemLines() {
+        return modemLines;
+    }
+
+    /**
+     * Received bytes per second over the last 1/10/60 s, and peak.
+     */
+    public RateMeter getReceiveByteRate() {
+        return receiveByteRate;
+    }
+
+    public RateMeter getSendByteRate() {
+        return sendByteRate;
+    }
+
+    public RateMeter getReceiveFrameRate() {
+        return receiveFrameRate;
+    }
+
+    public RateMeter getSendFrameRate() {
+        return sendFrameRate;
+    }
+
+    public RateMeter getReadErrorRate() {
+        return readErrorRate;
+    }
+
+    public RateMeter getWriteErrorRate() {
+        return writeErrorRate;
+    }
+
+    /**
+     * Read plus write errors per second over the last minute.
+     */
+    public double getRecentErrorRate() {
+        return readErrorRate.getOneMinuteRate() + writeErrorRate.getOneMinuteRate();
+    }
+
+    /**
+     * Get receive throughput in bytes per second, averaged since the last reset (see
+     * {@link #getReceiveByteRate()} for recent rates).
+     *
      * @return Throughput in B/s, or 0 if insufficient data
      */
     public double getReceiveThroughputBps() {
-        long now = SystemClock.elapsedRealtime();
-        long elapsed = now - lastThroughputResetTime;
-        if (elapsed < 1000) return 0;  // Need at least 1 second of data
-        return (bytesReceivedSinceReset * 1000.0) / elapsed;
+        Baseline b = baseline;
+        return throughput(bytesReceived - b.throughputBytesReceived, SystemClock.elapsedRealtime() - b.throughputStartTime);
     }
 
     /**
-     * Get send throughput in bytes per second.
-     * 
+     * Get send throughput in bytes per second, averaged since the last reset (see
+     * {@link #getSendByteRate()} for recent rates).
+     *
      * @return Throughput in B/s, or 0 if insufficient data
      */
     public double getSendThroughputBps() {
-        long now = SystemClock.elapsedRealtime();
-        long elapsed = now - lastThroughputResetTime;
-        if (elapsed < 1000) return 0;  // Need at least 1 second of data
-        return (bytesSentSinceReset * 1000.0) / elapsed;
+        Baseline b = baseline;
+        return throughput(bytesSent - b.throughputBytesSent, SystemClock.elapsedRealtime() - b.throughputStartTime);
     }
 
     /**
-     * Get error rate (errors per second).
+     * Get error rate (errors per second) since session start (see {@link #getRecentErrorRate()}).
      */
     public double getErrorRate() {
-        long uptime = getSessionUptimeMs();
-        if (uptime == 0) return 0;
-        return ((readErrors + writeErrors) * 1000.0) / uptime;
+        return errorRate(getReadErrors() + getWriteErrors(), getSessionUptimeMs());
     }
 
     /**
@@ -177,7 +434,7 @@ public final class SerialStatistics {
      * Returns -1 if no data has been received.
      */
     public long getTimeSinceLastReceiveMs() {
-        if (lastReceiveTime == 0) return -1;
+        if (bytesReceived == baseline.bytesReceived) return -1;
         return SystemClock.elapsedRealtime() - lastReceiveTime;
     }
 
@@ -186,28 +443,225 @@ public final class SerialStatistics {
      * Returns -1 if no data has been sent.
      */
     public long getTimeSinceLastSendMs() {
-        if (lastSendTime == 0) return -1;
+        if (bytesSent == baseline.bytesSent) return -1;
         return SystemClock.elapsedRealtime() - lastSendTime;
     }
 
     /**
      * Reset throughput calculation baseline.
      */
-    public synchronized void resetThroughput() {
-        lastThroughputResetTime = SystemClock.elapsedRealtime();
-        bytesReceivedSinceReset = 0;
-        bytesSentSinceReset = 0;
+    public void resetThroughput() {
+        synchronized (resetLock) {
+            Baseline b = baseline;
+            baseline = new Baseline(b.bytesReceived, b.bytesSent, b.framesReceived, b.framesSent, b.readErrors,
+                    b.writeErrors, b.reconnectCount, b.sessionStartTime, SystemClock.elapsedRealtime(),
+                    bytesReceived, bytesSent, b.decoderDroppedCount, b.decoderDroppedBytes, b.decoderResyncCount,
+                    b.lineCounts);
+        }
+    }
+
+    /**
+     * Read all statistics at one point in time.
+     *
+     * <p>Every value in the snapshot belongs to the same session: if a reset happens while the
+     * snapshot is taken, it is read again.</p>
+     */
+    public Snapshot snapshot() {
+        while (true) {
+            Baseline b = baseline;
+            long now = SystemClock.elapsedRealtime();
+            long rx = bytesReceived;
+            long rxTime = lastReceiveTime;
+            long tx = bytesSent;
+            long txTime = lastSendTime;
+            long framesRx = framesReceived;
+            long framesTx = framesSent.sum();
+            long readErr = readErrors.sum();
+            long writeErr = writeErrors.sum();
+            long reconnects = reconnectCount.sum();
+            DecoderMetrics d = decoder;
+            long decoderDropped = d != null ? d.getDroppedCount() - b.decoderDroppedCount : 0L;
+            long decoderDroppedBytes = d != null ? d.getDroppedBytes() - b.decoderDroppedBytes : 0L;
+            long decoderResyncs = d != null ? d.getResyncCount() - b.decoderResyncCount : 0L;
+            long[] line = lineCounts();
+            if (b != baseline) continue;
+            for (int i = 0; i < LINE_COUNTERS; i++) {
+                line[i] -= b.lineCounts[i];
+            }
+            long uptime = now - b.sessionStartTime;
+            long errors = (readErr - b.readErrors) + (writeErr - b.writeErrors);
+            return new Snapshot(now,
+                    rx - b.bytesReceived, tx - b.bytesSent,
+                    framesRx - b.framesReceived, framesTx - b.framesSent,
+                    readErr - b.readErrors, writeErr - b.writeErrors, reconnects - b.reconnectCount,
+                    uptime,
+                    rx == b.bytesReceived ? -1 : now - rxTime,
+                    tx == b.bytesSent ? -1 : now - txTime,
+                    throughput(rx - b.throughputBytesReceived, now - b.throughputStartTime),
+                    throughput(tx - b.throughputBytesSent, now - b.throughputStartTime),
+                    errorRate(errors, uptime),
+                    decoderDropped, decoderDroppedBytes, decoderResyncs,
+                    d != null ? d.getBufferedBytes() : 0, d != null ? d.getMaxBufferedBytes() : 0,
+                    d != null ? d.getLargestFrameLength() : 0,
+                    line, modemLines);
+        }
+    }
+
+    private long[] lineCounts() {
+        long[] values = new long[LINE_COUNTERS];
+        for (int i = 0; i < LINE_COUNTERS; i++) {
+            values[i] = lineCounts.get(i);
+        }
+        return values;
+    }
+
+    private static double throughput(long bytes, long elapsedMs) {
+        if (elapsedMs < 1000) return 0;  // Need at least 1 second of data
+        return (bytes * 1000.0) / elapsedMs;
+    }
+
+    private static double errorRate(long errors, long uptimeMs) {
+        if (uptimeMs <= 0) return 0;
+        return (errors * 1000.0) / uptimeMs;
     }
 
     @Override
     public String toString() {
-        return String.format(
-            "SerialStatistics{bytesRx=%d, bytesTx=%d, framesRx=%d, framesTx=%d, " +
-            "errorsRx=%d, errorsTx=%d, reconnects=%d, uptime=%dms, " +
-            "rxThroughput=%.2f B/s, txThroughput=%.2f B/s, errorRate=%.4f/s}",
-            bytesReceived, bytesSent, framesReceived, framesSent,
-            readErrors, writeErrors, reconnectCount, getSessionUptimeMs(),
-            getReceiveThroughputBps(), getSendThroughputBps(), getErrorRate()
-        );
+        return snapshot().toString();
+    }
+
+    /**
+     * Immutable copy of the statistics taken by {@link #snapshot()}.
+     */
+    public static final class Snapshot {
+        /** {@link SystemClock#elapsedRealtime()} when the snapshot was taken. */
+        public final long timestampMs;
+        public final long bytesReceived;
+        public final long bytesSent;
+        public final long framesReceived;
+        public final long framesSent;
+        public final long readErrors;
+        public final long writeErrors;
+        public final long reconnectCount;
+        public final long sessionUptimeMs;
+        /** -1 if no data has been received. */
+        public final long timeSinceLastReceiveMs;
+        /** -1 if no data has been sent. */
+        public final long timeSinceLastSendMs;
+        public final double receiveThroughputBps;
+        public final double sendThroughputBps;
+        public final double errorRate;
+        public final long decoderDroppedCount;
+        public final long decoderDroppedBytes;
+        public final long decoderResyncCount;
+        public final int decoderBufferedBytes;
+        public final int decoderMaxBufferedBytes;
+        public final int largestFrameLength;
+        /** UART driver counters since session start (all 0 if the driver has none). */
+        public final long uartRx;
+        public final long uartTx;
+        public final long overruns;
+        public final long bufferOverruns;
+        public final long parityErrors;
+        public final long framingErrors;
+        public final long breaks;
+        /** {@code SerialPort.MODEM_*} bits, -1 if unknown. */
+        public final int modemLines;
+
+        Snapshot(long timestampMs, long bytesReceived, long bytesSent, long framesReceived, long framesSent,
+                 long readErrors, long writeErrors, long reconnectCount, long sessionUptimeMs,
+                 long timeSinceLastReceiveMs, long timeSinceLastSendMs,
+                 double receiveThroughputBps, double sendThroughputBps, double errorRate,
+                 long decoderDroppedCount, long decoderDroppedBytes, long decoderResyncCount,
+                 int decoderBufferedBytes, int decoderMaxBufferedBytes, int largestFrameLength,
+                 long[] line, int modemLines) {
+            this.timestampMs = timestampMs;
+            this.bytesReceived = bytesReceived;
+            this.bytesSent = bytesSent;
+            this.framesReceived = framesReceived;
+            this.framesSent = framesSent;
+            this.readErrors = readErrors;
+            this.writeErrors = writeErrors;
+            this.reconnectCount = reconnectCount;
+            this.sessionUptimeMs = sessionUptimeMs;
+            this.timeSinceLastReceiveMs = timeSinceLastReceiveMs;
+            this.timeSinceLastSendMs = timeSinceLastSendMs;
+            this.receiveThroughputBps = receiveThroughputBps;
+            this.sendThroughputBps = sendThroughputBps;
+            this.errorRate = errorRate;
+            this.decoderDroppedCount = decoderDroppedCount;
+            this.decoderDroppedBytes = decoderDroppedBytes;
+            this.decoderResyncCount = decoderResyncCount;
+            this.decoderBufferedBytes = decoderBufferedBytes;
+            this.decoderMaxBufferedBytes = decoderMaxBufferedBytes;
+            this.largestFrameLength = largestFrameLength;
+            this.uartRx = line[LINE_RX];
+            this.uartTx = line[LINE_TX];
+            this.overruns = line[LINE_OVERRUNS];
+            this.bufferOverruns = line[LINE_BUFFER_OVERRUNS];
+            this.parityErrors = line[LINE_PARITY_ERRORS];
+            this.framingErrors = line[LINE_FRAMING_ERRORS];
+            this.breaks = line[LINE_BREAKS];
+            this.modemLines = modemLines;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                "SerialStatistics{bytesRx=%d, bytesTx=%d, framesRx=%d, framesTx=%d, " +
+                "errorsRx=%d, errorsTx=%d, reconnects=%d, uptime=%dms, " +
+                "rxThroughput=%.2f B/s, txThroughput=%.2f B/s, errorRate=%.4f/s, " +
+                "decoderDropped=%d (%d B), resyncs=%d, buffered=%d (max %d), largestFrame=%d, " +
+                "overruns=%d, bufferOverruns=%d, parityErrors=%d, framingErrors=%d, breaks=%d}",
+                bytesReceived, bytesSent, framesReceived, framesSent,
+                readErrors, writeErrors, reconnectCount, sessionUptimeMs,
+                receiveThroughputBps, sendThroughputBps, errorRate,
+                decoderDroppedCount, decoderDroppedBytes, decoderResyncCount,
+                decoderBufferedBytes, decoderMaxBufferedBytes, largestFrameLength,
+                overruns, bufferOverruns, parityErrors, framingErrors, breaks
+            );
+        }
+    }
+
+    /**
+     * Counter values at the last reset; getters report the difference.
+     */
+    private static final class Baseline {
+        final long bytesReceived;
+        final long bytesSent;
+        final long framesReceived;
+        final long framesSent;
+        final long readErrors;
+        final long writeErrors;
+        final long reconnectCount;
+        final long sessionStartTime;
+        final long throughputStartTime;
+        final long throughputBytesReceived;
+        final long throughputBytesSent;
+        final long decoderDroppedCount;
+        final long decoderDroppedBytes;
+        final long decoderResyncCount;
+        final long[] lineCounts;
+
+        Baseline(long bytesReceived, long bytesSent, long framesReceived, long framesSent, long readErrors,
+                 long writeErrors, long reconnectCount, long sessionStartTime, long throughputStartTime,
+                 long throughputBytesReceived, long throughputBytesSent,
+                 long decoderDroppedCount, long decoderDroppedBytes, long decoderResyncCount, long[] lineCounts) {
+            this.bytesReceived = bytesReceived;
+            this.bytesSent = bytesSent;
+            this.framesReceived = framesReceived;
+            this.framesSent = framesSent;
+            this.readErrors = readErrors;
+            this.writeErrors = writeErrors;
+            this.reconnectCount = reconnectCount;
+            this.sessionStartTime = sessionStartTime;
+            this.throughputStartTime = throughputStartTime;
+            this.throughputBytesReceived = throughputBytesReceived;
+            this.throughputBytesSent = throughputBytesSent;
+            this.decoderDroppedCount = decoderDroppedCount;
+            this.decoderDroppedBytes = decoderDroppedBytes;
+            this.decoderResyncCount = decoderResyncCount;
+            this.lineCounts = lineCounts;
+        }
     }
 }
@@ -0,0 +1,315 @@
+package com.temon.serial.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed-wheel timer shared by several connections (one thread per timer).
+ *
+ * <p>Built for timeouts that are re-armed far more often than they fire, such as idle-gap frame
+ * flushes: a {@link Timeout} is created once and re-armed by writing its deadline. Re-arming an
+ * already scheduled timeout does not allocate or touch any queue; the timer thread notices the
+ * moved deadline when the old bucket comes up and re-files it. Only a timeout that is not
+ * currently in the wheel is handed to the timer thread (through an intrusive lock-free stack).</p>
+ *
+ * <p>Tasks run on the timer thread and must be short. The thread parks while no timeout is
+ * armed.</p>
+ */
+public final class SerialTimer {
+
+    /** Default tick: idle gaps are typically tens of milliseconds. */
+    public static final long DEFAULT_TICK_MS = 5L;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private static volatile SerialTimer shared;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout[] wheel;
+    private final AtomicReference<Timeout> pending = new AtomicReference<>();
+    private final Thread thread;
+    private final long origin;
+    private volatile boolean running = true;
+
+    // Timer-thread state
+    private long lastTick;
+    private int size;
+
+    // Metrics
+    private final AtomicLong firedCount = new AtomicLong(0);
+    private final AtomicLong totalLagNanos = new AtomicLong(0);
+    private volatile long maxLagNanos = 0L;
+    private volatile long lastLagNanos = 0L;
+
+    public SerialTimer(String name) {
+        this(name, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param name      Thread name
+     * @param tickMs    Wheel resolution; timeouts fire up to one tick late
+     * @param wheelSize Number of buckets (rounded up to a power of two)
+     */
+    public SerialTimer(String name, long tickMs, int wheelSize) {
+        if (tickMs <= 0) throw new IllegalArgumentException("tickMs must be > 0");
+        if (wheelSize <= 0 || wheelSize > (1 << 16)) {
+            throw new IllegalArgumentException("wheelSize must be 1..65536");
+        }
+        int n = 1;
+        while (n < wheelSize) n <<= 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = n - 1;
+        this.wheel = new Timeout[n];
+        this.origin = System.nanoTime();
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, name != null ? name : "serial-timer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Process-wide timer used by connections that were not given one explicitly.
+     */
+    public static SerialTimer shared() {
+        SerialTimer t = shared;
+        if (t == null) {
+            synchronized (SerialTimer.class) {
+                t = shared;
+                if (t == null) {
+                    t = new SerialTimer("serial-timer");
+                    shared = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Create a reusable timeout running {@code task} on the timer thread. Not armed initially.
+     */
+    public Timeout newTimeout(Runnable task) {
+        if (task == null) throw new IllegalArgumentException("task == null");
+        return new Timeout(this, task);
+    }
+
+    /**
+     * Stop the timer thread. Armed timeouts are discarded.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public long getTickMs() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    /**
+     * Number of timeouts fired.
+     */
+    public long getFiredCount() {
+        return firedCount.get();
+    }
+
+    /**
+     * Average delay between a timeout's deadline and its task starting (ms).
+     */
+    public double getAverageLagMs() {
+        long fired = firedCount.get();
+        return fired == 0 ? 0.0 : totalLagNanos.get() / (fired * 1_000_000.0);
+    }
+
+    /**
+     * Largest observed lag between deadline and task start (ms).
+     */
+    public double getMaxLagMs() {
+        return maxLagNanos / 1_000_000.0;
+    }
+
+    /**
+     * Lag of the most recently fired timeout (ms).
+     */
+    public double getLastLagMs() {
+        return lastLagNanos / 1_000_000.0;
+    }
+
+    public void resetLagMetrics() {
+        firedCount.set(0);
+        totalLagNanos.set(0);
+        maxLagNanos = 0L;
+        lastLagNanos = 0L;
+    }
+
+    /**
+     * A reusable timeout. Arm with {@link #schedule(long)}, disarm with {@link #cancel()}.
+     */
+    public static final class Timeout {
+        private static final AtomicLongFieldUpdater<Timeout> DEADLINE =
+                AtomicLongFieldUpdater.newUpdater(Timeout.class, "deadline");
+
+        private final SerialTimer timer;
+        private final Runnable task;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile long deadline = NONE;
+        // Owned by the timer thread (and the pending stack while queued)
+        private Timeout next;
+
+        private Timeout(SerialTimer timer, Runnable task) {
+            this.timer = timer;
+            this.task = task;
+        }
+
+        /**
+         * Arm (or re-arm) to fire {@code delayNanos} from now, replacing any earlier deadline.
+         */
+        public void schedule(long delayNanos) {
+            scheduleAt(System.nanoTime() + Math.max(0L, delayNanos));
+        }
+
+        /**
+         * Arm (or re-arm) to fire at {@code deadlineNanos} ({@link System#nanoTime()} base), for
+         * callers that already read the clock.
+         */
+        public void scheduleAt(long deadlineNanos) {
+            if (deadlineNanos == NONE) deadlineNanos++;
+            deadline = deadlineNanos;
+            if (scheduled.compareAndSet(false, true)) {
+                timer.enqueue(this);
+            }
+        }
+
+        /**
+         * Disarm. The timer thread drops the timeout lazily.
+         */
+        public void cancel() {
+            deadline = NONE;
+        }
+
+        public SerialTimer timer() {
+            return timer;
+        }
+
+        public boolean isArmed() {
+            return deadline != NONE;
+        }
+    }
+
+    private void enqueue(Timeout t) {
+        Timeout head;
+        do {
+            head = pending.get();
+            t.next = head;
+        } while (!pending.compareAndSet(head, t));
+        // The thread may be parked with an empty wheel.
+        LockSupport.unpark(thread);
+    }
+
+    private void loop() {
+        lastTick = currentTick(System.nanoTime());
+        while (running) {
+            long now = System.nanoTime();
+            long tick = currentTick(now);
+            drainPending();
+            long from = lastTick + 1;
+            // One full turn visits every bucket; more would only revisit them.
+            long to = Math.min(tick, lastTick + wheel.length);
+            for (long t = from; t <= to; t++) {
+                lastTick = t;
+                expireBucket((int) (t & mask), now);
+            }
+            lastTick = tick;
+            if (!running) break;
+            if (size == 0 && pending.get() == null) {
+                LockSupport.park(this);
+                lastTick = currentTick(System.nanoTime()) - 1;
+            } else {
+                long sleep = origin + (tick + 1) * tickNanos - System.nanoTime();
+                if (sleep > 0) LockSupport.parkNanos(this, sleep);
+            }
+        }
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = null;
+        }
+        size = 0;
+    }
+
+    private long currentTick(long now) {
+        return (now - origin) / tickNanos;
+    }
+
+    private void drainPending() {
+        Timeout t = pending.getAndSet(null);
+        while (t != null) {
+            Timeout next = t.next;
+            file(t);
+            t = next;
+        }
+    }
+
+    /**
+     * Put {@code t} into the bucket for its deadline (or the next bucket if already due).
+     */
+    private void file(Timeout t) {
+        long d = t.deadline;
+        long tick;
+        if (d == NONE) {
+            tick = lastTick + 1;
+        } else {
+            tick = (d - origin + tickNanos - 1) / tickNanos;
+            if (tick <= lastTick) tick = lastTick + 1;
+        }
+        int idx = (int) (tick & mask);
+        t.next = wheel[idx];
+        wheel[idx] = t;
+        size++;
+    }
+
+    private void expireBucket(int idx, long now) {
+        Timeout t = wheel[idx];
+        wheel[idx] = null;
+        while (t != null) {
+            Timeout next = t.next;
+            size--;
+            long d = t.deadline;
+            if (d != NONE && d - now > 0) {
+                // Re-armed since it was filed (or not due for more rounds): move it.
+                file(t);
+            } else {
+                t.scheduled.set(false);
+                // Re-read after clearing: a concurrent re-arm either sees scheduled == false and
+                // enqueues itself, or its new deadline is visible here.
+                d = t.deadline;
+                if (d != NONE) {
+                    if (d - now > 0 || !Timeout.DEADLINE.compareAndSet(t, d, NONE)) {
+                        if (t.scheduled.compareAndSet(false, true)) file(t);
+                    } else {
+                        fire(t, now - d);
+                    }
+                }
+            }
+            t = next;
+        }
+    }
+
+    private void fire(Timeout t, long lagNanos) {
+        firedCount.incrementAndGet();
+        totalLagNanos.addAndGet(lagNanos);
+        lastLagNanos = lagNanos;
+        if (lagNanos > maxLagNanos) maxLagNanos = lagNanos;
+        try {
+            t.task.run();
+        } catch (Throwable ignored) {
+            // Keep the timer alive for other connections.
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.temon.serial.core;
+
+/**
+ * Hooks on the read / decode / dispatch / write path, for correlating serial traffic with
+ * application jank and latency.
+ *
+ * <p>Each begin is followed by its end on the same thread, also when the traced call throws.
+ * Reads and decodes run on the read thread (the read span includes the wait for data, except in
+ * NIO mode where only the channel read is traced), dispatches on the thread of the
+ * {@link CallbackDispatcher}, writes on the write thread. Calls are made on the hot path: keep
+ * them cheap and allocation-free. The default {@link #NO_OP} is the only implementation loaded
+ * unless one is configured, so its calls are inlined away.</p>
+ *
+ * @see AndroidSerialTracer
+ * @see RecordingSerialTracer
+ */
+public interface SerialTracer {
+    /**
+     * Before a read system call.
+     *
+     * @param port Serial port path
+     */
+    void readBegin(String port);
+
+    /**
+     * After a read system call.
+     *
+     * @param port  Serial port path
+     * @param bytes Bytes read, or <= 0 if the read returned no data (timeout, end of stream, error)
+     */
+    void readEnd(String port, int bytes);
+
+    /**
+     * Before bytes are fed to the frame decoder.
+     *
+     * @param port  Serial port path
+     * @param bytes Number of bytes fed
+     */
+    void decodeBegin(String port, int bytes);
+
+    /**
+     * After the frame decoder returned.
+     *
+     * @param port Serial port path
+     */
+    void decodeEnd(String port);
+
+    /**
+     * A frame was completed and handed to dispatch (inside the decode span, or on the timer
+     * thread for idle flushes).
+     *
+     * @param port      Serial port path
+     * @param length    Frame length
+     * @param frameType Type from a demultiplexing decoder, or {@link TypedFrameCallback#UNTYPED}
+     */
+    void frameEmitted(String port, int length, int frameType);
+
+    /**
+     * Before received bytes or frames are delivered to the listener.
+     *
+     * @param port Serial port path
+     */
+    void dispatchBegin(String port);
+
+    /**
+     * After the listener returned.
+     *
+     * @param port Serial port path
+     */
+    void dispatchEnd(String port);
+
+    /**
+     * Before a write system call.
+     *
+     * @param port  Serial port path
+     * @param bytes Number of bytes to write
+     */
+    void writeBegin(String port, int bytes);
+
+    /**
+     * After a write system call.
+     *
+     * @param port    Serial port path
+     * @param success false if the write threw
+     */
+    void writeEnd(String port, boolean success);
+
+    /**
+     * No-op tracer (default).
+     */
+    SerialTracer NO_OP = new SerialTracer() {
+        @Override
+        public void readBegin(String port) {}
+
+        @Override
+        public void readEnd(String port, int bytes) {}
+
+        @Override
+        public void decodeBegin(String port, int bytes) {}
+
+        @Override
+        public void decodeEnd(String port) {}
+
+        @Override
+        public void frameEmitted(String port, int length, int frameType) {}
+
+        @Override
+        public void dispatchBegin(String port) {}
+
+        @Override
+        public void dispatchEnd(String port) {}
+
+        @Override
+        public void writeBegin(String port, int bytes) {}
+
+        @Override
+        public void writeEnd(String port, boolean success) {}
+    };
+}
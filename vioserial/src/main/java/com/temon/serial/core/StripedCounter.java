@@ -0,0 +1,47 @@
+package com.temon.serial.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter for values incremented from several threads (same idea as {@code LongAdder}, which is
+ * not available before API 24).
+ *
+ * <p>Each thread adds to one of a few cells, picked from its thread id; cells are a cache line
+ * apart so threads on different cores do not contend. {@link #sum()} adds up all cells.</p>
+ */
+final class StripedCounter {
+
+    /** Longs per 64-byte cache line. */
+    private static final int PAD = 8;
+    private static final int STRIPES;
+
+    static {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int n = 1;
+        while (n < cpus && n < 16) n <<= 1;
+        STRIPES = n;
+    }
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PAD);
+
+    void increment() {
+        add(1L);
+    }
+
+    void add(long x) {
+        cells.getAndAdd(stripe() * PAD, x);
+    }
+
+    long sum() {
+        long sum = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.temon.serial.core;
+
+/**
+ * Frame callback that also receives the frame type assigned by a demultiplexing decoder
+ * ({@link SerialFraming#demux()}).
+ *
+ * <p>Decoders that classify frames call {@link #onFrame(int, byte[], int)} when the callback
+ * implements this interface, and the plain {@link #onFrame(byte[], int)} otherwise.</p>
+ */
+public interface TypedFrameCallback extends FrameDecoder.FrameCallback {
+    /** Type reported for frames that were not classified. */
+    int UNTYPED = -1;
+
+    void onFrame(int type, byte[] frameBytes, int length);
+}
@@ -0,0 +1,12 @@
+package com.temon.serial.core;
+
+/**
+ * Optional extension of {@link SerialListener} for frames classified by a demultiplexing decoder.
+ *
+ * <p>When the listener implements this interface, {@link SerialConnection} calls
+ * {@link #onTypedFrame(int, byte[], int)} <b>instead of</b> {@link #onFrame(byte[], int)}.
+ * Unclassified frames are delivered with {@link TypedFrameCallback#UNTYPED}.</p>
+ */
+public interface TypedSerialListener extends SerialListener {
+    void onTypedFrame(int type, byte[] frame, int length);
+}
@@ -1,6 +1,7 @@
 package com.temon.serial.easy;
 
 import com.temon.serial.core.Dispatchers;
+import com.temon.serial.core.FrameDecoder;
 import com.temon.serial.core.ReconnectPolicy;
 import com.temon.serial.core.SerialError;
 import com.temon.serial.core.SerialException;
@@ -10,6 +11,10 @@ import com.temon.serial.core.SerialDefaults;
 import com.temon.serial.core.SerialManager;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -18,7 +23,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Easy, singleton entry for "open once, use everywhere".
  *
  * <p>Defaults: 8N1, no parity, idle-gap framing, auto reconnection,
- * and callbacks on main thread.</p>
+ * and callbacks on main thread (batched once per display frame).</p>
  */
 public final class EasySerial {
     public static final int OPEN_OK = 0;
@@ -40,6 +45,8 @@ public final class EasySerial {
             new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<OnDataReceivedListener> dataListeners =
             new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<OnDataBatchReceivedListener> batchListeners =
+            new CopyOnWriteArrayList<>();
     private final CopyOnWriteArrayList<OnDataSendListener> sendListeners =
             new CopyOnWriteArrayList<>();
     private final CopyOnWriteArrayList<OnErrorListener> errorListeners =
@@ -73,6 +80,17 @@ public final class EasySerial {
         instance().onDataReceivedInternal(listener);
     }
 
+    /**
+     * Receive frames in batches (at most one call per port per display frame).
+     */
+    public static void onDataBatchReceived(OnDataBatchReceivedListener listener) {
+        instance().onDataBatchReceivedInternal(listener);
+    }
+
+    public static void removeOnDataBatchReceived(OnDataBatchReceivedListener listener) {
+        instance().removeOnDataBatchReceivedInternal(listener);
+    }
+
     public static void onError(OnErrorListener listener) {
         instance().onErrorInternal(listener);
     }
@@ -120,6 +138,14 @@ public final class EasySerial {
         void onDataReceived(String port, byte[] data, int length);
     }
 
+    public interface OnDataBatchReceivedListener {
+        /**
+         * Frames received on {@code port} since the last call, in arrival order. Each array is
+         * exactly one frame. Suited to UIs that update once per frame.
+         */
+        void onDataReceived(String port, List<byte[]> frames);
+    }
+
     public interface OnDataSendListener {
         /**
          * Sent data (not copied). Do not modify the byte[].
@@ -150,6 +176,7 @@ public final class EasySerial {
                     .port(port)
                     .baudRate(baudRate)
                     .sendIntervalMs(DEFAULT_SEND_INTERVAL_MS)
+                    .nativeIdleFraming(true)
                     .build();
             manager.open(config, SerialFraming.idleGap(
                     DEFAULT_IDLE_GAP_MS,
@@ -188,6 +215,18 @@ public final class EasySerial {
         }
     }
 
+    private void onDataBatchReceivedInternal(OnDataBatchReceivedListener listener) {
+        if (listener != null) {
+            batchListeners.addIfAbsent(listener);
+        }
+    }
+
+    private void removeOnDataBatchReceivedInternal(OnDataBatchReceivedListener listener) {
+        if (listener != null) {
+            batchListeners.remove(listener);
+        }
+    }
+
     private void onErrorInternal(OnErrorListener listener) {
         if (listener != null) {
             errorListeners.addIfAbsent(listener);
@@ -245,11 +284,13 @@ public final class EasySerial {
 
     private void ensureDefaults() {
         if (defaultsInited.compareAndSet(false, true)) {
-            manager.setCallbackDispatcher(Dispatchers.mainThread());
-            manager.setDefaultFrameDecoder(SerialFraming.idleGap(
-                    DEFAULT_IDLE_GAP_MS,
-                    DEFAULT_MAX_FRAME_LEN
-            ));
+            manager.setCallbackDispatcher(Dispatchers.mainThreadBatched());
+            manager.setDefaultDecoderProvider(new SerialManager.DecoderProvider() {
+                @Override
+                public FrameDecoder decoderFor(SerialConfig config) {
+                    return SerialFraming.idleGap(DEFAULT_IDLE_GAP_MS, DEFAULT_MAX_FRAME_LEN);
+                }
+            });
             manager.setDefaultReconnectPolicy(new ReconnectPolicy.ExponentialBackoff(
                     0,
                     DEFAULT_RECONNECT_INITIAL_MS,
@@ -277,24 +318,66 @@ public final class EasySerial {
     private void ensureFrameListener(final String port) {
         SerialManager.OnFrameListener listener = frameListenerMap.get(port);
         if (listener == null) {
-            SerialManager.OnFrameListener newListener = new SerialManager.OnFrameListener() {
-                @Override
-                public void onFrame(byte[] frame, int length) {
-                    for (OnDataReceivedListener l : dataListeners) {
-                        try {
-                            l.onDataReceived(port, frame, length);
-                        } catch (Throwable ignored) {
-                            // Isolate listener failures from IO threads.
-                        }
-                    }
-                }
-            };
+            SerialManager.OnFrameListener newListener = new PortFrameListener(port);
             SerialManager.OnFrameListener existing = frameListenerMap.putIfAbsent(port, newListener);
             listener = existing != null ? existing : newListener;
         }
         manager.addFrameListener(port, listener);
     }
 
+    /**
+     * Delivers one port's frames to per-frame listeners, and collects them for batch listeners.
+     * The batch is flushed by one follow-up callback on the dispatcher, which the batched main
+     * thread dispatcher runs in the same drain as the frames.
+     */
+    private final class PortFrameListener implements SerialManager.OnFrameListener, Runnable {
+        private final String port;
+        private final Object batchLock = new Object();
+        private ArrayList<byte[]> batch = new ArrayList<>();
+
+        PortFrameListener(String port) {
+            this.port = port;
+        }
+
+        @Override
+        public void onFrame(byte[] frame, int length) {
+            for (OnDataReceivedListener l : dataListeners) {
+                try {
+                    l.onDataReceived(port, frame, length);
+                } catch (Throwable ignored) {
+                    // Isolate listener failures from IO threads.
+                }
+            }
+            if (batchListeners.isEmpty()) return;
+            byte[] copy = length == frame.length ? frame : Arrays.copyOf(frame, length);
+            boolean first;
+            synchronized (batchLock) {
+                first = batch.isEmpty();
+                batch.add(copy);
+            }
+            if (first) {
+                manager.getCallbackDispatcher().dispatch(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<byte[]> frames;
+            synchronized (batchLock) {
+                if (batch.isEmpty()) return;
+                frames = Collections.unmodifiableList(batch);
+                batch = new ArrayList<>();
+            }
+            for (OnDataBatchReceivedListener l : batchListeners) {
+                try {
+                    l.onDataReceived(port, frames);
+                } catch (Throwable ignored) {
+                    // Isolate listener failures from IO threads.
+                }
+            }
+        }
+    }
+
     private void dispatchSendListeners(String port, byte[] data) {
         if (sendListeners.isEmpty()) return;
         final int length = data != null ? data.length : 0;
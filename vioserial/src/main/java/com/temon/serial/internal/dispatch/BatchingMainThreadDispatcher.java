@@ -0,0 +1,182 @@
+package com.temon.serial.internal.dispatch;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import com.temon.serial.core.CallbackDispatcher;
+
+import java.util.ArrayList;
+
+/**
+ * Dispatches callbacks on the Android main thread in batches.
+ *
+ * <p>Callbacks are queued off-thread and drained together once per display frame (Choreographer,
+ * API 16+) or once per fixed interval, instead of one {@code Handler.post} each. Callbacks
+ * queued while a drain is running (e.g. by a listener that schedules its own follow-up) run in
+ * the same drain.</p>
+ */
+public final class BatchingMainThreadDispatcher implements CallbackDispatcher {
+
+    /** Re-check the queue this many times per drain before leaving the rest to the next frame. */
+    private static final int MAX_PASSES = 3;
+    /** Interval used when vsync is unavailable (API < 16). */
+    private static final long FALLBACK_INTERVAL_MS = 16L;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final long intervalMs;
+    private final Object lock = new Object();
+    private ArrayList<Runnable> pending = new ArrayList<>();
+    private ArrayList<Runnable> draining = new ArrayList<>();
+    private boolean scheduled = false;
+    private long lastDrainUptimeMs = 0L;
+    private final Vsync vsync;
+
+    private volatile long batchCount = 0L;
+    private volatile int maxBatchSize = 0;
+
+    private final Runnable drainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * @param intervalMs 0 to drain once per display frame, > 0 to drain at that interval
+     */
+    public BatchingMainThreadDispatcher(long intervalMs) {
+        if (intervalMs < 0) throw new IllegalArgumentException("intervalMs must be >= 0");
+        boolean useVsync = intervalMs == 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+        this.intervalMs = intervalMs == 0 && !useVsync ? FALLBACK_INTERVAL_MS : intervalMs;
+        this.vsync = useVsync ? new Vsync() : null;
+    }
+
+    @Override
+    public void dispatch(Runnable r) {
+        synchronized (lock) {
+            pending.add(r);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Number of drains run so far.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Largest number of callbacks run in one drain.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    private void schedule() {
+        if (vsync != null) {
+            vsync.post();
+            return;
+        }
+        long delay;
+        synchronized (lock) {
+            delay = lastDrainUptimeMs + intervalMs - SystemClock.uptimeMillis();
+        }
+        if (delay > 0) {
+            handler.postDelayed(drainRunnable, delay);
+        } else {
+            handler.post(drainRunnable);
+        }
+    }
+
+    private void drain() {
+        int ran = 0;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            ArrayList<Runnable> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    lastDrainUptimeMs = SystemClock.uptimeMillis();
+                    finishBatch(ran);
+                    return;
+                }
+                batch = pending;
+                pending = draining;
+                draining = batch;
+            }
+            int i = 0;
+            try {
+                for (int n = batch.size(); i < n; i++) {
+                    batch.get(i).run();
+                }
+            } finally {
+                ran += i;
+                if (i < batch.size()) {
+                    // A callback threw: keep the rest for the next drain, then let it propagate
+                    // like Handler.post would.
+                    synchronized (lock) {
+                        pending.addAll(0, batch.subList(i + 1, batch.size()));
+                    }
+                    batch.clear();
+                    finishBatch(ran);
+                    schedule();
+                } else {
+                    batch.clear();
+                }
+            }
+        }
+        synchronized (lock) {
+            lastDrainUptimeMs = SystemClock.uptimeMillis();
+        }
+        finishBatch(ran);
+        // Still busy after MAX_PASSES: continue next frame (scheduled stays true).
+        schedule();
+    }
+
+    private void finishBatch(int ran) {
+        batchCount++;
+        if (ran > maxBatchSize) maxBatchSize = ran;
+    }
+
+    /**
+     * Choreographer access, isolated so API < 16 never loads FrameCallback.
+     */
+    private final class Vsync implements Choreographer.FrameCallback, Runnable {
+        private volatile Choreographer choreographer;
+
+        Vsync() {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                choreographer = Choreographer.getInstance();
+            }
+        }
+
+        void post() {
+            Choreographer c = choreographer;
+            if (c != null) {
+                // postFrameCallback is safe to call from any thread.
+                c.postFrameCallback(this);
+            } else {
+                // Choreographer is per-Looper: obtain the main one on the main thread first.
+                handler.post(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (choreographer == null) {
+                choreographer = Choreographer.getInstance();
+            }
+            choreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            drain();
+        }
+    }
+}
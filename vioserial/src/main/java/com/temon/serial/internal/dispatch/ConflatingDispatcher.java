@@ -0,0 +1,225 @@
+package com.temon.serial.internal.dispatch;
+
+import com.temon.serial.core.CallbackDispatcher;
+import com.temon.serial.core.EventDispatcher;
+import com.temon.serial.core.FrameKeyExtractor;
+import com.temon.serial.core.PortAwareDispatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers only the newest undelivered frame per key.
+ *
+ * <p>A frame whose key already has a frame waiting in the target dispatcher replaces that frame
+ * instead of being queued again, so a slow consumer sees the latest value per key rather than
+ * falling behind. The pending entry keeps its place in the target queue. Frames with a negative
+ * key, byte chunks, errors and plain {@link Runnable} callbacks are passed through unchanged.</p>
+ *
+ * <p>Keys are tracked per port, so the same key on two ports is never merged.</p>
+ */
+public final class ConflatingDispatcher implements PortAwareDispatcher, EventDispatcher {
+
+    private static final String DEFAULT_LANE = "";
+
+    private final FrameKeyExtractor keyExtractor;
+    private final CallbackDispatcher target;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public ConflatingDispatcher(FrameKeyExtractor keyExtractor, CallbackDispatcher target) {
+        if (keyExtractor == null) throw new IllegalArgumentException("keyExtractor == null");
+        if (target == null) throw new IllegalArgumentException("target == null");
+        this.keyExtractor = keyExtractor;
+        this.target = target;
+    }
+
+    @Override
+    public void dispatch(Runnable r) {
+        lane(DEFAULT_LANE).dispatch(r);
+    }
+
+    @Override
+    public void dispatchEvent(EventHandler handler, int kind, long session, byte[] data, int length, int frameType,
+                              Throwable error, long timestampNanos) {
+        lane(DEFAULT_LANE).dispatchEvent(handler, kind, session, data, length, frameType, error, timestampNanos);
+    }
+
+    @Override
+    public CallbackDispatcher forPort(String port) {
+        return lane(port != null ? port : DEFAULT_LANE);
+    }
+
+    /**
+     * Ports that have dispatched through this dispatcher.
+     */
+    public List<String> getPorts() {
+        return new ArrayList<>(lanes.keySet());
+    }
+
+    /**
+     * Keys seen on a port.
+     */
+    public List<Integer> getKeys(String port) {
+        Lane l = lanes.get(port);
+        if (l == null) return new ArrayList<>();
+        synchronized (l) {
+            return new ArrayList<>(l.entries.keySet());
+        }
+    }
+
+    /**
+     * Frames of {@code key} on {@code port} that were replaced by a newer one before delivery.
+     */
+    public long getConflatedCount(String port, int key) {
+        Lane l = lanes.get(port);
+        if (l == null) return 0L;
+        synchronized (l) {
+            Entry e = l.entries.get(key);
+            return e != null ? e.conflated : 0L;
+        }
+    }
+
+    /**
+     * Frames of {@code key} on {@code port} handed to the listener.
+     */
+    public long getDeliveredCount(String port, int key) {
+        Lane l = lanes.get(port);
+        if (l == null) return 0L;
+        synchronized (l) {
+            Entry e = l.entries.get(key);
+            return e != null ? e.delivered : 0L;
+        }
+    }
+
+    /**
+     * Replaced frames across all ports and keys.
+     */
+    public long getTotalConflatedCount() {
+        long total = 0L;
+        for (Lane l : lanes.values()) {
+            synchronized (l) {
+                for (Entry e : l.entries.values()) {
+                    total += e.conflated;
+                }
+            }
+        }
+        return total;
+    }
+
+    private Lane lane(String port) {
+        Lane l = lanes.get(port);
+        if (l == null) {
+            CallbackDispatcher t = target instanceof PortAwareDispatcher
+                    ? ((PortAwareDispatcher) target).forPort(port)
+                    : target;
+            Lane created = new Lane(t);
+            Lane existing = lanes.putIfAbsent(port, created);
+            l = existing != null ? existing : created;
+        }
+        return l;
+    }
+
+    /**
+     * Conflation table for one port. Guarded by the lane's monitor.
+     */
+    private final class Lane implements EventDispatcher {
+        private final CallbackDispatcher target;
+        private final HashMap<Integer, Entry> entries = new HashMap<>();
+
+        Lane(CallbackDispatcher target) {
+            this.target = target;
+        }
+
+        @Override
+        public void dispatch(Runnable r) {
+            target.dispatch(r);
+        }
+
+        @Override
+        public void dispatchEvent(final EventHandler handler, final int kind, final long session, final byte[] data,
+                                  final int length, final int frameType, final Throwable error,
+                                  final long timestampNanos) {
+            int key = kind == EVENT_FRAME ? keyExtractor.keyOf(data, length, frameType) : -1;
+            if (key < 0) {
+                if (target instanceof EventDispatcher) {
+                    ((EventDispatcher) target).dispatchEvent(handler, kind, session, data, length, frameType, error,
+                            timestampNanos);
+                } else {
+                    target.dispatch(new Runnable() {
+                        @Override
+                        public void run() {
+                            handler.onEvent(kind, session, data, length, frameType, error, timestampNanos);
+                        }
+                    });
+                }
+                return;
+            }
+            Entry e;
+            synchronized (this) {
+                e = entries.get(key);
+                if (e == null) {
+                    e = new Entry(this);
+                    entries.put(key, e);
+                }
+                boolean queued = e.pending;
+                if (queued) e.conflated++;
+                e.pending = true;
+                e.handler = handler;
+                e.session = session;
+                e.data = data;
+                e.length = length;
+                e.frameType = frameType;
+                e.timestampNanos = timestampNanos;
+                if (queued) return;
+            }
+            // The entry itself is the queued callback; it reads the newest frame when it runs.
+            target.dispatch(e);
+        }
+    }
+
+    /**
+     * Latest pending frame for one key, reused for every delivery of that key.
+     */
+    private static final class Entry implements Runnable {
+        private final Object lock;
+        boolean pending;
+        EventHandler handler;
+        long session;
+        byte[] data;
+        int length;
+        int frameType;
+        long timestampNanos;
+        long conflated;
+        long delivered;
+
+        Entry(Object lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void run() {
+            EventHandler h;
+            long s;
+            byte[] d;
+            int len;
+            int type;
+            long ts;
+            synchronized (lock) {
+                if (!pending) return;
+                pending = false;
+                h = handler;
+                s = session;
+                d = data;
+                len = length;
+                type = frameType;
+                ts = timestampNanos;
+                handler = null;
+                data = null;
+                delivered++;
+            }
+            h.onEvent(EVENT_FRAME, s, d, len, type, null, ts);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.temon.serial.internal.dispatch;
+
+import com.temon.serial.core.EventDispatcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands events from IO threads to one consumer thread through a fixed ring of reusable slots.
+ *
+ * <p>Each slot holds the event fields (kind, session, buffer reference, length, frame type, error,
+ * read timestamp, publish timestamp), so publishing a byte chunk, frame or error allocates nothing. Producers claim
+ * sequence numbers one at a time; in the usual setup only the connection's read thread publishes,
+ * so the claim is uncontended. The consumer waits for new events with the configured
+ * {@link WaitStrategy}. When the ring is full the producer waits for the consumer (back
+ * pressure) rather than dropping events.</p>
+ */
+public final class RingBufferDispatcher implements EventDispatcher {
+
+    public enum WaitStrategy {
+        /** Busy spin: lowest latency, burns a core. */
+        SPIN,
+        /** Spin with {@link Thread#yield()}: low latency, lower CPU than SPIN. */
+        YIELD,
+        /** Park until a producer signals: lowest CPU, wakeup latency of a thread unpark. */
+        PARK
+    }
+
+    private static final int SPIN_TRIES = 100;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Object producerLock = new Object();
+    /** Last published sequence. */
+    private final AtomicLong cursor = new AtomicLong(-1);
+    /** Last consumed sequence. */
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private long nextClaim = 0L;  // guarded by producerLock
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean consumerParked = false;
+
+    private final AtomicLong fullWaits = new AtomicLong(0);
+    private final AtomicLong processed = new AtomicLong(0);
+    private final AtomicLong totalLatencyNanos = new AtomicLong(0);
+    private volatile long maxLatencyNanos = 0L;
+
+    /**
+     * @param size         Ring size (rounded up to a power of two)
+     * @param waitStrategy How the consumer waits for events
+     */
+    public RingBufferDispatcher(int size, WaitStrategy waitStrategy) {
+        if (size <= 0 || size > (1 << 20)) throw new IllegalArgumentException("size must be 1..1048576");
+        if (waitStrategy == null) throw new IllegalArgumentException("waitStrategy == null");
+        int n = 1;
+        while (n < size) n <<= 1;
+        this.slots = new Slot[n];
+        for (int i = 0; i < n; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = n - 1;
+        this.waitStrategy = waitStrategy;
+        this.consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "serial-ring-consumer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void dispatch(Runnable r) {
+        publish(null, 0, 0L, null, 0, 0, null, 0L, r);
+    }
+
+    @Override
+    public void dispatchEvent(EventHandler handler, int kind, long session, byte[] data, int length, int frameType,
+                              Throwable error, long timestampNanos) {
+        publish(handler, kind, session, data, length, frameType, error, timestampNanos, null);
+    }
+
+    /**
+     * Stop the consumer thread. Events not yet consumed are discarded.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(consumer);
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Events published but not yet consumed.
+     */
+    public long getBacklog() {
+        return cursor.get() - consumed.get();
+    }
+
+    /**
+     * Times a producer had to wait because the ring was full.
+     */
+    public long getFullWaitCount() {
+        return fullWaits.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /**
+     * Average time from publish to the consumer starting the event (ms).
+     */
+    public double getAverageLatencyMs() {
+        long n = processed.get();
+        return n == 0 ? 0.0 : totalLatencyNanos.get() / (n * 1_000_000.0);
+    }
+
+    public double getMaxLatencyMs() {
+        return maxLatencyNanos / 1_000_000.0;
+    }
+
+    private void publish(EventHandler handler, int kind, long session, byte[] data, int length, int frameType,
+                         Throwable error, long readNanos, Runnable task) {
+        if (!running) return;
+        synchronized (producerLock) {
+            long seq = nextClaim;
+            // Wait until the consumer has freed the slot we are about to reuse.
+            if (seq - slots.length > consumed.get()) {
+                fullWaits.incrementAndGet();
+                if (Thread.currentThread() == consumer) {
+                    // Published from a callback while full: waiting would deadlock, run inline.
+                    runInline(handler, kind, session, data, length, frameType, error, readNanos, task);
+                    return;
+                }
+                while (seq - slots.length > consumed.get()) {
+                    if (!running) return;
+                    wakeConsumer();
+                    LockSupport.parkNanos(1000L);
+                }
+            }
+            Slot s = slots[(int) (seq & mask)];
+            s.handler = handler;
+            s.kind = kind;
+            s.session = session;
+            s.data = data;
+            s.length = length;
+            s.frameType = frameType;
+            s.error = error;
+            s.readNanos = readNanos;
+            s.task = task;
+            s.timestampNanos = System.nanoTime();
+            nextClaim = seq + 1;
+            cursor.set(seq);
+        }
+        if (waitStrategy == WaitStrategy.PARK && consumerParked) {
+            wakeConsumer();
+        }
+    }
+
+    private void wakeConsumer() {
+        LockSupport.unpark(consumer);
+    }
+
+    private void consume() {
+        long next = 0L;
+        int idle = 0;
+        while (running) {
+            long available = cursor.get();
+            if (available < next) {
+                idle = waitForEvent(next, idle);
+                continue;
+            }
+            idle = 0;
+            for (; next <= available; next++) {
+                Slot s = slots[(int) (next & mask)];
+                long latency = System.nanoTime() - s.timestampNanos;
+                EventHandler handler = s.handler;
+                Runnable task = s.task;
+                int kind = s.kind;
+                long session = s.session;
+                byte[] data = s.data;
+                int length = s.length;
+                int frameType = s.frameType;
+                Throwable error = s.error;
+                long readNanos = s.readNanos;
+                // Release references before running so the slot never pins old buffers.
+                s.handler = null;
+                s.task = null;
+                s.data = null;
+                s.error = null;
+                consumed.lazySet(next);
+                record(latency);
+                try {
+                    runInline(handler, kind, session, data, length, frameType, error, readNanos, task);
+                } catch (Throwable ignored) {
+                    // Keep the consumer alive for other events.
+                }
+            }
+        }
+    }
+
+    private static void runInline(EventHandler handler, int kind, long session, byte[] data, int length,
+                                  int frameType, Throwable error, long readNanos, Runnable task) {
+        if (task != null) {
+            task.run();
+        } else if (handler != null) {
+            handler.onEvent(kind, session, data, length, frameType, error, readNanos);
+        }
+    }
+
+    private int waitForEvent(long next, int idle) {
+        switch (waitStrategy) {
+            case SPIN:
+                return idle + 1;
+            case YIELD:
+                if (idle < SPIN_TRIES) return idle + 1;
+                Thread.yield();
+                return idle;
+            case PARK:
+            default:
+                if (idle < SPIN_TRIES) return idle + 1;
+                consumerParked = true;
+                // Re-check after announcing, so a publish between the check and park is not missed.
+                if (cursor.get() < next && running) {
+                    LockSupport.park(this);
+                }
+                consumerParked = false;
+                return 0;
+        }
+    }
+
+    private void record(long latencyNanos) {
+        processed.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        if (latencyNanos > maxLatencyNanos) maxLatencyNanos = latencyNanos;
+    }
+
+    private static final class Slot {
+        EventHandler handler;
+        Runnable task;
+        int kind;
+        long session;
+        byte[] data;
+        int length;
+        int frameType;
+        Throwable error;
+        long readNanos;
+        long timestampNanos;
+    }
+}
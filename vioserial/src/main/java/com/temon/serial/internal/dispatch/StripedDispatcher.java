@@ -0,0 +1,241 @@
+package com.temon.serial.internal.dispatch;
+
+import com.temon.serial.core.CallbackDispatcher;
+import com.temon.serial.core.PortAwareDispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs callbacks on a shared worker pool while keeping strict order per port.
+ *
+ * <p>Each port gets a lane: a lock-free queue plus a "scheduled" counter. A lane is submitted to
+ * the executor only when it goes from empty to non-empty, and at most one worker drains a lane
+ * at a time, so callbacks of one port never overlap or reorder. A lane yields its worker after
+ * {@link #BATCH} callbacks so a busy port cannot starve the others.</p>
+ *
+ * <p>Per-lane metrics: queue depth (current and max), queue latency (dispatch to start) and
+ * callback run time.</p>
+ */
+public final class StripedDispatcher implements PortAwareDispatcher {
+
+    /** Callbacks run per lane before the worker is handed back to the pool. */
+    static final int BATCH = 64;
+
+    private static final String DEFAULT_LANE = "";
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public StripedDispatcher(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("executor == null");
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    public StripedDispatcher(int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        this.ownedExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "serial-callback-" + index.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.executor = ownedExecutor;
+    }
+
+    @Override
+    public void dispatch(Runnable r) {
+        lane(DEFAULT_LANE).dispatch(r);
+    }
+
+    @Override
+    public CallbackDispatcher forPort(String port) {
+        return lane(port != null ? port : DEFAULT_LANE);
+    }
+
+    /**
+     * Stop the worker pool if this dispatcher created it. Queued callbacks are discarded.
+     */
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ports that have a lane.
+     */
+    public List<String> getPorts() {
+        return new ArrayList<>(lanes.keySet());
+    }
+
+    public int getQueueDepth(String port) {
+        Lane l = lanes.get(port);
+        return l != null ? l.depth.get() : 0;
+    }
+
+    public int getMaxQueueDepth(String port) {
+        Lane l = lanes.get(port);
+        return l != null ? l.maxDepth : 0;
+    }
+
+    public long getExecutedCount(String port) {
+        Lane l = lanes.get(port);
+        return l != null ? l.executed.get() : 0L;
+    }
+
+    /**
+     * Callbacks that threw. The exception is swallowed so the lane keeps running.
+     */
+    public long getFailedCount(String port) {
+        Lane l = lanes.get(port);
+        return l != null ? l.failed.get() : 0L;
+    }
+
+    /**
+     * Average time from dispatch to the callback starting (ms).
+     */
+    public double getAverageQueueLatencyMs(String port) {
+        Lane l = lanes.get(port);
+        if (l == null) return 0.0;
+        long n = l.executed.get();
+        return n == 0 ? 0.0 : l.totalWaitNanos.get() / (n * 1_000_000.0);
+    }
+
+    public double getMaxQueueLatencyMs(String port) {
+        Lane l = lanes.get(port);
+        return l != null ? l.maxWaitNanos / 1_000_000.0 : 0.0;
+    }
+
+    /**
+     * Average callback run time (ms).
+     */
+    public double getAverageRunTimeMs(String port) {
+        Lane l = lanes.get(port);
+        if (l == null) return 0.0;
+        long n = l.executed.get();
+        return n == 0 ? 0.0 : l.totalRunNanos.get() / (n * 1_000_000.0);
+    }
+
+    public double getMaxRunTimeMs(String port) {
+        Lane l = lanes.get(port);
+        return l != null ? l.maxRunNanos / 1_000_000.0 : 0.0;
+    }
+
+    private Lane lane(String port) {
+        Lane l = lanes.get(port);
+        if (l == null) {
+            Lane created = new Lane();
+            Lane existing = lanes.putIfAbsent(port, created);
+            l = existing != null ? existing : created;
+        }
+        return l;
+    }
+
+    private static final class Node {
+        Runnable task;
+        final long enqueuedNanos;
+        volatile Node next;
+
+        Node(Runnable task, long enqueuedNanos) {
+            this.task = task;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * Serial queue for one port (multi-producer, single consumer at a time).
+     */
+    private final class Lane implements CallbackDispatcher, Runnable {
+        private final AtomicReference<Node> tail;
+        private Node head;  // consumer side only
+        private final AtomicInteger depth = new AtomicInteger(0);
+
+        private final AtomicLong executed = new AtomicLong(0);
+        private final AtomicLong failed = new AtomicLong(0);
+        private final AtomicLong totalWaitNanos = new AtomicLong(0);
+        private final AtomicLong totalRunNanos = new AtomicLong(0);
+        private volatile int maxDepth = 0;
+        private volatile long maxWaitNanos = 0L;
+        private volatile long maxRunNanos = 0L;
+
+        Lane() {
+            Node stub = new Node(null, 0L);
+            head = stub;
+            tail = new AtomicReference<>(stub);
+        }
+
+        @Override
+        public void dispatch(Runnable r) {
+            Node node = new Node(r, System.nanoTime());
+            Node prev = tail.getAndSet(node);
+            prev.next = node;
+            int d = depth.incrementAndGet();
+            if (d > maxDepth) maxDepth = d;
+            if (d == 1) {
+                submit();
+            }
+        }
+
+        @Override
+        public void run() {
+            int ran = 0;
+            while (ran < BATCH) {
+                Node next = head.next;
+                if (next == null) {
+                    // A producer has bumped depth but not linked its node yet.
+                    Thread.yield();
+                    continue;
+                }
+                head = next;
+                Runnable task = next.task;
+                next.task = null;  // head keeps the node; don't keep the callback alive
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    failed.incrementAndGet();
+                }
+                long end = System.nanoTime();
+                record(start - next.enqueuedNanos, end - start);
+                ran++;
+                if (depth.decrementAndGet() == 0) {
+                    return;
+                }
+            }
+            // More work queued: yield the worker and continue later, keeping the lane scheduled.
+            submit();
+        }
+
+        private void submit() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Pool shut down: callbacks for this lane are dropped.
+            }
+        }
+
+        private void record(long waitNanos, long runNanos) {
+            executed.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            totalRunNanos.addAndGet(runNanos);
+            if (waitNanos > maxWaitNanos) maxWaitNanos = waitNanos;
+            if (runNanos > maxRunNanos) maxRunNanos = runNanos;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.temon.serial.internal.framing;
+
+/**
+ * Implemented by decoders whose timing depends on the line speed, so
+ * {@link com.temon.serial.core.SerialConnection#reconfigure} can update them without a reopen.
+ */
+public interface BaudRateAware {
+    /**
+     * Called under the connection's decoder lock, never concurrently with feed().
+     */
+    void onBaudRateChanged(int baudRate);
+}
@@ -0,0 +1,174 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FrameDecoder;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass decoder for flag-delimited, byte-stuffed framing (SLIP, HDLC-like).
+ *
+ * <p>Each incoming byte is classified through a 256-entry table and unescaped straight into the
+ * frame buffer, so the stream is never rescanned. The "escape seen" state survives across
+ * {@link #feed(byte[], int, int, FrameCallback)} calls, so escapes split across chunks decode
+ * correctly. Empty frames (back-to-back flags) are skipped.</p>
+ */
+public final class ByteStuffingFrameDecoder implements FrameDecoder, DecoderMetrics, FreshFrameDecoder,
+        FrameBoundaryAware {
+
+    private static final byte DATA = 0;
+    private static final byte FLAG = 1;
+    private static final byte ESCAPE = 2;
+
+    /** Marks an escaped byte that has no defined meaning. */
+    private static final short INVALID = -1;
+
+    private final byte[] classes;
+    private final short[] unescape;
+    private final int maxFrameLength;
+
+    private byte[] buf = new byte[256];
+    private int size = 0;
+    private boolean escaped = false;
+    private boolean discarding = false;
+    private final DecoderCounters metrics = new DecoderCounters();
+
+    private ByteStuffingFrameDecoder(byte flag, byte escape, short[] unescape, int maxFrameLength) {
+        if (maxFrameLength <= 0) throw new IllegalArgumentException("maxFrameLength must be > 0");
+        this.classes = new byte[256];
+        this.classes[flag & 0xFF] = FLAG;
+        this.classes[escape & 0xFF] = ESCAPE;
+        this.unescape = unescape;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * SLIP (RFC 1055): END 0xC0, ESC 0xDB, ESC_END 0xDC, ESC_ESC 0xDD.
+     */
+    public static ByteStuffingFrameDecoder slip(int maxFrameLength) {
+        short[] table = new short[256];
+        Arrays.fill(table, INVALID);
+        table[0xDC] = 0xC0;
+        table[0xDD] = 0xDB;
+        return new ByteStuffingFrameDecoder((byte) 0xC0, (byte) 0xDB, table, maxFrameLength);
+    }
+
+    /**
+     * HDLC-like async framing: flag 0x7E, escape 0x7D, escaped byte XOR 0x20.
+     */
+    public static ByteStuffingFrameDecoder hdlc(int maxFrameLength) {
+        short[] table = new short[256];
+        for (int i = 0; i < 256; i++) {
+            table[i] = (short) (i ^ 0x20);
+        }
+        // An escape followed by a flag aborts the frame.
+        table[0x7E] = INVALID;
+        return new ByteStuffingFrameDecoder((byte) 0x7E, (byte) 0x7D, table, maxFrameLength);
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+        if (length <= 0) return;
+        ensureCapacity(Math.min(size + length, maxFrameLength));
+        final byte[] classes = this.classes;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int b = data[i] & 0xFF;
+            byte cls = classes[b];
+            if (cls == FLAG) {
+                if (discarding || escaped) {
+                    metrics.drop(size + 1);
+                } else if (size > 0) {
+                    byte[] frame = Arrays.copyOf(buf, size);
+                    metrics.frame(size);
+                    callback.onFrame(frame, frame.length);
+                }
+                size = 0;
+                escaped = false;
+                discarding = false;
+                continue;
+            }
+            if (discarding) continue;
+            if (escaped) {
+                escaped = false;
+                short v = unescape[b];
+                if (v == INVALID) {
+                    discarding = true;
+                    metrics.resync();
+                    continue;
+                }
+                b = v;
+            } else if (cls == ESCAPE) {
+                escaped = true;
+                continue;
+            }
+            if (size == maxFrameLength) {
+                // Oversized frame: drop until the next flag.
+                discarding = true;
+                metrics.resync();
+                continue;
+            }
+            if (size == buf.length) ensureCapacity(size + 1);
+            buf[size++] = (byte) b;
+        }
+        metrics.buffered(size);
+    }
+
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        // Frames end, and discarded frames are counted, at a flag
+        for (int i = 0; i < length; i++) {
+            if (classes[data[offset + i] & 0xFF] == FLAG) return i + 1;
+        }
+        return length;
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+        escaped = false;
+        discarding = false;
+        metrics.buffered(0);
+    }
+
+    /**
+     * Frames dropped: invalid escape or oversized frame (each also a resync), or an escape right
+     * before the flag. Dropped bytes are the decoded bytes buffered when the frame was discarded.
+     */
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    private void ensureCapacity(int desired) {
+        if (buf.length >= desired) return;
+        int newCap = buf.length;
+        while (newCap < desired) newCap *= 2;
+        buf = Arrays.copyOf(buf, Math.min(newCap, maxFrameLength));
+    }
+}
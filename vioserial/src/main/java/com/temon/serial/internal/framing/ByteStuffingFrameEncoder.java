@@ -0,0 +1,83 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Encoder for flag-delimited, byte-stuffed framing (SLIP, HDLC-like).
+ *
+ * <p>Bytes that need escaping are found through a 256-entry table holding the escaped value
+ * (or -1 for bytes sent as-is).</p>
+ */
+public final class ByteStuffingFrameEncoder implements FrameEncoder {
+    private final byte flag;
+    private final byte escape;
+    private final short[] escapeTable;
+    private final boolean leadingFlag;
+
+    private ByteStuffingFrameEncoder(byte flag, byte escape, short[] escapeTable, boolean leadingFlag) {
+        this.flag = flag;
+        this.escape = escape;
+        this.escapeTable = escapeTable;
+        this.leadingFlag = leadingFlag;
+    }
+
+    /**
+     * SLIP (RFC 1055). A leading END is sent to flush line noise at the receiver.
+     */
+    public static ByteStuffingFrameEncoder slip() {
+        short[] table = new short[256];
+        Arrays.fill(table, (short) -1);
+        table[0xC0] = 0xDC;
+        table[0xDB] = 0xDD;
+        return new ByteStuffingFrameEncoder((byte) 0xC0, (byte) 0xDB, table, true);
+    }
+
+    /**
+     * HDLC-like async framing: flag 0x7E, escape 0x7D, escaped byte XOR 0x20.
+     */
+    public static ByteStuffingFrameEncoder hdlc() {
+        short[] table = new short[256];
+        Arrays.fill(table, (short) -1);
+        table[0x7E] = 0x7E ^ 0x20;
+        table[0x7D] = 0x7D ^ 0x20;
+        return new ByteStuffingFrameEncoder((byte) 0x7E, (byte) 0x7D, table, true);
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return length * 2 + 2;
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        final short[] table = escapeTable;
+        int p = dstOffset;
+        if (leadingFlag) dst[p++] = flag;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = src[i];
+            short e = table[b & 0xFF];
+            if (e < 0) {
+                dst[p++] = b;
+            } else {
+                dst[p++] = escape;
+                dst[p++] = (byte) e;
+            }
+        }
+        dst[p++] = flag;
+        return p - dstOffset;
+    }
+
+    @Override
+    public byte[] encode(byte[] src, int offset, int length) {
+        int n = leadingFlag ? 2 : 1;
+        final short[] table = escapeTable;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            n += table[src[i] & 0xFF] < 0 ? 1 : 2;
+        }
+        byte[] out = new byte[n];
+        encode(src, offset, length, out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,106 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FrameStage;
+
+/**
+ * Verifies a trailing checksum and drops frames that do not match. Dropped frames are reported
+ * to {@code next} if it is a {@link ChecksumFailureCallback}.
+ *
+ * <p>The checksum covers {@code [offset + skipLeading, end - width)}.</p>
+ */
+public final class ChecksumStage implements FrameStage, DecoderMetrics {
+    private final Checksum checksum;
+    private final LengthFieldFrameDecoder.Endian endian;
+    private final int skipLeading;
+    private final boolean strip;
+    private final DecoderCounters metrics = new DecoderCounters();
+
+    public ChecksumStage(Checksum checksum, LengthFieldFrameDecoder.Endian endian, int skipLeading, boolean strip) {
+        if (checksum == null) throw new IllegalArgumentException("checksum == null");
+        if (endian == null) throw new IllegalArgumentException("endian == null");
+        if (skipLeading < 0) throw new IllegalArgumentException("skipLeading < 0");
+        this.checksum = checksum;
+        this.endian = endian;
+        this.skipLeading = skipLeading;
+        this.strip = strip;
+    }
+
+    /**
+     * Frames dropped because they were too short or the checksum did not match. The stage holds
+     * no data and frame boundaries are kept, so the other values stay 0.
+     */
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    @Override
+    public void process(byte[] buf, int offset, int length, Sink next) {
+        int width = checksum.width();
+        int covered = length - skipLeading - width;
+        if (covered < 0) {
+            metrics.drop(length);
+            return;
+        }
+        int expected = checksum.compute(buf, offset + skipLeading, covered);
+        int actual = readUnsigned(buf, offset + length - width, width, endian);
+        if (expected != actual) {
+            metrics.drop(length);
+            if (next instanceof ChecksumFailureCallback) {
+                ((ChecksumFailureCallback) next).onChecksumFailure(buf, offset, length);
+            }
+            return;
+        }
+        next.onSlice(buf, offset, strip ? length - width : length);
+    }
+
+    @Override
+    public void flush(Sink next) {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    static int readUnsigned(byte[] b, int offset, int len, LengthFieldFrameDecoder.Endian endian) {
+        int v = 0;
+        if (endian == LengthFieldFrameDecoder.Endian.BIG) {
+            for (int i = 0; i < len; i++) {
+                v = (v << 8) | (b[offset + i] & 0xFF);
+            }
+        } else {
+            for (int i = len - 1; i >= 0; i--) {
+                v = (v << 8) | (b[offset + i] & 0xFF);
+            }
+        }
+        return v;
+    }
+}
@@ -0,0 +1,136 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FrameDecoder;
+
+import java.util.Arrays;
+
+/**
+ * Streaming COBS decoder (Consistent Overhead Byte Stuffing, 0x00 frame delimiter).
+ *
+ * <p>Decodes block by block while bytes arrive, keeping the current block code and remaining
+ * count across {@link #feed(byte[], int, int, FrameCallback)} calls. A frame whose last block is
+ * incomplete when the delimiter arrives is dropped.</p>
+ */
+public final class CobsFrameDecoder implements FrameDecoder, DecoderMetrics, FreshFrameDecoder,
+        FrameBoundaryAware {
+    private final int maxFrameLength;
+
+    private byte[] buf = new byte[256];
+    private int size = 0;
+    /** Code byte of the current block, 0 when waiting for the first block of a frame. */
+    private int code = 0;
+    /** Data bytes still expected in the current block. */
+    private int remaining = 0;
+    private boolean discarding = false;
+    private final DecoderCounters metrics = new DecoderCounters();
+
+    public CobsFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) throw new IllegalArgumentException("maxFrameLength must be > 0");
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+        if (length <= 0) return;
+        ensureCapacity(Math.min(size + length, maxFrameLength));
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = data[i];
+            if (b == 0) {
+                if (discarding || remaining != 0) {
+                    metrics.drop(size);
+                } else if (code != 0 && size > 0) {
+                    byte[] frame = Arrays.copyOf(buf, size);
+                    metrics.frame(size);
+                    callback.onFrame(frame, frame.length);
+                }
+                size = 0;
+                code = 0;
+                remaining = 0;
+                discarding = false;
+                continue;
+            }
+            if (discarding) continue;
+            if (remaining == 0) {
+                // Start of a block: the previous block implied a zero unless it was a full 0xFF block.
+                if (code != 0 && code != 0xFF && !append((byte) 0)) continue;
+                code = b & 0xFF;
+                remaining = code - 1;
+                continue;
+            }
+            remaining--;
+            append(b);
+        }
+        metrics.buffered(size);
+    }
+
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (data[offset + i] == 0) return i + 1;
+        }
+        return length;
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+        code = 0;
+        remaining = 0;
+        discarding = false;
+        metrics.buffered(0);
+    }
+
+    /**
+     * Frames dropped: truncated block, or oversized frame (also a resync). Dropped bytes are
+     * decoded bytes.
+     */
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    private boolean append(byte b) {
+        if (size == maxFrameLength) {
+            discarding = true;
+            metrics.resync();
+            return false;
+        }
+        if (size == buf.length) ensureCapacity(size + 1);
+        buf[size++] = b;
+        return true;
+    }
+
+    private void ensureCapacity(int desired) {
+        if (buf.length >= desired) return;
+        int newCap = buf.length;
+        while (newCap < desired) newCap *= 2;
+        buf = Arrays.copyOf(buf, Math.min(newCap, maxFrameLength));
+    }
+}
@@ -0,0 +1,49 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameEncoder;
+
+import java.util.Arrays;
+
+/**
+ * COBS encoder; the encoded frame is terminated with a 0x00 delimiter.
+ */
+public final class CobsFrameEncoder implements FrameEncoder {
+
+    @Override
+    public int maxEncodedLength(int length) {
+        // one code byte per 254 data bytes (at least one), plus the delimiter
+        return length + length / 254 + 2;
+    }
+
+    @Override
+    public int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int codePos = dstOffset;
+        int p = dstOffset + 1;
+        int code = 1;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = src[i];
+            if (b == 0) {
+                dst[codePos] = (byte) code;
+                codePos = p++;
+                code = 1;
+                continue;
+            }
+            dst[p++] = b;
+            if (++code == 0xFF) {
+                dst[codePos] = (byte) code;
+                codePos = p++;
+                code = 1;
+            }
+        }
+        dst[codePos] = (byte) code;
+        dst[p++] = 0;
+        return p - dstOffset;
+    }
+
+    @Override
+    public byte[] encode(byte[] src, int offset, int length) {
+        byte[] out = new byte[maxEncodedLength(length)];
+        int n = encode(src, offset, length, out, 0);
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
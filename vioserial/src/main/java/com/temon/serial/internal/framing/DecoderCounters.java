@@ -0,0 +1,89 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.DecoderMetrics;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * {@link DecoderMetrics} storage shared by the built-in decoders.
+ *
+ * <p>Single writer (the decoding thread): updates are ordered stores, no read-modify-write.</p>
+ */
+final class DecoderCounters implements DecoderMetrics {
+
+    private static final AtomicLongFieldUpdater<DecoderCounters> DROPPED_COUNT =
+            AtomicLongFieldUpdater.newUpdater(DecoderCounters.class, "droppedCount");
+    private static final AtomicLongFieldUpdater<DecoderCounters> DROPPED_BYTES =
+            AtomicLongFieldUpdater.newUpdater(DecoderCounters.class, "droppedBytes");
+    private static final AtomicLongFieldUpdater<DecoderCounters> RESYNC_COUNT =
+            AtomicLongFieldUpdater.newUpdater(DecoderCounters.class, "resyncCount");
+    private static final AtomicIntegerFieldUpdater<DecoderCounters> BUFFERED_BYTES =
+            AtomicIntegerFieldUpdater.newUpdater(DecoderCounters.class, "bufferedBytes");
+    private static final AtomicIntegerFieldUpdater<DecoderCounters> MAX_BUFFERED_BYTES =
+            AtomicIntegerFieldUpdater.newUpdater(DecoderCounters.class, "maxBufferedBytes");
+    private static final AtomicIntegerFieldUpdater<DecoderCounters> LARGEST_FRAME =
+            AtomicIntegerFieldUpdater.newUpdater(DecoderCounters.class, "largestFrame");
+
+    private volatile long droppedCount;
+    private volatile long droppedBytes;
+    private volatile long resyncCount;
+    private volatile int bufferedBytes;
+    private volatile int maxBufferedBytes;
+    private volatile int largestFrame;
+
+    void drop(long bytes) {
+        DROPPED_COUNT.lazySet(this, droppedCount + 1);
+        if (bytes > 0) DROPPED_BYTES.lazySet(this, droppedBytes + bytes);
+    }
+
+    /**
+     * Bytes discarded without completing a drop (e.g. skipped while waiting for the next boundary).
+     */
+    void dropBytes(long bytes) {
+        DROPPED_BYTES.lazySet(this, droppedBytes + bytes);
+    }
+
+    void resync() {
+        RESYNC_COUNT.lazySet(this, resyncCount + 1);
+    }
+
+    void buffered(int bytes) {
+        if (bytes != bufferedBytes) BUFFERED_BYTES.lazySet(this, bytes);
+        if (bytes > maxBufferedBytes) MAX_BUFFERED_BYTES.lazySet(this, bytes);
+    }
+
+    void frame(int length) {
+        if (length > largestFrame) LARGEST_FRAME.lazySet(this, length);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    @Override
+    public long getResyncCount() {
+        return resyncCount;
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return maxBufferedBytes;
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return largestFrame;
+    }
+}
@@ -0,0 +1,71 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.FlushableFrameDecoder;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.FrameStage;
+
+import java.util.Arrays;
+
+/**
+ * Adapts a {@link FrameDecoder} so it can run as a pipeline stage.
+ *
+ * <p>Later stages may rewrite frames in place, but a decoder is allowed to pass {@code onFrame}
+ * its internal buffer. Frames are therefore forwarded as they are only from built-in decoders
+ * that allocate a new array per frame; frames from any other decoder are copied first.</p>
+ */
+public final class DecoderStage implements FrameStage, IdleGapAware {
+    private final FrameDecoder decoder;
+    private final boolean freshFrames;
+    private final Callback callback = new Callback();
+    private Sink next;
+
+    public DecoderStage(FrameDecoder decoder) {
+        if (decoder == null) throw new IllegalArgumentException("decoder == null");
+        this.decoder = decoder;
+        this.freshFrames = decoder instanceof FreshFrameDecoder;
+    }
+
+    public FrameDecoder getDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public long getIdleGapMs() {
+        return decoder instanceof IdleGapAware ? ((IdleGapAware) decoder).getIdleGapMs() : 0L;
+    }
+
+    @Override
+    public void process(byte[] buf, int offset, int length, Sink next) {
+        this.next = next;
+        decoder.feed(buf, offset, length, callback);
+    }
+
+    @Override
+    public void flush(Sink next) {
+        if (decoder instanceof FlushableFrameDecoder) {
+            this.next = next;
+            ((FlushableFrameDecoder) decoder).flush(callback);
+        }
+    }
+
+    @Override
+    public void reset() {
+        decoder.reset();
+    }
+
+    private final class Callback implements FrameDecoder.FrameCallback, ChecksumFailureCallback {
+        @Override
+        public void onFrame(byte[] frameBytes, int length) {
+            byte[] frame = freshFrames ? frameBytes : Arrays.copyOf(frameBytes, length);
+            next.onSlice(frame, 0, length);
+        }
+
+        @Override
+        public void onChecksumFailure(byte[] buf, int offset, int length) {
+            if (next instanceof ChecksumFailureCallback) {
+                ((ChecksumFailureCallback) next).onChecksumFailure(buf, offset, length);
+            }
+        }
+    }
+}
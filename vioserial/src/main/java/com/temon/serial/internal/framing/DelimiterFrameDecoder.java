@@ -2,15 +2,16 @@ package com.temon.serial.internal.framing;
 
 import android.util.Log;
 
+import com.temon.serial.core.DecoderMetrics;
 import com.temon.serial.core.FrameDecoder;
 
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Splits frames by a delimiter byte sequence (delimiter is included in output by default = false).
  */
-public final class DelimiterFrameDecoder implements FrameDecoder {
+public final class DelimiterFrameDecoder implements FrameDecoder, DecoderMetrics, FreshFrameDecoder,
+        FrameBoundaryAware {
 
     private static final String TAG = "DelimiterFrameDecoder";
 
@@ -21,8 +22,7 @@ public final class DelimiterFrameDecoder implements FrameDecoder {
 
     private byte[] buf = new byte[1024];
     private int size = 0;
-    private final AtomicLong droppedCount = new AtomicLong(0);
-    private final AtomicLong droppedBytes = new AtomicLong(0);
+    private final DecoderCounters metrics = new DecoderCounters();
 
     public DelimiterFrameDecoder(byte[] delimiter, boolean includeDelimiter) {
         if (delimiter == null || delimiter.length == 0) {
@@ -38,7 +38,8 @@ public final class DelimiterFrameDecoder implements FrameDecoder {
         if (size + length > MAX_BUFFER_SIZE) {
             // Safety: drop buffered data to avoid unbounded growth
             Log.w(TAG, "Buffer overflow, dropping buffered data. size=" + size + ", incoming=" + length);
-            recordDrop(size + length);
+            metrics.drop(size + length);
+            metrics.resync();
             reset();
             return;
         }
@@ -46,7 +47,8 @@ public final class DelimiterFrameDecoder implements FrameDecoder {
         System.arraycopy(data, offset, buf, size, length);
         size += length;
 
-        int searchFrom = 0;
+        // Buffered bytes were searched by earlier calls; only a match ending in new bytes is possible
+        int searchFrom = Math.max(0, size - length - delimiter.length + 1);
         while (true) {
             int idx = indexOf(buf, 0, size, delimiter, searchFrom);
             if (idx < 0) break;
@@ -54,6 +56,7 @@ public final class DelimiterFrameDecoder implements FrameDecoder {
             int frameEnd = includeDelimiter ? (idx + delimiter.length) : idx;
             if (frameEnd > 0) {
                 byte[] frame = Arrays.copyOfRange(buf, 0, frameEnd);
+                metrics.frame(frame.length);
                 callback.onFrame(frame, frame.length);
             }
 
@@ -66,32 +69,53 @@ public final class DelimiterFrameDecoder implements FrameDecoder {
             size = remaining;
             searchFrom = 0;
         }
+        metrics.buffered(size);
+    }
+
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        // A delimiter can only complete on its last byte
+        byte last = delimiter[delimiter.length - 1];
+        for (int i = 0; i < length; i++) {
+            if (data[offset + i] == last) return i + 1;
+        }
+        return length;
     }
 
     @Override
     public void reset() {
         size = 0;
+        metrics.buffered(0);
     }
 
-    /**
-     * Number of times buffered data was dropped due to safety limits.
-     */
+    @Override
     public long getDroppedCount() {
-        return droppedCount.get();
+        return metrics.getDroppedCount();
     }
 
-    /**
-     * Total bytes dropped due to safety limits.
-     */
+    @Override
     public long getDroppedBytes() {
-        return droppedBytes.get();
+        return metrics.getDroppedBytes();
     }
 
-    private void recordDrop(int bytes) {
-        droppedCount.incrementAndGet();
-        if (bytes > 0) {
-            droppedBytes.addAndGet(bytes);
-        }
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
     }
 
     private void ensureCapacity(int desired) {
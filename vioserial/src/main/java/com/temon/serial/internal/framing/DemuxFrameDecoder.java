@@ -0,0 +1,360 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FlushableFrameDecoder;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.TypedFrameCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes each frame to a per-type decoder chosen by its first (or first two) header bytes.
+ *
+ * <p>At a frame boundary the next byte is looked up in a 256-entry jump table. A route either
+ * selects a decoder directly or points to a second 256-entry table indexed by the following byte.
+ * Bytes are then fed to the selected decoder until it emits a frame, drops one (its drop or
+ * resync count grows) or reports a checksum failure, after which the next byte is classified
+ * again. The frame boundary must be known exactly without a consumed-count in the
+ * {@link FrameDecoder} contract: built-in decoders say how many bytes they can take before a
+ * frame could end and get them in one call, other decoders are fed one byte at a time.</p>
+ *
+ * <p>Header bytes with no route are skipped (counted as unrouted), which also resynchronizes the
+ * stream after garbage. A routed frame that grows past {@code maxFrameLength} without being
+ * emitted is abandoned.</p>
+ *
+ * <p>{@link DecoderMetrics}: drops and resyncs are the demultiplexer's own (abandoned frames, runs
+ * of unrouted bytes) plus those of the sub-decoders; buffered bytes are those of the frame being
+ * routed.</p>
+ */
+public final class DemuxFrameDecoder implements FlushableFrameDecoder, IdleGapAware, DecoderMetrics {
+
+    /**
+     * One entry of the jump table.
+     */
+    static final class Route {
+        final int type;
+        final FrameDecoder decoder;
+        Route[] second;
+
+        Route(int type, FrameDecoder decoder) {
+            this.type = type;
+            this.decoder = decoder;
+        }
+    }
+
+    /**
+     * Collects routes into the jump tables.
+     */
+    public static final class Routes {
+        private final Route[] table = new Route[256];
+
+        public void add(int header, int type, FrameDecoder decoder) {
+            checkByte(header);
+            Route existing = table[header];
+            if (existing != null && existing.decoder != null) {
+                throw new IllegalArgumentException("header already routed: " + header);
+            }
+            Route route = new Route(type, decoder);
+            if (existing != null) {
+                route.second = existing.second;
+            }
+            table[header] = route;
+        }
+
+        public void add(int header1, int header2, int type, FrameDecoder decoder) {
+            checkByte(header1);
+            checkByte(header2);
+            Route first = table[header1];
+            if (first == null) {
+                first = new Route(TypedFrameCallback.UNTYPED, null);
+                table[header1] = first;
+            }
+            if (first.second == null) {
+                first.second = new Route[256];
+            }
+            if (first.second[header2] != null) {
+                throw new IllegalArgumentException("header already routed: " + header1 + "," + header2);
+            }
+            first.second[header2] = new Route(type, decoder);
+        }
+
+        private static void checkByte(int b) {
+            if (b < 0 || b > 0xFF) throw new IllegalArgumentException("header byte must be 0..255");
+        }
+    }
+
+    private final Route[] table;
+    private final int maxFrameLength;
+
+    private Route current;
+    private Route pendingFirst;
+    private final byte[] header = new byte[1];
+    private int routedBytes = 0;
+    private boolean emitted = false;
+    private boolean failed = false;
+    private boolean skipping = false;
+    private FrameCallback out;
+    private TypedFrameCallback typedOut;
+    private final FrameCallback sub = new SubCallback();
+    private final AtomicLong unroutedBytes = new AtomicLong(0);
+    private final DecoderCounters metrics = new DecoderCounters();
+    private final DecoderMetrics[] subMetrics;
+
+    public DemuxFrameDecoder(Routes routes, int maxFrameLength) {
+        if (routes == null) throw new IllegalArgumentException("routes == null");
+        if (maxFrameLength <= 0) throw new IllegalArgumentException("maxFrameLength must be > 0");
+        this.table = new Route[256];
+        for (int i = 0; i < 256; i++) {
+            Route r = routes.table[i];
+            if (r == null) continue;
+            Route copy = new Route(r.type, r.decoder);
+            copy.second = r.second != null ? r.second.clone() : null;
+            table[i] = copy;
+        }
+        this.maxFrameLength = maxFrameLength;
+        this.subMetrics = subMetricsOf(table);
+    }
+
+    /**
+     * Header bytes skipped because no route matched.
+     */
+    public long getUnroutedBytes() {
+        return unroutedBytes.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        long n = metrics.getDroppedCount();
+        for (DecoderMetrics m : subMetrics) n += m.getDroppedCount();
+        return n;
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        long n = metrics.getDroppedBytes();
+        for (DecoderMetrics m : subMetrics) n += m.getDroppedBytes();
+        return n;
+    }
+
+    @Override
+    public long getResyncCount() {
+        long n = metrics.getResyncCount();
+        for (DecoderMetrics m : subMetrics) n += m.getResyncCount();
+        return n;
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    @Override
+    public long getIdleGapMs() {
+        long gap = 0L;
+        for (Route r : table) {
+            gap = Math.max(gap, idleGapOf(r));
+            if (r != null && r.second != null) {
+                for (Route r2 : r.second) {
+                    gap = Math.max(gap, idleGapOf(r2));
+                }
+            }
+        }
+        return gap;
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+        if (length <= 0) return;
+        bind(callback);
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (current == null) {
+                int b = data[i] & 0xFF;
+                if (pendingFirst != null) {
+                    Route r = pendingFirst.second[b];
+                    if (r == null && pendingFirst.decoder != null) r = pendingFirst;
+                    pendingFirst = null;
+                    if (r == null) {
+                        // unknown second byte: skip the first header byte and reclassify this one
+                        skipUnrouted();
+                        continue;
+                    }
+                    start(r);
+                    feedRun(header, 0, 1);
+                    if (current == null) continue;
+                } else {
+                    Route r = table[b];
+                    if (r == null) {
+                        skipUnrouted();
+                        i++;
+                        continue;
+                    }
+                    if (r.second != null) {
+                        pendingFirst = r;
+                        header[0] = data[i++];
+                        continue;
+                    }
+                    start(r);
+                }
+            }
+            i += feedRun(data, i, end - i);
+        }
+        metrics.buffered(current != null ? routedBytes : 0);
+    }
+
+    @Override
+    public void flush(FrameCallback callback) {
+        if (current == null) return;
+        bind(callback);
+        if (current.decoder instanceof FlushableFrameDecoder) {
+            ((FlushableFrameDecoder) current.decoder).flush(sub);
+        }
+        current.decoder.reset();
+        current = null;
+        metrics.buffered(0);
+    }
+
+    @Override
+    public void reset() {
+        for (Route r : table) {
+            if (r == null) continue;
+            if (r.decoder != null) r.decoder.reset();
+            if (r.second != null) {
+                for (Route r2 : r.second) {
+                    if (r2 != null) r2.decoder.reset();
+                }
+            }
+        }
+        current = null;
+        pendingFirst = null;
+        routedBytes = 0;
+        emitted = false;
+        failed = false;
+        skipping = false;
+        metrics.buffered(0);
+    }
+
+    private void bind(FrameCallback callback) {
+        out = callback;
+        typedOut = callback instanceof TypedFrameCallback ? (TypedFrameCallback) callback : null;
+    }
+
+    private void start(Route r) {
+        current = r;
+        routedBytes = 0;
+        emitted = false;
+        failed = false;
+        skipping = false;
+    }
+
+    private void skipUnrouted() {
+        unroutedBytes.incrementAndGet();
+        metrics.dropBytes(1);
+        if (!skipping) {
+            skipping = true;
+            metrics.resync();
+        }
+    }
+
+    /**
+     * Feed the current route as many bytes as it can take without passing a frame boundary (at
+     * most {@code available}, at least 1) and end the route if its frame ended.
+     *
+     * @return Bytes fed
+     */
+    private int feedRun(byte[] data, int index, int available) {
+        FrameDecoder decoder = current.decoder;
+        int n = decoder instanceof FrameBoundaryAware
+                ? ((FrameBoundaryAware) decoder).frameRunLength(data, index, available)
+                : 1;
+        // Stop right past maxFrameLength, as if fed byte by byte
+        n = Math.min(n, maxFrameLength + 1 - routedBytes);
+        long failures = failuresOf(decoder);
+        decoder.feed(data, index, n, sub);
+        routedBytes += n;
+        if (emitted) {
+            emitted = false;
+            current = null;
+        } else if (failed || failuresOf(decoder) != failures) {
+            // The sub-decoder dropped the frame (and counted it): classify the next byte again
+            failed = false;
+            decoder.reset();
+            current = null;
+        } else if (routedBytes > maxFrameLength) {
+            metrics.drop(routedBytes);
+            metrics.resync();
+            decoder.reset();
+            current = null;
+        }
+        return n;
+    }
+
+    private static long failuresOf(FrameDecoder decoder) {
+        if (!(decoder instanceof DecoderMetrics)) return 0L;
+        DecoderMetrics m = (DecoderMetrics) decoder;
+        return m.getDroppedCount() + m.getResyncCount();
+    }
+
+    private static DecoderMetrics[] subMetricsOf(Route[] table) {
+        List<DecoderMetrics> found = new ArrayList<>();
+        for (Route r : table) {
+            if (r == null) continue;
+            addMetrics(found, r.decoder);
+            if (r.second != null) {
+                for (Route r2 : r.second) {
+                    if (r2 != null) addMetrics(found, r2.decoder);
+                }
+            }
+        }
+        return found.toArray(new DecoderMetrics[0]);
+    }
+
+    private static void addMetrics(List<DecoderMetrics> found, FrameDecoder decoder) {
+        if (!(decoder instanceof DecoderMetrics)) return;
+        // One decoder may serve several routes.
+        for (DecoderMetrics m : found) {
+            if (m == decoder) return;
+        }
+        found.add((DecoderMetrics) decoder);
+    }
+
+    private static long idleGapOf(Route r) {
+        if (r == null || !(r.decoder instanceof IdleGapAware)) return 0L;
+        return ((IdleGapAware) r.decoder).getIdleGapMs();
+    }
+
+    private final class SubCallback implements FrameCallback, ChecksumFailureCallback {
+        @Override
+        public void onFrame(byte[] frameBytes, int length) {
+            emitted = true;
+            metrics.frame(length);
+            if (typedOut != null) {
+                typedOut.onFrame(current.type, frameBytes, length);
+            } else {
+                out.onFrame(frameBytes, length);
+            }
+        }
+
+        @Override
+        public void onChecksumFailure(byte[] buf, int offset, int length) {
+            failed = true;
+            if (out instanceof ChecksumFailureCallback) {
+                ((ChecksumFailureCallback) out).onChecksumFailure(buf, offset, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameStage;
+
+/**
+ * Passes on only the slices accepted by a {@link FrameStage.Filter}.
+ */
+public final class FilterStage implements FrameStage {
+    private final Filter filter;
+    private long rejectedCount = 0L;
+
+    public FilterStage(Filter filter) {
+        if (filter == null) throw new IllegalArgumentException("filter == null");
+        this.filter = filter;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public void process(byte[] buf, int offset, int length, Sink next) {
+        if (filter.accept(buf, offset, length)) {
+            next.onSlice(buf, offset, length);
+        } else {
+            rejectedCount++;
+        }
+    }
+
+    @Override
+    public void flush(Sink next) {
+    }
+
+    @Override
+    public void reset() {
+    }
+}
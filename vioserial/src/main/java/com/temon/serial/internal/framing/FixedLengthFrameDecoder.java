@@ -1,17 +1,20 @@
 package com.temon.serial.internal.framing;
 
+import com.temon.serial.core.DecoderMetrics;
 import com.temon.serial.core.FrameDecoder;
 
 import java.util.Arrays;
 
 /**
- * Emits a frame each time accumulated bytes reach a fixed length.
+ * Emits a frame each time accumulated bytes reach a fixed length. Never drops data.
  */
-public final class FixedLengthFrameDecoder implements FrameDecoder {
+public final class FixedLengthFrameDecoder implements FrameDecoder, DecoderMetrics, FreshFrameDecoder,
+        FrameBoundaryAware {
     private final int frameLength;
 
     private byte[] buf;
     private int size = 0;
+    private final DecoderCounters metrics = new DecoderCounters();
 
     public FixedLengthFrameDecoder(int frameLength) {
         if (frameLength <= 0) {
@@ -30,6 +33,7 @@ public final class FixedLengthFrameDecoder implements FrameDecoder {
 
         while (size >= frameLength) {
             byte[] frame = Arrays.copyOfRange(buf, 0, frameLength);
+            metrics.frame(frameLength);
             callback.onFrame(frame, frame.length);
 
             int remaining = size - frameLength;
@@ -38,11 +42,48 @@ public final class FixedLengthFrameDecoder implements FrameDecoder {
             }
             size = remaining;
         }
+        metrics.buffered(size);
+    }
+
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        return Math.min(length, frameLength - size);
     }
 
     @Override
     public void reset() {
         size = 0;
+        metrics.buffered(0);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
     }
 
     private void ensureCapacity(int desired) {
@@ -0,0 +1,13 @@
+package com.temon.serial.internal.framing;
+
+/**
+ * Implemented by decoders that can tell how far ahead the next frame could end, so a
+ * {@link DemuxFrameDecoder} route can feed them runs of bytes instead of one byte at a time.
+ */
+interface FrameBoundaryAware {
+    /**
+     * Number of leading bytes of {@code data[offset, offset + length)} (1..length) that can be fed
+     * in one call such that a frame can only be completed or dropped by the last of them.
+     */
+    int frameRunLength(byte[] data, int offset, int length);
+}
@@ -0,0 +1,10 @@
+package com.temon.serial.internal.framing;
+
+/**
+ * Implemented by decoders that pass every frame to {@code onFrame} in a newly allocated array
+ * they never touch again, so a pipeline may rewrite it in place, and
+ * {@link com.temon.serial.core.SerialConnection} may hold it past the callback, without copying
+ * it first.
+ */
+public interface FreshFrameDecoder {
+}
@@ -0,0 +1,12 @@
+package com.temon.serial.internal.framing;
+
+/**
+ * Implemented by decoders that need {@link com.temon.serial.core.SerialConnection} to flush them
+ * after a period of silence on the line.
+ */
+public interface IdleGapAware {
+    /**
+     * Idle gap in milliseconds, or 0 if idle flushing is not required.
+     */
+    long getIdleGapMs();
+}
@@ -2,6 +2,7 @@ package com.temon.serial.internal.framing;
 
 import android.os.SystemClock;
 
+import com.temon.serial.core.DecoderMetrics;
 import com.temon.serial.core.FlushableFrameDecoder;
 
 import java.util.Arrays;
@@ -16,13 +17,14 @@ import java.util.Arrays;
  * - a new chunk arrives after a gap, or
  * - caller invokes {@link #flush(FrameCallback)} (e.g. on close).</p>
  */
-public final class IdleGapFrameDecoder implements FlushableFrameDecoder {
+public final class IdleGapFrameDecoder implements FlushableFrameDecoder, IdleGapAware, DecoderMetrics, FreshFrameDecoder {
     private final long idleGapMs;
     private final int maxFrameLength;
 
     private byte[] buf = new byte[1024];
     private int size = 0;
     private long lastFeedUptimeMs = -1L;
+    private final DecoderCounters metrics = new DecoderCounters();
 
     public IdleGapFrameDecoder(long idleGapMs, int maxFrameLength) {
         if (idleGapMs <= 0) throw new IllegalArgumentException("idleGapMs must be > 0");
@@ -31,10 +33,15 @@ public final class IdleGapFrameDecoder implements FlushableFrameDecoder {
         this.maxFrameLength = maxFrameLength;
     }
 
+    @Override
     public long getIdleGapMs() {
         return idleGapMs;
     }
 
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
     @Override
     public void feed(byte[] data, int offset, int length, FrameCallback callback) {
         if (length <= 0) return;
@@ -46,27 +53,73 @@ public final class IdleGapFrameDecoder implements FlushableFrameDecoder {
 
         int desired = size + length;
         if (desired > maxFrameLength) {
-            // corrupted/unbounded stream under idle framing; drop buffer to avoid OOM
+            // corrupted/unbounded stream under idle framing; drop buffer and chunk to avoid OOM
+            metrics.drop(desired);
+            metrics.resync();
             reset();
             return;
         }
         ensureCapacity(desired);
         System.arraycopy(data, offset, buf, size, length);
         size += length;
+        metrics.buffered(size);
+    }
+
+    /**
+     * Count a frame dropped by {@link com.temon.serial.internal.serialport.SerialPort#readFrame},
+     * which splits frames in native code on this decoder's behalf. Its exact length is not
+     * reported, so {@code maxFrameLength + 1} bytes are counted.
+     */
+    public void onNativeOverflow() {
+        metrics.drop(maxFrameLength + 1L);
+        metrics.resync();
     }
 
     @Override
     public void flush(FrameCallback callback) {
         if (size <= 0) return;
         byte[] frame = Arrays.copyOf(buf, size);
-        callback.onFrame(frame, frame.length);
         size = 0;
+        metrics.buffered(0);
+        metrics.frame(frame.length);
+        callback.onFrame(frame, frame.length);
     }
 
     @Override
     public void reset() {
         size = 0;
         lastFeedUptimeMs = -1L;
+        metrics.buffered(0);
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
     }
 
     private void ensureCapacity(int desired) {
@@ -2,10 +2,10 @@ package com.temon.serial.internal.framing;
 
 import android.util.Log;
 
+import com.temon.serial.core.DecoderMetrics;
 import com.temon.serial.core.FrameDecoder;
 
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Length-field based framing.
@@ -18,7 +18,8 @@ import java.util.concurrent.atomic.AtomicLong;
  *
  * <p>This decoder is intentionally small but configurable enough for common devices.</p>
  */
-public final class LengthFieldFrameDecoder implements FrameDecoder {
+public final class LengthFieldFrameDecoder implements FrameDecoder, DecoderMetrics, FreshFrameDecoder,
+        FrameBoundaryAware {
 
     private static final String TAG = "LengthFieldFrameDecoder";
 
@@ -33,8 +34,7 @@ public final class LengthFieldFrameDecoder implements FrameDecoder {
 
     private byte[] buf = new byte[1024];
     private int size = 0;
-    private final AtomicLong droppedCount = new AtomicLong(0);
-    private final AtomicLong droppedBytes = new AtomicLong(0);
+    private final DecoderCounters metrics = new DecoderCounters();
 
     public LengthFieldFrameDecoder(
             int lengthFieldOffset,
@@ -70,7 +70,11 @@ public final class LengthFieldFrameDecoder implements FrameDecoder {
         ensureCapacity(size + length);
         System.arraycopy(data, offset, buf, size, length);
         size += length;
+        decode(callback);
+        metrics.buffered(size);
+    }
 
+    private void decode(FrameCallback callback) {
         // Try decode as many frames as possible.
         while (true) {
             int minHeader = lengthFieldOffset + lengthFieldLength;
@@ -97,6 +101,7 @@ public final class LengthFieldFrameDecoder implements FrameDecoder {
 
             if (size < frameLength) return; // wait for more bytes
 
+            metrics.frame(frameLength);
             int emitOffset = Math.min(initialBytesToStrip, frameLength);
             int emitLen = frameLength - emitOffset;
             if (emitLen > 0) {
@@ -113,30 +118,58 @@ public final class LengthFieldFrameDecoder implements FrameDecoder {
         }
     }
 
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        int minHeader = lengthFieldOffset + lengthFieldLength;
+        if (size < minHeader) return Math.min(length, minHeader - size);
+        // decode() left a valid, incomplete frame
+        int fieldValue = readUnsignedInt(buf, lengthFieldOffset, lengthFieldLength, endian);
+        long frameLength = (long) minHeader + (long) fieldValue + (long) lengthAdjustment;
+        return (int) Math.min(length, Math.max(1L, frameLength - size));
+    }
+
     @Override
     public void reset() {
         size = 0;
+        metrics.buffered(0);
     }
 
-    /**
-     * Number of times buffered data was dropped due to safety limits.
-     */
+    @Override
     public long getDroppedCount() {
-        return droppedCount.get();
+        return metrics.getDroppedCount();
     }
 
-    /**
-     * Total bytes dropped due to safety limits.
-     */
+    @Override
     public long getDroppedBytes() {
-        return droppedBytes.get();
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
     }
 
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    /**
+     * Buffered data is dropped whole (overflow or bad length), so every drop is also a resync.
+     */
     private void recordDrop(int bytes) {
-        droppedCount.incrementAndGet();
-        if (bytes > 0) {
-            droppedBytes.addAndGet(bytes);
-        }
+        metrics.drop(bytes);
+        metrics.resync();
     }
 
     private void ensureCapacity(int desired) {
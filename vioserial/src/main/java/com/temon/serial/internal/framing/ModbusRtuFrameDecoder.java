@@ -0,0 +1,323 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FlushableFrameDecoder;
+import com.temon.serial.core.SerialClock;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modbus RTU framing: function-code length prediction plus 3.5-character silence detection.
+ *
+ * <p>For known function codes the frame length is derived from the header (and byte count
+ * field, if any), so a frame is emitted as soon as its last byte arrives. For unknown function
+ * codes the frame ends after a silence of 3.5 character times, derived from the baud rate and bits
+ * per character. Every frame is checked against its CRC-16/MODBUS; frames that fail are dropped
+ * and the decoder waits for the next silence to resynchronize.</p>
+ *
+ * <p>Silence is measured between feed timestamps, corrected for the transmission time of the
+ * bytes in the new chunk. Use {@link #feed(byte[], int, int, long, FrameCallback)} and
+ * {@link #poll(long, FrameCallback)} to drive the decoder with explicit timestamps;
+ * {@link com.temon.serial.core.SerialConnection} passes the time each chunk was read, so a read
+ * thread that falls behind does not see the backlog as silence. Without a timestamp, the
+ * {@link SerialClock} is read when the chunk is fed.</p>
+ */
+public final class ModbusRtuFrameDecoder implements FlushableFrameDecoder, IdleGapAware, BaudRateAware, DecoderMetrics, FreshFrameDecoder,
+        ReadTimeAware {
+
+    /** Which side of the conversation this decoder parses. */
+    public enum Direction {
+        /** Master to slave (decoder runs on a slave). */
+        REQUEST,
+        /** Slave to master (decoder runs on the master; the usual case for a host). */
+        RESPONSE
+    }
+
+    private static final int MIN_FRAME = 4;
+    private static final int UNKNOWN = -1;
+    private static final int NEED_MORE = 0;
+
+    private final Direction direction;
+    private final int bitsPerChar;
+    private final boolean fixedTimeoutAbove19200;
+    private volatile long charNanos;
+    private volatile long silenceNanos;
+    private final int maxFrameLength;
+    private final SerialClock clock;
+
+    private final byte[] buf;
+    private int size = 0;
+    private long lastByteNanos = 0L;
+    private boolean hasLastByte = false;
+    private boolean discarding = false;
+    private final AtomicLong crcErrors = new AtomicLong(0);
+    private final DecoderCounters metrics = new DecoderCounters();
+
+    /**
+     * @param baudRate Line baud rate
+     * @param bitsPerChar Bits per character on the wire (start + data + parity + stop, 11 for Modbus)
+     * @param fixedTimeoutAbove19200 Use the fixed 1750 us silence recommended by the spec above 19200 baud
+     */
+    public ModbusRtuFrameDecoder(int baudRate, int bitsPerChar, boolean fixedTimeoutAbove19200,
+                                 Direction direction, int maxFrameLength, SerialClock clock) {
+        if (baudRate <= 0) throw new IllegalArgumentException("baudRate must be > 0");
+        if (bitsPerChar <= 0) throw new IllegalArgumentException("bitsPerChar must be > 0");
+        if (direction == null) throw new IllegalArgumentException("direction == null");
+        if (maxFrameLength < MIN_FRAME) throw new IllegalArgumentException("maxFrameLength must be >= " + MIN_FRAME);
+        this.direction = direction;
+        this.bitsPerChar = bitsPerChar;
+        this.fixedTimeoutAbove19200 = fixedTimeoutAbove19200;
+        setTiming(baudRate);
+        this.maxFrameLength = maxFrameLength;
+        this.clock = clock != null ? clock : SerialClock.SYSTEM;
+        this.buf = new byte[maxFrameLength];
+    }
+
+    private void setTiming(int baudRate) {
+        long c = bitsPerChar * 1000000000L / baudRate;
+        silenceNanos = fixedTimeoutAbove19200 && baudRate > 19200
+                ? 1750000L
+                : (c * 7) / 2;
+        charNanos = c;
+    }
+
+    /**
+     * Recompute character time and 3.5-character silence for a new line speed.
+     */
+    @Override
+    public void onBaudRateChanged(int baudRate) {
+        if (baudRate <= 0) throw new IllegalArgumentException("baudRate must be > 0");
+        setTiming(baudRate);
+    }
+
+    /**
+     * 3.5-character silence in nanoseconds.
+     */
+    public long getSilenceNanos() {
+        return silenceNanos;
+    }
+
+    /**
+     * Idle gap for {@link com.temon.serial.core.SerialConnection}'s idle flush, rounded up to 1 ms.
+     */
+    @Override
+    public long getIdleGapMs() {
+        return Math.max(1L, (silenceNanos + 999999L) / 1000000L);
+    }
+
+    /**
+     * Frames dropped because the CRC did not match.
+     */
+    public long getCrcErrorCount() {
+        return crcErrors.get();
+    }
+
+    /**
+     * Frames dropped: bad CRC or oversized (each also a resync, waiting for silence), or
+     * truncated. Dropped bytes include those skipped while waiting for silence.
+     */
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+        feed(data, offset, length, clock.nanoTime(), callback);
+    }
+
+    /**
+     * Feed a chunk read at {@code nowNanos} (the time its last byte was received).
+     */
+    @Override
+    public void feed(byte[] data, int offset, int length, long nowNanos, FrameCallback callback) {
+        if (length <= 0) return;
+        if (hasLastByte && nowNanos - lastByteNanos - length * charNanos >= silenceNanos) {
+            endFrame(callback);
+        }
+        lastByteNanos = nowNanos;
+        hasLastByte = true;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (discarding) {
+                metrics.dropBytes(1);
+                continue;
+            }
+            if (size == maxFrameLength) {
+                // No valid frame is this long: wait for silence.
+                discard(size + 1);
+                continue;
+            }
+            buf[size++] = data[i];
+            if (size >= MIN_FRAME) {
+                int expected = expectedLength();
+                if (expected > 0 && size == expected) {
+                    emitOrDrop(callback);
+                }
+            }
+        }
+        metrics.buffered(size);
+    }
+
+    /**
+     * End the current frame if the line has been silent for 3.5 characters at {@code nowNanos}.
+     */
+    public void poll(long nowNanos, FrameCallback callback) {
+        if (hasLastByte && nowNanos - lastByteNanos >= silenceNanos) {
+            endFrame(callback);
+        }
+    }
+
+    /**
+     * End the current frame unconditionally (idle timer expired or connection closing).
+     */
+    @Override
+    public void flush(FrameCallback callback) {
+        endFrame(callback);
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+        discarding = false;
+        hasLastByte = false;
+        metrics.buffered(0);
+    }
+
+    private void endFrame(FrameCallback callback) {
+        if (!discarding && size > 0) {
+            if (size >= MIN_FRAME) {
+                emitOrDrop(callback);
+            } else {
+                metrics.drop(size);
+            }
+        }
+        size = 0;
+        discarding = false;
+        metrics.buffered(0);
+    }
+
+    private void emitOrDrop(FrameCallback callback) {
+        int crc = Checksum.CRC16_MODBUS.compute(buf, 0, size - 2);
+        int wire = (buf[size - 2] & 0xFF) | ((buf[size - 1] & 0xFF) << 8);
+        if (crc != wire) {
+            crcErrors.incrementAndGet();
+            if (callback instanceof ChecksumFailureCallback) {
+                ((ChecksumFailureCallback) callback).onChecksumFailure(buf, 0, size);
+            }
+            discard(size);
+            return;
+        }
+        byte[] frame = Arrays.copyOf(buf, size);
+        size = 0;
+        metrics.frame(frame.length);
+        callback.onFrame(frame, frame.length);
+    }
+
+    private void discard(int bytes) {
+        metrics.drop(bytes);
+        metrics.resync();
+        size = 0;
+        discarding = true;
+    }
+
+    /**
+     * Expected total frame length (CRC included), {@link #NEED_MORE} if more header bytes are
+     * needed, or {@link #UNKNOWN} when only silence can end the frame.
+     */
+    private int expectedLength() {
+        int fc = buf[1] & 0xFF;
+        if (direction == Direction.RESPONSE) {
+            if ((fc & 0x80) != 0) return 5;
+            switch (fc) {
+                case 0x01:
+                case 0x02:
+                case 0x03:
+                case 0x04:
+                case 0x0C:
+                case 0x11:
+                case 0x14:
+                case 0x15:
+                case 0x17:
+                    return byteCountAt(2, 5);
+                case 0x05:
+                case 0x06:
+                case 0x08:
+                case 0x0B:
+                case 0x0F:
+                case 0x10:
+                    return 8;
+                case 0x07:
+                    return 5;
+                case 0x16:
+                    return 10;
+                case 0x18:
+                    return size < 4 ? NEED_MORE : 6 + (((buf[2] & 0xFF) << 8) | (buf[3] & 0xFF));
+                default:
+                    return UNKNOWN;
+            }
+        }
+        switch (fc) {
+            case 0x01:
+            case 0x02:
+            case 0x03:
+            case 0x04:
+            case 0x05:
+            case 0x06:
+            case 0x08:
+                return 8;
+            case 0x07:
+            case 0x0B:
+            case 0x0C:
+            case 0x11:
+                return 4;
+            case 0x0F:
+            case 0x10:
+                return byteCountAt(6, 9);
+            case 0x14:
+            case 0x15:
+                return byteCountAt(2, 5);
+            case 0x16:
+                return 10;
+            case 0x17:
+                return byteCountAt(10, 13);
+            case 0x18:
+                return 6;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    private int byteCountAt(int index, int overhead) {
+        if (size <= index) return NEED_MORE;
+        return overhead + (buf[index] & 0xFF);
+    }
+}
@@ -0,0 +1,173 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FlushableFrameDecoder;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.FrameStage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs a fixed chain of {@link FrameStage}s as one decoder.
+ *
+ * <p>Stage sinks are wired once at construction, so feeding does not allocate. The first stage
+ * is always a framing decoder, and its frames reach the later stages in arrays the pipeline owns
+ * (see {@link DecoderStage}), so stages may rewrite them in place. A frame is copied again only
+ * when the final slice does not start at offset 0, because {@link FrameCallback} carries no
+ * offset.</p>
+ *
+ * <p>{@link #flush(FrameCallback)} flushes every stage in order, pushing whatever each one held
+ * through the stages after it, so idle-gap framing still works when wrapped in a pipeline.</p>
+ *
+ * <p>{@link DecoderMetrics} are those of the stages (and wrapped decoders) that have them: counts
+ * and buffered bytes are summed, high-water marks are the largest of any stage.</p>
+ */
+public final class PipelineFrameDecoder implements FlushableFrameDecoder, IdleGapAware, DecoderMetrics,
+        FrameBoundaryAware {
+    private final FrameStage[] stages;
+    private final FrameStage.Sink[] sinks;
+    private final DecoderMetrics[] metrics;
+    private final FrameBoundaryAware framer;
+    private FrameCallback callback;
+
+    public PipelineFrameDecoder(List<FrameStage> stages) {
+        if (stages == null || stages.isEmpty()) {
+            throw new IllegalArgumentException("stages cannot be empty");
+        }
+        this.stages = stages.toArray(new FrameStage[0]);
+        this.sinks = new FrameStage.Sink[this.stages.length];
+        this.metrics = metricsOf(this.stages);
+        FrameDecoder first = this.stages[0] instanceof DecoderStage ? ((DecoderStage) this.stages[0]).getDecoder() : null;
+        this.framer = first instanceof FrameBoundaryAware ? (FrameBoundaryAware) first : null;
+        // sinks[i] receives the output of stages[i]
+        sinks[sinks.length - 1] = new StageSink() {
+            @Override
+            public void onSlice(byte[] buf, int offset, int length) {
+                if (length <= 0) return;
+                if (offset == 0) {
+                    callback.onFrame(buf, length);
+                } else {
+                    byte[] frame = Arrays.copyOfRange(buf, offset, offset + length);
+                    callback.onFrame(frame, frame.length);
+                }
+            }
+        };
+        for (int i = sinks.length - 2; i >= 0; i--) {
+            final FrameStage nextStage = this.stages[i + 1];
+            final FrameStage.Sink nextSink = sinks[i + 1];
+            sinks[i] = new StageSink() {
+                @Override
+                public void onSlice(byte[] buf, int offset, int length) {
+                    nextStage.process(buf, offset, length, nextSink);
+                }
+            };
+        }
+    }
+
+    @Override
+    public long getIdleGapMs() {
+        long gap = 0L;
+        for (FrameStage stage : stages) {
+            if (stage instanceof IdleGapAware) {
+                gap = Math.max(gap, ((IdleGapAware) stage).getIdleGapMs());
+            }
+        }
+        return gap;
+    }
+
+    @Override
+    public long getDroppedCount() {
+        long n = 0L;
+        for (DecoderMetrics m : metrics) n += m.getDroppedCount();
+        return n;
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        long n = 0L;
+        for (DecoderMetrics m : metrics) n += m.getDroppedBytes();
+        return n;
+    }
+
+    @Override
+    public long getResyncCount() {
+        long n = 0L;
+        for (DecoderMetrics m : metrics) n += m.getResyncCount();
+        return n;
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        int n = 0;
+        for (DecoderMetrics m : metrics) n += m.getBufferedBytes();
+        return n;
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        int n = 0;
+        for (DecoderMetrics m : metrics) n = Math.max(n, m.getMaxBufferedBytes());
+        return n;
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        int n = 0;
+        for (DecoderMetrics m : metrics) n = Math.max(n, m.getLargestFrameLength());
+        return n;
+    }
+
+    /**
+     * Frames only leave the pipeline when its framer completes one, so the framer's bound holds.
+     */
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        return framer != null ? framer.frameRunLength(data, offset, length) : 1;
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+        if (length <= 0) return;
+        this.callback = callback;
+        stages[0].process(data, offset, length, sinks[0]);
+    }
+
+    @Override
+    public void flush(FrameCallback callback) {
+        this.callback = callback;
+        for (int i = 0; i < stages.length; i++) {
+            stages[i].flush(sinks[i]);
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (FrameStage stage : stages) {
+            stage.reset();
+        }
+    }
+
+    private static DecoderMetrics[] metricsOf(FrameStage[] stages) {
+        List<DecoderMetrics> found = new ArrayList<>();
+        for (FrameStage stage : stages) {
+            Object source = stage instanceof DecoderStage ? ((DecoderStage) stage).getDecoder() : stage;
+            if (source instanceof DecoderMetrics) found.add((DecoderMetrics) source);
+        }
+        return found.toArray(new DecoderMetrics[0]);
+    }
+
+    /**
+     * Checksum failures from any stage go straight to the decoder's callback.
+     */
+    private abstract class StageSink implements FrameStage.Sink, ChecksumFailureCallback {
+        @Override
+        public void onChecksumFailure(byte[] buf, int offset, int length) {
+            if (callback instanceof ChecksumFailureCallback) {
+                ((ChecksumFailureCallback) callback).onChecksumFailure(buf, offset, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameDecoder.FrameCallback;
+
+/**
+ * Implemented by decoders that measure time between chunks, so
+ * {@link com.temon.serial.core.SerialConnection} can feed them the time each chunk was read
+ * rather than the time it gets decoded.
+ */
+public interface ReadTimeAware {
+    /**
+     * Feed a chunk whose last byte was received at {@code nowNanos} ({@link System#nanoTime()}).
+     * Called under the connection's decoder lock, like feed().
+     */
+    void feed(byte[] data, int offset, int length, long nowNanos, FrameCallback callback);
+}
@@ -0,0 +1,33 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameStage;
+
+/**
+ * Narrows a slice by dropping a fixed number of leading and trailing bytes (no copy).
+ */
+public final class SliceStage implements FrameStage {
+    private final int head;
+    private final int tail;
+
+    public SliceStage(int head, int tail) {
+        if (head < 0) throw new IllegalArgumentException("head < 0");
+        if (tail < 0) throw new IllegalArgumentException("tail < 0");
+        this.head = head;
+        this.tail = tail;
+    }
+
+    @Override
+    public void process(byte[] buf, int offset, int length, Sink next) {
+        int remaining = length - head - tail;
+        if (remaining <= 0) return;
+        next.onSlice(buf, offset + head, remaining);
+    }
+
+    @Override
+    public void flush(Sink next) {
+    }
+
+    @Override
+    public void reset() {
+    }
+}
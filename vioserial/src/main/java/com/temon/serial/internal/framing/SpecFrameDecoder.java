@@ -0,0 +1,379 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.FrameSpec;
+
+import java.util.Arrays;
+
+/**
+ * Decoder compiled from a {@link FrameSpec}.
+ *
+ * <p>The spec is flattened into final primitive fields at construction, and decoding is a small
+ * state machine over the buffered bytes: start-of-frame is matched byte by byte, header and length
+ * are read once enough bytes are buffered, and payload/checksum are skipped over by index rather
+ * than visited per byte. The checksum is computed once per frame. Only escaping and
+ * end-of-frame delimiting need a per-byte loop.</p>
+ *
+ * <p>On a bad length, checksum or end-of-frame the decoder drops bytes up to the next
+ * start-of-frame candidate and continues from there.</p>
+ *
+ * <p>When start-of-frame and end-of-frame are the same single byte (HDLC-style {@code 0x7E}
+ * flags), the flag is shared: the one closing a frame also opens the next, and repeated flags
+ * between frames are idle fill, not drops.</p>
+ */
+public final class SpecFrameDecoder implements FrameDecoder, DecoderMetrics, FreshFrameDecoder,
+        FrameBoundaryAware {
+
+    private static final int S_SOF = 0;
+    private static final int S_HEADER = 1;
+    private static final int S_BODY = 2;
+
+    private final byte[] sof;
+    private final int sofLen;
+    private final int lengthFieldOffset;
+    private final int lengthFieldLength;
+    private final LengthFieldFrameDecoder.Endian lengthEndian;
+    private final int lengthOverhead;
+    private final int fixedPayload;
+    private final Checksum checksum;
+    private final int checksumWidth;
+    private final LengthFieldFrameDecoder.Endian checksumEndian;
+    private final int checksumFrom;
+    private final byte[] eof;
+    private final int eofLen;
+    private final boolean delimited;
+    /** Single-byte start-of-frame equal to a single-byte end-of-frame. */
+    private final boolean sharedFlag;
+    private final boolean escaping;
+    private final byte escapeByte;
+    private final int escapeXorMask;
+    private final boolean emitPayload;
+    private final int maxFrameLength;
+    /** Index of the first payload byte. */
+    private final int payloadStart;
+
+    private byte[] buf = new byte[256];
+    private int size = 0;
+    private int state = S_SOF;
+    private int sofMatched = 0;
+    private int payloadLength = -1;
+    private int frameLength = -1;
+    private int eofSearchFrom = 0;
+    private boolean escaped = false;
+    /** Decoded index of a raw (unescaped) end-of-frame byte, or -1. */
+    private int rawEofAt = -1;
+    private final DecoderCounters metrics = new DecoderCounters();
+
+    public SpecFrameDecoder(FrameSpec spec) {
+        if (spec == null) throw new IllegalArgumentException("spec == null");
+        this.sof = spec.startOfFrame;
+        this.sofLen = sof.length;
+        this.lengthFieldOffset = sofLen + spec.headerLength;
+        this.lengthFieldLength = spec.lengthFieldLength;
+        this.lengthEndian = spec.lengthEndian;
+        this.checksum = spec.checksum;
+        this.checksumWidth = checksum != null ? checksum.width() : 0;
+        this.checksumEndian = spec.checksumEndian;
+        this.checksumFrom = spec.checksumCoversStartOfFrame ? 0 : sofLen;
+        this.eof = spec.endOfFrame;
+        this.eofLen = eof.length;
+        this.payloadStart = lengthFieldOffset + lengthFieldLength;
+        this.fixedPayload = spec.fixedPayloadLength;
+        this.delimited = lengthFieldLength == 0 && fixedPayload < 0;
+        this.sharedFlag = sofLen == 1 && eofLen == 1 && sof[0] == eof[0];
+        this.escaping = spec.escaping;
+        this.escapeByte = spec.escapeByte;
+        this.escapeXorMask = spec.escapeXorMask;
+        this.emitPayload = spec.emit == FrameSpec.Emit.PAYLOAD;
+        this.maxFrameLength = spec.maxFrameLength;
+        // Converts "length field value" to "payload length": payload = value + lengthOverhead.
+        switch (spec.lengthMode) {
+            case PAYLOAD_AND_CHECKSUM:
+                this.lengthOverhead = spec.lengthAdjustment - checksumWidth;
+                break;
+            case AFTER_LENGTH_FIELD:
+                this.lengthOverhead = spec.lengthAdjustment - checksumWidth - eofLen;
+                break;
+            case WHOLE_FRAME:
+                this.lengthOverhead = spec.lengthAdjustment - payloadStart - checksumWidth - eofLen;
+                break;
+            case PAYLOAD:
+            default:
+                this.lengthOverhead = spec.lengthAdjustment;
+                break;
+        }
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+        if (length <= 0) return;
+        if (!escaping) {
+            ensureCapacity(size + length);
+            System.arraycopy(data, offset, buf, size, length);
+            size += length;
+            parse(callback);
+            metrics.buffered(size);
+            return;
+        }
+        final byte sof0 = sof[0];
+        final byte eof0 = delimited ? eof[0] : 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = data[i];
+            if (escaped) {
+                escaped = false;
+                append((byte) (b ^ escapeXorMask));
+            } else if (b == escapeByte) {
+                escaped = true;
+                continue;
+            } else if (b == sof0) {
+                if (sharedFlag && size > 0) {
+                    // Repeated flags: the frame has not started yet.
+                    if (size == 1 && buf[0] == sof0) continue;
+                    // The flag closes the current frame, then opens the next one.
+                    append(b);
+                    if (delimited) rawEofAt = size - 1;
+                    parse(callback);
+                    if (size > 0) drop(size);
+                } else if (size > 0) {
+                    // A raw start-of-frame always begins a new frame.
+                    parse(callback);
+                    if (size > 0) drop(size);
+                }
+                append(b);
+                continue;
+            } else {
+                append(b);
+                if (delimited && b == eof0) {
+                    rawEofAt = size - 1;
+                    parse(callback);
+                    continue;
+                }
+            }
+            if (delimited) {
+                if (size > maxFrameLength) drop(size);
+            } else if (state != S_BODY || size >= frameLength) {
+                parse(callback);
+            }
+        }
+        metrics.buffered(size);
+    }
+
+    @Override
+    public int frameRunLength(byte[] data, int offset, int length) {
+        // Only the length-delimited layout without escaping has a known frame end
+        if (escaping || delimited) return 1;
+        if (state == S_BODY) return Math.min(length, frameLength - size);
+        if (state == S_HEADER) return Math.min(length, Math.max(1, payloadStart - size));
+        return 1;
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+        escaped = false;
+        restart();
+        metrics.buffered(0);
+    }
+
+    /**
+     * Every drop skips to the next start-of-frame candidate, so drops and resyncs count the same
+     * events.
+     */
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    private void parse(FrameCallback callback) {
+        while (size > 0) {
+            if (state == S_SOF) {
+                while (sofMatched < sofLen) {
+                    if (sofMatched >= size) return;
+                    if (buf[sofMatched] != sof[sofMatched]) break;
+                    sofMatched++;
+                }
+                if (sofMatched < sofLen) {
+                    resync();
+                    continue;
+                }
+                if (sharedFlag && delimited && !escaping) {
+                    // Repeated flags between frames
+                    if (size < 2) return;
+                    if (buf[1] == sof[0]) {
+                        consume(1);
+                        restart();
+                        continue;
+                    }
+                }
+                state = S_HEADER;
+            }
+            if (state == S_HEADER) {
+                if (size < payloadStart) return;
+                if (delimited) {
+                    payloadLength = -1;
+                    frameLength = -1;
+                    eofSearchFrom = payloadStart;
+                } else {
+                    long payload = fixedPayload >= 0
+                            ? fixedPayload
+                            : (ChecksumStage.readUnsigned(buf, lengthFieldOffset, lengthFieldLength, lengthEndian)
+                            & 0xFFFFFFFFL) + lengthOverhead;
+                    long total = payloadStart + payload + checksumWidth + eofLen;
+                    if (payload < 0 || total > maxFrameLength) {
+                        resync();
+                        continue;
+                    }
+                    payloadLength = (int) payload;
+                    frameLength = (int) total;
+                }
+                state = S_BODY;
+            }
+            if (frameLength < 0) {
+                int end = findEndOfFrame();
+                if (end < 0) {
+                    if (size > maxFrameLength) resync();
+                    return;
+                }
+                frameLength = end + eofLen;
+                payloadLength = end - checksumWidth - payloadStart;
+                if (payloadLength < 0) {
+                    resync();
+                    continue;
+                }
+            } else if (size < frameLength) {
+                return;
+            }
+            if (!verify(callback)) {
+                resync();
+                continue;
+            }
+            metrics.frame(frameLength);
+            if (emitPayload) {
+                if (payloadLength > 0) {
+                    byte[] frame = Arrays.copyOfRange(buf, payloadStart, payloadStart + payloadLength);
+                    callback.onFrame(frame, frame.length);
+                }
+            } else {
+                byte[] frame = Arrays.copyOf(buf, frameLength);
+                callback.onFrame(frame, frame.length);
+            }
+            // Unescaped input keeps a shared closing flag as the next start-of-frame
+            consume(sharedFlag && !escaping ? frameLength - 1 : frameLength);
+            restart();
+        }
+    }
+
+    private int findEndOfFrame() {
+        if (escaping) {
+            int at = rawEofAt;
+            return at >= payloadStart ? at : -1;
+        }
+        int max = size - eofLen;
+        for (int i = Math.max(eofSearchFrom, payloadStart); i <= max; i++) {
+            if (matchesEof(i)) return i;
+        }
+        eofSearchFrom = Math.max(payloadStart, max + 1);
+        return -1;
+    }
+
+    private boolean verify(FrameCallback callback) {
+        int checksumAt = frameLength - eofLen - checksumWidth;
+        if (!delimited && eofLen > 0 && !matchesEof(checksumAt + checksumWidth)) {
+            return false;
+        }
+        if (checksum == null) return true;
+        int expected = checksum.compute(buf, checksumFrom, checksumAt - checksumFrom);
+        int actual = ChecksumStage.readUnsigned(buf, checksumAt, checksumWidth, checksumEndian);
+        if (expected == actual) return true;
+        if (callback instanceof ChecksumFailureCallback) {
+            ((ChecksumFailureCallback) callback).onChecksumFailure(buf, 0, frameLength);
+        }
+        return false;
+    }
+
+    private boolean matchesEof(int at) {
+        for (int j = 0; j < eofLen; j++) {
+            if (buf[at + j] != eof[j]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drop the current candidate frame up to the next start-of-frame candidate.
+     */
+    private void resync() {
+        int k = size;
+        if (!escaping) {
+            k = 1;
+            if (sofLen > 0) {
+                byte sof0 = sof[0];
+                while (k < size && buf[k] != sof0) k++;
+            }
+        }
+        drop(k);
+    }
+
+    private void drop(int bytes) {
+        metrics.drop(bytes);
+        metrics.resync();
+        consume(bytes);
+        restart();
+    }
+
+    private void consume(int bytes) {
+        int remaining = size - bytes;
+        if (remaining > 0) {
+            System.arraycopy(buf, bytes, buf, 0, remaining);
+        }
+        size = Math.max(0, remaining);
+        rawEofAt = rawEofAt >= bytes ? rawEofAt - bytes : -1;
+    }
+
+    private void restart() {
+        state = sofLen > 0 ? S_SOF : S_HEADER;
+        sofMatched = 0;
+        payloadLength = -1;
+        frameLength = -1;
+        eofSearchFrom = 0;
+    }
+
+    private void append(byte b) {
+        if (size == buf.length) ensureCapacity(size + 1);
+        buf[size++] = b;
+    }
+
+    private void ensureCapacity(int desired) {
+        if (buf.length >= desired) return;
+        int newCap = buf.length;
+        while (newCap < desired) newCap *= 2;
+        buf = Arrays.copyOf(buf, newCap);
+    }
+}
@@ -0,0 +1,79 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.DecoderMetrics;
+import com.temon.serial.core.FrameStage;
+
+/**
+ * Removes byte stuffing in place: {@code escape, b} becomes {@code b ^ xorMask}.
+ *
+ * <p>A trailing escape byte without a follower is treated as a broken frame and dropped.</p>
+ */
+public final class UnescapeStage implements FrameStage, DecoderMetrics {
+    private final byte escape;
+    private final int xorMask;
+    private final DecoderCounters metrics = new DecoderCounters();
+
+    public UnescapeStage(byte escape, int xorMask) {
+        this.escape = escape;
+        this.xorMask = xorMask & 0xFF;
+    }
+
+    /**
+     * Frames dropped because they ended with a dangling escape byte.
+     */
+    @Override
+    public long getDroppedCount() {
+        return metrics.getDroppedCount();
+    }
+
+    @Override
+    public long getDroppedBytes() {
+        return metrics.getDroppedBytes();
+    }
+
+    @Override
+    public long getResyncCount() {
+        return metrics.getResyncCount();
+    }
+
+    @Override
+    public int getBufferedBytes() {
+        return metrics.getBufferedBytes();
+    }
+
+    @Override
+    public int getMaxBufferedBytes() {
+        return metrics.getMaxBufferedBytes();
+    }
+
+    @Override
+    public int getLargestFrameLength() {
+        return metrics.getLargestFrameLength();
+    }
+
+    @Override
+    public void process(byte[] buf, int offset, int length, Sink next) {
+        int end = offset + length;
+        int w = offset;
+        for (int r = offset; r < end; r++) {
+            byte b = buf[r];
+            if (b == escape) {
+                if (++r >= end) {
+                    metrics.drop(length);
+                    return;
+                }
+                b = (byte) (buf[r] ^ xorMask);
+            }
+            buf[w++] = b;
+        }
+        next.onSlice(buf, offset, w - offset);
+    }
+
+    @Override
+    public void flush(Sink next) {
+    }
+
+    @Override
+    public void reset() {
+    }
+}
@@ -166,6 +166,38 @@ public class SerialPort {
 
     private static final String TAG = "SerialPort";
 
+    /** {@link #readFrame}: no byte arrived within the timeout. */
+    public static final int READ_FRAME_TIMEOUT = 0;
+    /** {@link #readFrame}: end of stream (device gone). */
+    public static final int READ_FRAME_EOF = -1;
+    /** {@link #readFrame}: the frame was longer than the buffer and has been dropped. */
+    public static final int READ_FRAME_OVERFLOW = -2;
+
+    /** {@link #reconfigure}: apply immediately. */
+    public static final int RECONFIGURE_NOW = 0;
+    /** {@link #reconfigure}: apply after pending output has been transmitted. */
+    public static final int RECONFIGURE_DRAIN = 1;
+    /** {@link #reconfigure}: like {@link #RECONFIGURE_DRAIN}, and discard unread input. */
+    public static final int RECONFIGURE_FLUSH = 2;
+
+    /** {@link #getInterruptCounts} slots, in the order of the kernel's {@code serial_icounter_struct}. */
+    public static final int ICOUNT_RX = 0;
+    public static final int ICOUNT_TX = 1;
+    public static final int ICOUNT_FRAME = 2;
+    public static final int ICOUNT_OVERRUN = 3;
+    public static final int ICOUNT_PARITY = 4;
+    public static final int ICOUNT_BRK = 5;
+    public static final int ICOUNT_BUF_OVERRUN = 6;
+    public static final int ICOUNT_SIZE = 7;
+
+    /** {@link #getModemLines} bits (Linux {@code TIOCM_*}). */
+    public static final int MODEM_DTR = 0x002;
+    public static final int MODEM_RTS = 0x004;
+    public static final int MODEM_CTS = 0x020;
+    public static final int MODEM_CD = 0x040;
+    public static final int MODEM_RI = 0x080;
+    public static final int MODEM_DSR = 0x100;
+
     private static final PermissionStrategy DEFAULT_PERMISSION_STRATEGY = new PermissionStrategy() {
         @Override
         public void ensurePermission(File device) throws SecurityException {
@@ -177,11 +209,15 @@ public class SerialPort {
     };
 
     /*
-     * Do not remove or rename the field mFd: it is used by native method close();
+     * Do not remove or rename the field mFd: it is used by the native methods;
      */
     private FileDescriptor mFd;
     private FileInputStream mFileInputStream;
     private FileOutputStream mFileOutputStream;
+    // Pipe written by cancelRead() to wake readFrame; -1 if it could not be created
+    private int mWakeReadFd = -1;
+    private int mWakeWriteFd = -1;
+    private volatile boolean mReadCancelled;
 
     public SerialPort(File device, int baudrate, int flags) throws SecurityException, IOException {
         this(device, baudrate, 1, 8, 0, 0, flags, 0, null);
@@ -210,6 +246,13 @@ public class SerialPort {
         }
         mFileInputStream = new FileInputStream(mFd);
         mFileOutputStream = new FileOutputStream(mFd);
+        int[] wake = new int[2];
+        if (openWakePipe0(wake)) {
+            mWakeReadFd = wake[0];
+            mWakeWriteFd = wake[1];
+        } else {
+            Log.w(TAG, "no wake pipe: readFrame notices cancelRead/close within 50 ms");
+        }
     }
 
     public InputStream getInputStream() {
@@ -222,7 +265,27 @@ public class SerialPort {
 
     private native static FileDescriptor open(String path, int baudrate, int stopBits, int dataBits, int parity, int flowCon, int flags, int readTimeoutMs);
 
-    public native void close();
+    /**
+     * Close the port. A thread blocked in {@link #readFrame} returns at once.
+     */
+    public synchronized void close() {
+        cancelRead();
+        close0();
+        closeWakePipe0(mWakeReadFd, mWakeWriteFd);
+        mWakeReadFd = -1;
+        mWakeWriteFd = -1;
+    }
+
+    /**
+     * Make a {@link #readFrame} blocked in another thread return now, and every later call return
+     * {@link #READ_FRAME_TIMEOUT} without reading. Closing the input stream does not wake it.
+     */
+    public synchronized void cancelRead() {
+        mReadCancelled = true;
+        if (mWakeWriteFd >= 0) {
+            signalWakePipe0(mWakeWriteFd);
+        }
+    }
 
     /**
      * Check if the device is still online/connected.
@@ -234,6 +297,79 @@ public class SerialPort {
      */
     public native boolean isDeviceOnline();
 
+    /**
+     * Read one idle-gap delimited frame.
+     *
+     * <p>Waits up to {@code timeoutMs} for the first byte, then keeps reading until the line has
+     * been silent for {@code gapMicros}. Silence is measured in the native read loop with
+     * microsecond timeouts, so frame boundaries do not depend on Java scheduling.</p>
+     *
+     * <p>{@link #cancelRead()} or {@link #close()} end the wait at once; the call then returns
+     * {@link #READ_FRAME_TIMEOUT}, or the bytes already read of a frame.</p>
+     *
+     * @param timeoutMs Wait for the first byte; 0 waits indefinitely
+     * @return Frame length, or {@link #READ_FRAME_TIMEOUT}, {@link #READ_FRAME_EOF},
+     * {@link #READ_FRAME_OVERFLOW}
+     */
+    public int readFrame(byte[] buffer, int offset, int maxLength, int gapMicros, int timeoutMs) throws IOException {
+        if (buffer == null) throw new IllegalArgumentException("buffer == null");
+        if (offset < 0 || maxLength <= 0 || offset + maxLength > buffer.length) {
+            throw new IllegalArgumentException("invalid buffer range");
+        }
+        if (gapMicros <= 0) throw new IllegalArgumentException("gapMicros must be > 0");
+        if (mReadCancelled) return READ_FRAME_TIMEOUT;
+        return readFrame0(buffer, offset, maxLength, gapMicros, Math.max(0, timeoutMs), mWakeReadFd);
+    }
+
+    /**
+     * Change line settings on the open port (tcsetattr on the existing fd). Streams stay valid.
+     *
+     * @param when {@link #RECONFIGURE_NOW}, {@link #RECONFIGURE_DRAIN} or {@link #RECONFIGURE_FLUSH}
+     */
+    public void reconfigure(int baudrate, int stopBits, int dataBits, int parity, int flowCon, int readTimeoutMs,
+                            int when) throws IOException {
+        if (when < RECONFIGURE_NOW || when > RECONFIGURE_FLUSH) throw new IllegalArgumentException("invalid when");
+        reconfigure0(baudrate, stopBits, dataBits, parity, flowCon, readTimeoutMs, when);
+    }
+
+    /**
+     * Driver interrupt counters (TIOCGICOUNT) into {@code counts[ICOUNT_*]}. The values are 32-bit
+     * driver totals that wrap and are not reset by opening the port.
+     *
+     * @return false if the driver does not keep them (ptys, many USB adapters); {@code counts} is
+     * then unchanged
+     */
+    public boolean getInterruptCounts(int[] counts) throws IOException {
+        if (counts == null || counts.length < ICOUNT_SIZE) {
+            throw new IllegalArgumentException("counts must hold " + ICOUNT_SIZE + " values");
+        }
+        return interruptCounts0(counts);
+    }
+
+    /**
+     * Modem control line state (TIOCMGET) as {@code MODEM_*} bits, or -1 if not supported.
+     */
+    public int getModemLines() throws IOException {
+        return modemLines0();
+    }
+
+    private native boolean interruptCounts0(int[] counts);
+
+    private native int modemLines0();
+
+    private native void reconfigure0(int baudrate, int stopBits, int dataBits, int parity, int flowCon,
+                                     int readTimeoutMs, int when);
+
+    private native int readFrame0(byte[] buffer, int offset, int maxLength, int gapMicros, int timeoutMs, int wakeFd);
+
+    private native void close0();
+
+    private static native boolean openWakePipe0(int[] fds);
+
+    private static native void signalWakePipe0(int writeFd);
+
+    private static native void closeWakePipe0(int readFd, int writeFd);
+
     static {
         System.loadLibrary("serial_port");
     }
@@ -0,0 +1,142 @@
+package com.temon.serial.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    /** Sub-bucket width relative to the bucket's power of two: the reported error bound. */
+    private static final double MAX_ERROR = 1.0 / LatencyHistogram.SUB_BUCKETS;
+
+    @Test
+    public void bucketBounds_containTheValueWithinSixPercent() {
+        Random random = new Random(44);
+        for (long v = 0; v < 200000; v++) {
+            assertBucket(v);
+        }
+        for (int i = 0; i < 200000; i++) {
+            assertBucket(random.nextLong() & ((1L << 37) - 1));
+        }
+        for (int exp = 4; exp < 37; exp++) {
+            assertBucket((1L << exp) - 1);
+            assertBucket(1L << exp);
+        }
+    }
+
+    private static void assertBucket(long v) {
+        int index = LatencyHistogram.indexOf(v);
+        long upper = LatencyHistogram.upperBound(index);
+        assertTrue(v + " above its bucket's upper bound " + upper, v <= upper);
+        if (index > 0) {
+            assertTrue(v + " also fits the previous bucket", LatencyHistogram.upperBound(index - 1) < v);
+        }
+        assertTrue(v + " reported as " + upper, upper - v <= v * MAX_ERROR);
+    }
+
+    @Test
+    public void outOfRangeValues_areClamped() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+        assertEquals(2, h.getCount());
+        assertEquals(0L, h.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE, h.getMaxNanos());
+        assertEquals(LatencyHistogram.indexOf(1L << 40), LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles_ofUniformValues() {
+        LatencyHistogram h = new LatencyHistogram();
+        // 1..1000 us
+        for (int i = 1; i <= 1000; i++) h.record(i * 1000L);
+        assertEquals(1000, h.getCount());
+        assertPercentile(500000L, h.getPercentileNanos(50));
+        assertPercentile(990000L, h.getPercentileNanos(99));
+        assertPercentile(1000L, h.getPercentileNanos(0));
+        // Capped at the largest value recorded
+        assertEquals(1000000L, h.getPercentileNanos(100));
+        assertEquals(0.5005, h.getMeanMs(), 1e-9);
+        assertEquals(1.0, h.getMaxMs(), 1e-9);
+    }
+
+    @Test
+    public void percentiles_ofSkewedValues() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) h.record(100000L);
+        for (int i = 0; i < 10; i++) h.record(50000000L);
+        assertPercentile(100000L, h.getPercentileNanos(50));
+        assertPercentile(100000L, h.getPercentileNanos(99));
+        assertPercentile(50000000L, h.getPercentileNanos(99.5));
+    }
+
+    private static void assertPercentile(long expected, long actual) {
+        assertTrue("expected ~" + expected + ", got " + actual,
+                actual >= expected && actual - expected <= expected * MAX_ERROR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentile_outOfRange() {
+        new LatencyHistogram().getPercentileNanos(101);
+    }
+
+    @Test
+    public void add_mergesCountsAndMax() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(1000);
+        b.record(2000);
+        b.record(3000);
+        a.add(b);
+        assertEquals(3, a.getCount());
+        assertEquals(3000, a.getMaxNanos());
+        assertEquals(0.002, a.getMeanMs(), 1e-9);
+    }
+
+    @Test
+    public void interval_coversRecordingsBetweenAdvances() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(5000000L);
+        LatencyHistogram.Interval interval = h.newInterval();
+        // Recordings before the interval was created are not in it
+        interval.advance();
+        assertEquals(0, interval.getCount());
+        assertEquals(0L, interval.getPercentileNanos(99));
+
+        for (int i = 0; i < 10; i++) h.record(1000L);
+        interval.advance();
+        assertEquals(10, interval.getCount());
+        assertPercentile(1000L, interval.getPercentileNanos(100));
+
+        h.record(2000000L);
+        interval.advance();
+        assertEquals(1, interval.getCount());
+        assertPercentile(2000000L, interval.getPercentileNanos(50));
+    }
+
+    @Test
+    public void interval_countsFromZeroAfterReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        LatencyHistogram.Interval interval = h.newInterval();
+        for (int i = 0; i < 3; i++) h.record(1000L);
+        interval.advance();
+        assertEquals(3, interval.getCount());
+
+        // Fewer recordings than before the reset in one bucket, more in another
+        h.reset();
+        h.record(1000L);
+        for (int i = 0; i < 5; i++) h.record(1000000L);
+        interval.advance();
+        assertEquals(6, interval.getCount());
+        assertPercentile(1000000L, interval.getPercentileNanos(90));
+
+        // Same bucket, more recordings than before the reset
+        h.reset();
+        for (int i = 0; i < 7; i++) h.record(1000L);
+        interval.advance();
+        assertEquals(7, interval.getCount());
+    }
+}
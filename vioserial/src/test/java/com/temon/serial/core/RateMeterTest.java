@@ -0,0 +1,158 @@
+package com.temon.serial.core;
+
+import android.os.SystemClock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the meter with explicit timestamps ahead of {@link SystemClock}, so reading a rate (which
+ * ticks on the real clock) never moves it.
+ */
+public class RateMeterTest {
+
+    private static final long TICK = RateMeter.TICK_MS;
+    private static final double EPS = 1e-9;
+
+    private long start;
+
+    @Before
+    public void setUp() {
+        start = SystemClock.elapsedRealtime();
+    }
+
+    private RateMeter newMeter() {
+        return new RateMeter(start);
+    }
+
+    /** Marks {@code perTick} events in each of the next {@code ticks} ticks; returns the new time. */
+    private static long run(RateMeter meter, long nowMs, int ticks, long perTick) {
+        for (int i = 0; i < ticks; i++) {
+            nowMs += TICK;
+            meter.mark(perTick, nowMs);
+        }
+        return nowMs;
+    }
+
+    /** Remaining fraction of a rate after {@code ms} without events. */
+    private static double decay(long ms, int windowSeconds) {
+        return Math.exp(-ms / (windowSeconds * 1000.0));
+    }
+
+    private static double alpha(int windowSeconds) {
+        return 1.0 - decay(TICK, windowSeconds);
+    }
+
+    @Test
+    public void firstTick_initializesAllWindows() {
+        RateMeter meter = newMeter();
+        meter.mark(10, start + 100);
+        // Not due yet
+        assertEquals(0.0, meter.getOneSecondRate(), EPS);
+        meter.mark(15, start + TICK);
+        assertEquals(25, meter.getCount());
+        assertEquals(100.0, meter.getOneSecondRate(), EPS);
+        assertEquals(100.0, meter.getTenSecondRate(), EPS);
+        assertEquals(100.0, meter.getOneMinuteRate(), EPS);
+        assertEquals(100.0, meter.getPeakRate(), EPS);
+    }
+
+    @Test
+    public void steadyRate_staysPut() {
+        RateMeter meter = newMeter();
+        run(meter, start, 240, 25);
+        assertEquals(100.0, meter.getOneSecondRate(), 1e-6);
+        assertEquals(100.0, meter.getTenSecondRate(), 1e-6);
+        assertEquals(100.0, meter.getOneMinuteRate(), 1e-6);
+        assertEquals(240 * 25, meter.getCount());
+    }
+
+    @Test
+    public void idle_decaysEachWindowAtItsOwnPace() {
+        RateMeter meter = newMeter();
+        long now = run(meter, start, 40, 25);
+
+        now = run(meter, now, 4, 0);
+        assertEquals(100.0 * decay(1000, 1), meter.getOneSecondRate(), 1e-6);
+        assertEquals(100.0 * decay(1000, 10), meter.getTenSecondRate(), 1e-6);
+        assertEquals(100.0 * decay(1000, 60), meter.getOneMinuteRate(), 1e-6);
+
+        run(meter, now, 36, 0);
+        assertEquals(100.0 * decay(10000, 1), meter.getOneSecondRate(), 1e-6);
+        assertEquals(100.0 * decay(10000, 10), meter.getTenSecondRate(), 1e-6);
+        assertEquals(100.0 * decay(10000, 60), meter.getOneMinuteRate(), 1e-6);
+    }
+
+    @Test
+    public void skippedTicks_decayLikeIdleTicks() {
+        RateMeter ticked = newMeter();
+        RateMeter skipped = newMeter();
+        long now = run(ticked, start, 40, 25);
+        run(skipped, start, 40, 25);
+
+        run(ticked, now, 240, 0);
+        // One mark 60 s later, not aligned to a tick: covers the same 240 ticks
+        skipped.mark(0, now + 240 * TICK + TICK / 2);
+        assertEquals(ticked.getOneSecondRate(), skipped.getOneSecondRate(), 1e-9);
+        assertEquals(ticked.getTenSecondRate(), skipped.getTenSecondRate(), 1e-9);
+        assertEquals(ticked.getOneMinuteRate(), skipped.getOneMinuteRate(), 1e-9);
+        assertEquals(100.0 * decay(60000, 60), skipped.getOneMinuteRate(), 1e-6);
+    }
+
+    @Test
+    public void eventsAcrossSkippedTicks_countInTheLastTick() {
+        RateMeter meter = newMeter();
+        long now = run(meter, start, 40, 25);
+        meter.mark(100, now + 4 * TICK);
+        double expected = 100.0 * Math.pow(1.0 - alpha(1), 3);
+        expected += alpha(1) * (400.0 - expected);
+        assertEquals(expected, meter.getOneSecondRate(), 1e-9);
+    }
+
+    @Test
+    public void stepUp_approachesTheNewRate() {
+        RateMeter meter = newMeter();
+        long now = run(meter, start, 40, 25);
+        run(meter, now, 4, 100);
+        // 100/s -> 400/s for one second
+        assertEquals(400.0 - 300.0 * decay(1000, 1), meter.getOneSecondRate(), 1e-6);
+        assertEquals(400.0 - 300.0 * decay(1000, 10), meter.getTenSecondRate(), 1e-6);
+        assertEquals(400.0 - 300.0 * decay(1000, 60), meter.getOneMinuteRate(), 1e-6);
+    }
+
+    @Test
+    public void peak_holdsTheHighestOneSecondRate() {
+        RateMeter meter = newMeter();
+        long now = run(meter, start, 40, 25);
+        // 1000 events in one tick: 4000/s instantaneous
+        now += TICK;
+        meter.mark(1000, now);
+        double peak = 100.0 + alpha(1) * 3900.0;
+        assertEquals(peak, meter.getOneSecondRate(), 1e-9);
+        assertEquals(peak, meter.getPeakRate(), 1e-9);
+
+        run(meter, now, 40, 25);
+        assertTrue(meter.getOneSecondRate() < peak);
+        assertEquals(peak, meter.getPeakRate(), 1e-9);
+    }
+
+    @Test
+    public void reset_clearsRatesAndReinitializes() {
+        RateMeter meter = newMeter();
+        run(meter, start, 8, 100);
+        long now = SystemClock.elapsedRealtime();
+        meter.reset();
+        assertEquals(0, meter.getCount());
+        assertEquals(0.0, meter.getOneSecondRate(), EPS);
+        assertEquals(0.0, meter.getPeakRate(), EPS);
+
+        // reset() restarts on the SystemClock; the next tick takes the instant rate again
+        meter.mark(5, now + 4 * TICK);
+        assertEquals(20.0, meter.getOneSecondRate(), EPS);
+        assertEquals(20.0, meter.getOneMinuteRate(), EPS);
+        assertEquals(20.0, meter.getPeakRate(), EPS);
+    }
+}
@@ -0,0 +1,118 @@
+package com.temon.serial.core;
+
+import com.temon.serial.testing.Benchmarks;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation of {@link SerialManager}'s per-port fan-out: with only byte or frame listeners no
+ * hex or text string is built, so delivering an event allocates nothing.
+ *
+ * <p>Opening a port needs the native library, so the port's listener is created directly and fed
+ * the way the connection's dispatcher would.</p>
+ */
+public class SerialManagerAllocationTest {
+
+    private static final String PORT = "/dev/ttyS1";
+    private static final int EVENTS = 100000;
+
+    private SerialManager manager;
+    private final byte[] data = new byte[64];
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("thread allocation counter not available", Benchmarks.allocatedBytes() >= 0);
+        manager = new SerialManager();
+    }
+
+    @Test
+    public void bytesAndFrameListeners_allocateNothing() throws Exception {
+        Sink sink = new Sink();
+        manager.addBytesListener(PORT, sink);
+        manager.addFrameListener(PORT, sink);
+        SerialListener raw = portListener(true);
+        SerialListener framed = portListener(false);
+
+        long perEvent = allocatedPerEvent("bytes + frame listeners, raw", raw, sink);
+        assertEquals(0, perEvent);
+        perEvent = allocatedPerEvent("frame listener, framed", framed, sink);
+        assertEquals(0, perEvent);
+    }
+
+    @Test
+    public void hexAndTextListeners_allocateOnlyTheirStrings() throws Exception {
+        Sink sink = new Sink();
+        manager.addFrameListener(PORT, sink);
+        manager.addDataListener(PORT, sink);
+        manager.addTextListener(PORT, Charset.forName("UTF-8"), sink);
+        manager.addTextListener(PORT, Charset.forName("UTF-8"), new Sink());
+        long perEvent = allocatedPerEvent("frame + hex + 2x UTF-8 text listeners", portListener(false), sink);
+        // The counter does see the derived strings (one hex, one decode shared by both text listeners)
+        assertTrue("allocated " + perEvent + " B/event", perEvent > 0);
+        assertEquals(3L * EVENTS, sink.calls);
+    }
+
+    private long allocatedPerEvent(String name, SerialListener listener, Sink sink) {
+        for (int i = 0; i < EVENTS; i++) deliver(listener);
+        sink.calls = 0;
+        long before = Benchmarks.allocatedBytes();
+        for (int i = 0; i < EVENTS; i++) deliver(listener);
+        long perEvent = (Benchmarks.allocatedBytes() - before) / EVENTS;
+        Benchmarks.report(name, String.format(Locale.US, "%6d B/event", perEvent));
+        return perEvent;
+    }
+
+    private void deliver(SerialListener listener) {
+        listener.onBytes(data, data.length);
+        listener.onFrame(data, data.length);
+    }
+
+    /**
+     * The manager's listener for {@link #PORT}, as {@link SerialManager} passes it to the connection.
+     */
+    private SerialListener portListener(boolean rawMode) throws Exception {
+        Class<?> type = Class.forName(SerialManager.class.getName() + "$PortListener");
+        Constructor<?> c = type.getDeclaredConstructor(SerialManager.class, String.class, boolean.class);
+        c.setAccessible(true);
+        return (SerialListener) c.newInstance(manager, PORT, rawMode);
+    }
+
+    private static final class Sink implements SerialManager.OnBytesListener, SerialManager.OnFrameListener,
+            SerialManager.OnHexDataListener, SerialManager.OnTextListener {
+        volatile Object last;
+        long calls;
+
+        @Override
+        public void onBytes(byte[] data, int length) {
+            last = data;
+            calls++;
+        }
+
+        @Override
+        public void onFrame(byte[] frame, int length) {
+            last = frame;
+            calls++;
+        }
+
+        @Override
+        public void onData(String data) {
+            last = data;
+            calls++;
+        }
+
+        @Override
+        public void onText(String text) {
+            last = text;
+            calls++;
+        }
+    }
+}
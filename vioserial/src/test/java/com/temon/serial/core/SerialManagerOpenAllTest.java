@@ -0,0 +1,118 @@
+package com.temon.serial.core;
+
+import com.temon.serial.testing.Benchmarks;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Boot-time {@link SerialManager#openAll}: per-port results in order, one decoder per port, and
+ * the wall time of parallel against sequential opens.
+ *
+ * <p>The native serial port does not load on the JVM, so every open here fails after the decoder
+ * is created. The per-port setup cost is simulated by a {@link SerialManager.DecoderProvider}
+ * that sleeps, which runs on the open worker like the real open does; the reported times are
+ * the pool's overlap of that cost, not device open latency.</p>
+ */
+public class SerialManagerOpenAllTest {
+
+    private static final int PORTS = 8;
+
+    @Test
+    public void reportsEveryPortInOrder() {
+        List<SerialManager.OpenResult> results = new SerialManager().openAll(configs(PORTS));
+        assertEquals(PORTS, results.size());
+        for (int i = 0; i < PORTS; i++) {
+            SerialManager.OpenResult r = results.get(i);
+            assertEquals(port(i), r.port);
+            assertFalse(r.success);
+            assertNotNull(r.error);
+        }
+    }
+
+    @Test
+    public void defaultProvider_givesEachPortItsOwnDecoder() {
+        final Map<FrameDecoder, Boolean> created = Collections.synchronizedMap(new IdentityHashMap<FrameDecoder, Boolean>());
+        SerialManager manager = new SerialManager();
+        manager.setDefaultDecoderProvider(new SerialManager.DecoderProvider() {
+            @Override
+            public FrameDecoder decoderFor(SerialConfig config) {
+                FrameDecoder d = SerialFraming.crlf();
+                created.put(d, Boolean.TRUE);
+                return d;
+            }
+        });
+        manager.openAll(configs(PORTS));
+        assertEquals(PORTS, created.size());
+    }
+
+    @Test
+    public void sharedDefaultDecoder_rejectedForSeveralPorts() {
+        SerialManager manager = new SerialManager();
+        manager.setDefaultFrameDecoder(SerialFraming.crlf());
+        assertEquals(1, manager.openAll(configs(1)).size());
+        try {
+            manager.openAll(configs(2));
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // One decoder cannot serve two ports
+        }
+    }
+
+    @Test
+    public void parallelOpens_overlapPerPortCost() {
+        final long setupMs = 50;
+        SerialManager.DecoderProvider slow = new SerialManager.DecoderProvider() {
+            @Override
+            public FrameDecoder decoderFor(SerialConfig config) {
+                try {
+                    Thread.sleep(setupMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return SerialFraming.crlf();
+            }
+        };
+        SerialManager manager = new SerialManager();
+        long sequential = openAllNanos(manager, slow, 1);
+        long parallel = openAllNanos(manager, slow, 4);
+        Benchmarks.report("openAll " + PORTS + " ports x " + setupMs + " ms, 1 at a time",
+                String.format(Locale.US, "%8.1f ms", sequential / 1e6));
+        Benchmarks.report("openAll " + PORTS + " ports x " + setupMs + " ms, 4 at a time",
+                String.format(Locale.US, "%8.1f ms", parallel / 1e6));
+        assertTrue(sequential >= PORTS * setupMs * 1_000_000L);
+        assertTrue("parallel took " + parallel / 1e6 + " ms", parallel < sequential / 2);
+    }
+
+    private static long openAllNanos(SerialManager manager, SerialManager.DecoderProvider decoders, int maxParallel) {
+        long start = System.nanoTime();
+        List<SerialManager.OpenResult> results = manager.openAll(configs(PORTS), decoders, maxParallel);
+        long nanos = System.nanoTime() - start;
+        assertEquals(PORTS, results.size());
+        return nanos;
+    }
+
+    private static List<SerialConfig> configs(int n) {
+        List<SerialConfig> configs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            configs.add(new SerialConfig.Builder().port(port(i)).baudRate(115200).build());
+        }
+        return configs;
+    }
+
+    private static String port(int i) {
+        return "/dev/ttyS" + i;
+    }
+}
@@ -0,0 +1,180 @@
+package com.temon.serial.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SerialTimer} with a 1 ms tick and an 8-bucket wheel, so one turn is 8 ms.
+ */
+public class SerialTimerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final SerialTimer timer = new SerialTimer("test-timer", 1, 8);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void firesOnceAtDeadline() throws Exception {
+        Recorder r = new Recorder();
+        SerialTimer.Timeout t = timer.newTimeout(r);
+        long deadline = System.nanoTime() + 20 * MS;
+        t.scheduleAt(deadline);
+        assertTrue(r.awaitFirst());
+        assertTrue(r.firstNanos.get() >= deadline);
+        Thread.sleep(30);
+        assertEquals(1, r.count.get());
+        assertFalse(t.isArmed());
+    }
+
+    @Test
+    public void rearmWhileFiled_firesAtTheNewDeadlineOnly() throws Exception {
+        Recorder r = new Recorder();
+        SerialTimer.Timeout t = timer.newTimeout(r);
+        t.schedule(10 * MS);
+        // Let the timer file it in the bucket of the first deadline
+        Thread.sleep(3);
+        long deadline = System.nanoTime() + 40 * MS;
+        t.scheduleAt(deadline);
+        assertTrue(r.awaitFirst());
+        assertTrue("fired " + (deadline - r.firstNanos.get()) / MS + " ms early", r.firstNanos.get() >= deadline);
+        Thread.sleep(30);
+        assertEquals(1, r.count.get());
+    }
+
+    @Test
+    public void cancel_neverFires() throws Exception {
+        Recorder r = new Recorder();
+        SerialTimer.Timeout t = timer.newTimeout(r);
+        t.schedule(5 * MS);
+        t.cancel();
+        assertFalse(t.isArmed());
+        Thread.sleep(40);
+        assertEquals(0, r.count.get());
+    }
+
+    @Test
+    public void cancelThenRearm_fires() throws Exception {
+        Recorder r = new Recorder();
+        SerialTimer.Timeout t = timer.newTimeout(r);
+        t.schedule(5 * MS);
+        Thread.sleep(2);
+        t.cancel();
+        long deadline = System.nanoTime() + 15 * MS;
+        t.scheduleAt(deadline);
+        assertTrue(r.awaitFirst());
+        assertTrue(r.firstNanos.get() >= deadline);
+        Thread.sleep(30);
+        assertEquals(1, r.count.get());
+    }
+
+    @Test
+    public void deadlineSeveralTurnsAway_waitsForIt() throws Exception {
+        Recorder r = new Recorder();
+        SerialTimer.Timeout t = timer.newTimeout(r);
+        // Eight wheel turns: the bucket comes up seven times before the deadline
+        long deadline = System.nanoTime() + 64 * MS;
+        t.scheduleAt(deadline);
+        assertTrue(r.awaitFirst());
+        assertTrue("fired " + (deadline - r.firstNanos.get()) / MS + " ms early", r.firstNanos.get() >= deadline);
+        assertEquals(1, r.count.get());
+    }
+
+    @Test
+    public void rearmFromTask_firesAgain() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch twice = new CountDownLatch(2);
+        final SerialTimer.Timeout[] self = new SerialTimer.Timeout[1];
+        self[0] = timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                if (count.incrementAndGet() == 1) self[0].schedule(5 * MS);
+                twice.countDown();
+            }
+        });
+        self[0].schedule(5 * MS);
+        assertTrue(twice.await(2, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        assertEquals(2, count.get());
+    }
+
+    /**
+     * A producer re-arms around the deadline while the timer expires it, as a read thread does
+     * per chunk. Whatever interleaving happens, the timeout must fire at most once per arm and
+     * never be lost (left marked as scheduled while out of the wheel).
+     *
+     * <p>A fire may still race a re-arm that lands just after it, which is why the idle flush
+     * re-checks the gap under the decoder lock.</p>
+     */
+    @Test
+    public void concurrentRearm_racingExpiry_neverLosesTheTimeout() throws Exception {
+        final AtomicInteger fired = new AtomicInteger();
+        final SerialTimer.Timeout t = timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                fired.incrementAndGet();
+            }
+        });
+        long end = System.nanoTime() + 300 * MS;
+        int arms = 0;
+        while (System.nanoTime() < end) {
+            // Alternate due-now and one tick ahead, so re-arms land on both sides of expiry
+            long deadline = System.nanoTime() + ((arms & 1) == 0 ? 0 : MS);
+            t.scheduleAt(deadline);
+            arms++;
+            if ((arms & 63) == 0) Thread.yield();
+        }
+        assertTrue(fired.get() <= arms);
+
+        // The timeout still works after the race
+        Thread.sleep(20);
+        int before = fired.get();
+        long deadline = System.nanoTime() + 10 * MS;
+        t.scheduleAt(deadline);
+        long wait = System.nanoTime() + 2000 * MS;
+        while (fired.get() == before && System.nanoTime() < wait) Thread.sleep(1);
+        assertEquals(before + 1, fired.get());
+        assertFalse(t.isArmed());
+    }
+
+    @Test
+    public void lagMetrics_recordFiredTimeouts() throws Exception {
+        Recorder r = new Recorder();
+        timer.newTimeout(r).schedule(5 * MS);
+        assertTrue(r.awaitFirst());
+        assertEquals(1, timer.getFiredCount());
+        assertTrue(timer.getMaxLagMs() >= 0.0);
+        timer.resetLagMetrics();
+        assertEquals(0, timer.getFiredCount());
+    }
+
+    private static final class Recorder implements Runnable {
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicLong firstNanos = new AtomicLong();
+        final CountDownLatch first = new CountDownLatch(1);
+
+        @Override
+        public void run() {
+            if (count.incrementAndGet() == 1) {
+                firstNanos.set(System.nanoTime());
+                first.countDown();
+            }
+        }
+
+        boolean awaitFirst() throws InterruptedException {
+            return first.await(2, TimeUnit.SECONDS);
+        }
+    }
+}
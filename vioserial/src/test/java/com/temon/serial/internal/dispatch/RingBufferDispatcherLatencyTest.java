@@ -0,0 +1,153 @@
+package com.temon.serial.internal.dispatch;
+
+import com.temon.serial.core.CallbackDispatcher;
+import com.temon.serial.core.EventDispatcher;
+import com.temon.serial.testing.Benchmarks;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hand-off latency percentiles and producer-side allocation of {@link RingBufferDispatcher}
+ * against {@link DirectDispatcher}, publishing the way {@code SerialConnection} does: through
+ * {@link EventDispatcher#dispatchEvent} for the ring, through a {@link Runnable} per event otherwise.
+ * The ring's consumer needs a core of its own: on a single-core machine its percentiles are
+ * scheduler time slices, not the hand-off.
+ *
+ * <p>{@link MainThreadDispatcher} and {@link BatchingMainThreadDispatcher} post to the Android main
+ * {@code Looper}, which does not run on the JVM (the unit-test {@code android.jar} only returns
+ * default values), so they are measured on a device, not here.</p>
+ */
+public class RingBufferDispatcherLatencyTest {
+
+    private static final int EVENTS = 50000;
+    /** Gap between published events, so latency is the hand-off and not queueing behind a burst. */
+    private static final long PACE_NANOS = 5000L;
+
+    @Test
+    public void direct() {
+        measure("direct", new DirectDispatcher(), false);
+    }
+
+    @Test
+    public void ringBuffer_spin() {
+        ring(RingBufferDispatcher.WaitStrategy.SPIN);
+    }
+
+    @Test
+    public void ringBuffer_yield() {
+        ring(RingBufferDispatcher.WaitStrategy.YIELD);
+    }
+
+    @Test
+    public void ringBuffer_park() {
+        ring(RingBufferDispatcher.WaitStrategy.PARK);
+    }
+
+    private static void ring(RingBufferDispatcher.WaitStrategy waitStrategy) {
+        RingBufferDispatcher dispatcher = new RingBufferDispatcher(1024, waitStrategy);
+        try {
+            long perEvent = measure("ring buffer " + waitStrategy, dispatcher, true);
+            // Publishing copies into a preallocated slot (-1: allocation not measurable here)
+            assertTrue("allocated " + perEvent + " B/event", perEvent <= 0);
+            burst("ring buffer " + waitStrategy, dispatcher);
+            assertEquals(0, dispatcher.getBacklog());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Publish paced events twice (warm-up, then measured) and report latency percentiles.
+     *
+     * @return Bytes allocated per event on the publishing thread, -1 if unknown
+     */
+    private static long measure(String name, CallbackDispatcher dispatcher, boolean events) {
+        publish(dispatcher, events, PACE_NANOS);
+        Result r = publish(dispatcher, events, PACE_NANOS);
+        long[] sorted = Arrays.copyOf(r.handler.latencies, EVENTS);
+        Arrays.sort(sorted);
+        long perEvent = r.allocated < 0 ? -1L : r.allocated / EVENTS;
+        Benchmarks.report(name + ", paced " + PACE_NANOS / 1000 + " us", String.format(Locale.US,
+                "p50 %6.2f us  p99 %6.2f us  p99.9 %7.2f us  max %8.2f us  alloc %s",
+                micros(sorted[EVENTS / 2]), micros(sorted[EVENTS * 99 / 100]), micros(sorted[EVENTS * 999 / 1000]),
+                micros(sorted[EVENTS - 1]), perEvent < 0 ? "n/a" : perEvent + " B/event"));
+        return perEvent;
+    }
+
+    /**
+     * Unpaced: the ring fills and the producer waits for the consumer.
+     */
+    private static void burst(String name, RingBufferDispatcher dispatcher) {
+        long waitsBefore = dispatcher.getFullWaitCount();
+        Result r = publish(dispatcher, true, 0L);
+        Benchmarks.report(name + ", burst", String.format(Locale.US, "%8.2f M events/s  full waits %d",
+                EVENTS / (double) r.nanos * 1e3, dispatcher.getFullWaitCount() - waitsBefore));
+    }
+
+    private static Result publish(final CallbackDispatcher dispatcher, boolean events, long paceNanos) {
+        final LatencyHandler handler = new LatencyHandler();
+        final byte[] data = new byte[64];
+        long allocatedBefore = Benchmarks.allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            final long now = System.nanoTime();
+            if (events) {
+                ((EventDispatcher) dispatcher).dispatchEvent(
+                        handler, EventDispatcher.EVENT_BYTES, 1L, data, data.length, 0, null, now);
+            } else {
+                dispatcher.dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        handler.onEvent(EventDispatcher.EVENT_BYTES, 1L, data, data.length, 0, null, now);
+                    }
+                });
+            }
+            while (System.nanoTime() - now < paceNanos) {
+                // Busy wait: sleeping is far coarser than the gap
+            }
+        }
+        long allocatedAfter = Benchmarks.allocatedBytes();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (handler.done < EVENTS) {
+            assertTrue("consumer stalled at " + handler.done, System.nanoTime() < deadline);
+            Thread.yield();
+        }
+        Result r = new Result();
+        r.handler = handler;
+        r.nanos = System.nanoTime() - start;
+        r.allocated = allocatedBefore < 0 ? -1L : allocatedAfter - allocatedBefore;
+        return r;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static final class Result {
+        LatencyHandler handler;
+        long nanos;
+        long allocated;
+    }
+
+    /**
+     * Records publish-to-callback latency; events arrive on one thread at a time.
+     */
+    private static final class LatencyHandler implements EventDispatcher.EventHandler {
+        final long[] latencies = new long[EVENTS];
+        private int count;
+        volatile int done;
+
+        @Override
+        public void onEvent(int kind, long session, byte[] data, int length, int frameType, Throwable error,
+                            long timestampNanos) {
+            latencies[count++] = System.nanoTime() - timestampNanos;
+            done = count;
+        }
+    }
+}
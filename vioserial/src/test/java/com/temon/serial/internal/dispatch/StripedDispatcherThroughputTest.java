@@ -0,0 +1,164 @@
+package com.temon.serial.internal.dispatch;
+
+import com.temon.serial.core.CallbackDispatcher;
+import com.temon.serial.testing.Benchmarks;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link StripedDispatcher} with 16 ports fed by concurrent producers: per-port order, no overlap
+ * within a port, and fast ports not held up behind slow listeners.
+ */
+public class StripedDispatcherThroughputTest {
+
+    private static final int PORTS = 16;
+    private static final int THREADS = 4;
+    private static final int SLOW_PORTS = 2;
+
+    @Test
+    public void sixteenPorts_keepOrderPerPort() throws Exception {
+        final int perPort = 50000;
+        StripedDispatcher dispatcher = new StripedDispatcher(THREADS);
+        try {
+            Run warmup = new Run(dispatcher, perPort, 0, 0);
+            warmup.await();
+            Run run = new Run(dispatcher, perPort, 0, 0);
+            long nanos = run.await();
+            run.assertOrdered();
+            Benchmarks.report("striped, 16 ports x " + perPort + ", " + THREADS + " threads",
+                    String.format(Locale.US, "%8.2f M callbacks/s", PORTS * (double) perPort / nanos * 1e3));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void slowListeners_doNotDelayOtherPorts() throws Exception {
+        // Two ports sleep 2 ms per callback (~400 ms each); the other 14 do no work
+        StripedDispatcher dispatcher = new StripedDispatcher(THREADS);
+        try {
+            Run run = new Run(dispatcher, 200, SLOW_PORTS, 2);
+            long nanos = run.await();
+            run.assertOrdered();
+            Benchmarks.report("striped, 14 fast ports behind 2 slow", String.format(Locale.US, "%8.1f ms (all: %.1f ms)",
+                    run.fastNanos / 1e6, nanos / 1e6));
+            assertTrue("fast ports took " + run.fastNanos / 1e6 + " ms", run.fastNanos < run.slowNanos / 2);
+            for (int p = SLOW_PORTS; p < PORTS; p++) {
+                // Fast lanes never waited for a slow callback
+                assertTrue(dispatcher.getMaxQueueLatencyMs(port(p)) < 200.0);
+            }
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static String port(int p) {
+        return "/dev/ttyS" + p;
+    }
+
+    /**
+     * One producer thread per port dispatching sequence numbers; listeners check they arrive in
+     * order and that no two callbacks of a port run at once.
+     */
+    private static final class Run {
+        final int perPort;
+        final AtomicInteger[] next = new AtomicInteger[PORTS];
+        final AtomicInteger[] running = new AtomicInteger[PORTS];
+        final AtomicInteger violations = new AtomicInteger();
+        final CountDownLatch fastDone;
+        final CountDownLatch allDone = new CountDownLatch(PORTS);
+        final long start;
+        volatile long fastNanos;
+        volatile long slowNanos;
+
+        Run(StripedDispatcher dispatcher, final int perPort, final int slowPorts, final long sleepMs)
+                throws InterruptedException {
+            this.perPort = perPort;
+            this.fastDone = new CountDownLatch(PORTS - slowPorts);
+            Thread[] producers = new Thread[PORTS];
+            final CountDownLatch go = new CountDownLatch(1);
+            for (int p = 0; p < PORTS; p++) {
+                next[p] = new AtomicInteger();
+                running[p] = new AtomicInteger();
+                final int port = p;
+                final boolean slow = p < slowPorts;
+                final CallbackDispatcher lane = dispatcher.forPort(port(p));
+                producers[p] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            go.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        for (int i = 0; i < perPort; i++) {
+                            lane.dispatch(new Callback(Run.this, port, i, slow ? sleepMs : 0));
+                        }
+                    }
+                });
+                producers[p].start();
+            }
+            start = System.nanoTime();
+            go.countDown();
+            for (Thread t : producers) t.join();
+        }
+
+        void completed(int port, boolean slow) {
+            long elapsed = System.nanoTime() - start;
+            if (slow) {
+                slowNanos = Math.max(slowNanos, elapsed);
+            } else {
+                fastDone.countDown();
+                if (fastDone.getCount() == 0) fastNanos = elapsed;
+            }
+            allDone.countDown();
+        }
+
+        long await() throws InterruptedException {
+            assertTrue("timed out", allDone.await(60, TimeUnit.SECONDS));
+            return System.nanoTime() - start;
+        }
+
+        void assertOrdered() {
+            assertEquals(0, violations.get());
+            for (int p = 0; p < PORTS; p++) assertEquals(perPort, next[p].get());
+        }
+    }
+
+    private static final class Callback implements Runnable {
+        private final Run run;
+        private final int port;
+        private final int seq;
+        private final long sleepMs;
+
+        Callback(Run run, int port, int seq, long sleepMs) {
+            this.run = run;
+            this.port = port;
+            this.seq = seq;
+            this.sleepMs = sleepMs;
+        }
+
+        @Override
+        public void run() {
+            if (run.running[port].incrementAndGet() != 1) run.violations.incrementAndGet();
+            if (!run.next[port].compareAndSet(seq, seq + 1)) run.violations.incrementAndGet();
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            run.running[port].decrementAndGet();
+            if (seq == run.perPort - 1) run.completed(port, sleepMs > 0);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.SerialFraming;
+import com.temon.serial.internal.framing.LengthFieldFrameDecoder.Endian;
+import com.temon.serial.testing.FrameCollector;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DemuxFrameDecoderTest {
+
+    private static final int[] CHUNKS = {0, 1, 2, 3, 7, 64};
+
+    @Test
+    public void checksumFailure_endsRoute() {
+        byte[] bad = {0x01, 0x10, 0x11, 0x00, 0x00};
+        byte[] stream = SpecFrameDecoderTest.concat(bad, new byte[] {0x02, 0x20, 0x21}, new byte[] {0x02, 0x30, 0x31});
+        for (int chunk : CHUNKS) {
+            FrameCollector frames = FrameCollector.feed(crcDemux(), stream, chunk);
+            assertEquals("chunk " + chunk, 1, frames.checksumFailures);
+            assertEquals("chunk " + chunk, Arrays.asList(2, 2), frames.types);
+            assertArrayEquals(new byte[] {0x02, 0x30, 0x31}, frames.frames.get(1));
+        }
+    }
+
+    @Test
+    public void validChecksum_stillRouted() {
+        byte[] good = {0x01, 0x10, 0x11, 0, 0};
+        int crc = Checksum.CRC16_MODBUS.compute(good, 0, 3);
+        good[3] = (byte) crc;
+        good[4] = (byte) (crc >>> 8);
+        byte[] stream = SpecFrameDecoderTest.concat(new byte[] {0x02, 0x20, 0x21}, good, new byte[] {0x02, 0x30, 0x31});
+        for (int chunk : CHUNKS) {
+            FrameCollector frames = FrameCollector.feed(crcDemux(), stream, chunk);
+            assertEquals("chunk " + chunk, Arrays.asList(2, 1, 2), frames.types);
+        }
+    }
+
+    @Test
+    public void droppedFrame_endsRoute() {
+        // Length 0x7F exceeds the type-1 decoder's maxFrameLength, so it drops the frame
+        byte[] stream = {0x01, 0x7F, 0x02, 0x20, 0x21, 0x01, 0x01, 0x55, 0x02, 0x30, 0x31};
+        for (int chunk : CHUNKS) {
+            FrameDecoder demux = SerialFraming.demux()
+                    .route(0x01, 1, new LengthFieldFrameDecoder(1, 1, Endian.BIG, 0, 0, 16))
+                    .route(0x02, 2, SerialFraming.fixedLength(3))
+                    .build();
+            FrameCollector frames = FrameCollector.feed(demux, stream, chunk);
+            assertEquals("chunk " + chunk, Arrays.asList(
+                    Arrays.toString(new byte[] {0x02, 0x20, 0x21}),
+                    Arrays.toString(new byte[] {0x01, 0x01, 0x55}),
+                    Arrays.toString(new byte[] {0x02, 0x30, 0x31})), frames.asStrings());
+            assertEquals(1L, ((DemuxFrameDecoder) demux).getDroppedCount());
+        }
+    }
+
+    @Test
+    public void mixedRoutes_independentOfChunking() {
+        Random random = new Random(29);
+        StringBuilder expected = new StringBuilder();
+        byte[] stream = new byte[0];
+        for (int n = 0; n < 500; n++) {
+            byte[] frame;
+            switch (random.nextInt(3)) {
+                case 0:
+                    frame = new byte[] {0x02, (byte) random.nextInt(256), (byte) random.nextInt(256)};
+                    break;
+                case 1:
+                    frame = new byte[2 + random.nextInt(40)];
+                    frame[0] = 0x03;
+                    for (int i = 1; i < frame.length; i++) frame[i] = (byte) (0x20 + random.nextInt(0x50));
+                    frame[frame.length - 1] = '\n';
+                    break;
+                default:
+                    frame = new byte[2 + random.nextInt(20)];
+                    frame[0] = 0x04;
+                    frame[1] = (byte) (frame.length - 2);
+                    for (int i = 2; i < frame.length; i++) frame[i] = (byte) random.nextInt(256);
+                    break;
+            }
+            stream = SpecFrameDecoderTest.concat(stream, frame);
+            expected.append(frame[0]);
+        }
+        for (int chunk : CHUNKS) {
+            FrameCollector frames = FrameCollector.feed(mixedDemux(), stream, chunk);
+            StringBuilder types = new StringBuilder();
+            for (int type : frames.types) types.append(type);
+            assertEquals("chunk " + chunk, expected.toString(), types.toString());
+        }
+    }
+
+    @Test
+    public void longDelimitedFrame() {
+        byte[] stream = new byte[200000];
+        Arrays.fill(stream, (byte) 'x');
+        stream[0] = 0x03;
+        stream[stream.length - 1] = '\n';
+        FrameDecoder demux = SerialFraming.demux()
+                .route(0x03, 3, SerialFraming.delimiter(new byte[] {'\n'}, true))
+                .maxFrameLength(stream.length)
+                .build();
+        FrameCollector frames = FrameCollector.feed(demux, stream, 1);
+        assertEquals(1, frames.frames.size());
+        assertEquals(stream.length, frames.frames.get(0).length);
+    }
+
+    private static FrameDecoder crcDemux() {
+        return SerialFraming.demux()
+                .route(0x01, 1, SerialFraming.pipeline(SerialFraming.fixedLength(5))
+                        .then(SerialFraming.checksum(Checksum.CRC16_MODBUS, Endian.LITTLE, 0, false))
+                        .build())
+                .route(0x02, 2, SerialFraming.fixedLength(3))
+                .build();
+    }
+
+    private static FrameDecoder mixedDemux() {
+        return SerialFraming.demux()
+                .route(0x02, 2, SerialFraming.fixedLength(3))
+                .route(0x03, 3, SerialFraming.delimiter(new byte[] {'\n'}, true))
+                .route(0x04, 4, new LengthFieldFrameDecoder(1, 1, Endian.BIG, 0, 0, 64))
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.SerialClock;
+import com.temon.serial.core.SerialFraming;
+import com.temon.serial.testing.FrameCollector;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ModbusRtuFrameDecoderTest {
+
+    private static final int BAUD = 9600;
+    // 11-bit characters at 9600 baud
+    private static final long CHAR_NANOS = 11 * 1000000000L / BAUD;
+    private static final long MS = 1000000L;
+
+    private static final class FakeClock implements SerialClock {
+        long now;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    }
+
+    @Test
+    public void clock_silenceEndsUnknownFunction() {
+        FakeClock clock = new FakeClock();
+        ModbusRtuFrameDecoder decoder = decoder(clock);
+        byte[] first = frame(0x01, 0x41, 0x10, 0x11);
+        byte[] second = frame(0x01, 0x41, 0x20, 0x21);
+        FrameCollector frames = new FrameCollector();
+
+        clock.now = 6 * CHAR_NANOS;
+        decoder.feed(first, 0, first.length, frames);
+        assertEquals(0, frames.frames.size());
+        clock.now += 10 * MS + 6 * CHAR_NANOS;
+        decoder.feed(second, 0, second.length, frames);
+        assertEquals(1, frames.frames.size());
+        decoder.flush(frames);
+
+        assertEquals(2, frames.frames.size());
+        assertArrayEquals(first, frames.frames.get(0));
+        assertArrayEquals(second, frames.frames.get(1));
+    }
+
+    @Test
+    public void readTimestamp_backlogIsNotSilence() {
+        // Both halves were read back to back, but the second is decoded 50 ms later
+        FakeClock clock = new FakeClock();
+        byte[] frame = frame(0x01, 0x41, 0x10, 0x11);
+
+        ModbusRtuFrameDecoder late = decoder(clock);
+        FrameCollector lateFrames = new FrameCollector();
+        clock.now = 3 * CHAR_NANOS;
+        late.feed(frame, 0, 3, lateFrames);
+        clock.now = 50 * MS;
+        late.feed(frame, 3, 3, lateFrames);
+        late.flush(lateFrames);
+        assertEquals(0, lateFrames.frames.size());
+
+        ModbusRtuFrameDecoder timestamped = decoder(clock);
+        FrameCollector frames = new FrameCollector();
+        clock.now = 50 * MS;
+        timestamped.feed(frame, 0, 3, 3 * CHAR_NANOS, frames);
+        timestamped.feed(frame, 3, 3, 6 * CHAR_NANOS, frames);
+        timestamped.flush(frames);
+        assertEquals(1, frames.frames.size());
+        assertArrayEquals(frame, frames.frames.get(0));
+    }
+
+    @Test
+    public void readTimestamp_gapEndsFrame() {
+        ModbusRtuFrameDecoder decoder = decoder(new FakeClock());
+        byte[] first = frame(0x01, 0x41, 0x10, 0x11);
+        byte[] second = frame(0x02, 0x41, 0x20);
+        FrameCollector frames = new FrameCollector();
+
+        decoder.feed(first, 0, first.length, 6 * CHAR_NANOS, frames);
+        decoder.poll(6 * CHAR_NANOS + 3 * CHAR_NANOS, frames);
+        assertEquals(0, frames.frames.size());
+        decoder.poll(6 * CHAR_NANOS + decoder.getSilenceNanos(), frames);
+        assertEquals(1, frames.frames.size());
+        decoder.feed(second, 0, second.length, 20 * MS, frames);
+        decoder.flush(frames);
+
+        assertEquals(Arrays.asList(Arrays.toString(first), Arrays.toString(second)), frames.asStrings());
+    }
+
+    @Test
+    public void knownFunction_emitsWithoutSilence() {
+        ModbusRtuFrameDecoder decoder = decoder(new FakeClock());
+        byte[] response = frame(0x01, 0x03, 0x02, 0x00, 0x2A);
+        byte[] bad = frame(0x01, 0x06, 0x00, 0x01, 0x00, 0x03);
+        bad[bad.length - 1] ^= 1;
+        FrameCollector frames = new FrameCollector();
+
+        decoder.feed(response, 0, response.length, CHAR_NANOS * response.length, frames);
+        assertEquals(1, frames.frames.size());
+        decoder.feed(bad, 0, bad.length, CHAR_NANOS * (response.length + bad.length), frames);
+
+        assertEquals(1, frames.frames.size());
+        assertEquals(1, frames.checksumFailures);
+        assertEquals(1L, decoder.getCrcErrorCount());
+    }
+
+    private static ModbusRtuFrameDecoder decoder(SerialClock clock) {
+        return (ModbusRtuFrameDecoder) SerialFraming.modbusRtuBuilder().baudRate(BAUD).clock(clock).build();
+    }
+
+    /** Bytes followed by their CRC-16/MODBUS, low byte first. */
+    private static byte[] frame(int... bytes) {
+        byte[] f = new byte[bytes.length + 2];
+        for (int i = 0; i < bytes.length; i++) f[i] = (byte) bytes[i];
+        int crc = Checksum.CRC16_MODBUS.compute(f, 0, bytes.length);
+        f[bytes.length] = (byte) crc;
+        f[bytes.length + 1] = (byte) (crc >>> 8);
+        return f;
+    }
+}
@@ -0,0 +1,58 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.SerialFraming;
+import com.temon.serial.testing.FrameCollector;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PipelineFrameDecoderTest {
+
+    /** Emits each fed chunk as one frame without copying, as the FrameDecoder contract allows. */
+    private static final class PassThroughDecoder implements FrameDecoder {
+        @Override
+        public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+            if (offset == 0) {
+                callback.onFrame(data, length);
+            } else {
+                callback.onFrame(Arrays.copyOfRange(data, offset, offset + length), length);
+            }
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+
+    @Test
+    public void inPlaceStage_doesNotRewriteFramerBuffer() {
+        FrameDecoder pipeline = SerialFraming.pipeline(new PassThroughDecoder())
+                .then(SerialFraming.unescape((byte) 0x7D, 0x20))
+                .build();
+        byte[] read = {0x01, 0x7D, 0x5E, 0x02};
+        FrameCollector frames = new FrameCollector();
+        pipeline.feed(read, 0, read.length, frames);
+
+        assertEquals(1, frames.frames.size());
+        assertArrayEquals(new byte[] {0x01, 0x7E, 0x02}, frames.frames.get(0));
+        assertArrayEquals(new byte[] {0x01, 0x7D, 0x5E, 0x02}, read);
+    }
+
+    @Test
+    public void inPlaceStage_builtInFramer() {
+        FrameDecoder pipeline = SerialFraming.pipeline(SerialFraming.delimiter(new byte[] {0x7E}, false))
+                .then(SerialFraming.unescape((byte) 0x7D, 0x20))
+                .build();
+        byte[] stream = {0x01, 0x7D, 0x5E, 0x7E, 0x7D, 0x5D, 0x02, 0x7E};
+        FrameCollector frames = FrameCollector.feed(pipeline, stream, 3);
+
+        assertEquals(2, frames.frames.size());
+        assertArrayEquals(new byte[] {0x01, 0x7E}, frames.frames.get(0));
+        assertArrayEquals(new byte[] {0x7D, 0x02}, frames.frames.get(1));
+    }
+}
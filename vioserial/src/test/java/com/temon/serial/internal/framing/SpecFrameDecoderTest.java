@@ -0,0 +1,304 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.FrameSpec;
+import com.temon.serial.core.SerialFraming;
+import com.temon.serial.internal.framing.LengthFieldFrameDecoder.Endian;
+import com.temon.serial.testing.FrameCollector;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Conformance of decoders compiled from a {@link FrameSpec}: the same streams through the compiled
+ * decoder and the hand-written {@link LengthFieldFrameDecoder} must give the same frames, for
+ * every chunking of the input.
+ */
+public class SpecFrameDecoderTest {
+
+    private static final int[] CHUNKS = {0, 1, 2, 3, 7, 64};
+
+    @Test
+    public void payloadLength_matchesLengthFieldDecoder() {
+        byte[] stream = lengthFieldStream(new Random(1), 200, 2, 1, Endian.BIG, 0, null);
+        FrameSpec spec = FrameSpec.builder()
+                .header(2)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD)
+                .build();
+        assertSameFrames(stream, spec, 2, 1, Endian.BIG, 0, 0);
+    }
+
+    @Test
+    public void wholeFrameLittleEndian_matchesLengthFieldDecoder() {
+        Random random = new Random(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 200; i++) {
+            byte[] payload = randomBytes(random, random.nextInt(300));
+            int whole = 3 + payload.length;
+            out.write(random.nextInt(256));
+            out.write(whole & 0xFF);
+            out.write(whole >>> 8);
+            out.write(payload, 0, payload.length);
+        }
+        FrameSpec spec = FrameSpec.builder()
+                .header(1)
+                .lengthField(2, Endian.LITTLE, FrameSpec.LengthMode.WHOLE_FRAME)
+                .build();
+        // LengthFieldFrameDecoder: frame = offset + field + value + adjustment
+        assertSameFrames(out.toByteArray(), spec, 1, 2, Endian.LITTLE, -3, 0);
+    }
+
+    @Test
+    public void payloadAndChecksum_matchesLengthFieldDecoder() {
+        byte[] stream = lengthFieldStream(new Random(3), 200, 1, 1, Endian.BIG, 2, Checksum.CRC16_MODBUS);
+        FrameSpec spec = FrameSpec.builder()
+                .header(1)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD_AND_CHECKSUM)
+                .checksum(Checksum.CRC16_MODBUS, Endian.LITTLE)
+                .build();
+        assertSameFrames(stream, spec, 1, 1, Endian.BIG, 0, 0);
+    }
+
+    @Test
+    public void emitPayload_matchesStrippedLengthFieldDecoder() {
+        byte[] stream = lengthFieldStream(new Random(4), 200, 3, 2, Endian.BIG, 0, null);
+        FrameSpec spec = FrameSpec.builder()
+                .header(3)
+                .lengthField(2, Endian.BIG, FrameSpec.LengthMode.PAYLOAD)
+                .emit(FrameSpec.Emit.PAYLOAD)
+                .build();
+        assertSameFrames(stream, spec, 3, 2, Endian.BIG, 0, 5);
+    }
+
+    @Test
+    public void startOfFrame_resyncsAfterGarbage() {
+        FrameSpec spec = FrameSpec.builder()
+                .startOfFrame((byte) 0xAA, (byte) 0x55)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD)
+                .checksum(Checksum.XOR8, Endian.BIG)
+                .build();
+        byte[] good1 = sofFrame(new byte[] {1, 2, 3});
+        byte[] good2 = sofFrame(new byte[] {4});
+        byte[] stream = concat(new byte[] {0x11, (byte) 0xAA, 0x22}, good1, new byte[] {0x33}, good2);
+        for (int chunk : CHUNKS) {
+            SpecFrameDecoder decoder = new SpecFrameDecoder(spec);
+            FrameCollector c = FrameCollector.feed(decoder, stream, chunk);
+            assertEquals("chunk " + chunk, strings(good1, good2), c.asStrings());
+            assertTrue(decoder.getDroppedCount() > 0);
+            assertEquals(0, decoder.getBufferedBytes());
+        }
+    }
+
+    @Test
+    public void checksumFailure_isReportedAndNextFrameDecoded() {
+        FrameSpec spec = FrameSpec.builder()
+                .startOfFrame((byte) 0xAA, (byte) 0x55)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD)
+                .checksum(Checksum.XOR8, Endian.BIG)
+                .build();
+        byte[] bad = sofFrame(new byte[] {9, 9});
+        bad[bad.length - 1] ^= 0x01;
+        byte[] good = sofFrame(new byte[] {5, 6});
+        for (int chunk : CHUNKS) {
+            SpecFrameDecoder decoder = new SpecFrameDecoder(spec);
+            FrameCollector c = FrameCollector.feed(decoder, concat(bad, good), chunk);
+            assertEquals("chunk " + chunk, strings(good), c.asStrings());
+            assertEquals(1, c.checksumFailures);
+        }
+    }
+
+    @Test
+    public void endOfFrame_delimitsPayload() {
+        FrameSpec spec = FrameSpec.builder()
+                .startOfFrame((byte) 0x02)
+                .endOfFrame((byte) 0x0D, (byte) 0x0A)
+                .emit(FrameSpec.Emit.PAYLOAD)
+                .build();
+        byte[] stream = concat(new byte[] {0x02, 'a', 'b', 0x0D, 0x0A}, new byte[] {0x02, 'c', 0x0D, 0x0A});
+        for (int chunk : CHUNKS) {
+            FrameCollector c = FrameCollector.feed(new SpecFrameDecoder(spec), stream, chunk);
+            assertEquals("chunk " + chunk, strings(new byte[] {'a', 'b'}, new byte[] {'c'}), c.asStrings());
+        }
+    }
+
+    @Test
+    public void escapedLengthField_unescapesAcrossChunks() {
+        FrameSpec spec = FrameSpec.builder()
+                .startOfFrame((byte) 0x7E)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD)
+                .escape((byte) 0x7D, 0x20)
+                .emit(FrameSpec.Emit.PAYLOAD)
+                .build();
+        byte[] payload = {0x7E, 0x7D, 0x01};
+        byte[] stream = {0x7E, 0x03, 0x7D, 0x5E, 0x7D, 0x5D, 0x01};
+        for (int chunk : CHUNKS) {
+            FrameCollector c = FrameCollector.feed(new SpecFrameDecoder(spec), stream, chunk);
+            assertEquals("chunk " + chunk, strings(payload), c.asStrings());
+        }
+    }
+
+    /**
+     * HDLC-style layout: the 0x7E flag both opens and closes a frame.
+     */
+    @Test
+    public void sharedFlag_escapedDelimited() {
+        FrameSpec spec = FrameSpec.builder()
+                .startOfFrame((byte) 0x7E)
+                .header(1)
+                .endOfFrame((byte) 0x7E)
+                .escape((byte) 0x7D, 0x20)
+                .checksum(Checksum.CRC16_CCITT, Endian.BIG)
+                .build();
+        byte[][] bodies = {{1, 2, 3}, {4, 0x7E, 5}, {7, 0x7D}};
+        List<String> expected = new ArrayList<>();
+        ByteArrayOutputStream separate = new ByteArrayOutputStream();
+        ByteArrayOutputStream shared = new ByteArrayOutputStream();
+        for (int i = 0; i < bodies.length; i++) {
+            byte[] raw = withCrc16(bodies[i]);
+            expected.add(Arrays.toString(concat(new byte[] {0x7E}, raw, new byte[] {0x7E})));
+            byte[] wire = hdlc(raw);
+            separate.write(wire, 0, wire.length);
+            // Back-to-back frames share the flag between them
+            shared.write(wire, 0, i < bodies.length - 1 ? wire.length - 1 : wire.length);
+        }
+        byte[] idle = concat(new byte[] {0x7E, 0x7E, 0x7E}, separate.toByteArray());
+        for (byte[] stream : new byte[][] {separate.toByteArray(), shared.toByteArray(), idle}) {
+            for (int chunk : CHUNKS) {
+                SpecFrameDecoder decoder = new SpecFrameDecoder(spec);
+                FrameCollector c = FrameCollector.feed(decoder, stream, chunk);
+                assertEquals("chunk " + chunk, expected, c.asStrings());
+                assertEquals(0, decoder.getDroppedCount());
+            }
+        }
+    }
+
+    @Test
+    public void sharedFlag_unescapedDelimited() {
+        FrameSpec spec = FrameSpec.builder()
+                .startOfFrame((byte) 0x7E)
+                .endOfFrame((byte) 0x7E)
+                .emit(FrameSpec.Emit.PAYLOAD)
+                .build();
+        byte[] stream = {0x7E, 1, 2, 0x7E, 3, 0x7E, 0x7E, 4, 5, 0x7E};
+        for (int chunk : CHUNKS) {
+            SpecFrameDecoder decoder = new SpecFrameDecoder(spec);
+            FrameCollector c = FrameCollector.feed(decoder, stream, chunk);
+            assertEquals("chunk " + chunk, strings(new byte[] {1, 2}, new byte[] {3}, new byte[] {4, 5}), c.asStrings());
+            assertEquals(0, decoder.getDroppedCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sharedFlag_multiByteRejected() {
+        FrameSpec.builder()
+                .startOfFrame((byte) 0x7E, (byte) 0x7E)
+                .endOfFrame((byte) 0x7E, (byte) 0x7E)
+                .build();
+    }
+
+    // --- helpers ---
+
+    private static void assertSameFrames(byte[] stream, FrameSpec spec, int lengthFieldOffset, int lengthFieldLength,
+                                         Endian endian, int lengthAdjustment, int strip) {
+        List<String> reference = FrameCollector.feed(new LengthFieldFrameDecoder(
+                lengthFieldOffset, lengthFieldLength, endian, lengthAdjustment, strip, 1 << 20), stream, 0).asStrings();
+        assertTrue(reference.size() > 0);
+        for (int chunk : CHUNKS) {
+            FrameDecoder compiled = SerialFraming.compile(spec);
+            assertEquals("chunk " + chunk, reference, FrameCollector.feed(compiled, stream, chunk).asStrings());
+            FrameDecoder handWritten = new LengthFieldFrameDecoder(
+                    lengthFieldOffset, lengthFieldLength, endian, lengthAdjustment, strip, 1 << 20);
+            assertEquals("chunk " + chunk, reference, FrameCollector.feed(handWritten, stream, chunk).asStrings());
+        }
+    }
+
+    /**
+     * {@code frames} frames of {@code [header][length][payload][checksum]}, where the big-endian
+     * length counts payload plus checksum.
+     */
+    static byte[] lengthFieldStream(Random random, int frames, int header, int lengthBytes, Endian endian,
+                                    int checksumWidth, Checksum checksum) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int maxPayload = lengthBytes == 1 ? 255 - checksumWidth : 1000;
+        for (int i = 0; i < frames; i++) {
+            byte[] payload = randomBytes(random, random.nextInt(maxPayload + 1));
+            byte[] frame = new byte[header + lengthBytes + payload.length + checksumWidth];
+            for (int h = 0; h < header; h++) frame[h] = (byte) random.nextInt(256);
+            int value = payload.length + checksumWidth;
+            for (int k = 0; k < lengthBytes; k++) {
+                int shift = endian == Endian.BIG ? 8 * (lengthBytes - 1 - k) : 8 * k;
+                frame[header + k] = (byte) (value >>> shift);
+            }
+            System.arraycopy(payload, 0, frame, header + lengthBytes, payload.length);
+            if (checksum != null) {
+                // Little-endian, covering everything before it
+                int crc = checksum.compute(frame, 0, frame.length - checksumWidth);
+                for (int k = 0; k < checksumWidth; k++) {
+                    frame[frame.length - checksumWidth + k] = (byte) (crc >>> (8 * k));
+                }
+            }
+            out.write(frame, 0, frame.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] sofFrame(byte[] payload) {
+        byte[] frame = new byte[3 + payload.length + 1];
+        frame[0] = (byte) 0xAA;
+        frame[1] = 0x55;
+        frame[2] = (byte) payload.length;
+        System.arraycopy(payload, 0, frame, 3, payload.length);
+        frame[frame.length - 1] = (byte) Checksum.XOR8.compute(frame, 2, frame.length - 3);
+        return frame;
+    }
+
+    private static byte[] withCrc16(byte[] body) {
+        int crc = Checksum.CRC16_CCITT.compute(body, 0, body.length);
+        byte[] raw = Arrays.copyOf(body, body.length + 2);
+        raw[body.length] = (byte) (crc >>> 8);
+        raw[body.length + 1] = (byte) crc;
+        return raw;
+    }
+
+    private static byte[] hdlc(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x7E);
+        for (byte b : raw) {
+            if (b == 0x7E || b == 0x7D) {
+                out.write(0x7D);
+                out.write(b ^ 0x20);
+            } else {
+                out.write(b);
+            }
+        }
+        out.write(0x7E);
+        return out.toByteArray();
+    }
+
+    static byte[] randomBytes(Random random, int n) {
+        byte[] b = new byte[n];
+        random.nextBytes(b);
+        return b;
+    }
+
+    static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] p : parts) out.write(p, 0, p.length);
+        return out.toByteArray();
+    }
+
+    private static List<String> strings(byte[]... frames) {
+        List<String> out = new ArrayList<>();
+        for (byte[] f : frames) out.add(Arrays.toString(f));
+        return out;
+    }
+}
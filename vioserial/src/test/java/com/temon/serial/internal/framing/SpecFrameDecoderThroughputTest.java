@@ -0,0 +1,91 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.codec.Checksum;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.FrameSpec;
+import com.temon.serial.core.SerialFraming;
+import com.temon.serial.internal.framing.LengthFieldFrameDecoder.Endian;
+import com.temon.serial.testing.Benchmarks;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Throughput of compiled {@link FrameSpec} decoders against the hand-written
+ * {@link LengthFieldFrameDecoder} on identical input, fed in read-sized chunks.
+ */
+public class SpecFrameDecoderThroughputTest {
+
+    private static final int CHUNK = 512;
+
+    @Test
+    public void lengthField_compiledVsHandWritten() {
+        byte[] stream = SpecFrameDecoderTest.lengthFieldStream(new Random(10), 20000, 2, 1, Endian.BIG, 0, null);
+        FrameSpec spec = FrameSpec.builder()
+                .header(2)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD)
+                .build();
+        compare("length field", stream, spec, new LengthFieldFrameDecoder(2, 1, Endian.BIG, 0, 0, 4096), null);
+    }
+
+    @Test
+    public void lengthFieldWithCrc_compiledVsHandWritten() {
+        byte[] stream = SpecFrameDecoderTest.lengthFieldStream(
+                new Random(11), 20000, 1, 1, Endian.BIG, 2, Checksum.CRC16_MODBUS);
+        FrameSpec spec = FrameSpec.builder()
+                .header(1)
+                .lengthField(1, Endian.BIG, FrameSpec.LengthMode.PAYLOAD_AND_CHECKSUM)
+                .checksum(Checksum.CRC16_MODBUS, Endian.LITTLE)
+                .build();
+        // The hand-written decoder does not check the CRC, so its listener does
+        compare("length field + CRC16", stream, spec, new LengthFieldFrameDecoder(1, 1, Endian.BIG, 0, 0, 4096),
+                Checksum.CRC16_MODBUS);
+    }
+
+    private static void compare(String name, final byte[] stream, FrameSpec spec, final FrameDecoder handWritten,
+                                final Checksum listenerChecksum) {
+        final FrameDecoder compiled = SerialFraming.compile(spec);
+        final long[] frames = new long[2];
+        long compiledNanos = Benchmarks.bestOf(20, 10, new Runnable() {
+            @Override
+            public void run() {
+                frames[0] = decodeAll(compiled, stream, null);
+            }
+        });
+        long handNanos = Benchmarks.bestOf(20, 10, new Runnable() {
+            @Override
+            public void run() {
+                frames[1] = decodeAll(handWritten, stream, listenerChecksum);
+            }
+        });
+        assertEquals(frames[1], frames[0]);
+        Benchmarks.report(name + " compiled", String.format(Locale.US, "%8.1f MB/s",
+                Benchmarks.megabytesPerSecond(stream.length, compiledNanos)));
+        Benchmarks.report(name + " LengthFieldFrameDecoder" + (listenerChecksum != null ? " + listener" : ""), String.format(Locale.US, "%8.1f MB/s",
+                Benchmarks.megabytesPerSecond(stream.length, handNanos)));
+    }
+
+    private static long decodeAll(FrameDecoder decoder, byte[] stream, final Checksum checksum) {
+        decoder.reset();
+        final long[] count = new long[1];
+        FrameDecoder.FrameCallback callback = new FrameDecoder.FrameCallback() {
+            @Override
+            public void onFrame(byte[] frameBytes, int length) {
+                if (checksum != null) {
+                    int expected = checksum.compute(frameBytes, 0, length - 2);
+                    int actual = (frameBytes[length - 2] & 0xFF) | (frameBytes[length - 1] & 0xFF) << 8;
+                    if (expected != actual) return;
+                }
+                count[0]++;
+            }
+        };
+        for (int off = 0; off < stream.length; off += CHUNK) {
+            decoder.feed(stream, off, Math.min(CHUNK, stream.length - off), callback);
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,290 @@
+package com.temon.serial.internal.framing;
+
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.FrameEncoder;
+import com.temon.serial.core.SerialFraming;
+import com.temon.serial.testing.Benchmarks;
+import com.temon.serial.testing.FrameCollector;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Throughput of the SLIP / COBS / HDLC codecs against straightforward implementations (buffer
+ * until the delimiter, then unescape in a second pass; one stream write per encoded byte).
+ */
+public class StuffingCodecThroughputTest {
+
+    private static final int CHUNK = 512;
+    private static final int FRAMES = 5000;
+
+    @Test
+    public void slip() {
+        compare("SLIP", SerialFraming.slipEncoder(), new NaiveStuffingEncoder(0xC0, 0xDB, 0xDC, 0xDD),
+                SerialFraming.slip(4096), new NaiveStuffingDecoder(0xC0, 0xDB, false));
+    }
+
+    @Test
+    public void hdlc() {
+        compare("HDLC", SerialFraming.hdlcEncoder(), new NaiveStuffingEncoder(0x7E, 0x7D, 0x7E ^ 0x20, 0x7D ^ 0x20),
+                SerialFraming.hdlc(4096), new NaiveStuffingDecoder(0x7E, 0x7D, true));
+    }
+
+    @Test
+    public void cobs() {
+        compare("COBS", SerialFraming.cobsEncoder(), new NaiveCobsEncoder(),
+                SerialFraming.cobs(4096), new NaiveCobsDecoder());
+    }
+
+    private static void compare(String name, final FrameEncoder encoder, final NaiveEncoder naiveEncoder,
+                                final FrameDecoder decoder, final FrameDecoder naiveDecoder) {
+        final byte[][] payloads = payloads(new Random(27));
+        long payloadBytes = 0;
+        for (byte[] p : payloads) payloadBytes += p.length;
+
+        // Both encoders produce the same wire bytes, both decoders the original payloads
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        for (byte[] p : payloads) {
+            byte[] encoded = encoder.encode(p, 0, p.length);
+            assertArrayEquals(encoded, naiveEncoder.encode(p));
+            wire.write(encoded, 0, encoded.length);
+        }
+        final byte[] stream = wire.toByteArray();
+        FrameCollector decoded = FrameCollector.feed(decoder, stream, CHUNK);
+        FrameCollector naiveDecoded = FrameCollector.feed(naiveDecoder, stream, CHUNK);
+        assertEquals(payloads.length, decoded.frames.size());
+        assertEquals(decoded.asStrings(), naiveDecoded.asStrings());
+        for (int i = 0; i < payloads.length; i++) assertArrayEquals(payloads[i], decoded.frames.get(i));
+
+        final byte[] dst = new byte[encoder.maxEncodedLength(4096)];
+        long encodeNanos = Benchmarks.bestOf(20, 10, new Runnable() {
+            @Override
+            public void run() {
+                for (byte[] p : payloads) encoder.encode(p, 0, p.length, dst, 0);
+            }
+        });
+        long naiveEncodeNanos = Benchmarks.bestOf(20, 10, new Runnable() {
+            @Override
+            public void run() {
+                for (byte[] p : payloads) naiveEncoder.encode(p);
+            }
+        });
+        long decodeNanos = Benchmarks.bestOf(20, 10, new Runnable() {
+            @Override
+            public void run() {
+                decodeAll(decoder, stream);
+            }
+        });
+        long naiveDecodeNanos = Benchmarks.bestOf(20, 10, new Runnable() {
+            @Override
+            public void run() {
+                decodeAll(naiveDecoder, stream);
+            }
+        });
+        Benchmarks.report(name + " encode", mbps(payloadBytes, encodeNanos));
+        Benchmarks.report(name + " encode, naive", mbps(payloadBytes, naiveEncodeNanos));
+        Benchmarks.report(name + " decode", mbps(stream.length, decodeNanos));
+        Benchmarks.report(name + " decode, naive", mbps(stream.length, naiveDecodeNanos));
+    }
+
+    private static String mbps(long bytes, long nanos) {
+        return String.format(Locale.US, "%8.1f MB/s", Benchmarks.megabytesPerSecond(bytes, nanos));
+    }
+
+    private static long decodeAll(FrameDecoder decoder, byte[] stream) {
+        decoder.reset();
+        final long[] count = new long[1];
+        FrameDecoder.FrameCallback callback = new FrameDecoder.FrameCallback() {
+            @Override
+            public void onFrame(byte[] frameBytes, int length) {
+                count[0]++;
+            }
+        };
+        for (int off = 0; off < stream.length; off += CHUNK) {
+            decoder.feed(stream, off, Math.min(CHUNK, stream.length - off), callback);
+        }
+        return count[0];
+    }
+
+    /**
+     * Random payloads of 16..256 bytes; one byte in eight is a flag, escape or zero.
+     */
+    private static byte[][] payloads(Random random) {
+        byte[] special = {(byte) 0xC0, (byte) 0xDB, 0x7E, 0x7D, 0x00};
+        byte[][] out = new byte[FRAMES][];
+        for (int i = 0; i < FRAMES; i++) {
+            byte[] p = new byte[16 + random.nextInt(241)];
+            for (int j = 0; j < p.length; j++) {
+                p[j] = random.nextInt(8) == 0 ? special[random.nextInt(special.length)] : (byte) random.nextInt(256);
+            }
+            out[i] = p;
+        }
+        return out;
+    }
+
+    private interface NaiveEncoder {
+        byte[] encode(byte[] payload);
+    }
+
+    private static final class NaiveStuffingEncoder implements NaiveEncoder {
+        private final int flag;
+        private final int escape;
+        private final int escapedFlag;
+        private final int escapedEscape;
+
+        NaiveStuffingEncoder(int flag, int escape, int escapedFlag, int escapedEscape) {
+            this.flag = flag;
+            this.escape = escape;
+            this.escapedFlag = escapedFlag;
+            this.escapedEscape = escapedEscape;
+        }
+
+        @Override
+        public byte[] encode(byte[] payload) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(flag);
+            for (byte b : payload) {
+                int v = b & 0xFF;
+                if (v == flag) {
+                    out.write(escape);
+                    out.write(escapedFlag);
+                } else if (v == escape) {
+                    out.write(escape);
+                    out.write(escapedEscape);
+                } else {
+                    out.write(v);
+                }
+            }
+            out.write(flag);
+            return out.toByteArray();
+        }
+    }
+
+    private static final class NaiveCobsEncoder implements NaiveEncoder {
+        @Override
+        public byte[] encode(byte[] payload) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream block = new ByteArrayOutputStream();
+            for (byte b : payload) {
+                if (b == 0) {
+                    out.write(block.size() + 1);
+                    out.write(block.toByteArray(), 0, block.size());
+                    block.reset();
+                } else {
+                    block.write(b);
+                    if (block.size() == 254) {
+                        out.write(0xFF);
+                        out.write(block.toByteArray(), 0, block.size());
+                        block.reset();
+                    }
+                }
+            }
+            out.write(block.size() + 1);
+            out.write(block.toByteArray(), 0, block.size());
+            out.write(0);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Buffers until a flag, then unescapes the buffered frame in a second pass.
+     */
+    private static final class NaiveStuffingDecoder implements FrameDecoder {
+        private final int flag;
+        private final int escape;
+        private final boolean xor;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        NaiveStuffingDecoder(int flag, int escape, boolean xor) {
+            this.flag = flag;
+            this.escape = escape;
+            this.xor = xor;
+        }
+
+        @Override
+        public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+            for (int i = offset; i < offset + length; i++) {
+                if ((data[i] & 0xFF) != flag) {
+                    pending.write(data[i]);
+                    continue;
+                }
+                byte[] raw = pending.toByteArray();
+                pending.reset();
+                byte[] frame = unescape(raw);
+                if (frame != null && frame.length > 0) callback.onFrame(frame, frame.length);
+            }
+        }
+
+        private byte[] unescape(byte[] raw) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int i = 0; i < raw.length; i++) {
+                int v = raw[i] & 0xFF;
+                if (v == escape) {
+                    if (++i == raw.length) return null;
+                    v = raw[i] & 0xFF;
+                    if (xor) {
+                        v ^= 0x20;
+                    } else if (v == 0xDC) {
+                        v = 0xC0;
+                    } else if (v == 0xDD) {
+                        v = 0xDB;
+                    } else {
+                        return null;
+                    }
+                }
+                out.write(v);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public void reset() {
+            pending.reset();
+        }
+    }
+
+    /**
+     * Buffers until a zero byte, then decodes the buffered frame block by block.
+     */
+    private static final class NaiveCobsDecoder implements FrameDecoder {
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        @Override
+        public void feed(byte[] data, int offset, int length, FrameCallback callback) {
+            for (int i = offset; i < offset + length; i++) {
+                if (data[i] != 0) {
+                    pending.write(data[i]);
+                    continue;
+                }
+                byte[] raw = pending.toByteArray();
+                pending.reset();
+                byte[] frame = decode(raw);
+                if (frame != null && frame.length > 0) callback.onFrame(frame, frame.length);
+            }
+        }
+
+        private static byte[] decode(byte[] raw) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int i = 0;
+            while (i < raw.length) {
+                int code = raw[i++] & 0xFF;
+                if (i + code - 1 > raw.length) return null;
+                out.write(raw, i, code - 1);
+                i += code - 1;
+                if (code != 0xFF && i < raw.length) out.write(0);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public void reset() {
+            pending.reset();
+        }
+    }
+}
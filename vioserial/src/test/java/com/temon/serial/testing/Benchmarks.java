@@ -0,0 +1,53 @@
+package com.temon.serial.testing;
+
+import java.util.Locale;
+
+/**
+ * Minimal JVM micro-benchmark helpers for throughput checks in unit tests.
+ *
+ * <p>Results are printed, not asserted against absolute numbers: they depend on the machine. Run
+ * them on a desktop JVM or device to compare implementations relative to each other.</p>
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    /**
+     * Run {@code task} {@code warmups} times untimed, then {@code runs} times, and return the
+     * best run in nanoseconds.
+     */
+    public static long bestOf(int warmups, int runs, Runnable task) {
+        for (int i = 0; i < warmups; i++) task.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    public static double megabytesPerSecond(long bytes, long nanos) {
+        return bytes / (nanos / 1e9) / (1024.0 * 1024.0);
+    }
+
+    public static void report(String name, String result) {
+        System.out.println(String.format(Locale.US, "[bench] %-56s %s", name, result));
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, or -1 if the JVM cannot tell (needs
+     * {@code com.sun.management.ThreadMXBean}, absent on Android).
+     */
+    public static long allocatedBytes() {
+        try {
+            java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        } catch (Throwable ignored) {
+            // Not available
+        }
+        return -1L;
+    }
+}
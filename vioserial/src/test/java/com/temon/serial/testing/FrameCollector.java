@@ -0,0 +1,62 @@
+package com.temon.serial.testing;
+
+import com.temon.serial.core.ChecksumFailureCallback;
+import com.temon.serial.core.FrameDecoder;
+import com.temon.serial.core.TypedFrameCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frame callback recording every frame (copied), its type and reported checksum failures.
+ */
+public final class FrameCollector implements TypedFrameCallback, ChecksumFailureCallback {
+    public final List<byte[]> frames = new ArrayList<>();
+    public final List<Integer> types = new ArrayList<>();
+    public int checksumFailures;
+
+    @Override
+    public void onFrame(byte[] frameBytes, int length) {
+        onFrame(UNTYPED, frameBytes, length);
+    }
+
+    @Override
+    public void onFrame(int type, byte[] frameBytes, int length) {
+        frames.add(Arrays.copyOf(frameBytes, length));
+        types.add(type);
+    }
+
+    @Override
+    public void onChecksumFailure(byte[] buf, int offset, int length) {
+        checksumFailures++;
+    }
+
+    /**
+     * Frames as strings, for readable assertion failures.
+     */
+    public List<String> asStrings() {
+        List<String> out = new ArrayList<>(frames.size());
+        for (byte[] f : frames) out.add(Arrays.toString(f));
+        return out;
+    }
+
+    /**
+     * Feed {@code stream} in chunks of {@code chunk} bytes ({@code <= 0}: all at once).
+     */
+    public static FrameCollector feed(FrameDecoder decoder, byte[] stream, int chunk) {
+        FrameCollector c = new FrameCollector();
+        feed(decoder, stream, chunk, c);
+        return c;
+    }
+
+    public static void feed(FrameDecoder decoder, byte[] stream, int chunk, FrameDecoder.FrameCallback callback) {
+        int step = chunk <= 0 ? Math.max(1, stream.length) : chunk;
+        for (int off = 0; off < stream.length; off += step) {
+            int n = Math.min(step, stream.length - off);
+            // A fresh array per chunk, as the read loop hands the decoder
+            byte[] part = Arrays.copyOfRange(stream, off, off + n);
+            decoder.feed(part, 0, n, callback);
+        }
+    }
+}